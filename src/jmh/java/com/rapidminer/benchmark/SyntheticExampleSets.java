@@ -0,0 +1,140 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.RapidMiner.ExecutionMode;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Creates reproducible synthetic data for the benchmarks. The shape of the data is controlled by
+ * the number of rows and attributes, the sparsity and the cardinality of the nominal attributes.
+ *
+ * @since 7.6.1
+ */
+public final class SyntheticExampleSets {
+
+	/** Prefix of the names of the numerical attributes, followed by the index starting at 1. */
+	public static final String NUMERICAL_PREFIX = "num";
+
+	/** Prefix of the names of the nominal attributes, followed by the index starting at 1. */
+	public static final String NOMINAL_PREFIX = "nom";
+
+	/** Prefix of the nominal values, followed by the index of the value. */
+	public static final String VALUE_PREFIX = "value";
+
+	private static boolean initialized = false;
+
+	private SyntheticExampleSets() {}
+
+	/**
+	 * Initializes RapidMiner in command line mode once per JVM. Required by benchmarks which
+	 * create operators.
+	 */
+	public static synchronized void initRapidMiner() {
+		if (!initialized) {
+			RapidMiner.setExecutionMode(ExecutionMode.COMMAND_LINE);
+			RapidMiner.init();
+			initialized = true;
+		}
+	}
+
+	/**
+	 * Creates the values of a numerical column. A fraction of {@code sparsity} of the values is
+	 * {@code 0}, the others are drawn from a standard normal distribution.
+	 */
+	public static double[] numericalValues(int rows, double sparsity, Random random) {
+		double[] values = new double[rows];
+		for (int i = 0; i < rows; i++) {
+			values[i] = random.nextDouble() < sparsity ? 0 : random.nextGaussian();
+		}
+		return values;
+	}
+
+	/**
+	 * Creates the indices of a nominal column. A fraction of {@code sparsity} of the values is
+	 * {@code 0}, the others are drawn uniformly from the {@code cardinality} values.
+	 */
+	public static double[] nominalValues(int rows, double sparsity, int cardinality, Random random) {
+		double[] values = new double[rows];
+		for (int i = 0; i < rows; i++) {
+			values[i] = random.nextDouble() < sparsity ? 0 : random.nextInt(cardinality);
+		}
+		return values;
+	}
+
+	/**
+	 * Creates an example set with the given shape. The numerical attributes are named
+	 * {@value #NUMERICAL_PREFIX}1, {@value #NUMERICAL_PREFIX}2, ..., the nominal ones
+	 * {@value #NOMINAL_PREFIX}1, {@value #NOMINAL_PREFIX}2, ... . All nominal attributes share the
+	 * values {@value #VALUE_PREFIX}0 to {@value #VALUE_PREFIX}{@code cardinality - 1}.
+	 *
+	 * @param rows
+	 *            the number of examples
+	 * @param numericalAttributes
+	 *            the number of real attributes
+	 * @param nominalAttributes
+	 *            the number of polynominal attributes
+	 * @param sparsity
+	 *            the fraction of values equal to the default value of a column
+	 * @param cardinality
+	 *            the number of different values of the nominal attributes
+	 * @param seed
+	 *            the seed of the values
+	 * @param management
+	 *            the data management of the table
+	 * @return the example set
+	 */
+	public static ExampleSet create(int rows, int numericalAttributes, int nominalAttributes, double sparsity,
+			int cardinality, long seed, ExampleSetBuilder.DataManagement management) {
+		Random random = new Random(seed);
+		List<Attribute> attributes = new ArrayList<>(numericalAttributes + nominalAttributes);
+		List<double[]> columns = new ArrayList<>(numericalAttributes + nominalAttributes);
+		for (int i = 1; i <= numericalAttributes; i++) {
+			attributes.add(AttributeFactory.createAttribute(NUMERICAL_PREFIX + i, Ontology.REAL));
+			columns.add(numericalValues(rows, sparsity, random));
+		}
+		for (int i = 1; i <= nominalAttributes; i++) {
+			Attribute attribute = AttributeFactory.createAttribute(NOMINAL_PREFIX + i, Ontology.POLYNOMINAL);
+			for (int value = 0; value < cardinality; value++) {
+				attribute.getMapping().mapString(VALUE_PREFIX + value);
+			}
+			attributes.add(attribute);
+			columns.add(nominalValues(rows, sparsity, cardinality, random));
+		}
+
+		ExampleSetBuilder builder = ExampleSets.from(attributes).withBlankSize(rows).withOptimizationHint(management);
+		for (int i = 0; i < attributes.size(); i++) {
+			double[] column = columns.get(i);
+			builder.withColumnFiller(attributes.get(i), row -> column[row]);
+		}
+		return builder.build();
+	}
+
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.rapidminer.benchmark.SyntheticExampleSets;
+import com.rapidminer.example.set.SortedExampleSet;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+
+
+/**
+ * Benchmarks reading all values of an example set by {@link Example#getValue(Attribute)}, both
+ * directly and through a {@link SortedExampleSet} view which maps every row access.
+ *
+ * @since 7.6.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExampleGetValueBenchmark {
+
+	@Param({ "100000", "1000000" })
+	private int rows;
+
+	@Param({ "0.0", "0.9" })
+	private double sparsity;
+
+	@Param({ "AUTO", "MEMORY_OPTIMIZED" })
+	private DataManagement management;
+
+	private ExampleSet exampleSet;
+	private ExampleSet sortedSet;
+	private Attribute[] attributes;
+
+	@Setup
+	public void setup() {
+		exampleSet = SyntheticExampleSets.create(rows, 8, 2, sparsity, 10, 1992, management);
+		attributes = exampleSet.getAttributes().createRegularAttributeArray();
+		sortedSet = new SortedExampleSet(exampleSet, attributes[0], SortedExampleSet.INCREASING);
+	}
+
+	@Benchmark
+	public double iterate() {
+		return sum(exampleSet);
+	}
+
+	@Benchmark
+	public double iterateSorted() {
+		return sum(sortedSet);
+	}
+
+	private double sum(ExampleSet set) {
+		double sum = 0;
+		for (Example example : set) {
+			for (Attribute attribute : attributes) {
+				sum += example.getValue(attribute);
+			}
+		}
+		return sum;
+	}
+
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example.table.internal;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.rapidminer.benchmark.SyntheticExampleSets;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+
+
+/**
+ * Benchmarks filling and reading the chunked {@link DoubleAutoColumn} and
+ * {@link IntegerAutoColumn}. The sparsity decides whether the chunks become sparse or dense.
+ *
+ * @since 7.6.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AutoColumnBenchmark {
+
+	@Param({ "100000", "1000000" })
+	private int rows;
+
+	@Param({ "0.0", "0.5", "0.99" })
+	private double sparsity;
+
+	@Param({ "AUTO", "MEMORY_OPTIMIZED", "SPEED_OPTIMIZED" })
+	private DataManagement management;
+
+	private double[] doubleValues;
+	private double[] integerValues;
+
+	private DoubleAutoColumn doubleColumn;
+	private IntegerAutoColumn integerColumn;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(1992);
+		doubleValues = SyntheticExampleSets.numericalValues(rows, sparsity, random);
+		integerValues = SyntheticExampleSets.nominalValues(rows, sparsity, 1000, random);
+		doubleColumn = fillDoubleColumn();
+		integerColumn = fillIntegerColumn();
+	}
+
+	@Benchmark
+	public DoubleAutoColumn fillDoubleColumn() {
+		DoubleAutoColumn column = new DoubleAutoColumn(rows, management);
+		for (int i = 0; i < rows; i++) {
+			column.setLast(i, doubleValues[i]);
+		}
+		column.complete();
+		return column;
+	}
+
+	@Benchmark
+	public IntegerAutoColumn fillIntegerColumn() {
+		IntegerAutoColumn column = new IntegerAutoColumn(rows, management);
+		for (int i = 0; i < rows; i++) {
+			column.setLast(i, integerValues[i]);
+		}
+		column.complete();
+		return column;
+	}
+
+	@Benchmark
+	public double readDoubleColumn() {
+		double sum = 0;
+		for (int i = 0; i < rows; i++) {
+			sum += doubleColumn.get(i);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public double readIntegerColumn() {
+		double sum = 0;
+		for (int i = 0; i < rows; i++) {
+			sum += integerColumn.get(i);
+		}
+		return sum;
+	}
+
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example.table.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToDoubleFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.rapidminer.benchmark.SyntheticExampleSets;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Benchmarks filling a {@link ColumnarExampleTable} column by column and row by row, and reading
+ * it through column readers and data rows.
+ *
+ * @since 7.6.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ColumnarExampleTableBenchmark {
+
+	@Param({ "100000", "1000000" })
+	private int rows;
+
+	@Param({ "10" })
+	private int attributeCount;
+
+	@Param({ "0.0", "0.9" })
+	private double sparsity;
+
+	@Param({ "AUTO", "MEMORY_OPTIMIZED" })
+	private DataManagement management;
+
+	private List<Attribute> attributes;
+	private double[][] columns;
+
+	private ColumnarExampleTable table;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(1992);
+		attributes = new ArrayList<>(attributeCount);
+		columns = new double[attributeCount][];
+		for (int i = 0; i < attributeCount; i++) {
+			attributes.add(AttributeFactory.createAttribute(SyntheticExampleSets.NUMERICAL_PREFIX + (i + 1), Ontology.REAL));
+			columns[i] = SyntheticExampleSets.numericalValues(rows, sparsity, random);
+		}
+		table = fillByColumn();
+	}
+
+	@Benchmark
+	public ColumnarExampleTable fillByColumn() {
+		ColumnarExampleTable result = new ColumnarExampleTable(attributes, management, true);
+		result.addBlankRows(rows);
+		for (int i = 0; i < attributeCount; i++) {
+			double[] column = columns[i];
+			result.fillColumn(attributes.get(i), row -> column[row]);
+		}
+		result.complete();
+		return result;
+	}
+
+	@Benchmark
+	public ColumnarExampleTable fillByRow() {
+		ColumnarExampleTable result = new ColumnarExampleTable(attributes, management, true);
+		result.setExpectedSize(rows);
+		double[] row = new double[attributeCount];
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < attributeCount; j++) {
+				row[j] = columns[j][i];
+			}
+			result.addRow(row);
+		}
+		result.complete();
+		return result;
+	}
+
+	@Benchmark
+	public double readByColumnReader() {
+		double sum = 0;
+		for (Attribute attribute : attributes) {
+			IntToDoubleFunction reader = table.getColumnReader(attribute, null);
+			for (int i = 0; i < rows; i++) {
+				sum += reader.applyAsDouble(i);
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public double readByDataRow() {
+		double sum = 0;
+		for (int i = 0; i < rows; i++) {
+			for (Attribute attribute : attributes) {
+				sum += table.getDataRow(i).get(attribute);
+			}
+		}
+		return sum;
+	}
+
+}
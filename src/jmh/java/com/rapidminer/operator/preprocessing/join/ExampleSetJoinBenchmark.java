@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.join;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.rapidminer.benchmark.SyntheticExampleSets;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.parameter.ParameterTypeList;
+import com.rapidminer.tools.OperatorService;
+
+
+/**
+ * Benchmarks the {@link ExampleSetJoin} joining two example sets on a nominal key attribute. The
+ * cardinality of the key determines how many right examples match every left example. The keys
+ * are not sparse, since a dominant key value would make the size of the result quadratic.
+ *
+ * @since 7.6.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExampleSetJoinBenchmark {
+
+	@Param({ "10000", "100000" })
+	private int rows;
+
+	@Param({ "10000", "100000" })
+	private int cardinality;
+
+	@Param({ "inner", "left", "outer" })
+	private String joinType;
+
+	private ExampleSet left;
+	private ExampleSet right;
+	private ExampleSetJoin join;
+
+	@Setup
+	public void setup() throws OperatorCreationException {
+		SyntheticExampleSets.initRapidMiner();
+		left = SyntheticExampleSets.create(rows, 4, 1, 0, cardinality, 1992, DataManagement.AUTO);
+		right = SyntheticExampleSets.create(rows, 4, 1, 0, cardinality, 2017, DataManagement.AUTO);
+
+		join = OperatorService.createOperator(ExampleSetJoin.class);
+		join.setParameter(ExampleSetJoin.PARAMETER_JOIN_TYPE, joinType);
+		join.setParameter(ExampleSetJoin.PARAMETER_USE_ID, "false");
+		String key = SyntheticExampleSets.NOMINAL_PREFIX + 1;
+		join.setParameter(ExampleSetJoin.PARAMETER_JOIN_ATTRIBUTES,
+				ParameterTypeList.transformList2String(Collections.singletonList(new String[] { key, key })));
+	}
+
+	@Benchmark
+	public ExampleSet join() throws OperatorException {
+		join.getLeftInput().receive(left);
+		join.getRightInput().receive(right);
+		join.doWork();
+		return join.getJoinOutput().getData(ExampleSet.class);
+	}
+
+}
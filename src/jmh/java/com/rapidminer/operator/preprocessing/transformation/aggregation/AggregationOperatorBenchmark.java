@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.transformation.aggregation;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.rapidminer.benchmark.SyntheticExampleSets;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.parameter.ParameterTypeAttributes;
+import com.rapidminer.parameter.ParameterTypeList;
+import com.rapidminer.tools.OperatorService;
+
+
+/**
+ * Benchmarks the {@link AggregationOperator} grouping by one or two nominal attributes of
+ * configurable cardinality.
+ *
+ * @since 7.6.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AggregationOperatorBenchmark {
+
+	@Param({ "100000", "1000000" })
+	private int rows;
+
+	@Param({ "0.0", "0.9" })
+	private double sparsity;
+
+	@Param({ "10", "10000" })
+	private int cardinality;
+
+	@Param({ "1", "2" })
+	private int groupByAttributes;
+
+	private ExampleSet exampleSet;
+	private AggregationOperator aggregation;
+
+	@Setup
+	public void setup() throws OperatorCreationException {
+		SyntheticExampleSets.initRapidMiner();
+		exampleSet = SyntheticExampleSets.create(rows, 4, 2, sparsity, cardinality, 1992, DataManagement.AUTO);
+
+		aggregation = OperatorService.createOperator(AggregationOperator.class);
+		String groupBy = SyntheticExampleSets.NOMINAL_PREFIX + 1;
+		if (groupByAttributes > 1) {
+			groupBy += ParameterTypeAttributes.ATTRIBUTE_SEPARATOR_CHARACTER + SyntheticExampleSets.NOMINAL_PREFIX + 2;
+		}
+		aggregation.setParameter(AggregationOperator.PARAMETER_GROUP_BY_ATTRIBUTES, groupBy);
+		aggregation.setParameter(AggregationOperator.PARAMETER_AGGREGATION_ATTRIBUTES,
+				ParameterTypeList.transformList2String(Arrays.asList(
+						new String[] { SyntheticExampleSets.NUMERICAL_PREFIX + 1, AggregationFunction.FUNCTION_NAME_AVERAGE },
+						new String[] { SyntheticExampleSets.NUMERICAL_PREFIX + 2, AggregationFunction.FUNCTION_NAME_SUM },
+						new String[] { SyntheticExampleSets.NUMERICAL_PREFIX + 3, AggregationFunction.FUNCTION_NAME_COUNT })));
+	}
+
+	@Benchmark
+	public ExampleSet aggregate() throws OperatorException {
+		return aggregation.apply(exampleSet);
+	}
+
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.tools;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.rapidminer.benchmark.SyntheticExampleSets;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+
+
+/**
+ * Benchmarks writing and reading example sets in the streamed format of
+ * {@link ExampleSetToStream}.
+ *
+ * @since 7.6.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExampleSetToStreamBenchmark {
+
+	@Param({ "10000", "100000" })
+	private int rows;
+
+	@Param({ "0.0", "0.9" })
+	private double sparsity;
+
+	@Param({ "10", "1000" })
+	private int cardinality;
+
+	private ExampleSet exampleSet;
+	private byte[] bytes;
+
+	@Setup
+	public void setup() throws IOException {
+		exampleSet = SyntheticExampleSets.create(rows, 8, 2, sparsity, cardinality, 1992, DataManagement.AUTO);
+		bytes = write().toByteArray();
+	}
+
+	@Benchmark
+	public ByteArrayOutputStream write() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new ExampleSetToStream(ExampleSetToStream.CURRENT_VERSION).write(exampleSet, out);
+		return out;
+	}
+
+	@Benchmark
+	public ExampleSet read() throws IOException {
+		return new ExampleSetToStream(ExampleSetToStream.CURRENT_VERSION).read(new ByteArrayInputStream(bytes));
+	}
+
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.expression;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.rapidminer.benchmark.SyntheticExampleSets;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+
+
+/**
+ * Benchmarks parsing expressions and evaluating them for every example of an example set, as done
+ * by the Generate Attributes operator.
+ *
+ * @since 7.6.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExpressionParserBenchmark {
+
+	@Param({ "100000" })
+	private int rows;
+
+	@Param({ "0.0", "0.9" })
+	private double sparsity;
+
+	@Param({ "num1 * 2 + sqrt(abs(num2))", "if(nom1 == \"value1\", num3, round(num4))", "contains(nom1, \"1\")" })
+	private String expression;
+
+	private ExampleSet exampleSet;
+	private ExampleResolver resolver;
+	private ExpressionParser parser;
+	private Expression parsedExpression;
+
+	@Setup
+	public void setup() throws ExpressionException {
+		exampleSet = SyntheticExampleSets.create(rows, 4, 1, sparsity, 10, 1992, DataManagement.AUTO);
+		resolver = new ExampleResolver(exampleSet);
+		parser = new ExpressionParserBuilder().withDynamics(resolver).withModules(ExpressionRegistry.INSTANCE.getAll())
+				.build();
+		parsedExpression = parse();
+	}
+
+	@Benchmark
+	public Expression parse() throws ExpressionException {
+		return parser.parse(expression);
+	}
+
+	@Benchmark
+	public void evaluate(Blackhole blackhole) throws ExpressionException {
+		for (Example example : exampleSet) {
+			resolver.bind(example);
+			blackhole.consume(parsedExpression.evaluate());
+		}
+		resolver.unbind();
+	}
+
+}
@@ -28,6 +28,7 @@ import com.rapidminer.tools.Tools;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 
 /**
@@ -118,6 +119,12 @@ public class MacroHandler extends Observable {
 
 	private final Map<String, String> macroMap = new HashMap<>();
 
+	/**
+	 * the macros of the local scope of the current thread, see
+	 * {@link #callInLocalScope(Map, Callable)}; a <code>null</code> value hides a global macro
+	 */
+	private final ThreadLocal<Map<String, String>> localMacros = new ThreadLocal<>();
+
 	private final Object LOCK = new Object();
 
 	public MacroHandler(Process process) {
@@ -133,11 +140,21 @@ public class MacroHandler extends Observable {
 	}
 
 	public Iterator<String> getDefinedMacroNames() {
-		Iterator<String> iterator = null;
+		Map<String, String> macros;
 		synchronized (LOCK) {
-			iterator = new HashMap<>(macroMap).keySet().iterator();
+			macros = new HashMap<>(macroMap);
+		}
+		Map<String, String> local = localMacros.get();
+		if (local != null) {
+			for (Map.Entry<String, String> entry : local.entrySet()) {
+				if (entry.getValue() == null) {
+					macros.remove(entry.getKey());
+				} else {
+					macros.put(entry.getKey(), entry.getValue());
+				}
+			}
 		}
-		return iterator;
+		return macros.keySet().iterator();
 	}
 
 	/**
@@ -166,6 +183,11 @@ public class MacroHandler extends Observable {
 	 */
 	public void addMacro(String macro, String value) {
 		if (macro != null && !macro.isEmpty()) {
+			Map<String, String> local = localMacros.get();
+			if (local != null) {
+				local.put(macro, value);
+				return;
+			}
 			setChanged();
 			synchronized (LOCK) {
 				macroMap.put(macro, value);
@@ -175,6 +197,11 @@ public class MacroHandler extends Observable {
 	}
 
 	public void removeMacro(String macro) {
+		Map<String, String> local = localMacros.get();
+		if (local != null) {
+			local.put(macro, null);
+			return;
+		}
 		setChanged();
 		synchronized (LOCK) {
 			macroMap.remove(macro);
@@ -192,6 +219,13 @@ public class MacroHandler extends Observable {
 	 * @return <code>true</code> in case it was set, <code>false</code> otherwise
 	 */
 	public boolean isMacroSet(String macro, Operator operator) {
+		Map<String, String> local = localMacros.get();
+		if (local != null && local.containsKey(macro)) {
+			if (local.get(macro) != null || PREDEFINED_OPERATOR_INDEPENDENT_MACROS.contains(macro)) {
+				return true;
+			}
+			return operator != null && PREDEFINED_OPERATOR_DEPENDENT_MACROS.contains(macro);
+		}
 		synchronized (LOCK) {
 			if (macroMap.containsKey(macro) || PREDEFINED_OPERATOR_INDEPENDENT_MACROS.contains(macro)) {
 				return true;
@@ -230,9 +264,57 @@ public class MacroHandler extends Observable {
 					return null;
 			}
 		}
+		Map<String, String> local = localMacros.get();
+		if (local != null && local.containsKey(macro)) {
+			return local.get(macro);
+		}
 		return this.macroMap.get(macro);
 	}
 
+	/**
+	 * Calls the task in a local macro scope of the current thread. The scope starts with the given
+	 * macros on top of the global ones. Macros added or removed by the task, e.g. by operators of a
+	 * subprocess executed in parallel, only change its own scope and are discarded afterwards.
+	 * Scopes can be nested, an inner scope starts with the macros of the enclosing one.
+	 * <p>
+	 * Note that the scope is bound to the current thread, tasks submitted to other threads have to
+	 * open their own scope with the macros of {@link #getLocalMacros()}.
+	 *
+	 * @param macros
+	 *            the initial macros of the scope
+	 * @param task
+	 *            the task to call
+	 * @return the result of the task
+	 * @throws Exception
+	 *             if the task throws one
+	 * @since 7.6.1
+	 */
+	public <T> T callInLocalScope(Map<String, String> macros, Callable<T> task) throws Exception {
+		Map<String, String> enclosing = localMacros.get();
+		Map<String, String> scope = enclosing == null ? new HashMap<>() : new HashMap<>(enclosing);
+		scope.putAll(macros);
+		localMacros.set(scope);
+		try {
+			return task.call();
+		} finally {
+			if (enclosing == null) {
+				localMacros.remove();
+			} else {
+				localMacros.set(enclosing);
+			}
+		}
+	}
+
+	/**
+	 * @return a copy of the macros of the local scope of the current thread, empty outside of a
+	 *         scope
+	 * @since 7.6.1
+	 */
+	public Map<String, String> getLocalMacros() {
+		Map<String, String> local = localMacros.get();
+		return local == null ? new HashMap<>() : new HashMap<>(local);
+	}
+
 	/**
 	 * Resolves the macro.
 	 *
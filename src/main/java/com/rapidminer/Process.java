@@ -20,6 +20,7 @@ package com.rapidminer;
 
 import com.rapidminer.core.license.LicenseViolationException;
 import com.rapidminer.core.license.ProductConstraintManager;
+import com.rapidminer.datatable.ColumnarDataTable;
 import com.rapidminer.datatable.DataTable;
 import com.rapidminer.datatable.SimpleDataTable;
 import com.rapidminer.example.table.AttributeFactory;
@@ -151,9 +152,10 @@ public class Process extends AbstractObservable<Process> implements Cloneable {
 	private final Map<String, ReportStream> reportStreamMap = new HashMap<>();
 
 	/**
-	 * Stores IOObjects according to a specified name for the runtime of the process.
+	 * Stores IOObjects according to a specified name for the runtime of the process. Objects might
+	 * be spilled to disk if the configured memory budget is exceeded.
 	 */
-	private final Map<String, IOObject> storageMap = new HashMap<>();
+	private final SpillingIOObjectStorage storageMap = new SpillingIOObjectStorage();
 
 	/**
 	 * Stores IOObjects according to a specified name for a long-term scope like the session of
@@ -413,11 +415,21 @@ public class Process extends AbstractObservable<Process> implements Cloneable {
 		}
 	}
 
-	/** Clears all macros. */
+	/** Clears all stored objects. */
 	public void clearStorage() {
 		this.storageMap.clear();
 	}
 
+	/**
+	 * Returns the storage of the objects stored by {@link #store(String, IOObject)}, e.g. to query
+	 * its hit and spill statistics.
+	 *
+	 * @since 7.6.1
+	 */
+	public SpillingIOObjectStorage getStorage() {
+		return storageMap;
+	}
+
 	// -------------------------
 	// State storage
 	// -------------------------
@@ -481,6 +493,8 @@ public class Process extends AbstractObservable<Process> implements Cloneable {
 		if (table != null) {
 			if (table instanceof SimpleDataTable) {
 				((SimpleDataTable) table).clear();
+			} else if (table instanceof ColumnarDataTable) {
+				((ColumnarDataTable) table).clear();
 			}
 		}
 	}
@@ -1335,6 +1349,9 @@ public class Process extends AbstractObservable<Process> implements Cloneable {
 		// clean up
 		// clearMacros();
 		clearReportStreams();
+		if (storageMap.getSpillCount() > 0) {
+			getLogger().fine("Process object storage: " + storageMap);
+		}
 		clearStorage();
 		clearUnknownParameters();
 		ResultService.close();
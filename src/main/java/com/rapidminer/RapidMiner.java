@@ -186,6 +186,14 @@ public class RapidMiner {
 	/** A file path to an operator description XML file. */
 	public static final String PROPERTY_RAPIDMINER_INIT_OPERATORS = "rapidminer.init.operators";
 
+	/**
+	 * Boolean parameter indicating if the operator registration results should be restored from a
+	 * snapshot in the user directory.
+	 *
+	 * @since 7.6.1
+	 */
+	public static final String PROPERTY_RAPIDMINER_INIT_OPERATORS_SNAPSHOT = "rapidminer.init.operators.snapshot";
+
 	public static final String PROPERTY_RAPIDMINER_GENERAL_LOCALE_LANGUAGE = "rapidminer.general.locale.language";
 	public static final String PROPERTY_RAPIDMINER_GENERAL_LOCALE_COUNTRY = "rapidminer.general.locale.country";
 	public static final String PROPERTY_RAPIDMINER_GENERAL_LOCALE_VARIANT = "rapidminer.general.locale.variant";
@@ -386,6 +394,22 @@ public class RapidMiner {
 	 */
 	public static final String PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT = "rapidminer.system.legacy_data_mgmt";
 
+	/**
+	 * The name of the property defining the memory budget (in MB) for remembered objects. If the
+	 * budget is exceeded, the least recently used objects are written to temporary files.
+	 *
+	 * @since 7.6.1
+	 */
+	public static final String PROPERTY_RAPIDMINER_SYSTEM_IOOBJECT_STORAGE_BUDGET = "rapidminer.system.ioobject_storage.memory_budget";
+
+	/**
+	 * The name of the property defining the memory (in MB) that all kernel caches of concurrently
+	 * trained support vector machines may occupy together.
+	 *
+	 * @since 7.6.1
+	 */
+	public static final String PROPERTY_RAPIDMINER_SYSTEM_KERNEL_CACHE_BUDGET = "rapidminer.system.kernel_cache.memory_budget";
+
 	public static final String PROPERTY_RAPIDMINER_PROXY_MODE = "rapidminer.proxy.mode";
 	public static final String PROPERTY_RAPIDMINER_PROXY_EXCLUDE = "rapidminer.proxy.exclude";
 
@@ -517,11 +541,17 @@ public class RapidMiner {
 
 		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_INIT_PLUGINS, "", true));
 		registerParameter(new ParameterTypeDirectory(PROPERTY_RAPIDMINER_INIT_PLUGINS_LOCATION, "", true));
+		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_INIT_OPERATORS_SNAPSHOT, "", true));
 
 		// System parameter types
 		registerParameter(new ParameterTypeInt(PROPERTY_RAPIDMINER_MAX_MEMORY, "", 384, Integer.MAX_VALUE, true), "system");
 		
 		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT, "", false), "system");
+		registerParameter(
+				new ParameterTypeInt(PROPERTY_RAPIDMINER_SYSTEM_IOOBJECT_STORAGE_BUDGET, "", 0, Integer.MAX_VALUE, 0),
+				"system");
+		registerParameter(new ParameterTypeInt(PROPERTY_RAPIDMINER_SYSTEM_KERNEL_CACHE_BUDGET, "", 0, Integer.MAX_VALUE, 0),
+				"system");
 
 		registerParameter(new ParameterTypeInt(WebServiceTools.WEB_SERVICE_TIMEOUT, "", 1, Integer.MAX_VALUE, 20000),
 				"system");
@@ -0,0 +1,437 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.datatable;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+
+
+/**
+ * A data table which stores its values column-wise in primitive arrays instead of one
+ * {@link DataTableRow} object per row. Rows returned by {@link #getRow(int)} and the iterator are
+ * copies of the stored values.
+ * <p>
+ * Optionally, the number of rows can be bounded. If the limit is reached, each added row replaces
+ * the oldest row, i.e. the table keeps the most recent rows like a ring buffer.
+ *
+ * @since 7.6.1
+ */
+public class ColumnarDataTable extends AbstractDataTable implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final String[] columns;
+
+	private final boolean[] specialColumns;
+
+	/** the nominal mappings per column, {@code null} for numerical columns */
+	private final Map<Integer, String>[] index2String;
+	private final Map<String, Integer>[] string2Index;
+	private final int[] currentIndices;
+
+	/** the maximum number of rows or {@code 0} if unbounded */
+	private final int maximumNumberOfRows;
+
+	private double[][] data;
+
+	/** the physical position of the first row */
+	private int start;
+
+	private int size;
+
+	/**
+	 * Creates an unbounded table with the given column names.
+	 */
+	public ColumnarDataTable(String name, String[] columns) {
+		this(name, columns, 0);
+	}
+
+	/**
+	 * Creates a table with the given column names which keeps at most the given number of rows.
+	 *
+	 * @param maximumNumberOfRows
+	 *            the maximum number of rows, {@code 0} for an unbounded table
+	 */
+	@SuppressWarnings("unchecked")
+	public ColumnarDataTable(String name, String[] columns, int maximumNumberOfRows) {
+		super(name);
+		if (maximumNumberOfRows < 0) {
+			throw new IllegalArgumentException("maximumNumberOfRows must not be negative");
+		}
+		this.columns = columns;
+		this.maximumNumberOfRows = maximumNumberOfRows;
+		this.specialColumns = new boolean[columns.length];
+		this.index2String = new Map[columns.length];
+		this.string2Index = new Map[columns.length];
+		this.currentIndices = new int[columns.length];
+		int capacity = maximumNumberOfRows > 0 ? Math.min(INITIAL_CAPACITY, maximumNumberOfRows) : INITIAL_CAPACITY;
+		this.data = new double[columns.length][capacity];
+	}
+
+	/** Creates an empty table with the columns and nominal mappings of the given table. */
+	private ColumnarDataTable(ColumnarDataTable other, int capacity) {
+		this(other.getName(), other.columns.clone(), 0);
+		System.arraycopy(other.specialColumns, 0, specialColumns, 0, columns.length);
+		System.arraycopy(other.currentIndices, 0, currentIndices, 0, columns.length);
+		for (int column = 0; column < columns.length; column++) {
+			if (other.index2String[column] != null) {
+				index2String[column] = new HashMap<>(other.index2String[column]);
+				string2Index[column] = new HashMap<>(other.string2Index[column]);
+			}
+		}
+		data = new double[columns.length][Math.max(1, capacity)];
+	}
+
+	/** Returns the maximum number of rows or {@code 0} if the table is unbounded. */
+	public int getMaximumNumberOfRows() {
+		return maximumNumberOfRows;
+	}
+
+	@Override
+	public int getNumberOfSpecialColumns() {
+		int counter = 0;
+		for (boolean special : specialColumns) {
+			if (special) {
+				counter++;
+			}
+		}
+		return counter;
+	}
+
+	@Override
+	public boolean isSpecial(int index) {
+		return specialColumns[index];
+	}
+
+	public void setSpecial(int index, boolean special) {
+		this.specialColumns[index] = special;
+	}
+
+	@Override
+	public synchronized boolean isNominal(int column) {
+		return index2String[column] != null;
+	}
+
+	@Override
+	public boolean isDate(int index) {
+		return false;
+	}
+
+	@Override
+	public boolean isTime(int index) {
+		return false;
+	}
+
+	@Override
+	public boolean isDateTime(int index) {
+		return false;
+	}
+
+	@Override
+	public boolean isNumerical(int index) {
+		return !isNominal(index);
+	}
+
+	@Override
+	public synchronized String mapIndex(int column, int index) {
+		return index2String[column].get(index);
+	}
+
+	@Override
+	public synchronized int mapString(int column, String value) {
+		if (string2Index[column] == null) {
+			string2Index[column] = new HashMap<>();
+			index2String[column] = new HashMap<>();
+		}
+		Integer result = string2Index[column].get(value);
+		if (result != null) {
+			return result.intValue();
+		}
+		int newIndex = currentIndices[column]++;
+		string2Index[column].put(value, newIndex);
+		index2String[column].put(newIndex, value);
+		return newIndex;
+	}
+
+	@Override
+	public synchronized int getNumberOfValues(int column) {
+		return index2String[column].size();
+	}
+
+	/** Removes the nominal values which are not used by any row from the mappings. */
+	public synchronized void cleanMappingTables() {
+		for (int column = 0; column < columns.length; column++) {
+			if (index2String[column] == null) {
+				continue;
+			}
+			Set<Integer> used = new HashSet<>();
+			for (int row = 0; row < size; row++) {
+				double value = data[column][physicalIndex(row)];
+				if (!Double.isNaN(value)) {
+					used.add((int) value);
+				}
+			}
+			Iterator<Map.Entry<Integer, String>> i = index2String[column].entrySet().iterator();
+			while (i.hasNext()) {
+				Map.Entry<Integer, String> entry = i.next();
+				if (!used.contains(entry.getKey())) {
+					string2Index[column].remove(entry.getValue());
+					i.remove();
+				}
+			}
+		}
+	}
+
+	@Override
+	public boolean isSupportingColumnWeights() {
+		return false;
+	}
+
+	@Override
+	public double getColumnWeight(int column) {
+		return Double.NaN;
+	}
+
+	@Override
+	public String getColumnName(int i) {
+		return columns[i];
+	}
+
+	@Override
+	public int getColumnIndex(String name) {
+		for (int i = 0; i < columns.length; i++) {
+			if (columns[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int getNumberOfColumns() {
+		return columns.length;
+	}
+
+	@Override
+	public String[] getColumnNames() {
+		return columns;
+	}
+
+	@Override
+	public void add(DataTableRow row) {
+		double[] values = new double[columns.length];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = row.getValue(i);
+		}
+		add(values);
+	}
+
+	/**
+	 * Adds a row with the given values. If the table is bounded and full, the oldest row is
+	 * replaced.
+	 */
+	public synchronized void add(double[] values) {
+		if (values.length != columns.length) {
+			throw new IllegalArgumentException("Expected " + columns.length + " values but got " + values.length);
+		}
+		int position;
+		if (maximumNumberOfRows > 0 && size == maximumNumberOfRows) {
+			position = start;
+			start = (start + 1) % size;
+		} else {
+			ensureCapacity(size + 1);
+			position = physicalIndex(size);
+			size++;
+		}
+		for (int column = 0; column < columns.length; column++) {
+			data[column][position] = values[column];
+		}
+		fireEvent();
+	}
+
+	/** Removes the row with the given index. */
+	public synchronized void remove(int index) {
+		checkIndex(index);
+		// move the rows into a contiguous order first to shift the later rows
+		compact();
+		for (double[] column : data) {
+			System.arraycopy(column, index + 1, column, index, size - index - 1);
+		}
+		size--;
+		fireEvent();
+	}
+
+	/** Returns the value of the given row and column. */
+	public synchronized double getValue(int row, int column) {
+		checkIndex(row);
+		return data[column][physicalIndex(row)];
+	}
+
+	/** Returns a copy of the values of the given column in row order. */
+	public synchronized double[] getColumn(int column) {
+		double[] values = new double[size];
+		double[] columnData = data[column];
+		int firstPart = Math.min(size, columnData.length - start);
+		System.arraycopy(columnData, start, values, 0, firstPart);
+		System.arraycopy(columnData, 0, values, firstPart, size - firstPart);
+		return values;
+	}
+
+	/** Returns a copy of the values of the given row. */
+	@Override
+	public synchronized DataTableRow getRow(int index) {
+		checkIndex(index);
+		int position = physicalIndex(index);
+		double[] values = new double[columns.length];
+		for (int column = 0; column < columns.length; column++) {
+			values[column] = data[column][position];
+		}
+		return new SimpleDataTableRow(values, null);
+	}
+
+	/**
+	 * Returns an iterator over copies of the rows. Rows added after the creation of the iterator
+	 * are not returned.
+	 */
+	@Override
+	public synchronized Iterator<DataTableRow> iterator() {
+		final int numberOfRows = size;
+		return new Iterator<DataTableRow>() {
+
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return next < Math.min(numberOfRows, getNumberOfRows());
+			}
+
+			@Override
+			public DataTableRow next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return getRow(next++);
+			}
+		};
+	}
+
+	@Override
+	public synchronized int getNumberOfRows() {
+		return size;
+	}
+
+	/** Removes all rows. */
+	public synchronized void clear() {
+		start = 0;
+		size = 0;
+		fireEvent();
+	}
+
+	@Override
+	public synchronized DataTable sample(int newSize) {
+		if (size <= newSize) {
+			return this;
+		}
+		// must be a usual random since otherwise plotting would change the rest of
+		// the process during a breakpoint result viewing
+		Random random = new Random();
+		List<Integer> indices = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			indices.add(i);
+		}
+		ColumnarDataTable result = new ColumnarDataTable(this, newSize);
+		double[] values = new double[columns.length];
+		while (result.size < newSize) {
+			int position = physicalIndex(indices.remove(random.nextInt(indices.size())));
+			for (int column = 0; column < columns.length; column++) {
+				values[column] = data[column][position];
+			}
+			result.add(values);
+		}
+		return result;
+	}
+
+	/** Dumps the complete table into a string (complete data!). */
+	@Override
+	public synchronized String toString() {
+		StringBuilder result = new StringBuilder();
+		for (int row = 0; row < size; row++) {
+			int position = physicalIndex(row);
+			for (int column = 0; column < columns.length; column++) {
+				if (column != 0) {
+					result.append(", ");
+				}
+				result.append(data[column][position]);
+			}
+			result.append(System.lineSeparator());
+		}
+		return result.toString();
+	}
+
+	private int physicalIndex(int row) {
+		int position = start + row;
+		int capacity = data.length > 0 ? data[0].length : 0;
+		return position < capacity ? position : position - capacity;
+	}
+
+	private void checkIndex(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("Index: " + row + ", Size: " + size);
+		}
+	}
+
+	/** Grows the arrays so that the given number of rows fits, the rows are moved to start at 0. */
+	private void ensureCapacity(int minimumCapacity) {
+		int capacity = data.length > 0 ? data[0].length : Integer.MAX_VALUE;
+		if (minimumCapacity <= capacity) {
+			return;
+		}
+		compact();
+		int newCapacity = Math.max(minimumCapacity, capacity + (capacity >> 1));
+		if (maximumNumberOfRows > 0) {
+			newCapacity = Math.min(newCapacity, maximumNumberOfRows);
+		}
+		for (int column = 0; column < data.length; column++) {
+			data[column] = Arrays.copyOf(data[column], newCapacity);
+		}
+	}
+
+	/** Moves the rows so that the first row is stored at position 0. */
+	private void compact() {
+		if (start == 0) {
+			return;
+		}
+		for (int column = 0; column < data.length; column++) {
+			double[] values = getColumn(column);
+			System.arraycopy(values, 0, data[column], 0, size);
+		}
+		start = 0;
+	}
+}
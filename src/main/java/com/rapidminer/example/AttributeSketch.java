@@ -0,0 +1,172 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example;
+
+import com.rapidminer.tools.math.sketch.HeavyHitters;
+import com.rapidminer.tools.math.sketch.HyperLogLog;
+import com.rapidminer.tools.math.sketch.QuantileSketch;
+
+
+/**
+ * Approximate statistics of one attribute in constant memory. Counts the missing values, the
+ * range, the average and variance exactly and estimates the number of distinct values, the most
+ * frequent values of nominal attributes and the quantiles of numerical and date attributes with
+ * sketches. All results refer to the values counted so far, see {@link ProgressiveStatistics} for
+ * the extrapolation to a whole {@link ExampleSet}.
+ *
+ * @since 7.6.1
+ */
+public class AttributeSketch {
+
+	/** the number of most frequent values tracked for nominal attributes */
+	public static final int FREQUENT_VALUES = 64;
+
+	private final Attribute attribute;
+
+	private final HyperLogLog distinctValues = new HyperLogLog();
+
+	private final HeavyHitters frequentValues;
+
+	private final QuantileSketch quantiles;
+
+	private double weight;
+
+	private double missingWeight;
+
+	private double sum;
+
+	private double squaredSum;
+
+	private double minimum = Double.POSITIVE_INFINITY;
+
+	private double maximum = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * Creates a sketch for the given attribute. The seed fixes the sampling of the quantiles.
+	 */
+	public AttributeSketch(Attribute attribute, long seed) {
+		this.attribute = attribute;
+		if (attribute.isNominal()) {
+			frequentValues = new HeavyHitters(FREQUENT_VALUES);
+			quantiles = null;
+		} else {
+			frequentValues = null;
+			quantiles = new QuantileSketch(QuantileSketch.DEFAULT_CAPACITY, seed);
+		}
+	}
+
+	/**
+	 * Counts the value with the given weight.
+	 */
+	public void count(double value, double weight) {
+		this.weight += weight;
+		if (Double.isNaN(value)) {
+			missingWeight += weight;
+			return;
+		}
+		distinctValues.offer(value);
+		if (frequentValues != null) {
+			frequentValues.offer(value, weight);
+		} else {
+			quantiles.offer(value, weight);
+			sum += weight * value;
+			squaredSum += weight * value * value;
+			minimum = Math.min(minimum, value);
+			maximum = Math.max(maximum, value);
+		}
+	}
+
+	public Attribute getAttribute() {
+		return attribute;
+	}
+
+	/**
+	 * @return the total weight of the counted values, including missing ones
+	 */
+	public double getWeight() {
+		return weight;
+	}
+
+	/**
+	 * @return the weight of the counted missing values
+	 */
+	public double getMissingWeight() {
+		return missingWeight;
+	}
+
+	/**
+	 * @return the estimated number of distinct non-missing values
+	 */
+	public long getDistinctValues() {
+		return distinctValues.estimate();
+	}
+
+	/**
+	 * @return the relative standard error of {@link #getDistinctValues()}
+	 */
+	public double getDistinctValuesError() {
+		return distinctValues.getRelativeError();
+	}
+
+	/**
+	 * @return the sketch of the most frequent values, <code>null</code> for non-nominal attributes
+	 */
+	public HeavyHitters getFrequentValues() {
+		return frequentValues;
+	}
+
+	/**
+	 * @return the sketch of the quantiles, <code>null</code> for nominal attributes
+	 */
+	public QuantileSketch getQuantiles() {
+		return quantiles;
+	}
+
+	/**
+	 * @return the weighted average of the non-missing values, NaN for nominal attributes or if
+	 *         all values are missing
+	 */
+	public double getAverage() {
+		double valueWeight = weight - missingWeight;
+		return quantiles == null || valueWeight <= 0 ? Double.NaN : sum / valueWeight;
+	}
+
+	/**
+	 * @return the weighted variance of the non-missing values, computed as by
+	 *         {@link NumericalStatistics}
+	 */
+	public double getVariance() {
+		double valueWeight = weight - missingWeight;
+		if (quantiles == null) {
+			return Double.NaN;
+		}
+		if (valueWeight <= 1) {
+			return 0;
+		}
+		return Math.max(0, (squaredSum - sum * sum / valueWeight) / (valueWeight - 1));
+	}
+
+	public double getMinimum() {
+		return quantiles == null || minimum > maximum ? Double.NaN : minimum;
+	}
+
+	public double getMaximum() {
+		return quantiles == null || minimum > maximum ? Double.NaN : maximum;
+	}
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example;
+
+import java.util.Collection;
+import java.util.Random;
+
+
+/**
+ * Computes {@link AttributeSketch}es of an {@link ExampleSet} block by block, so that approximate
+ * statistics can be shown long before a full data scan is complete. The blocks are scanned in a
+ * random order, hence the values counted after each block form a sample of the whole data even if
+ * it is sorted. Counts are extrapolated to the whole example set by {@link #getScaleFactor()}.
+ * <p>
+ * The caller drives the scan by invoking {@link #scanNextBlock()}, publishes the intermediate
+ * results in between and stops whenever the estimates are good enough, e.g. before computing the
+ * exact statistics via {@link ExampleSet#recalculateAllAttributeStatistics()}.
+ *
+ * @since 7.6.1
+ */
+public class ProgressiveStatistics {
+
+	/** the default number of examples per block */
+	public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+	private final ExampleSet exampleSet;
+
+	private final Attribute weightAttribute;
+
+	private final Attribute[] attributes;
+
+	private final AttributeSketch[] sketches;
+
+	private final int blockSize;
+
+	private final int[] blockOrder;
+
+	private int nextBlock;
+
+	private int scannedExamples;
+
+	/**
+	 * Creates the statistics for the given attributes of the example set. Nothing is scanned
+	 * before the first invocation of {@link #scanNextBlock()}.
+	 *
+	 * @param exampleSet
+	 *            the example set to scan
+	 * @param attributes
+	 *            the attributes to compute sketches for
+	 * @param blockSize
+	 *            the number of consecutive examples scanned per block
+	 * @param seed
+	 *            the seed for the block order and the sampling of quantiles
+	 */
+	public ProgressiveStatistics(ExampleSet exampleSet, Collection<Attribute> attributes, int blockSize, long seed) {
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("block size must be positive, but was " + blockSize);
+		}
+		this.exampleSet = exampleSet;
+		Attribute weight = exampleSet.getAttributes().getWeight();
+		this.weightAttribute = weight != null && weight.isNumerical() ? weight : null;
+		this.attributes = attributes.toArray(new Attribute[attributes.size()]);
+		this.sketches = new AttributeSketch[this.attributes.length];
+		for (int a = 0; a < sketches.length; a++) {
+			sketches[a] = new AttributeSketch(this.attributes[a], seed + a);
+		}
+		this.blockSize = blockSize;
+
+		int blocks = (exampleSet.size() + blockSize - 1) / blockSize;
+		blockOrder = new int[blocks];
+		for (int i = 0; i < blocks; i++) {
+			blockOrder[i] = i;
+		}
+		Random random = new Random(seed);
+		for (int i = blocks - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int tmp = blockOrder[i];
+			blockOrder[i] = blockOrder[j];
+			blockOrder[j] = tmp;
+		}
+	}
+
+	/**
+	 * Counts the next block of examples into the sketches.
+	 *
+	 * @return <code>false</code> if all examples were already scanned
+	 */
+	public boolean scanNextBlock() {
+		if (nextBlock >= blockOrder.length) {
+			return false;
+		}
+		int start = blockOrder[nextBlock++] * blockSize;
+		int end = Math.min(start + blockSize, exampleSet.size());
+		for (int i = start; i < end; i++) {
+			Example example = exampleSet.getExample(i);
+			double weight = weightAttribute == null ? 1.0d : example.getValue(weightAttribute);
+			for (int a = 0; a < attributes.length; a++) {
+				sketches[a].count(example.getValue(attributes[a]), weight);
+			}
+		}
+		scannedExamples += end - start;
+		return true;
+	}
+
+	/**
+	 * Scans all remaining blocks.
+	 */
+	public void scanAll() {
+		while (scanNextBlock()) {
+			// nothing to do between the blocks
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if all examples were scanned
+	 */
+	public boolean isComplete() {
+		return nextBlock >= blockOrder.length;
+	}
+
+	/**
+	 * @return the number of scanned examples
+	 */
+	public int getScannedExamples() {
+		return scannedExamples;
+	}
+
+	/**
+	 * @return the fraction of scanned examples, 1 for an empty example set
+	 */
+	public double getScannedFraction() {
+		return exampleSet.size() == 0 ? 1 : (double) scannedExamples / exampleSet.size();
+	}
+
+	/**
+	 * @return the factor which extrapolates counts of the scanned examples to the whole example
+	 *         set, 1 once all examples are scanned
+	 */
+	public double getScaleFactor() {
+		return scannedExamples == 0 ? 1 : (double) exampleSet.size() / scannedExamples;
+	}
+
+	/**
+	 * @return the sketch of the given attribute or <code>null</code> if it is not part of the
+	 *         statistics
+	 */
+	public AttributeSketch getSketch(Attribute attribute) {
+		for (AttributeSketch sketch : sketches) {
+			if (sketch.getAttribute().getName().equals(attribute.getName())) {
+				return sketch;
+			}
+		}
+		return null;
+	}
+}
@@ -55,6 +55,9 @@ public abstract class AbstractExampleSet extends ResultObjectAdapter implements
 
 	private static final long serialVersionUID = 8596141056047402798L;
 
+	/** the number of examples after which the statistics calculation checks for interruption */
+	private static final int STATISTICS_INTERRUPT_CHECK_INTERVAL = 1 << 12;
+
 	/** Maps attribute names to list of statistics objects. */
 	private final Map<String, List<Statistics>> statisticsMap = new HashMap<String, List<Statistics>>();
 
@@ -438,25 +441,35 @@ public abstract class AbstractExampleSet extends ResultObjectAdapter implements
 				weightAttribute = null;
 			}
 
-			for (Attribute attribute : attributeList) {
-				if (weightAttribute == null) {
-					for (Example example : this) {
-						double value = example.getValue(attribute);
-						attribute.getAllStatistics().forEachRemaining(s -> s.count(value, 1.0d));
-					}
-				} else {
-					for (Example example : this) {
-						double value = example.getValue(attribute);
-						double weight = example.getValue(weightAttribute);
-						attribute.getAllStatistics().forEachRemaining(s -> s.count(value, weight));
+			// look up the statistics objects once instead of for every value
+			Attribute[] attributes = attributeList.toArray(new Attribute[attributeList.size()]);
+			Statistics[][] counters = new Statistics[attributes.length][];
+			for (int a = 0; a < attributes.length; a++) {
+				List<Statistics> attributeStatistics = new ArrayList<>();
+				attributes[a].getAllStatistics().forEachRemaining(attributeStatistics::add);
+				counters[a] = attributeStatistics.toArray(new Statistics[attributeStatistics.size()]);
+			}
+
+			// scan the data once for all attributes
+			int row = 0;
+			for (Example example : this) {
+				double weight = weightAttribute == null ? 1.0d : example.getValue(weightAttribute);
+				for (int a = 0; a < attributes.length; a++) {
+					double value = example.getValue(attributes[a]);
+					for (Statistics s : counters[a]) {
+						s.count(value, weight);
 					}
 				}
-				if (Thread.currentThread().isInterrupted()) {
+				if (++row % STATISTICS_INTERRUPT_CHECK_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
 					// statistics is only partly calculated
 					resetAttributeStatistics(attributeList);
 					return;
 				}
 			}
+			if (Thread.currentThread().isInterrupted()) {
+				resetAttributeStatistics(attributeList);
+				return;
+			}
 
 			// store cloned statistics
 			for (Attribute attribute : attributeList) {
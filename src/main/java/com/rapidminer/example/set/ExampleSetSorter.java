@@ -0,0 +1,456 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example.set;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.NominalMapping;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Computes the order of the examples of an {@link ExampleSet} with respect to one or more sorting
+ * attributes. The values of every sorting attribute are extracted into a primitive {@code long}
+ * array whose natural order equals the order of the attribute values:
+ * <ul>
+ * <li>numerical values are ordered like {@link Double#compare(double, double)}, i.e. missing
+ * values are greater than all other values,</li>
+ * <li>date values are ordered by their milliseconds, missing dates are treated as {@code 0},</li>
+ * <li>nominal values are ranked by the lexicographical order of their mapping, missing values are
+ * ranked like the string {@value Attribute#MISSING_NOMINAL_VALUE}.</li>
+ * </ul>
+ * Decreasing keys are stored inverted. The resulting index array is sorted by a stable merge sort
+ * which sorts and merges blocks of the examples in parallel if a {@link ConcurrencyContext} is
+ * given. Examples with equal keys keep their original order for both sorting directions.
+ *
+ * @since 7.6.1
+ */
+public final class ExampleSetSorter {
+
+	/** The minimal number of examples sorted or merged by a single task. */
+	private static final int MIN_EXAMPLES_PER_TASK = 1 << 16;
+
+	/** Blocks up to this size are sorted by insertion sort. */
+	private static final int INSERTION_SORT_THRESHOLD = 32;
+
+	/** The number of examples after which the progress is updated during key extraction. */
+	private static final int PROGRESS_INTERVAL = 1 << 20;
+
+	/** The progress after the extraction of the keys. */
+	private static final int PROGRESS_KEYS_EXTRACTED = 40;
+
+	/** The progress after sorting the single blocks. */
+	private static final int PROGRESS_BLOCKS_SORTED = 70;
+
+	private static final int PROGRESS_TOTAL = 100;
+
+	private ExampleSetSorter() {
+		throw new AssertionError("Utility class must not be instantiated");
+	}
+
+	/**
+	 * Calculates the sorted order of the examples.
+	 *
+	 * @param exampleSet
+	 *            the example set to sort
+	 * @param attributes
+	 *            the sorting attributes, the first attribute is the most significant one
+	 * @param directions
+	 *            the sorting direction for each attribute, either
+	 *            {@link SortedExampleSet#INCREASING} or {@link SortedExampleSet#DECREASING}
+	 * @param context
+	 *            the context used to sort in parallel, can be {@code null}
+	 * @param progress
+	 *            the progress to report to, can be {@code null}
+	 * @return the indices of the examples in sorted order
+	 * @throws ProcessStoppedException
+	 *             if the process is stopped
+	 */
+	public static int[] sort(ExampleSet exampleSet, Attribute[] attributes, int[] directions, ConcurrencyContext context,
+			OperatorProgress progress) throws ProcessStoppedException {
+		if (attributes.length != directions.length) {
+			throw new IllegalArgumentException("The number of sorting attributes and directions must be equal.");
+		}
+		if (progress != null) {
+			progress.setTotal(PROGRESS_TOTAL);
+		}
+		long[][] keys = extractKeys(exampleSet, attributes, directions, progress);
+		int[] order = new int[exampleSet.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		if (keys.length > 0 && order.length > 1) {
+			sort(order, keys, context, progress);
+		}
+		if (progress != null) {
+			progress.setCompleted(PROGRESS_TOTAL);
+		}
+		return order;
+	}
+
+	/**
+	 * Extracts the sorting keys of all examples in a single pass over the data.
+	 */
+	private static long[][] extractKeys(ExampleSet exampleSet, Attribute[] attributes, int[] directions,
+			OperatorProgress progress) throws ProcessStoppedException {
+		int size = exampleSet.size();
+		int numberOfKeys = attributes.length;
+		long[][] keys = new long[numberOfKeys][size];
+		boolean[] dates = new boolean[numberOfKeys];
+		long[][] ranks = new long[numberOfKeys][];
+		boolean[] inverted = new boolean[numberOfKeys];
+		for (int k = 0; k < numberOfKeys; k++) {
+			Attribute attribute = attributes[k];
+			dates[k] = Ontology.ATTRIBUTE_VALUE_TYPE.isA(attribute.getValueType(), Ontology.DATE_TIME);
+			if (!dates[k] && !attribute.isNumerical()) {
+				ranks[k] = rankNominalValues(attribute.getMapping());
+			}
+			inverted[k] = directions[k] == SortedExampleSet.DECREASING;
+		}
+
+		int row = 0;
+		for (Example example : exampleSet) {
+			for (int k = 0; k < numberOfKeys; k++) {
+				double value = example.getValue(attributes[k]);
+				long key;
+				if (dates[k]) {
+					key = (long) value;
+				} else if (ranks[k] == null) {
+					key = toSortableLong(value);
+				} else {
+					key = getRank(ranks[k], attributes[k], value);
+				}
+				keys[k][row] = inverted[k] ? ~key : key;
+			}
+			row++;
+			if (progress != null && row % PROGRESS_INTERVAL == 0) {
+				progress.setCompleted((int) ((long) row * PROGRESS_KEYS_EXTRACTED / size));
+			}
+		}
+		if (progress != null) {
+			progress.setCompleted(PROGRESS_KEYS_EXTRACTED);
+		}
+		return keys;
+	}
+
+	/**
+	 * Converts the value into a long with the same order as {@link Double#compare(double, double)}.
+	 */
+	static long toSortableLong(double value) {
+		long bits = Double.doubleToLongBits(value);
+		// flip all bits but the sign of negative values to reverse their order
+		return bits ^ bits >> 63 & Long.MAX_VALUE;
+	}
+
+	/**
+	 * Ranks the values of the mapping by their lexicographical order. Equal values get the same
+	 * rank. The last entry holds the rank of the missing value.
+	 */
+	static long[] rankNominalValues(NominalMapping mapping) {
+		List<String> values = mapping.getValues();
+		int numberOfValues = values.size();
+		final String[] strings = values.toArray(new String[numberOfValues + 1]);
+		strings[numberOfValues] = Attribute.MISSING_NOMINAL_VALUE;
+
+		Integer[] sorted = new Integer[strings.length];
+		for (int i = 0; i < sorted.length; i++) {
+			sorted[i] = i;
+		}
+		Arrays.sort(sorted, new Comparator<Integer>() {
+
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return strings[o1].compareTo(strings[o2]);
+			}
+		});
+
+		long[] ranks = new long[strings.length];
+		long rank = 0;
+		for (int i = 0; i < sorted.length; i++) {
+			if (i > 0 && !strings[sorted[i]].equals(strings[sorted[i - 1]])) {
+				rank++;
+			}
+			ranks[sorted[i]] = rank;
+		}
+		return ranks;
+	}
+
+	/**
+	 * Returns the rank of the given nominal value.
+	 */
+	private static long getRank(long[] ranks, Attribute attribute, double value) {
+		if (Double.isNaN(value)) {
+			return ranks[ranks.length - 1];
+		}
+		int index = (int) value;
+		if (index < 0 || index >= ranks.length - 1) {
+			// let the mapping report the invalid index
+			attribute.getMapping().mapIndex(index);
+		}
+		return ranks[index];
+	}
+
+	/**
+	 * Sorts the order by the keys. Blocks of the order are sorted independently and are then merged
+	 * pairwise until a single block remains.
+	 */
+	private static void sort(final int[] order, final long[][] keys, ConcurrencyContext context,
+			OperatorProgress progress) throws ProcessStoppedException {
+		final int size = order.length;
+		final int[] buffer = new int[size];
+		int parallelism = context == null ? 1 : Math.max(1, context.getParallelism());
+		int numberOfBlocks = Math.max(1, Math.min(parallelism, size / MIN_EXAMPLES_PER_TASK));
+
+		int[] bounds = new int[numberOfBlocks + 1];
+		for (int i = 0; i <= numberOfBlocks; i++) {
+			bounds[i] = (int) ((long) size * i / numberOfBlocks);
+		}
+
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfBlocks);
+		for (int i = 0; i < numberOfBlocks; i++) {
+			final int from = bounds[i];
+			final int to = bounds[i + 1];
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					mergeSort(order, buffer, from, to, keys);
+					return null;
+				}
+			});
+		}
+		run(tasks, context);
+		if (progress != null) {
+			progress.setCompleted(PROGRESS_BLOCKS_SORTED);
+		}
+
+		int numberOfLevels = 32 - Integer.numberOfLeadingZeros(numberOfBlocks - 1);
+		int level = 0;
+		int[] source = order;
+		int[] target = buffer;
+		while (numberOfBlocks > 1) {
+			tasks = createMergeTasks(source, target, bounds, keys, parallelism);
+			run(tasks, context);
+
+			int[] newBounds = new int[(numberOfBlocks + 1) / 2 + 1];
+			for (int i = 0; i < newBounds.length - 1; i++) {
+				newBounds[i] = bounds[2 * i];
+			}
+			newBounds[newBounds.length - 1] = size;
+			bounds = newBounds;
+			numberOfBlocks = bounds.length - 1;
+
+			int[] swap = source;
+			source = target;
+			target = swap;
+			level++;
+			if (progress != null) {
+				progress.setCompleted(
+						PROGRESS_BLOCKS_SORTED + (PROGRESS_TOTAL - PROGRESS_BLOCKS_SORTED) * level / numberOfLevels);
+			}
+		}
+		if (source != order) {
+			System.arraycopy(source, 0, order, 0, size);
+		}
+	}
+
+	/**
+	 * Creates the tasks merging the blocks with the given bounds pairwise from source into target.
+	 * If there are fewer pairs than threads, every merge is split into several independent parts.
+	 */
+	private static List<Callable<Void>> createMergeTasks(final int[] source, final int[] target, int[] bounds,
+			final long[][] keys, int parallelism) {
+		int numberOfBlocks = bounds.length - 1;
+		int numberOfPairs = numberOfBlocks / 2;
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int i = 0; i + 1 < numberOfBlocks; i += 2) {
+			int lo = bounds[i];
+			int mid = bounds[i + 1];
+			int hi = bounds[i + 2];
+			int parts = Math.max(1, Math.min(parallelism / numberOfPairs, (hi - lo) / MIN_EXAMPLES_PER_TASK));
+
+			// split the left block evenly and the right block at the matching positions
+			int leftFrom = lo;
+			int rightFrom = mid;
+			for (int p = 1; p <= parts; p++) {
+				int leftTo;
+				int rightTo;
+				if (p == parts) {
+					leftTo = mid;
+					rightTo = hi;
+				} else {
+					leftTo = lo + (int) ((long) (mid - lo) * p / parts);
+					rightTo = leftTo == mid ? hi : lowerBound(source, rightFrom, hi, source[leftTo], keys);
+				}
+				tasks.add(createMergeTask(source, leftFrom, leftTo, rightFrom, rightTo, target,
+						leftFrom + rightFrom - mid, keys));
+				leftFrom = leftTo;
+				rightFrom = rightTo;
+			}
+		}
+		if (numberOfBlocks % 2 == 1) {
+			// the last block has no partner
+			int from = bounds[numberOfBlocks - 1];
+			int to = bounds[numberOfBlocks];
+			tasks.add(createMergeTask(source, from, to, to, to, target, from, keys));
+		}
+		return tasks;
+	}
+
+	private static Callable<Void> createMergeTask(final int[] source, final int leftFrom, final int leftTo,
+			final int rightFrom, final int rightTo, final int[] target, final int targetFrom, final long[][] keys) {
+		return new Callable<Void>() {
+
+			@Override
+			public Void call() {
+				merge(source, leftFrom, leftTo, rightFrom, rightTo, target, targetFrom, keys);
+				return null;
+			}
+		};
+	}
+
+	/**
+	 * Returns the first position in the sorted range whose example is not less than the given
+	 * example.
+	 */
+	private static int lowerBound(int[] order, int from, int to, int example, long[][] keys) {
+		int low = from;
+		int high = to;
+		while (low < high) {
+			int mid = low + high >>> 1;
+			if (compare(keys, order[mid], example) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Stable bottom-up merge sort of the given range of the order.
+	 */
+	private static void mergeSort(int[] order, int[] buffer, int from, int to, long[][] keys) {
+		for (int start = from; start < to; start += INSERTION_SORT_THRESHOLD) {
+			insertionSort(order, start, Math.min(to, start + INSERTION_SORT_THRESHOLD), keys);
+		}
+		int[] source = order;
+		int[] target = buffer;
+		for (int width = INSERTION_SORT_THRESHOLD; width < to - from; width <<= 1) {
+			for (int lo = from; lo < to; lo += 2 * width) {
+				int mid = Math.min(lo + width, to);
+				int hi = Math.min(mid + width, to);
+				merge(source, lo, mid, mid, hi, target, lo, keys);
+			}
+			int[] swap = source;
+			source = target;
+			target = swap;
+		}
+		if (source != order) {
+			System.arraycopy(source, from, order, from, to - from);
+		}
+	}
+
+	private static void insertionSort(int[] order, int from, int to, long[][] keys) {
+		for (int i = from + 1; i < to; i++) {
+			int example = order[i];
+			int j = i - 1;
+			while (j >= from && compare(keys, order[j], example) > 0) {
+				order[j + 1] = order[j];
+				j--;
+			}
+			order[j + 1] = example;
+		}
+	}
+
+	/**
+	 * Merges two sorted ranges into the target. Examples of the left range come first if the keys
+	 * are equal.
+	 */
+	private static void merge(int[] source, int leftFrom, int leftTo, int rightFrom, int rightTo, int[] target,
+			int targetFrom, long[][] keys) {
+		int left = leftFrom;
+		int right = rightFrom;
+		int position = targetFrom;
+		while (left < leftTo && right < rightTo) {
+			if (compare(keys, source[right], source[left]) < 0) {
+				target[position++] = source[right++];
+			} else {
+				target[position++] = source[left++];
+			}
+		}
+		if (left < leftTo) {
+			System.arraycopy(source, left, target, position, leftTo - left);
+		} else if (right < rightTo) {
+			System.arraycopy(source, right, target, position, rightTo - right);
+		}
+	}
+
+	private static int compare(long[][] keys, int first, int second) {
+		for (long[] key : keys) {
+			int result = Long.compare(key[first], key[second]);
+			if (result != 0) {
+				return result;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Runs the tasks in the context or sequentially if there is no context or only one task.
+	 */
+	private static void run(List<Callable<Void>> tasks, ConcurrencyContext context) {
+		if (context == null || tasks.size() == 1) {
+			for (Callable<Void> task : tasks) {
+				try {
+					task.call();
+				} catch (RuntimeException e) {
+					throw e;
+				} catch (Exception e) {
+					// cannot happen, the tasks throw no checked exceptions
+					throw new RuntimeException(e.getMessage(), e);
+				}
+			}
+			return;
+		}
+		try {
+			context.call(tasks);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new RuntimeException(cause.getMessage(), cause);
+			}
+		}
+	}
+}
@@ -18,6 +18,7 @@
 */
 package com.rapidminer.example.set;
 
+import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Attributes;
 import com.rapidminer.example.Example;
@@ -26,9 +27,9 @@ import com.rapidminer.example.table.ExampleTable;
 import com.rapidminer.operator.Annotations;
 import com.rapidminer.operator.OperatorProgress;
 import com.rapidminer.operator.ProcessStoppedException;
-import com.rapidminer.tools.Ontology;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.Iterator;
 
 
 /**
@@ -50,39 +51,6 @@ public class SortedExampleSet extends AbstractExampleSet {
 	public static final int INCREASING = 0;
 	public static final int DECREASING = 1;
 
-	private static class SortingIndex {
-
-		final private Object key;
-		final private int index;
-
-		public SortingIndex(Object key, int index) {
-			this.key = key;
-			this.index = index;
-		}
-
-		public int getIndex() {
-			return index;
-		}
-
-		public Date getKeyAsDate() {
-			return (Date) key;
-		}
-
-		public String getKeyAsString() {
-			return (String) key;
-		}
-
-		public Double getKeyAsDouble() {
-			return (Double) key;
-		}
-
-		@Override
-		public String toString() {
-			return key + " --> " + index;
-		}
-
-	}
-
 	/** The parent example set. */
 	private ExampleSet parent;
 
@@ -91,7 +59,8 @@ public class SortedExampleSet extends AbstractExampleSet {
 
 	public SortedExampleSet(ExampleSet parent, Attribute sortingAttribute, int sortingDirection) {
 		try {
-			createSortedExampleSet(parent, sortingAttribute, sortingDirection, null);
+			createSortedExampleSet(parent, new Attribute[] { sortingAttribute }, new int[] { sortingDirection }, null,
+					null);
 		} catch (ProcessStoppedException e) {
 			// Cannot happen, OperatorProgress is null
 		}
@@ -99,106 +68,40 @@ public class SortedExampleSet extends AbstractExampleSet {
 
 	public SortedExampleSet(ExampleSet parent, final Attribute sortingAttribute, int sortingDirection,
 			OperatorProgress progress) throws ProcessStoppedException {
-		createSortedExampleSet(parent, sortingAttribute, sortingDirection, progress);
+		createSortedExampleSet(parent, new Attribute[] { sortingAttribute }, new int[] { sortingDirection }, null,
+				progress);
+	}
+
+	/**
+	 * Creates an example set sorted by several attributes. Examples are compared by the first
+	 * attribute, ties are resolved by the following attributes. Examples with equal values for all
+	 * attributes keep their original order.
+	 *
+	 * @param parent
+	 *            the example set to sort
+	 * @param sortingAttributes
+	 *            the sorting attributes, the first attribute is the most significant one
+	 * @param sortingDirections
+	 *            the direction for each sorting attribute, either {@link #INCREASING} or
+	 *            {@link #DECREASING}
+	 * @param context
+	 *            the context used to sort in parallel, can be {@code null}
+	 * @param progress
+	 *            the progress to report to, can be {@code null}
+	 * @since 7.6.1
+	 */
+	public SortedExampleSet(ExampleSet parent, Attribute[] sortingAttributes, int[] sortingDirections,
+			ConcurrencyContext context, OperatorProgress progress) throws ProcessStoppedException {
+		createSortedExampleSet(parent, sortingAttributes, sortingDirections, context, progress);
 	}
 
 	/**
 	 * Helper method for constructor
 	 */
-	private void createSortedExampleSet(ExampleSet parent, final Attribute sortingAttribute, int sortingDirection,
-			OperatorProgress progress) throws ProcessStoppedException {
+	private void createSortedExampleSet(ExampleSet parent, Attribute[] sortingAttributes, int[] sortingDirections,
+			ConcurrencyContext context, OperatorProgress progress) throws ProcessStoppedException {
 		this.parent = (ExampleSet) parent.clone();
-		List<SortingIndex> sortingIndex = new ArrayList<SortingIndex>(parent.size());
-		if (progress != null) {
-			progress.setTotal(100);
-		}
-
-		// create sort index
-		int exampleCounter = 0;
-		int progressTriggerCounter = 0;
-		Iterator<Example> i = parent.iterator();
-		while (i.hasNext()) {
-			Example example = i.next();
-			if (Ontology.ATTRIBUTE_VALUE_TYPE.isA(sortingAttribute.getValueType(), Ontology.DATE_TIME)) {
-				sortingIndex.add(new SortingIndex(example.getDateValue(sortingAttribute), exampleCounter));
-			} else if (sortingAttribute.isNumerical()) {
-				sortingIndex.add(new SortingIndex(example.getNumericalValue(sortingAttribute), exampleCounter));
-
-			} else {
-				sortingIndex.add(new SortingIndex(example.getNominalValue(sortingAttribute), exampleCounter));
-
-			}
-			exampleCounter++;
-			progressTriggerCounter++;
-			if (progress != null && progressTriggerCounter > 2_000_000) {
-				progressTriggerCounter = 0;
-				progress.setCompleted((int) ((long) exampleCounter * 40 / parent.size()));
-			}
-		}
-		if (progress != null) {
-			progress.setCompleted(40);
-		}
-
-		// create comparator
-		Comparator<SortingIndex> sortComparator = new Comparator<SortingIndex>() {
-
-			@Override
-			public int compare(SortingIndex o1, SortingIndex o2) {
-				if (Ontology.ATTRIBUTE_VALUE_TYPE.isA(sortingAttribute.getValueType(), Ontology.DATE_TIME)) {
-					Date firstDate = o1.getKeyAsDate();
-					Date secondDate = o2.getKeyAsDate();
-					if (firstDate == secondDate || firstDate == null) {
-						return 0;
-					} else {
-						return firstDate.compareTo(secondDate);
-					}
-				} else if (sortingAttribute.isNumerical()) {
-					Double firstDouble = o1.getKeyAsDouble();
-					Double secondDouble = o2.getKeyAsDouble();
-					if (firstDouble == null || firstDouble.equals(secondDouble)) {
-						return 0;
-					} else {
-						return firstDouble.compareTo(secondDouble);
-					}
-				} else if (sortingAttribute.isNominal()) {
-					String firstString = o1.getKeyAsString();
-					String secondString = o2.getKeyAsString();
-					if (firstString == null || firstString.equals(secondString)) {
-						return 0;
-					} else {
-						return firstString.compareTo(secondString);
-					}
-				}
-				return 0;
-			}
-		};
-
-		// sort
-		if (sortingDirection == INCREASING) {
-			Collections.sort(sortingIndex, sortComparator);
-		} else {
-			Collections.sort(sortingIndex, Collections.reverseOrder(sortComparator));
-		}
-		if (progress != null) {
-			progress.setCompleted(60);
-		}
-
-		// change mapping
-		int[] mapping = new int[parent.size()];
-		exampleCounter = 0;
-		progressTriggerCounter = 0;
-		Iterator<SortingIndex> k = sortingIndex.iterator();
-		while (k.hasNext()) {
-			Integer index = k.next().getIndex();
-			mapping[exampleCounter++] = index;
-			progressTriggerCounter++;
-			if (progress != null && progressTriggerCounter > 2_000_000) {
-				progressTriggerCounter = 0;
-				progress.setCompleted((int) (60 + (long) exampleCounter * 40 / sortingIndex.size()));
-			}
-		}
-
-		this.mapping = mapping;
+		this.mapping = ExampleSetSorter.sort(parent, sortingAttributes, sortingDirections, context, progress);
 	}
 
 	/** Constructs an example set based on the given sort mapping. */
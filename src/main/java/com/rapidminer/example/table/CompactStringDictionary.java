@@ -0,0 +1,439 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example.table;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+
+/**
+ * A memory efficient dictionary of strings used by the {@link PolynominalMapping} for attributes
+ * with many different values. The strings are stored as length prefixed UTF-8 bytes in large
+ * pages. Every single {@code char} is encoded separately, so that any string including unpaired
+ * surrogates is restored exactly. The indices of the strings are found by an open addressing hash
+ * table with linear probing which compares the stored bytes with the searched string without
+ * decoding it.
+ * <p>
+ * Like the map based representation of the {@link PolynominalMapping} a value can be stored at
+ * several indices by {@link #set(int, String)}, but is only found at the last one. {@code null}
+ * values can be stored but are never found.
+ * <p>
+ * Reading from the dictionary is thread-safe as long as no values are added or replaced.
+ *
+ * @since 7.6.1
+ */
+final class CompactStringDictionary {
+
+	/** The default size of the pages holding the bytes. */
+	private static final int PAGE_SIZE = 1 << 20;
+
+	/** The address of {@code null} values. */
+	private static final long NULL_ADDRESS = -1L;
+
+	/** Marks unused slots of the hash table. */
+	private static final int EMPTY = -1;
+
+	/** The number of recently decoded strings which are cached. */
+	private static final int CACHE_SIZE = 1 << 12;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	/** A decoded string, replaced as a whole in the cache. */
+	private static final class CachedString {
+
+		private final int index;
+		private final String value;
+
+		private CachedString(int index, String value) {
+			this.index = index;
+			this.value = value;
+		}
+	}
+
+	/** The pages holding the encoded strings. */
+	private byte[][] pages = new byte[0][];
+
+	/** The number of used bytes of the last page. */
+	private int pagePosition;
+
+	/** The page in the upper and the offset in the lower 32 bits for every index. */
+	private long[] addresses;
+
+	/** The hash code of the string at every index. */
+	private int[] hashes;
+
+	/** The number of indices. */
+	private int size;
+
+	/** The hash table holding the indices of all strings which can be found. */
+	private int[] table;
+
+	/** The number of used slots of the table. */
+	private int tableSize;
+
+	private final CachedString[] cache = new CachedString[CACHE_SIZE];
+
+	/**
+	 * Creates a new dictionary with space for the given number of strings.
+	 */
+	CompactStringDictionary(int expectedSize) {
+		int capacity = Math.max(INITIAL_CAPACITY, expectedSize);
+		addresses = new long[capacity];
+		hashes = new int[capacity];
+		table = new int[getTableCapacity(capacity)];
+		Arrays.fill(table, EMPTY);
+	}
+
+	/** Returns the number of indices. */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the string at the given index, which must be between {@code 0} and {@link #size()}.
+	 */
+	String get(int index) {
+		long address = addresses[index];
+		if (address == NULL_ADDRESS) {
+			return null;
+		}
+		int cacheSlot = index & CACHE_SIZE - 1;
+		CachedString cached = cache[cacheSlot];
+		if (cached != null && cached.index == index) {
+			return cached.value;
+		}
+		String value = decode(address);
+		cache[cacheSlot] = new CachedString(index, value);
+		return value;
+	}
+
+	/**
+	 * Returns the index of the given string or {@code -1} if it is not contained.
+	 */
+	int indexOf(String value) {
+		if (value == null) {
+			return -1;
+		}
+		int slot = findSlot(value, value.hashCode());
+		return slot < 0 ? -1 : table[slot];
+	}
+
+	/**
+	 * Appends the string at a new index. The string must not be contained yet.
+	 *
+	 * @return the new index
+	 */
+	int add(String value) {
+		return add(value, true);
+	}
+
+	/**
+	 * Appends the string at a new index.
+	 *
+	 * @param value
+	 *            the string, must not be contained yet if it should be found
+	 * @param findable
+	 *            whether the string can be found by {@link #indexOf(String)}
+	 * @return the new index
+	 */
+	int add(String value, boolean findable) {
+		if (size == addresses.length) {
+			int capacity = Math.max(INITIAL_CAPACITY, (int) Math.min(Integer.MAX_VALUE - 8, size * 3L / 2));
+			addresses = Arrays.copyOf(addresses, capacity);
+			hashes = Arrays.copyOf(hashes, capacity);
+		}
+		int index = size++;
+		store(index, value);
+		if (value != null && findable) {
+			insert(index);
+		}
+		return index;
+	}
+
+	/**
+	 * Replaces the string at the given index. The previous string is no longer found and the new
+	 * string is found at this index afterwards.
+	 */
+	void set(int index, String value) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+		}
+		String oldValue = get(index);
+		if (oldValue != null) {
+			int slot = findSlot(oldValue, oldValue.hashCode());
+			if (slot >= 0) {
+				remove(slot);
+			}
+		}
+		store(index, value);
+		cache[index & CACHE_SIZE - 1] = null;
+		if (value != null) {
+			int slot = findSlot(value, hashes[index]);
+			if (slot >= 0) {
+				table[slot] = index;
+			} else {
+				insert(index);
+			}
+		}
+	}
+
+	/** Removes all strings. */
+	void clear() {
+		pages = new byte[0][];
+		pagePosition = 0;
+		size = 0;
+		tableSize = 0;
+		Arrays.fill(table, EMPTY);
+		Arrays.fill(cache, null);
+	}
+
+	/**
+	 * Returns an unmodifiable view on the strings in the order of their indices.
+	 */
+	List<String> values() {
+		return new ValueList();
+	}
+
+	/** Unmodifiable list view on the strings. */
+	private final class ValueList extends AbstractList<String> implements RandomAccess {
+
+		@Override
+		public String get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+			}
+			return CompactStringDictionary.this.get(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
+	/**
+	 * Encodes the string into the pages and records its address and hash code.
+	 */
+	private void store(int index, String value) {
+		if (value == null) {
+			addresses[index] = NULL_ADDRESS;
+			hashes[index] = 0;
+			return;
+		}
+		int length = value.length();
+		int encodedLength = 0;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			encodedLength += c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+		}
+		int needed = encodedLength + 5;
+		if (pages.length == 0 || pages[pages.length - 1].length - pagePosition < needed) {
+			pages = Arrays.copyOf(pages, pages.length + 1);
+			pages[pages.length - 1] = new byte[Math.max(PAGE_SIZE, needed)];
+			pagePosition = 0;
+		}
+		byte[] page = pages[pages.length - 1];
+		addresses[index] = (long) (pages.length - 1) << 32 | pagePosition;
+		hashes[index] = value.hashCode();
+
+		int position = pagePosition;
+		// variable length prefix holding the number of bytes
+		int remaining = encodedLength;
+		while (remaining >= 0x80) {
+			page[position++] = (byte) (remaining & 0x7f | 0x80);
+			remaining >>>= 7;
+		}
+		page[position++] = (byte) remaining;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c < 0x80) {
+				page[position++] = (byte) c;
+			} else if (c < 0x800) {
+				page[position++] = (byte) (0xc0 | c >> 6);
+				page[position++] = (byte) (0x80 | c & 0x3f);
+			} else {
+				page[position++] = (byte) (0xe0 | c >> 12);
+				page[position++] = (byte) (0x80 | c >> 6 & 0x3f);
+				page[position++] = (byte) (0x80 | c & 0x3f);
+			}
+		}
+		pagePosition = position;
+	}
+
+	/**
+	 * Decodes the string at the given address.
+	 */
+	private String decode(long address) {
+		byte[] page = pages[(int) (address >>> 32)];
+		int position = (int) address;
+		int length = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = page[position++];
+			length |= (b & 0x7f) << shift;
+			shift += 7;
+		} while (b < 0);
+		int end = position + length;
+		char[] chars = new char[length];
+		int count = 0;
+		while (position < end) {
+			int first = page[position++] & 0xff;
+			if (first < 0x80) {
+				chars[count++] = (char) first;
+			} else if (first < 0xe0) {
+				chars[count++] = (char) ((first & 0x1f) << 6 | page[position++] & 0x3f);
+			} else {
+				chars[count++] = (char) ((first & 0x0f) << 12 | (page[position++] & 0x3f) << 6 | page[position++] & 0x3f);
+			}
+		}
+		return new String(chars, 0, count);
+	}
+
+	/**
+	 * Checks whether the string at the given address equals the value without decoding it.
+	 */
+	private boolean matches(long address, String value) {
+		byte[] page = pages[(int) (address >>> 32)];
+		int position = (int) address;
+		int length = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = page[position++];
+			length |= (b & 0x7f) << shift;
+			shift += 7;
+		} while (b < 0);
+		int end = position + length;
+		int valueLength = value.length();
+		if (length < valueLength || length > 3 * valueLength) {
+			return false;
+		}
+		for (int i = 0; i < valueLength; i++) {
+			if (position >= end) {
+				return false;
+			}
+			char c = value.charAt(i);
+			int first = page[position++] & 0xff;
+			if (first < 0x80) {
+				if (c != first) {
+					return false;
+				}
+			} else if (first < 0xe0) {
+				if (c != ((first & 0x1f) << 6 | page[position++] & 0x3f)) {
+					return false;
+				}
+			} else {
+				if (c != ((first & 0x0f) << 12 | (page[position++] & 0x3f) << 6 | page[position++] & 0x3f)) {
+					return false;
+				}
+			}
+		}
+		return position == end;
+	}
+
+	/**
+	 * Returns the slot of the table holding the given string or {@code -1}.
+	 */
+	private int findSlot(String value, int hash) {
+		int mask = table.length - 1;
+		int slot = getSlot(hash, mask);
+		while (true) {
+			int index = table[slot];
+			if (index == EMPTY) {
+				return -1;
+			}
+			if (hashes[index] == hash && matches(addresses[index], value)) {
+				return slot;
+			}
+			slot = slot + 1 & mask;
+		}
+	}
+
+	/**
+	 * Inserts the index into the table, growing it if necessary.
+	 */
+	private void insert(int index) {
+		if (tableSize + 1 > table.length / 4 * 3) {
+			rehash(table.length * 2);
+		}
+		int mask = table.length - 1;
+		int slot = getSlot(hashes[index], mask);
+		while (table[slot] != EMPTY) {
+			slot = slot + 1 & mask;
+		}
+		table[slot] = index;
+		tableSize++;
+	}
+
+	/**
+	 * Removes the entry of the given slot and moves following entries of the probe sequence into
+	 * the gap.
+	 */
+	private void remove(int slot) {
+		int mask = table.length - 1;
+		int hole = slot;
+		int next = hole + 1 & mask;
+		while (table[next] != EMPTY) {
+			int ideal = getSlot(hashes[table[next]], mask);
+			if ((next - ideal & mask) >= (next - hole & mask)) {
+				table[hole] = table[next];
+				hole = next;
+			}
+			next = next + 1 & mask;
+		}
+		table[hole] = EMPTY;
+		tableSize--;
+	}
+
+	private void rehash(int capacity) {
+		int[] oldTable = table;
+		table = new int[capacity];
+		Arrays.fill(table, EMPTY);
+		int mask = capacity - 1;
+		for (int index : oldTable) {
+			if (index != EMPTY) {
+				int slot = getSlot(hashes[index], mask);
+				while (table[slot] != EMPTY) {
+					slot = slot + 1 & mask;
+				}
+				table[slot] = index;
+			}
+		}
+	}
+
+	private static int getSlot(int hash, int mask) {
+		int mixed = hash * 0x9E3779B9;
+		return (mixed ^ mixed >>> 16) & mask;
+	}
+
+	/**
+	 * Returns the smallest power of two holding the given number of entries with a load factor of
+	 * at most 0.75.
+	 */
+	private static int getTableCapacity(int entries) {
+		int capacity = INITIAL_CAPACITY;
+		while (capacity / 4 * 3 < entries) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+}
@@ -22,12 +22,20 @@ import com.rapidminer.example.AttributeTypeException;
 import com.rapidminer.example.Example;
 import com.rapidminer.tools.Tools;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.*;
 
 
 /**
  * This is an implementation of {@link NominalMapping} which can be used for nominal attributes with
  * an arbitrary number of different values.
+ * <p>
+ * As soon as the mapping holds more than {@link #COMPACT_THRESHOLD} values, it switches from maps
+ * to a {@link CompactStringDictionary} which needs only a fraction of the memory. Since the mapping
+ * object stays the same, the switch is visible to all attributes sharing this mapping. The
+ * serialized form is the same for both representations.
  *
  * @author Ingo Mierswa
  */
@@ -35,11 +43,17 @@ public class PolynominalMapping implements NominalMapping {
 
 	private static final long serialVersionUID = 5021638750496191771L;
 
-	/** The map between symbolic values and their indices. */
-	private final Map<String, Integer> symbolToIndexMap = new LinkedHashMap<>();
+	/** The number of values above which the compact representation is used. */
+	static final int COMPACT_THRESHOLD = 1 << 16;
 
-	/** The map between indices of nominal values and the actual nominal value. */
-	private final List<String> indexToSymbolMap = new ArrayList<>();
+	/** The map between symbolic values and their indices, {@code null} if compact. */
+	private Map<String, Integer> symbolToIndexMap = new LinkedHashMap<>();
+
+	/** The map between indices of nominal values and the actual nominal value, {@code null} if compact. */
+	private List<String> indexToSymbolMap = new ArrayList<>();
+
+	/** The compact representation of both maps for many values, {@code null} before the switch. */
+	private transient CompactStringDictionary dictionary;
 
 	public PolynominalMapping() {}
 
@@ -55,12 +69,28 @@ public class PolynominalMapping implements NominalMapping {
 			}
 			this.indexToSymbolMap.set(index, value);
 		}
+		compactIfNecessary();
 	}
 
 	/* pp */ PolynominalMapping(NominalMapping mapping) {
-		this.symbolToIndexMap.clear();
-		this.indexToSymbolMap.clear();
-		for (int i = 0; i < mapping.size(); i++) {
+		int size = mapping.size();
+		if (size > COMPACT_THRESHOLD) {
+			symbolToIndexMap = null;
+			indexToSymbolMap = null;
+			dictionary = new CompactStringDictionary(size);
+			for (int i = 0; i < size; i++) {
+				String value = mapping.mapIndex(i);
+				if (value != null && dictionary.indexOf(value) >= 0) {
+					// the last index of duplicate values is found like in the map
+					dictionary.add(null);
+					dictionary.set(i, value);
+				} else {
+					dictionary.add(value);
+				}
+			}
+			return;
+		}
+		for (int i = 0; i < size; i++) {
 			int index = i;
 			String value = mapping.mapIndex(index);
 			this.symbolToIndexMap.put(value, index);
@@ -68,6 +98,33 @@ public class PolynominalMapping implements NominalMapping {
 		}
 	}
 
+	/**
+	 * Switches to the compact representation if the mapping holds more than
+	 * {@link #COMPACT_THRESHOLD} values.
+	 */
+	private void compactIfNecessary() {
+		if (dictionary != null || indexToSymbolMap.size() <= COMPACT_THRESHOLD) {
+			return;
+		}
+		CompactStringDictionary compact = new CompactStringDictionary(indexToSymbolMap.size() * 2);
+		for (int i = 0; i < indexToSymbolMap.size(); i++) {
+			String value = indexToSymbolMap.get(i);
+			// values replaced at another index by setMapping are not found anymore
+			Integer index = symbolToIndexMap.get(value);
+			compact.add(value, index != null && index == i);
+		}
+		dictionary = compact;
+		symbolToIndexMap = null;
+		indexToSymbolMap = null;
+	}
+
+	/**
+	 * Returns whether the compact representation is used.
+	 */
+	boolean isCompact() {
+		return dictionary != null;
+	}
+
 	@Override
 	public Object clone() {
 		return new PolynominalMapping(this);
@@ -79,7 +136,7 @@ public class PolynominalMapping implements NominalMapping {
 			return false;
 		}
 		for (String value : mapping.getValues()) {
-			if (!symbolToIndexMap.containsKey(value)) {
+			if (dictionary != null ? dictionary.indexOf(value) < 0 : !symbolToIndexMap.containsKey(value)) {
 				return false;
 			}
 		}
@@ -99,9 +156,13 @@ public class PolynominalMapping implements NominalMapping {
 		int index = getIndex(str);
 		// if string is not yet in the map, add it
 		if (index < 0) {
+			if (dictionary != null) {
+				return dictionary.add(str);
+			}
 			indexToSymbolMap.add(str);
 			index = indexToSymbolMap.size() - 1;
 			symbolToIndexMap.put(str, index);
+			compactIfNecessary();
 		}
 		return index;
 	}
@@ -112,6 +173,9 @@ public class PolynominalMapping implements NominalMapping {
 	 */
 	@Override
 	public int getIndex(String str) {
+		if (dictionary != null) {
+			return dictionary.indexOf(str);
+		}
 		Integer index = symbolToIndexMap.get(str);
 		if (index == null) {
 			return -1;
@@ -127,11 +191,11 @@ public class PolynominalMapping implements NominalMapping {
 	 */
 	@Override
 	public String mapIndex(int index) {
-		if (index < 0 || index >= indexToSymbolMap.size()) {
+		if (index < 0 || index >= size()) {
 			throw new AttributeTypeException(
 					"Cannot map index of nominal attribute to nominal value: index " + index + " is out of bounds!");
 		}
-		return indexToSymbolMap.get(index);
+		return dictionary != null ? dictionary.get(index) : indexToSymbolMap.get(index);
 	}
 
 	/**
@@ -140,6 +204,10 @@ public class PolynominalMapping implements NominalMapping {
 	 */
 	@Override
 	public void setMapping(String nominalValue, int index) {
+		if (dictionary != null) {
+			dictionary.set(index, nominalValue);
+			return;
+		}
 		String oldValue = indexToSymbolMap.get(index);
 		indexToSymbolMap.set(index, nominalValue);
 		symbolToIndexMap.remove(oldValue);
@@ -169,11 +237,13 @@ public class PolynominalMapping implements NominalMapping {
 		if (mapIndex(0) == null) {
 			throw new AttributeTypeException("Attribute: Cannot use FIRST_CLASS_INDEX for negative class!");
 		}
-		Iterator<Integer> i = symbolToIndexMap.values().iterator();
-		while (i.hasNext()) {
-			int index = i.next();
-			if (index != 0) {
-				return index;
+		if (dictionary == null) {
+			Iterator<Integer> i = symbolToIndexMap.values().iterator();
+			while (i.hasNext()) {
+				int index = i.next();
+				if (index != 0) {
+					return index;
+				}
 			}
 		}
 		throw new AttributeTypeException("Attribute: No other class than FIRST_CLASS_INDEX found!");
@@ -192,13 +262,13 @@ public class PolynominalMapping implements NominalMapping {
 	/** Returns the values of the attribute as an enumeration of strings. */
 	@Override
 	public List<String> getValues() {
-		return indexToSymbolMap;
+		return dictionary != null ? dictionary.values() : indexToSymbolMap;
 	}
 
 	/** Returns the number of different nominal values. */
 	@Override
 	public int size() {
-		return indexToSymbolMap.size();
+		return dictionary != null ? dictionary.size() : indexToSymbolMap.size();
 	}
 
 	/**
@@ -210,10 +280,20 @@ public class PolynominalMapping implements NominalMapping {
 	 */
 	@Override
 	public void sortMappings() {
-		List<String> allStrings = new LinkedList<>(symbolToIndexMap.keySet());
+		List<String> allStrings;
+		if (dictionary != null) {
+			allStrings = new ArrayList<>(dictionary.size());
+			for (int i = 0; i < dictionary.size(); i++) {
+				String value = dictionary.get(i);
+				if (value != null && dictionary.indexOf(value) == i) {
+					allStrings.add(value);
+				}
+			}
+		} else {
+			allStrings = new ArrayList<>(symbolToIndexMap.keySet());
+		}
 		Collections.sort(allStrings);
-		symbolToIndexMap.clear();
-		indexToSymbolMap.clear();
+		clear();
 		Iterator<String> i = allStrings.iterator();
 		while (i.hasNext()) {
 			mapString(i.next());
@@ -223,8 +303,14 @@ public class PolynominalMapping implements NominalMapping {
 	/** Clears all mappings for nominal values. */
 	@Override
 	public void clear() {
-		symbolToIndexMap.clear();
-		indexToSymbolMap.clear();
+		if (dictionary != null) {
+			dictionary = null;
+			symbolToIndexMap = new LinkedHashMap<>();
+			indexToSymbolMap = new ArrayList<>();
+		} else {
+			symbolToIndexMap.clear();
+			indexToSymbolMap.clear();
+		}
 	}
 
 	/**
@@ -238,6 +324,37 @@ public class PolynominalMapping implements NominalMapping {
 
 	@Override
 	public String toString() {
+		if (dictionary != null) {
+			return dictionary.values().toString();
+		}
 		return indexToSymbolMap.toString() + Tools.getLineSeparator() + symbolToIndexMap.toString();
 	}
+
+	/**
+	 * Writes the compact representation in the form of the maps to stay compatible.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		if (dictionary == null) {
+			out.defaultWriteObject();
+			return;
+		}
+		Map<String, Integer> symbolToIndex = new LinkedHashMap<>();
+		List<String> indexToSymbol = new ArrayList<>(dictionary.size());
+		for (int i = 0; i < dictionary.size(); i++) {
+			String value = dictionary.get(i);
+			indexToSymbol.add(value);
+			if (value != null && dictionary.indexOf(value) == i) {
+				symbolToIndex.put(value, i);
+			}
+		}
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("symbolToIndexMap", symbolToIndex);
+		fields.put("indexToSymbolMap", indexToSymbol);
+		out.writeFields();
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		compactIfNecessary();
+	}
 }
@@ -29,6 +29,7 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.function.IntToDoubleFunction;
+import java.util.function.ObjIntConsumer;
 
 
 /**
@@ -68,6 +69,10 @@ public class ColumnarExampleTable extends AbstractExampleTable implements Growin
 			row = index;
 		}
 
+		private ColumnarExampleTable getTable() {
+			return ColumnarExampleTable.this;
+		}
+
 		@Override
 		protected double get(int column, double defaultValue) {
 			return columns[column].get(row);
@@ -291,6 +296,75 @@ public class ColumnarExampleTable extends AbstractExampleTable implements Growin
 		}
 	}
 
+	/**
+	 * Fills the columns associated with the attributes row by row. For every row, the filler is
+	 * called with an array holding one slot for each attribute, in the order of the given attributes,
+	 * and the row index. The array is reused for all rows and must be completely written by the
+	 * filler.
+	 * <p>
+	 * Since only the given columns are touched, this method can be called concurrently for disjoint
+	 * sets of attributes once all rows are added.
+	 *
+	 * @param attributes
+	 *            the attributes whose columns should be filled with values
+	 * @param filler
+	 *            writes the values of a row into the array
+	 * @since 7.6.1
+	 */
+	public void fillColumns(Attribute[] attributes, ObjIntConsumer<double[]> filler) {
+		Column[] targetColumns = new Column[attributes.length];
+		for (int j = 0; j < attributes.length; j++) {
+			targetColumns[j] = columns[attributes[j].getTableIndex()];
+		}
+		double[] values = new double[attributes.length];
+		for (int i = 0; i < size; i++) {
+			filler.accept(values, i);
+			for (int j = 0; j < targetColumns.length; j++) {
+				targetColumns[j].setLast(i, values[j]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of the given data row within this table.
+	 *
+	 * @param dataRow
+	 *            the data row, usually obtained from an example of an example set backed by this
+	 *            table
+	 * @return the row index or {@code -1} if the data row is not a view on a row of this table
+	 * @since 7.6.1
+	 */
+	public int getRowIndex(DataRow dataRow) {
+		if (dataRow instanceof RowView) {
+			RowView view = (RowView) dataRow;
+			if (view.getTable() == this) {
+				return view.row;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Creates a function that reads the raw column values of the given attribute. Can be used as
+	 * column filler to copy the column into another table without creating examples or data rows.
+	 * Transformations of the attribute are not applied.
+	 *
+	 * @param attribute
+	 *            the attribute whose column should be read
+	 * @param rowMapping
+	 *            maps the rows of the function to rows of this table, can be {@code null} to read
+	 *            the rows in their original order
+	 * @return the function providing the column values
+	 * @since 7.6.1
+	 */
+	public IntToDoubleFunction getColumnReader(Attribute attribute, int[] rowMapping) {
+		final Column column = columns[attribute.getTableIndex()];
+		if (rowMapping == null) {
+			return column::get;
+		}
+		return row -> column.get(rowMapping[row]);
+	}
+
 	/**
 	 * Resets the column associated with the attribute. The reset is necessary if there were already
 	 * rows added in case auto columns are used because this overwrites the values, so the automatic
@@ -510,8 +510,15 @@ public class MainFrame extends ApplicationFrame implements WindowListener {
 	}
 
 	public void validateProcess(final boolean force) {
-		if (force || getProcessState() != Process.PROCESS_STATE_RUNNING) {
-			metaDataUpdateQueue.validate(getProcess(), force || VALIDATE_AUTOMATICALLY_ACTION.isSelected());
+		if (force) {
+			metaDataUpdateQueue.validate(getProcess(), true);
+		} else if (getProcessState() != Process.PROCESS_STATE_RUNNING) {
+			if (VALIDATE_AUTOMATICALLY_ACTION.isSelected()) {
+				// only changed operators and their successors need to be transformed again
+				metaDataUpdateQueue.validateIncrementally(getProcess());
+			} else {
+				metaDataUpdateQueue.validate(getProcess(), false);
+			}
 		} else {
 			processModel.fireProcessUpdated();
 		}
@@ -18,14 +18,33 @@
 */
 package com.rapidminer.gui;
 
+import com.rapidminer.MacroHandler;
 import com.rapidminer.Process;
+import com.rapidminer.ProcessContext;
 import com.rapidminer.gui.tools.ProgressThread;
 import com.rapidminer.gui.tools.UpdateQueue;
+import com.rapidminer.repository.Entry;
+import com.rapidminer.repository.Folder;
+import com.rapidminer.repository.Repository;
+import com.rapidminer.repository.RepositoryListener;
+import com.rapidminer.repository.RepositoryManager;
 import com.rapidminer.tools.I18N;
 import com.rapidminer.tools.LogService;
+import com.rapidminer.tools.Observable;
+import com.rapidminer.tools.Observer;
+import com.rapidminer.tools.container.Pair;
 
 import javax.swing.*;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 import java.util.logging.Level;
 
 
@@ -39,6 +58,50 @@ public class MetaDataUpdateQueue extends UpdateQueue {
 
 	private final MainFrame mainFrame;
 
+	/**
+	 * Incremental validations are replaced by a full validation if the last full validation is
+	 * older than this number of milliseconds, so that e.g. modified files are noticed eventually.
+	 */
+	private static final long FULL_VALIDATION_INTERVAL = 60_000;
+
+	/** Counts the validation requests, used to abort incremental validations once superseded. */
+	private final AtomicLong requests = new AtomicLong();
+
+	/** Set if a change requires the next incremental validation to check the whole process. */
+	private final AtomicBoolean fullValidationRequired = new AtomicBoolean(true);
+
+	/** Whether the {@link #repositoryListener} was registered. */
+	private final AtomicBoolean repositoryListenerRegistered = new AtomicBoolean(false);
+
+	/** The process and its context at the last full validation, set by the validation tasks. */
+	private volatile Process lastProcess;
+	private volatile List<Object> lastContext;
+	private volatile long lastFullValidation;
+
+	/** Any change of a repository entry might change the meta data of entries read by the process. */
+	private final RepositoryListener repositoryListener = new RepositoryListener() {
+
+		@Override
+		public void entryAdded(Entry newEntry, Folder parent) {
+			fullValidationRequired.set(true);
+		}
+
+		@Override
+		public void entryChanged(Entry entry) {
+			fullValidationRequired.set(true);
+		}
+
+		@Override
+		public void entryRemoved(Entry removedEntry, Folder parent, int oldIndex) {
+			fullValidationRequired.set(true);
+		}
+
+		@Override
+		public void folderRefreshed(Folder folder) {
+			fullValidationRequired.set(true);
+		}
+	};
+
 	public MetaDataUpdateQueue(MainFrame mainFrame) {
 		super("MetaDataValidation");
 		this.mainFrame = mainFrame;
@@ -52,6 +115,7 @@ public class MetaDataUpdateQueue extends UpdateQueue {
 	 *            if false, process will be validated only if validate automatically is selected.
 	 */
 	public void validate(final Process process, final boolean force) {
+		requests.incrementAndGet();
 		execute(new Runnable() {
 
 			@Override
@@ -64,6 +128,7 @@ public class MetaDataUpdateQueue extends UpdateQueue {
 						getProgressListener().setCompleted(10);
 						if (force) {
 							process.getRootOperator().checkAll();
+							fullValidationPerformed(process);
 						} else {
 							process.getRootOperator().checkAllExcludingMetaData();
 						}
@@ -94,4 +159,132 @@ public class MetaDataUpdateQueue extends UpdateQueue {
 		});
 	}
 
+	/**
+	 * Enqueues a task to validate the given process incrementally, i.e. only the meta data of
+	 * operators which changed since the last validation or whose input changed is transformed
+	 * again, see {@link com.rapidminer.operator.Operator#checkAllIncrementally(BooleanSupplier)}.
+	 * The validation is aborted as soon as another validation is requested.
+	 * <p>
+	 * Changes which are not reflected by the parameters or ports of operators are not noticed by an
+	 * incremental validation. The whole process is therefore checked instead if the process, its
+	 * context or its macros changed, if a repository entry changed or if the last full validation is
+	 * older than a minute.
+	 *
+	 * @since 7.6.1
+	 */
+	public void validateIncrementally(final Process process) {
+		registerRepositoryListener();
+		final long request = requests.incrementAndGet();
+		execute(new Runnable() {
+
+			@Override
+			public void run() {
+				new ProgressThread("validate_process") {
+
+					@Override
+					public void run() {
+						getProgressListener().setTotal(100);
+						getProgressListener().setCompleted(10);
+						boolean completed = true;
+						if (isFullValidationRequired(process)) {
+							process.getRootOperator().checkAll();
+							fullValidationPerformed(process);
+						} else {
+							completed = process.getRootOperator().checkAllIncrementally(new BooleanSupplier() {
+
+								@Override
+								public boolean getAsBoolean() {
+									return requests.get() != request || isCancelled();
+								}
+							});
+						}
+						getProgressListener().setCompleted(90);
+						if (completed) {
+							try {
+								SwingUtilities.invokeAndWait(new Runnable() {
+
+									@Override
+									public void run() {
+										mainFrame.fireProcessUpdated();
+									}
+								});
+							} catch (InterruptedException e) {
+							} catch (InvocationTargetException e) {
+								LogService.getRoot().log(Level.WARNING,
+										I18N.getMessage(LogService.getRoot().getResourceBundle(),
+												"com.rapidminer.gui.MetaDataUpdateQueue.error_while_updating", e),
+										e);
+							}
+						}
+						getProgressListener().setCompleted(100);
+						getProgressListener().complete();
+					}
+				}.startAndWait();
+			}
+		});
+	}
+
+	/**
+	 * Checks whether the given process must be validated completely instead of incrementally.
+	 */
+	private boolean isFullValidationRequired(Process process) {
+		return fullValidationRequired.get() || process != lastProcess
+				|| System.currentTimeMillis() - lastFullValidation > FULL_VALIDATION_INTERVAL
+				|| !getContext(process).equals(lastContext);
+	}
+
+	/**
+	 * Remembers the state of the process after a full validation.
+	 */
+	private void fullValidationPerformed(Process process) {
+		fullValidationRequired.set(false);
+		lastProcess = process;
+		lastContext = getContext(process);
+		lastFullValidation = System.currentTimeMillis();
+	}
+
+	/**
+	 * Returns a copy of the repository locations and macros of the process context and of the
+	 * macros defined in the macro handler of the process.
+	 */
+	private static List<Object> getContext(Process process) {
+		ProcessContext context = process.getContext();
+		List<List<String>> contextMacros = new ArrayList<>();
+		for (Pair<String, String> macro : context.getMacros()) {
+			contextMacros.add(Arrays.asList(macro.getFirst(), macro.getSecond()));
+		}
+		MacroHandler macroHandler = process.getMacroHandler();
+		Map<String, String> macros = new TreeMap<>();
+		Iterator<String> names = macroHandler.getDefinedMacroNames();
+		while (names.hasNext()) {
+			String name = names.next();
+			macros.put(name, macroHandler.getMacro(name));
+		}
+		return Arrays.asList(new ArrayList<>(context.getInputRepositoryLocations()),
+				new ArrayList<>(context.getOutputRepositoryLocations()), contextMacros, macros);
+	}
+
+	/**
+	 * Registers the repository listener with all current and future repositories.
+	 */
+	private void registerRepositoryListener() {
+		if (!repositoryListenerRegistered.compareAndSet(false, true)) {
+			return;
+		}
+		RepositoryManager manager = RepositoryManager.getInstance(null);
+		manager.addObserver(new Observer<Repository>() {
+
+			@Override
+			public void update(Observable<Repository> observable, Repository repository) {
+				if (repository != null) {
+					repository.addRepositoryListener(repositoryListener);
+				}
+				fullValidationRequired.set(true);
+			}
+		}, false);
+		for (Repository repository : manager.getRepositories()) {
+			repository.addRepositoryListener(repositoryListener);
+		}
+	}
+
 }
@@ -112,6 +112,9 @@ public class AttributeStatisticsPanel extends JPanel {
 	/** {@value} */
 	private static final String LABEL_DOTS = "...";
 
+	/** prefix of statistics which are only estimated so far */
+	private static final String PREFIX_APPROXIMATE = "~ ";
+
 	/** used to open an histogram chart for an attribute */
 	private static final OpenChartAction OPEN_CHART_ACTION = new OpenChartAction();
 
@@ -354,6 +357,7 @@ public class AttributeStatisticsPanel extends JPanel {
 							@Override
 							public void run() {
 								AbstractAttributeStatisticsModel model = AttributeStatisticsPanel.this.model;
+								updateMissingElement(model);
 								if (model.getAttribute().isNumerical()) {
 									updateNumericalElements(model);
 								} else if (model.getAttribute().isNominal()) {
@@ -1159,12 +1163,33 @@ public class AttributeStatisticsPanel extends JPanel {
 		labelAttName.setToolTipText(attLabel);
 		labelAttType.setText(valueTypeString);
 		labelAttType.setIcon(null);
-		labelStatsMissing.setText(Tools.formatIntegerIfPossible(model.getNumberOfMissingValues(), 0));
-		labelStatsMissing.setToolTipText(labelStatsMissing.getText());
+		updateMissingElement(model);
 		labelStatsConstruction.setText(construction);
 		labelStatsConstruction.setToolTipText(labelStatsConstruction.getText());
 	}
 
+	/**
+	 * Updates the gui element for the number of missing values.
+	 *
+	 * @param model
+	 */
+	private void updateMissingElement(final AbstractAttributeStatisticsModel model) {
+		labelStatsMissing.setText(approximate(model,
+				Tools.formatIntegerIfPossible(model.getNumberOfMissingValues(), 0)));
+		labelStatsMissing.setToolTipText(labelStatsMissing.getText());
+	}
+
+	/**
+	 * Marks the text as estimate if the statistics of the model are approximate.
+	 *
+	 * @param model
+	 * @param text
+	 * @return the text, prefixed by {@value #PREFIX_APPROXIMATE} for approximate statistics
+	 */
+	private static String approximate(final AbstractAttributeStatisticsModel model, final String text) {
+		return model.isApproximate() ? PREFIX_APPROXIMATE + text : text;
+	}
+
 	/**
 	 * Updates the gui elements for numerical stats.
 	 *
@@ -1173,14 +1198,17 @@ public class AttributeStatisticsPanel extends JPanel {
 	private void updateNumericalElements(final AbstractAttributeStatisticsModel model) {
 		labelStatsValues.setVisible(false);	// because cardLayout dimensions are determined by all
 		// cards, not only the visible one
-		labelStatsMin.setText(Tools.formatIntegerIfPossible(((NumericalAttributeStatisticsModel) model).getMinimum()));
+		labelStatsMin.setText(approximate(model,
+				Tools.formatIntegerIfPossible(((NumericalAttributeStatisticsModel) model).getMinimum())));
 		labelStatsMin.setToolTipText(labelStatsMin.getText());
-		labelStatsMax.setText(Tools.formatIntegerIfPossible(((NumericalAttributeStatisticsModel) model).getMaximum()));
+		labelStatsMax.setText(approximate(model,
+				Tools.formatIntegerIfPossible(((NumericalAttributeStatisticsModel) model).getMaximum())));
 		labelStatsMax.setToolTipText(labelStatsMax.getText());
-		labelStatsAvg.setText(Tools.formatIntegerIfPossible(((NumericalAttributeStatisticsModel) model).getAverage()));
+		labelStatsAvg.setText(approximate(model,
+				Tools.formatIntegerIfPossible(((NumericalAttributeStatisticsModel) model).getAverage())));
 		labelStatsAvg.setToolTipText(labelStatsAvg.getText());
-		labelStatsDeviation
-		.setText(Tools.formatIntegerIfPossible(((NumericalAttributeStatisticsModel) model).getDeviation()));
+		labelStatsDeviation.setText(approximate(model,
+				Tools.formatIntegerIfPossible(((NumericalAttributeStatisticsModel) model).getDeviation())));
 		labelStatsDeviation.setToolTipText(labelStatsDeviation.getText());
 	}
 
@@ -1194,9 +1222,9 @@ public class AttributeStatisticsPanel extends JPanel {
 		String leastTruncated = SwingTools.getShortenedDisplayName(least, 17);
 		String most = ((NominalAttributeStatisticsModel) model).getMost();
 		String mostTruncated = SwingTools.getShortenedDisplayName(most, 17);
-		labelStatsLeast.setText(leastTruncated);
+		labelStatsLeast.setText(approximate(model, leastTruncated));
 		labelStatsLeast.setToolTipText(least);
-		labelStatsMost.setText(mostTruncated);
+		labelStatsMost.setText(approximate(model, mostTruncated));
 		labelStatsMost.setToolTipText(most);
 		displayNominalValues();
 	}
@@ -1212,11 +1240,11 @@ public class AttributeStatisticsPanel extends JPanel {
 		nominalValueFiller.setVisible(false);
 		labelStatsValues.setVisible(false);
 
-		labelStatsDuration.setText(((DateTimeAttributeStatisticsModel) model).getDuration());
+		labelStatsDuration.setText(approximate(model, ((DateTimeAttributeStatisticsModel) model).getDuration()));
 		labelStatsDuration.setToolTipText(labelStatsDuration.getText());
-		labelStatsFrom.setText(((DateTimeAttributeStatisticsModel) model).getFrom());
+		labelStatsFrom.setText(approximate(model, ((DateTimeAttributeStatisticsModel) model).getFrom()));
 		labelStatsFrom.setToolTipText(labelStatsFrom.getText());
-		labelStatsUntil.setText(((DateTimeAttributeStatisticsModel) model).getUntil());
+		labelStatsUntil.setText(approximate(model, ((DateTimeAttributeStatisticsModel) model).getUntil()));
 		labelStatsUntil.setToolTipText(labelStatsUntil.getText());
 	}
 
@@ -18,7 +18,9 @@
 */
 package com.rapidminer.gui.viewer.metadata;
 
+import com.rapidminer.example.Attribute;
 import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.ProgressiveStatistics;
 import com.rapidminer.example.Statistics;
 import com.rapidminer.gui.tools.UpdateQueue;
 import com.rapidminer.gui.viewer.metadata.model.AbstractAttributeStatisticsModel;
@@ -44,6 +46,15 @@ import java.util.logging.Level;
  */
 public class MetaDataStatisticsController {
 
+	/** example sets with more examples show estimates until the exact statistics are calculated */
+	private static final int PROGRESSIVE_STATISTICS_THRESHOLD = 100_000;
+
+	/** the maximal number of examples scanned for the estimates */
+	private static final int PROGRESSIVE_STATISTICS_EXAMPLES = 1 << 16;
+
+	/** the seed of the block order of the estimates */
+	private static final long PROGRESSIVE_STATISTICS_SEED = 2001;
+
 	/**
 	 * the barrier which is used to update the stats of all {@link AttributeStatisticsPanel}s once
 	 * the {@link ExampleSet} statistics have been calculated
@@ -600,6 +611,8 @@ public class MetaDataStatisticsController {
 	/**
 	 * Calculates the statistics of the given {@link ExampleSet} in a {@link SwingWorker}. Once the
 	 * statistics are calculated, will update the stats on all {@link AttributeStatisticsPanel}s.
+	 * Large example sets show estimates in the meantime, see
+	 * {@link #estimateStatistics(ExampleSet)}.
 	 *
 	 * @param exampleSet
 	 */
@@ -608,6 +621,9 @@ public class MetaDataStatisticsController {
 
 			@Override
 			protected Void doInBackground() throws Exception {
+				if (exampleSet.size() > PROGRESSIVE_STATISTICS_THRESHOLD) {
+					estimateStatistics(exampleSet);
+				}
 				exampleSet.recalculateAllAttributeStatistics();
 				waitAtBarrier();
 
@@ -617,6 +633,45 @@ public class MetaDataStatisticsController {
 		worker.execute();
 	}
 
+	/**
+	 * Scans random blocks of the given {@link ExampleSet} and updates all
+	 * {@link AbstractAttributeStatisticsModel}s known so far with the estimates after 1, 2, 4, ...
+	 * blocks. Stops after {@link #PROGRESSIVE_STATISTICS_EXAMPLES} examples or when interrupted.
+	 *
+	 * @param exampleSet
+	 */
+	private void estimateStatistics(final ExampleSet exampleSet) {
+		List<Attribute> attributes = new ArrayList<>();
+		exampleSet.getAttributes().allAttributes().forEachRemaining(attributes::add);
+		ProgressiveStatistics statistics = new ProgressiveStatistics(exampleSet, attributes,
+				ProgressiveStatistics.DEFAULT_BLOCK_SIZE, PROGRESSIVE_STATISTICS_SEED);
+		int blocks = 0;
+		boolean published = true;
+		while (statistics.getScannedExamples() < PROGRESSIVE_STATISTICS_EXAMPLES && statistics.scanNextBlock()) {
+			if (Thread.currentThread().isInterrupted()) {
+				return;
+			}
+			published = Integer.bitCount(++blocks) == 1;
+			if (published) {
+				publishEstimates(statistics);
+			}
+		}
+		if (!published) {
+			publishEstimates(statistics);
+		}
+	}
+
+	/**
+	 * Updates all {@link AbstractAttributeStatisticsModel}s known so far with the given estimates.
+	 *
+	 * @param statistics
+	 */
+	private void publishEstimates(ProgressiveStatistics statistics) {
+		for (AbstractAttributeStatisticsModel statModel : model.getOrderedAttributeStatisticsModels()) {
+			statModel.updateApproximateStatistics(statistics);
+		}
+	}
+
 	/**
 	 * Sorts the given {@link List} of {@link AbstractAttributeStatisticsModel}s with the given
 	 * {@link Comparator}.
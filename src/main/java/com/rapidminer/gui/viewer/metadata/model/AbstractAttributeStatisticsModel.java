@@ -20,7 +20,9 @@ package com.rapidminer.gui.viewer.metadata.model;
 
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.AttributeRole;
+import com.rapidminer.example.AttributeSketch;
 import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.ProgressiveStatistics;
 import com.rapidminer.gui.viewer.metadata.AttributeStatisticsPanel;
 import com.rapidminer.gui.viewer.metadata.event.AttributeStatisticsEvent;
 import com.rapidminer.gui.viewer.metadata.event.AttributeStatisticsEvent.EventType;
@@ -64,6 +66,9 @@ public abstract class AbstractAttributeStatisticsModel {
 	/** the number of missing values */
 	protected double missing;
 
+	/** if the statistics are estimates which have not yet been replaced by exact ones */
+	protected volatile boolean approximate;
+
 	/** the construction value for the attribute */
 	private final String construction;
 
@@ -262,6 +267,48 @@ public abstract class AbstractAttributeStatisticsModel {
 	 */
 	public abstract void updateStatistics(ExampleSet exampleSet);
 
+	/**
+	 * Updates the statistics with the estimates of the given {@link ProgressiveStatistics}, counts
+	 * are extrapolated to the whole {@link ExampleSet}. The estimates are marked as
+	 * {@link #isApproximate()} until they are replaced by {@link #updateStatistics(ExampleSet)}.
+	 * Does nothing if the statistics do not contain the attribute.
+	 *
+	 * @param statistics
+	 *            the partially or completely scanned statistics
+	 * @since 7.6.1
+	 */
+	public void updateApproximateStatistics(ProgressiveStatistics statistics) {
+		AttributeSketch sketch = statistics.getSketch(attribute);
+		if (sketch == null) {
+			return;
+		}
+		approximate = true;
+		missing = Math.round(sketch.getMissingWeight() * statistics.getScaleFactor());
+		updateApproximateStatistics(sketch, statistics.getScaleFactor());
+
+		fireStatisticsChangedEvent();
+	}
+
+	/**
+	 * Updates the type specific statistics with the estimates of the sketch.
+	 *
+	 * @param sketch
+	 *            the sketch of the attribute
+	 * @param scaleFactor
+	 *            the factor which extrapolates counts of the sketch to the whole {@link ExampleSet}
+	 * @since 7.6.1
+	 */
+	protected abstract void updateApproximateStatistics(AttributeSketch sketch, double scaleFactor);
+
+	/**
+	 * @return <code>true</code> if the statistics are estimates which are not yet replaced by the
+	 *         exact statistics
+	 * @since 7.6.1
+	 */
+	public boolean isApproximate() {
+		return approximate;
+	}
+
 	/**
 	 * Returns the number of missing values.
 	 *
@@ -19,6 +19,7 @@
 package com.rapidminer.gui.viewer.metadata.model;
 
 import com.rapidminer.example.Attribute;
+import com.rapidminer.example.AttributeSketch;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.Statistics;
@@ -121,13 +122,35 @@ public class DateTimeAttributeStatisticsModel extends AbstractAttributeStatistic
 
 	@Override
 	public void updateStatistics(final ExampleSet exampleSet) {
+		long minMilliseconds = (long) exampleSet.getStatistics(getAttribute(), Statistics.MINIMUM);
+		long maxMilliseconds = (long) exampleSet.getStatistics(getAttribute(), Statistics.MAXIMUM);
+		missing = exampleSet.getStatistics(getAttribute(), Statistics.UNKNOWN);
+		updateRange(minMilliseconds, maxMilliseconds);
+		if (approximate) {
+			// charts created in the meantime may be based on the estimates
+			chartsArray[INDEX_HISTOGRAM_CHART] = null;
+			approximate = false;
+		}
+
+		fireStatisticsChangedEvent();
+	}
+
+	@Override
+	protected void updateApproximateStatistics(AttributeSketch sketch, double scaleFactor) {
+		if (!Double.isNaN(sketch.getMinimum())) {
+			updateRange((long) sketch.getMinimum(), (long) sketch.getMaximum());
+		}
+	}
+
+	/**
+	 * Updates the duration and the formatted bounds of the range.
+	 */
+	private void updateRange(long minMilliseconds, long maxMilliseconds) {
 		final String days = WHITESPACE
 				+ I18N.getMessage(I18N.getGUIBundle(), "gui.label.attribute_statistics.statistics.days.label");
 		final String hours = WHITESPACE
 				+ I18N.getMessage(I18N.getGUIBundle(), "gui.label.attribute_statistics.statistics.hours.label");
 
-		long minMilliseconds = (long) exampleSet.getStatistics(getAttribute(), Statistics.MINIMUM);
-		long maxMilliseconds = (long) exampleSet.getStatistics(getAttribute(), Statistics.MAXIMUM);
 		long difference = maxMilliseconds - minMilliseconds;
 		String dura = "";
 		if (getAttribute().getValueType() == Ontology.DATE) {
@@ -170,12 +193,9 @@ public class DateTimeAttributeStatisticsModel extends AbstractAttributeStatistic
 			minResult = FORMAT_DATE_TIME.format(new Date(minMilliseconds));
 			maxResult = FORMAT_DATE_TIME.format(new Date(maxMilliseconds));
 		}
-		missing = exampleSet.getStatistics(getAttribute(), Statistics.UNKNOWN);
 		from = minResult;
 		until = maxResult;
 		duration = dura;
-
-		fireStatisticsChangedEvent();
 	}
 
 	/**
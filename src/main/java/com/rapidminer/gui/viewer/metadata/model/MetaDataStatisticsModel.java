@@ -89,7 +89,7 @@ public class MetaDataStatisticsModel {
 	 * the ordered list containing all {@link AbstractAttributeStatisticsModel}s in the correct
 	 * order
 	 */
-	private List<AbstractAttributeStatisticsModel> orderedModelList;
+	private volatile List<AbstractAttributeStatisticsModel> orderedModelList;
 
 	/** holds the sorting settings for all possible sorting types */
 	private final Map<SortingType, SortingDirection> mapOfSortingSettings;
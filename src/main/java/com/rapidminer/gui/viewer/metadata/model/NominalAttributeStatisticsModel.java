@@ -19,6 +19,7 @@
 package com.rapidminer.gui.viewer.metadata.model;
 
 import com.rapidminer.example.Attribute;
+import com.rapidminer.example.AttributeSketch;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.Statistics;
 import com.rapidminer.gui.tools.AttributeGuiTools;
@@ -26,6 +27,7 @@ import com.rapidminer.gui.viewer.metadata.AttributeStatisticsPanel;
 import com.rapidminer.tools.I18N;
 import com.rapidminer.tools.Ontology;
 import com.rapidminer.tools.container.ValueAndCount;
+import com.rapidminer.tools.math.sketch.HeavyHitters;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.plot.CategoryPlot;
@@ -105,21 +107,39 @@ public class NominalAttributeStatisticsModel extends AbstractAttributeStatistics
 
 		// count nominal values
 		int totalNumberOfValues = getAttribute().getMapping().size();
+		List<ValueAndCount> values = new LinkedList<>();
 		if (totalNumberOfValues > 0) {
 			// create a list of all nominal values and their corresponding count
 			Iterator<String> i = getAttribute().getMapping().getValues().iterator();
-			nominalValues.clear();
 			while (i.hasNext()) {
 				String value = i.next();
-				nominalValues.add(new ValueAndCount(value, (int) exampleSet.getStatistics(getAttribute(), Statistics.COUNT,
+				values.add(new ValueAndCount(value, (int) exampleSet.getStatistics(getAttribute(), Statistics.COUNT,
 						value)));
 			}
-			Collections.sort(nominalValues);
+			Collections.sort(values);
+		}
+		nominalValues = values;
+		if (approximate) {
+			// charts created in the meantime may be based on the estimates
+			chartsArray[INDEX_BAR_CHART] = null;
+			approximate = false;
 		}
 
 		fireStatisticsChangedEvent();
 	}
 
+	@Override
+	protected void updateApproximateStatistics(AttributeSketch sketch, double scaleFactor) {
+		// only the most frequent values are known
+		List<ValueAndCount> values = new LinkedList<>();
+		for (HeavyHitters.Counter counter : sketch.getFrequentValues().getTopValues()) {
+			values.add(new ValueAndCount(getAttribute().getMapping().mapIndex((int) counter.getValue()),
+					(int) Math.round(counter.getCount() * scaleFactor)));
+		}
+		Collections.sort(values);
+		nominalValues = values;
+	}
+
 	@Override
 	public JFreeChart getChartOrNull(int index) {
 		prepareCharts();
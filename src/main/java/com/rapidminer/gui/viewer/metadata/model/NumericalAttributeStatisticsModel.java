@@ -19,6 +19,7 @@
 package com.rapidminer.gui.viewer.metadata.model;
 
 import com.rapidminer.example.Attribute;
+import com.rapidminer.example.AttributeSketch;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.Statistics;
@@ -88,10 +89,23 @@ public class NumericalAttributeStatisticsModel extends AbstractAttributeStatisti
 		minimum = exampleSet.getStatistics(getAttribute(), Statistics.MINIMUM);
 		maximum = exampleSet.getStatistics(getAttribute(), Statistics.MAXIMUM);
 		missing = exampleSet.getStatistics(getAttribute(), Statistics.UNKNOWN);
+		if (approximate) {
+			// charts created in the meantime may be based on the estimates
+			chartsArray[INDEX_HISTOGRAM_CHART] = null;
+			approximate = false;
+		}
 
 		fireStatisticsChangedEvent();
 	}
 
+	@Override
+	protected void updateApproximateStatistics(AttributeSketch sketch, double scaleFactor) {
+		average = sketch.getAverage();
+		deviation = Math.sqrt(sketch.getVariance());
+		minimum = sketch.getMinimum();
+		maximum = sketch.getMaximum();
+	}
+
 	/**
 	 * Gets the average of the numerical values.
 	 *
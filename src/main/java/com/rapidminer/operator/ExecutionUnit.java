@@ -352,11 +352,22 @@ public class ExecutionUnit extends AbstractObservable<ExecutionUnit> {
 		}
 	}
 
+	/**
+	 * Transforms the meta data of all operators in topological order. Operators which were not
+	 * modified and whose input meta data did not change since their last transformation keep their
+	 * meta data, see {@link Operator#transformMetaDataIfChanged()}.
+	 */
 	public void transformMetaData() {
+		Operator root = getEnclosingOperator().getRoot();
+		getEnclosingOperator().updateInnerSourceVersions(null);
 		List<Operator> sorted = topologicalSort();
 		for (Operator op : sorted) {
-			op.transformMetaData();
+			if (root.isMetaDataTransformationCancelled()) {
+				return;
+			}
+			op.transformMetaDataIfChanged();
 		}
+		getEnclosingOperator().updateInnerSourceVersions(this);
 		if (sorted.size() != operators.size()) {
 			List<Operator> remainder = new LinkedList<Operator>(operators);
 			remainder.removeAll(sorted);
@@ -24,13 +24,15 @@ import com.rapidminer.tools.Observable;
 import com.rapidminer.tools.Observer;
 
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
 
 /**
- * This map of {@link IOObject}s is used to make {@link IOObject}s accessible for a given scope.
+ * This map of {@link IOObject}s is used to make {@link IOObject}s accessible for a given scope. The
+ * objects are kept in a {@link SpillingIOObjectStorage}, i.e. they might be written to disk if the
+ * configured memory budget is exceeded.
  *
  * @author Sabrina Kirstein, Marco Boeck
  *
@@ -51,7 +53,7 @@ public class IOObjectMap {
 	/**
 	 * Stores IOObjects according to a specified name.
 	 */
-	private Map<String, IOObject> cacheMap = new HashMap<>();
+	private final SpillingIOObjectStorage cacheMap = new SpillingIOObjectStorage();
 
 	/** observable which informs observers about the map state */
 	private PrivateMapObservable mapObservable = new PrivateMapObservable();
@@ -79,13 +81,13 @@ public class IOObjectMap {
 
 	/** Cache a given {@link IOObject} with an associated name. */
 	public void store(String name, IOObject object) {
-		IOObject previous = null;
+		boolean replaced;
 		synchronized (LOCK) {
-			previous = cacheMap.put(name, object);
+			replaced = cacheMap.put(name, object);
 
 		}
 
-		if (previous == null) {
+		if (!replaced) {
 			mapObservable.fireUpdate(new IOObjectMapEvent(IOObjectMapEventType.ADDED, name));
 		} else {
 			mapObservable.fireUpdate(new IOObjectMapEvent(IOObjectMapEventType.CHANGED, name));
@@ -100,13 +102,32 @@ public class IOObjectMap {
 	}
 
 	/**
-	 * Returns all cached {@link IOObject}s
+	 * Returns the class of the {@link IOObject} with the given name or <code>null</code> if none
+	 * exists. In contrast to {@link #get(String)}, this does not restore spilled objects.
+	 *
+	 * @since 7.6.1
+	 */
+	public Class<? extends IOObject> getObjectClass(String name) {
+		return cacheMap.getObjectClass(name);
+	}
+
+	/**
+	 * Returns a snapshot of all cached {@link IOObject}s. Spilled objects are restored from disk to
+	 * build the snapshot, use {@link #getAllKeys()} and {@link #getObjectClass(String)} if the
+	 * objects themselves are not needed.
 	 *
 	 * @return
 	 */
 	public Map<String, IOObject> getAll() {
 		synchronized (LOCK) {
-			return Collections.unmodifiableMap(cacheMap);
+			Map<String, IOObject> objects = new LinkedHashMap<>();
+			for (String name : cacheMap.keySet()) {
+				IOObject object = cacheMap.get(name);
+				if (object != null) {
+					objects.put(name, object);
+				}
+			}
+			return Collections.unmodifiableMap(objects);
 		}
 	}
 
@@ -117,10 +138,20 @@ public class IOObjectMap {
 	 */
 	public Set<String> getAllKeys() {
 		synchronized (LOCK) {
-			return Collections.unmodifiableSet(cacheMap.keySet());
+			return cacheMap.keySet();
 		}
 	}
 
+	/**
+	 * Returns the storage holding the cached {@link IOObject}s, e.g. to query its hit and spill
+	 * statistics.
+	 *
+	 * @since 7.6.1
+	 */
+	public SpillingIOObjectStorage getStorage() {
+		return cacheMap;
+	}
+
 	/**
 	 * Removes an {@link IOObject} with the given name
 	 *
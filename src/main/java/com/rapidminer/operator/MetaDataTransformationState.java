@@ -0,0 +1,118 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import com.rapidminer.operator.ports.Port;
+import com.rapidminer.operator.ports.metadata.MetaDataError;
+
+
+/**
+ * The result of the last meta data transformation of an operator as used by
+ * {@link Operator#transformMetaDataIfChanged()}. The meta data itself stays at the ports of the
+ * operator, this class only remembers what the transformation depended on and which errors it
+ * produced, so that they can be restored without transforming again.
+ *
+ * @since 7.6.1
+ */
+final class MetaDataTransformationState {
+
+	/** the modification count of the operator when the transformation started */
+	private final long modificationCount;
+
+	/** the sources and their versions of the input ports when the transformation started */
+	private final Object[] inputKey;
+
+	/** the version of the meta data delivered to the output ports */
+	private final long resultVersion;
+
+	/** the versions of the inner operators of a chain, {@code null} if unknown */
+	private final List<Object> innerFingerprint;
+
+	/** the errors added to the operator during the transformation */
+	private final List<ProcessSetupError> errors;
+
+	/** the ports of the operator and their errors after the transformation */
+	private final List<Port> ports;
+	private final List<Collection<MetaDataError>> portErrors;
+
+	private boolean errorsCleared = false;
+	private boolean portErrorsCleared = false;
+
+	MetaDataTransformationState(long modificationCount, Object[] inputKey, long resultVersion,
+			List<Object> innerFingerprint, List<ProcessSetupError> errors, List<Port> ports,
+			List<Collection<MetaDataError>> portErrors) {
+		this.modificationCount = modificationCount;
+		this.inputKey = inputKey;
+		this.resultVersion = resultVersion;
+		this.innerFingerprint = innerFingerprint;
+		this.errors = errors;
+		this.ports = ports;
+		this.portErrors = portErrors;
+	}
+
+	/**
+	 * Returns whether the transformation is still valid for an operator with the given
+	 * modification count and input key.
+	 */
+	boolean isValidFor(long modificationCount, Object[] inputKey) {
+		return this.modificationCount == modificationCount && Arrays.equals(this.inputKey, inputKey);
+	}
+
+	long getResultVersion() {
+		return resultVersion;
+	}
+
+	List<Object> getInnerFingerprint() {
+		return innerFingerprint;
+	}
+
+	List<ProcessSetupError> getErrors() {
+		return errors;
+	}
+
+	/** Marks the errors of the operator or of its ports as cleared. */
+	void errorsCleared(boolean operatorErrors, boolean portErrors) {
+		errorsCleared |= operatorErrors;
+		portErrorsCleared |= portErrors;
+	}
+
+	/**
+	 * Adds the errors of the transformation to the ports again if they were cleared since.
+	 *
+	 * @return whether the errors of the operator itself must be restored as well
+	 */
+	boolean restorePortErrors() {
+		if (portErrorsCleared) {
+			for (int i = 0; i < ports.size(); i++) {
+				Port port = ports.get(i);
+				for (MetaDataError error : portErrors.get(i)) {
+					port.addError(error);
+				}
+			}
+			portErrorsCleared = false;
+		}
+		boolean restoreErrors = errorsCleared;
+		errorsCleared = false;
+		return restoreErrors;
+	}
+}
@@ -59,6 +59,8 @@ import java.net.URL;
 import java.nio.charset.Charset;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -244,6 +246,24 @@ public abstract class Operator extends AbstractObservable<Operator>
 	 */
 	private boolean dirtynessWasPropagated = false;
 
+	/** Source of the versions of transformed meta data, see {@link #transformMetaDataIfChanged()}. */
+	private static final AtomicLong META_DATA_VERSIONS = new AtomicLong();
+
+	/**
+	 * Counts the changes of parameters, ports and activation of this operator, i.e. of everything
+	 * its meta data transformation depends on apart from the input meta data.
+	 */
+	private volatile long modificationCount = 0;
+
+	/** The state of the last incremental meta data transformation, {@code null} if invalid. */
+	private MetaDataTransformationState metaDataState;
+
+	/** Signals whether {@link #transformMetaData()} is called incrementally. */
+	private boolean incrementalTransformation = false;
+
+	/** Aborts {@link #checkAllIncrementally(BooleanSupplier)} if this is the root operator. */
+	private transient volatile BooleanSupplier metaDataTransformationCancelled;
+
 	private transient final Logger logger = Logger.getLogger(Operator.class.getName());
 
 	private transient final LoggingHandler logService = new WrapperLoggingHandler(logger);
@@ -577,6 +597,7 @@ public abstract class Operator extends AbstractObservable<Operator>
 	public void setEnabled(boolean enabled) {
 		if (this.enabled != enabled) {
 			this.enabled = enabled;
+			modificationCount++;
 			fireUpdate(this);
 		}
 	}
@@ -1758,6 +1779,39 @@ public abstract class Operator extends AbstractObservable<Operator>
 		updateExecutionOrder();
 	}
 
+	/**
+	 * As {@link #checkAll()}, but only transforms the meta data of operators which were modified
+	 * or whose input meta data changed since the last check. The meta data and errors of all other
+	 * operators are kept. Changes which are not reflected by parameters or ports, e.g. of the
+	 * process context, the macros or data read from files or the repository, are only noticed by
+	 * {@link #checkAll()}. Callers have to fall back to it if such changes can have happened.
+	 *
+	 * @param cancelled
+	 *            checked between the transformations of two operators, the check is aborted as
+	 *            soon as it returns {@code true}
+	 * @return {@code false} if the check was aborted
+	 * @since 7.6.1
+	 */
+	public boolean checkAllIncrementally(BooleanSupplier cancelled) {
+		Operator root = getRoot();
+		root.clear(Port.CLEAR_SIMPLE_ERRORS);
+		if (isEnabled()) {
+			checkOperator();
+			root.metaDataTransformationCancelled = cancelled;
+			try {
+				root.transformMetaDataIfChanged();
+				if (root.isMetaDataTransformationCancelled()) {
+					return false;
+				}
+			} finally {
+				root.metaDataTransformationCancelled = null;
+			}
+			propagateDirtyness();
+		}
+		updateExecutionOrder();
+		return true;
+	}
+
 	/** As check all, but does not check the meta data for performance reasons. */
 	public void checkAllExcludingMetaData() {
 		getRoot().clear(Port.CLEAR_METADATA | Port.CLEAR_SIMPLE_ERRORS);
@@ -2013,8 +2067,19 @@ public abstract class Operator extends AbstractObservable<Operator>
 	private final InputPorts inputPorts;
 	private final OutputPorts outputPorts;
 	private final MDTransformer transformer = new MDTransformer(this);
-	private final Observer<Port> delegatingPortObserver = new DelegatingObserver<>(this, this);
-	private final Observer<String> delegatingParameterObserver = new DelegatingObserver<>(this, this);
+	private final Observer<Port> delegatingPortObserver = new ModificationObserver<>();
+	private final Observer<String> delegatingParameterObserver = new ModificationObserver<>();
+
+	/** Counts the modification and informs the observers of this operator. */
+	private final class ModificationObserver<T> implements Observer<T> {
+
+		@Override
+		public void update(Observable<T> observable, T arg) {
+			modificationCount++;
+			fireUpdate(Operator.this);
+		}
+	}
+
 	/** Sets the dirty flag on any update. */
 	@SuppressWarnings("rawtypes")
 	private final Observer dirtyObserver = new Observer<Object>() {
@@ -2111,6 +2176,15 @@ public abstract class Operator extends AbstractObservable<Operator>
 
 	/** Clears output and input ports. */
 	public void clear(int clearFlags) {
+		MetaDataTransformationState state = metaDataState;
+		if (state != null) {
+			if ((clearFlags & Port.CLEAR_ALL_METADATA) > 0) {
+				invalidateMetaDataState();
+			} else {
+				state.errorsCleared((clearFlags & Port.CLEAR_SIMPLE_ERRORS) > 0,
+						(clearFlags & Port.CLEAR_META_DATA_ERRORS) > 0);
+			}
+		}
 		if ((clearFlags & Port.CLEAR_SIMPLE_ERRORS) > 0) {
 			errorList.clear();
 		}
@@ -2152,6 +2226,9 @@ public abstract class Operator extends AbstractObservable<Operator>
 	 * the meta data on the input Ports to be already calculated.
 	 */
 	public void transformMetaData() {
+		if (!incrementalTransformation) {
+			invalidateMetaDataState();
+		}
 		clear(Port.CLEAR_META_DATA_ERRORS);
 		if (!isEnabled()) {
 			return;
@@ -2160,6 +2237,131 @@ public abstract class Operator extends AbstractObservable<Operator>
 		getTransformer().transformMetaData();
 	}
 
+	/**
+	 * Transforms the meta data unless neither this operator nor the meta data at its input ports
+	 * changed since the last call. Otherwise the meta data at the output ports is kept and the
+	 * errors of the last transformation are restored if they were cleared in the meantime.
+	 *
+	 * @return whether the meta data was transformed
+	 */
+	boolean transformMetaDataIfChanged() {
+		long modification = modificationCount;
+		Object[] inputKey = getMetaDataInputKey();
+		MetaDataTransformationState state = metaDataState;
+		if (state != null && state.isValidFor(modification, inputKey)) {
+			if (state.restorePortErrors()) {
+				errorList.addAll(state.getErrors());
+			}
+			return false;
+		}
+		for (OutputPort port : getOutputPorts().getAllPorts()) {
+			port.deliverMD(null);
+		}
+		int errorCount = errorList.size();
+		transformMetaDataIncrementally();
+		metaDataState = createMetaDataState(modification, inputKey, nextMetaDataVersion(), null, errorCount);
+		return true;
+	}
+
+	/** Calls {@link #transformMetaData()} without invalidating the last incremental state. */
+	final void transformMetaDataIncrementally() {
+		incrementalTransformation = true;
+		try {
+			transformMetaData();
+		} finally {
+			incrementalTransformation = false;
+		}
+	}
+
+	/**
+	 * Remembers the result of a transformation.
+	 *
+	 * @param errorCount
+	 *            the number of errors of this operator before the transformation
+	 */
+	final MetaDataTransformationState createMetaDataState(long modification, Object[] inputKey, long resultVersion,
+			List<Object> innerFingerprint, int errorCount) {
+		List<ProcessSetupError> errors;
+		synchronized (errorList) {
+			errors = new ArrayList<>(errorList.subList(Math.min(errorCount, errorList.size()), errorList.size()));
+		}
+		List<Port> ports = new ArrayList<>();
+		ports.addAll(getInputPorts().getAllPorts());
+		ports.addAll(getOutputPorts().getAllPorts());
+		List<Collection<MetaDataError>> portErrors = new ArrayList<>(ports.size());
+		for (Port port : ports) {
+			portErrors.add(new ArrayList<>(port.getErrors()));
+		}
+		return new MetaDataTransformationState(modification, inputKey, resultVersion, innerFingerprint, errors, ports,
+				portErrors);
+	}
+
+	/**
+	 * Returns the sources of the input ports together with the versions of their meta data. If the
+	 * key is unchanged, so is the input meta data.
+	 */
+	final Object[] getMetaDataInputKey() {
+		List<InputPort> ports = getInputPorts().getAllPorts();
+		Object[] key = new Object[2 * ports.size()];
+		int i = 0;
+		for (InputPort port : ports) {
+			OutputPort source = port.getSource();
+			key[i++] = source;
+			if (source == null) {
+				key[i++] = null;
+			} else {
+				Operator producer = source.getPorts().getOwner().getOperator();
+				if (producer == getParent()) {
+					// inner source of the enclosing subprocess
+					key[i++] = getParent().getInnerMetaDataVersion(source);
+				} else {
+					key[i++] = producer.getMetaDataVersion();
+				}
+			}
+		}
+		return key;
+	}
+
+	/**
+	 * Returns the version of the meta data at the output ports. It changes whenever the meta data
+	 * might have changed.
+	 */
+	final long getMetaDataVersion() {
+		MetaDataTransformationState state = metaDataState;
+		return state == null ? nextMetaDataVersion() : state.getResultVersion();
+	}
+
+	final MetaDataTransformationState getMetaDataState() {
+		return metaDataState;
+	}
+
+	final void setMetaDataState(MetaDataTransformationState state) {
+		this.metaDataState = state;
+	}
+
+	final long getModificationCount() {
+		return modificationCount;
+	}
+
+	final int getOperatorErrorCount() {
+		return errorList.size();
+	}
+
+	/** Forgets the last incremental transformation. */
+	void invalidateMetaDataState() {
+		metaDataState = null;
+	}
+
+	/** Returns whether the running {@link #checkAllIncrementally(BooleanSupplier)} was aborted. */
+	final boolean isMetaDataTransformationCancelled() {
+		BooleanSupplier cancelled = metaDataTransformationCancelled;
+		return cancelled != null && cancelled.getAsBoolean();
+	}
+
+	static long nextMetaDataVersion() {
+		return META_DATA_VERSIONS.incrementAndGet();
+	}
+
 	/**
 	 * By default, all ports will be auto-connected by
 	 * {@link ExecutionUnit#autoWire(CompatibilityLevel, boolean, boolean)}. Optional outputs were
@@ -2238,6 +2440,8 @@ public abstract class Operator extends AbstractObservable<Operator>
 
 	private void setNotDirty() {
 		this.dirty = false;
+		// real meta data might be available now
+		modificationCount++;
 		fireUpdate();
 	}
 
@@ -2383,6 +2587,7 @@ public abstract class Operator extends AbstractObservable<Operator>
 	 */
 	public void setCompatibilityLevel(OperatorVersion compatibilityLevel) {
 		this.compatibilityLevel = compatibilityLevel;
+		modificationCount++;
 		fireUpdate();
 	}
 
@@ -20,6 +20,7 @@ package com.rapidminer.operator;
 
 import com.rapidminer.Process;
 import com.rapidminer.operator.ports.*;
+import com.rapidminer.operator.ports.impl.AbstractOutputPort;
 import com.rapidminer.operator.ports.impl.InputPortsImpl;
 import com.rapidminer.operator.ports.impl.OutputPortsImpl;
 import com.rapidminer.operator.ports.metadata.MDTransformer;
@@ -29,10 +30,13 @@ import com.rapidminer.tools.Observer;
 import com.rapidminer.tools.Tools;
 import com.rapidminer.tools.patterns.Visitor;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -53,6 +57,24 @@ public abstract class OperatorChain extends Operator {
 
 	private final Observer<ExecutionUnit> delegatingObserver = new DelegatingObserver<ExecutionUnit, Operator>(this, this);
 
+	/**
+	 * The version of the meta data delivered to the inner sources by this chain, see
+	 * {@link #getInnerMetaDataVersion(OutputPort)}.
+	 */
+	private volatile long innerMetaDataVersion = nextMetaDataVersion();
+
+	/** The versions of the meta data at the inner sources which received meta data. */
+	private final Map<OutputPort, Object> innerSourceVersions = new HashMap<>();
+
+	/** The number of deliveries to the inner sources when their versions were last updated. */
+	private final Map<OutputPort, Integer> innerSourceDeliveries = new HashMap<>();
+
+	/**
+	 * The fingerprints of the subprocesses transformed so far by the running
+	 * {@link #transformMetaData()}, {@code null} if this chain is not transformed.
+	 */
+	private List<Object> transformedSubprocesses;
+
 	/**
 	 * Creates an empty operator chain.
 	 *
@@ -560,6 +582,136 @@ public abstract class OperatorChain extends Operator {
 		}
 	}
 
+	/**
+	 * Returns the version of the meta data at the given inner source. It changes if this chain or
+	 * its input meta data changed, or if one of the subprocesses transformed before the meta data
+	 * was delivered to the inner source changed, e.g. when the output of the first subprocess is
+	 * passed to the second.
+	 */
+	final Object getInnerMetaDataVersion(OutputPort innerSource) {
+		Object version = innerSourceVersions.get(innerSource);
+		return version == null ? innerMetaDataVersion : version;
+	}
+
+	/**
+	 * Updates the versions of the inner sources which received meta data since the last update.
+	 * Called by the subprocesses before and after their transformation, so that the version of an
+	 * inner source depends on the subprocesses transformed before its meta data was delivered.
+	 *
+	 * @param transformed
+	 *            the subprocess which was transformed, or {@code null} before a transformation
+	 */
+	final void updateInnerSourceVersions(ExecutionUnit transformed) {
+		List<Object> transformedFingerprints = transformedSubprocesses;
+		List<Object> version = null;
+		for (ExecutionUnit subprocess : subprocesses) {
+			for (OutputPort port : subprocess.getInnerSources().getAllPorts()) {
+				Integer deliveries = port instanceof AbstractOutputPort
+						? ((AbstractOutputPort) port).getMetaDataDeliveryCount() : null;
+				if (deliveries != null && deliveries.equals(innerSourceDeliveries.get(port))) {
+					continue;
+				}
+				if (transformedFingerprints == null) {
+					// delivered outside of the transformation of this chain, the origin is unknown
+					innerSourceVersions.put(port, nextMetaDataVersion());
+				} else {
+					if (version == null) {
+						version = new ArrayList<>(transformedFingerprints.size() + 1);
+						version.add(innerMetaDataVersion);
+						version.addAll(transformedFingerprints);
+					}
+					innerSourceVersions.put(port, version);
+				}
+				innerSourceDeliveries.put(port, deliveries);
+			}
+		}
+		if (transformed != null && transformedFingerprints != null) {
+			List<Object> fingerprint = new ArrayList<>();
+			addMetaDataFingerprint(transformed, fingerprint);
+			transformedFingerprints.add(fingerprint);
+		}
+	}
+
+	@Override
+	public void transformMetaData() {
+		transformedSubprocesses = new ArrayList<>();
+		try {
+			super.transformMetaData();
+			updateInnerSourceVersions(null);
+		} finally {
+			transformedSubprocesses = null;
+		}
+	}
+
+	/**
+	 * Chains are always transformed since their output depends on their subprocesses, but the
+	 * subprocesses are transformed incrementally. The version of the output meta data only changes
+	 * if this chain, its input meta data or one of the inner operators changed.
+	 */
+	@Override
+	boolean transformMetaDataIfChanged() {
+		long modification = getModificationCount();
+		Object[] inputKey = getMetaDataInputKey();
+		MetaDataTransformationState state = getMetaDataState();
+		boolean outerChanged = state == null || !state.isValidFor(modification, inputKey);
+		if (outerChanged) {
+			for (ExecutionUnit subprocess : subprocesses) {
+				for (OutputPort port : subprocess.getInnerSources().getAllPorts()) {
+					port.deliverMD(null);
+				}
+			}
+			innerMetaDataVersion = nextMetaDataVersion();
+		}
+		for (OutputPort port : getOutputPorts().getAllPorts()) {
+			port.deliverMD(null);
+		}
+		int errorCount = getOperatorErrorCount();
+		transformMetaDataIncrementally();
+
+		// an aborted transformation leaves the subprocesses in an unknown state
+		List<Object> fingerprint = getRoot().isMetaDataTransformationCancelled() ? null
+				: getInnerMetaDataFingerprint();
+		boolean changed = outerChanged || fingerprint == null || !fingerprint.equals(state.getInnerFingerprint());
+		setMetaDataState(createMetaDataState(modification, inputKey,
+				changed ? nextMetaDataVersion() : state.getResultVersion(), fingerprint, errorCount));
+		return changed;
+	}
+
+	@Override
+	void invalidateMetaDataState() {
+		super.invalidateMetaDataState();
+		innerMetaDataVersion = nextMetaDataVersion();
+		innerSourceVersions.clear();
+		innerSourceDeliveries.clear();
+	}
+
+	/**
+	 * Returns the inner operators together with the versions of their meta data and the sources of
+	 * the inner sinks.
+	 */
+	private List<Object> getInnerMetaDataFingerprint() {
+		List<Object> fingerprint = new ArrayList<>();
+		if (!isEnabled()) {
+			return fingerprint;
+		}
+		for (ExecutionUnit subprocess : subprocesses) {
+			addMetaDataFingerprint(subprocess, fingerprint);
+		}
+		return fingerprint;
+	}
+
+	/** Adds the subprocess, its operators with their meta data versions and its sink sources. */
+	private static void addMetaDataFingerprint(ExecutionUnit subprocess, List<Object> fingerprint) {
+		fingerprint.add(subprocess);
+		for (Operator operator : subprocess.getOperators()) {
+			fingerprint.add(operator);
+			fingerprint.add(operator.getMetaDataVersion());
+		}
+		for (InputPort port : subprocess.getInnerSinks().getAllPorts()) {
+			fingerprint.add(port.getSource());
+		}
+	}
+
 	@Override
 	public void assumePreconditionsSatisfied() {
 		super.assumePreconditionsSatisfied();
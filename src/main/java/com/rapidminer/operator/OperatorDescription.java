@@ -68,12 +68,17 @@ public class OperatorDescription implements Comparable<OperatorDescription> {
 	public static final String EXTENSIONS_GROUP_IDENTIFIER = "extensions";
 
 	private final String key;
-	private final Class<? extends Operator> clazz;
+
+	/** the operator class, resolved lazily for descriptions parsed from XML */
+	private volatile Class<? extends Operator> clazz;
+	private final String className;
+	private final ClassLoader classLoader;
 	private List<String> replacesDeprecatedKeys;
 
 	private final OperatorDocumentation documentation;
 
-	private ImageIcon[] icons;
+	/** the icons, loaded lazily since this requires to create the operator */
+	private volatile ImageIcon[] icons;
 
 	private String fullyQualifiedGroupKey;
 
@@ -106,11 +111,11 @@ public class OperatorDescription implements Comparable<OperatorDescription> {
 	/**
 	 * Parses an operator in the RM 5.0 xml standard for operator definitions. In contrast to
 	 * earlier versions, the {@link OperatorDescription} does not register themselves on the
-	 * OperatorTree. This is now handled centralized by the {@link OperatorService}.
+	 * OperatorTree. This is now handled centralized by the {@link OperatorService}. The operator
+	 * class is only checked for existence, it is loaded on first usage.
 	 *
 	 * @param bundle
 	 */
-	@SuppressWarnings("unchecked")
 	public OperatorDescription(final String fullyQualifiedGroupKey, final Element element, final ClassLoader classLoader,
 			final Plugin provider, final OperatorDocBundle bundle) throws ClassNotFoundException, XMLException {
 		this.provider = provider;
@@ -128,8 +133,13 @@ public class OperatorDescription implements Comparable<OperatorDescription> {
 			}
 		}
 
-		Class<?> generatedClass = Class.forName(XMLTools.getTagContents(element, "class", true).trim(), true, classLoader);
-		this.clazz = (Class<? extends Operator>) generatedClass;
+		this.className = XMLTools.getTagContents(element, "class", true).trim();
+		this.classLoader = classLoader;
+		if (classLoader == null) {
+			getOperatorClass();
+		} else if (classLoader.getResource(className.replace('.', '/') + ".class") == null) {
+			throw new ClassNotFoundException(className);
+		}
 
 		this.documentation = (OperatorDocumentation) bundle.getObject("operator." + key);
 		if (documentation.getName().equals("")) {
@@ -180,6 +190,8 @@ public class OperatorDescription implements Comparable<OperatorDescription> {
 		this.isSupportedByLicense = null;
 		this.key = key;
 		this.clazz = clazz;
+		this.className = clazz.getName();
+		this.classLoader = classLoader;
 		this.fullyQualifiedGroupKey = fullyQualifiedGroupKey;
 		this.provider = provider;
 		if (bundle == null) {
@@ -236,6 +248,8 @@ public class OperatorDescription implements Comparable<OperatorDescription> {
 		this.key = key;
 
 		this.clazz = (Class<? extends Operator>) Class.forName(className, true, classLoader);
+		this.className = className;
+		this.classLoader = classLoader;
 		this.documentation = new OperatorDocumentation(name);
 		this.documentation.setSynopsis(shortDescription);
 		this.documentation.setDocumentation(longDescription);
@@ -281,8 +295,40 @@ public class OperatorDescription implements Comparable<OperatorDescription> {
 		return getOperatorDocumentation().getTags();
 	}
 
+	/**
+	 * Returns the operator class. The class is loaded on the first call if this description was
+	 * parsed from XML.
+	 *
+	 * @throws NoClassDefFoundError
+	 *             if the class cannot be loaded
+	 */
+	@SuppressWarnings("unchecked")
 	public Class<? extends Operator> getOperatorClass() {
-		return clazz;
+		Class<? extends Operator> operatorClass = clazz;
+		if (operatorClass == null) {
+			synchronized (this) {
+				if (clazz == null) {
+					try {
+						clazz = (Class<? extends Operator>) Class.forName(className, true, classLoader);
+					} catch (ClassNotFoundException e) {
+						NoClassDefFoundError error = new NoClassDefFoundError(className);
+						error.initCause(e);
+						throw error;
+					}
+				}
+				operatorClass = clazz;
+			}
+		}
+		return operatorClass;
+	}
+
+	/**
+	 * Returns the fully qualified name of the operator class without loading the class.
+	 *
+	 * @since 7.6.1
+	 */
+	public String getOperatorClassName() {
+		return className;
 	}
 
 	public String getShortDescription() {
@@ -357,7 +403,7 @@ public class OperatorDescription implements Comparable<OperatorDescription> {
 	}
 
 	public String getAbbreviatedClassName() {
-		return getOperatorClass().getName().replace("com.rapidminer.operator.", "c.r.o.");
+		return className.replace("com.rapidminer.operator.", "c.r.o.");
 	}
 
 	public String getDeprecationInfo() {
@@ -418,7 +464,7 @@ public class OperatorDescription implements Comparable<OperatorDescription> {
 	public String toString() {
 		return "key='" + key + "'; name='" + getName() + "'; "
 				+ (replacesDeprecatedKeys != null ? "replaces: " + replacesDeprecatedKeys : "") + "; implemented by "
-				+ clazz.getName() + "; group: " + fullyQualifiedGroupKey + "; icon: " + iconName;
+				+ className + "; group: " + fullyQualifiedGroupKey + "; icon: " + iconName;
 	}
 
 	@Override
@@ -450,25 +496,25 @@ public class OperatorDescription implements Comparable<OperatorDescription> {
 	public final Operator createOperatorInstance() throws OperatorCreationException {
 		if (!isEnabled()) {
 			throw new OperatorCreationException(OperatorCreationException.OPERATOR_DISABLED_ERROR,
-					key + "(" + clazz.getName() + ")", null);
+					key + "(" + className + ")", null);
 		}
 		Operator operator = null;
 		try {
 			operator = createOperatorInstanceByDescription(this);
 		} catch (InstantiationException e) {
 			throw new OperatorCreationException(OperatorCreationException.INSTANTIATION_ERROR,
-					key + "(" + clazz.getName() + ")", e);
+					key + "(" + className + ")", e);
 		} catch (IllegalAccessException e) {
 			throw new OperatorCreationException(OperatorCreationException.ILLEGAL_ACCESS_ERROR,
-					key + "(" + clazz.getName() + ")", e);
+					key + "(" + className + ")", e);
 		} catch (NoSuchMethodException e) {
 			throw new OperatorCreationException(OperatorCreationException.NO_CONSTRUCTOR_ERROR,
-					key + "(" + clazz.getName() + ")", e);
+					key + "(" + className + ")", e);
 		} catch (java.lang.reflect.InvocationTargetException e) {
 			throw new OperatorCreationException(OperatorCreationException.CONSTRUCTION_ERROR,
-					key + "(" + clazz.getName() + ")", e);
+					key + "(" + className + ")", e);
 		} catch (Throwable t) {
-			throw new OperatorCreationException(OperatorCreationException.INSTANTIATION_ERROR, "(" + clazz.getName() + ")",
+			throw new OperatorCreationException(OperatorCreationException.INSTANTIATION_ERROR, "(" + className + ")",
 					t);
 		}
 		OperatorService.invokeCreationHooks(operator);
@@ -483,7 +529,7 @@ public class OperatorDescription implements Comparable<OperatorDescription> {
 	protected Operator createOperatorInstanceByDescription(final OperatorDescription description)
 			throws IllegalArgumentException, InstantiationException, IllegalAccessException, InvocationTargetException,
 			SecurityException, NoSuchMethodException {
-		java.lang.reflect.Constructor<? extends Operator> constructor = clazz
+		java.lang.reflect.Constructor<? extends Operator> constructor = getOperatorClass()
 				.getConstructor(new Class[] { OperatorDescription.class });
 		return constructor.newInstance(new Object[] { description });
 	}
@@ -517,22 +563,33 @@ public class OperatorDescription implements Comparable<OperatorDescription> {
 	}
 
 	/**
-	 * Update the icons. Icons may change when a license changes.
+	 * Update the icons. Icons may change when a license changes. The icons are reloaded on the next
+	 * access.
 	 */
 	private void updateIcons() {
+		icons = null;
+	}
+
+	/**
+	 * Loads the icons and marks them as unsupported if the operator is not supported by the
+	 * license.
+	 */
+	private ImageIcon[] loadIcons() {
+		ImageIcon[] newIcons;
 		if (iconName != null) {
-			icons = new ImageIcon[3];
-			icons[0] = SwingTools.createIcon("16/" + iconName);
-			icons[1] = SwingTools.createIcon("24/" + iconName);
-			icons[2] = SwingTools.createIcon("48/" + iconName);
+			newIcons = new ImageIcon[3];
+			newIcons[0] = SwingTools.createIcon("16/" + iconName);
+			newIcons[1] = SwingTools.createIcon("24/" + iconName);
+			newIcons[2] = SwingTools.createIcon("48/" + iconName);
 			if (!isSupportedByLicense()) {
-				icons[0] = SwingTools.createOverlayIcon(icons[0], UNSUPPORTED_ICON_SMALL);
-				icons[1] = SwingTools.createOverlayIcon(icons[1], UNSUPPORTED_ICON);
-				icons[2] = SwingTools.createOverlayIcon(icons[2], UNSUPPORTED_ICON_LARGE);
+				newIcons[0] = SwingTools.createOverlayIcon(newIcons[0], UNSUPPORTED_ICON_SMALL);
+				newIcons[1] = SwingTools.createOverlayIcon(newIcons[1], UNSUPPORTED_ICON);
+				newIcons[2] = SwingTools.createOverlayIcon(newIcons[2], UNSUPPORTED_ICON_LARGE);
 			}
 		} else {
-			icons = EMPTY_ICONS;
+			newIcons = EMPTY_ICONS;
 		}
+		return newIcons;
 	}
 
 	/**
@@ -547,10 +604,12 @@ public class OperatorDescription implements Comparable<OperatorDescription> {
 	}
 
 	private ImageIcon[] getIcons() {
-		if (icons != null) {
-			return icons;
+		ImageIcon[] currentIcons = icons;
+		if (currentIcons == null) {
+			currentIcons = loadIcons();
+			icons = currentIcons;
 		}
-		return null;
+		return currentIcons;
 	}
 
 	public Plugin getProvider() {
@@ -0,0 +1,404 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.tools.IOObjectSerializer;
+import com.rapidminer.tools.LogService;
+import com.rapidminer.tools.ParameterService;
+import com.rapidminer.tools.Tools;
+
+
+/**
+ * A name based storage for {@link IOObject}s that keeps the objects in memory as long as their
+ * estimated size fits into a memory budget. If the budget is exceeded, the least recently used
+ * objects are written to temporary files and transparently restored on the next access.
+ * <p>
+ * {@link ExampleSet}s are written in the dense streamed example set format of the
+ * {@link IOObjectSerializer}, all other objects are serialized by Java serialization. Objects which
+ * cannot be serialized are never spilled. The budget is read from the property
+ * {@link RapidMiner#PROPERTY_RAPIDMINER_SYSTEM_IOOBJECT_STORAGE_BUDGET} unless specified at
+ * construction. A budget of {@code 0} disables spilling. The most recently accessed object is never
+ * spilled, so that an object exceeding the budget on its own does not travel to disk and back on
+ * every access.
+ * <p>
+ * All methods are synchronized on the storage.
+ *
+ * @since 7.6.1
+ */
+public class SpillingIOObjectStorage {
+
+	/** Estimated size of objects for which no better estimation is known. */
+	private static final long DEFAULT_OBJECT_SIZE = 1024;
+
+	/** Estimated size of a single example set cell. */
+	private static final long BYTES_PER_CELL = 8;
+
+	private static final String TEMP_FILE_PREFIX = "rm_ioobject_";
+	private static final String TEMP_FILE_SUFFIX = ".dump";
+
+	/** A single stored object, either held in memory or spilled to a file. */
+	private static class Entry {
+
+		private IOObject object;
+		private File file;
+		private final long size;
+		private final Class<? extends IOObject> objectClass;
+		private long lastAccess;
+
+		/** set if writing the object failed, it is kept in memory from then on */
+		private boolean unspillable;
+
+		private Entry(IOObject object) {
+			this.object = object;
+			this.size = estimateSize(object);
+			this.objectClass = object.getClass();
+		}
+
+		private boolean isSpilled() {
+			return object == null;
+		}
+	}
+
+	/** all entries in insertion order */
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+	/** logical clock used to determine the least recently used entries */
+	private long accessCounter = 0;
+
+	/** the budget in bytes, or a negative value if the property should be used */
+	private final long fixedBudget;
+
+	/** estimated number of bytes held in memory */
+	private long memoryUsage = 0;
+
+	private long memoryHits = 0;
+	private long diskHits = 0;
+	private long spillCount = 0;
+	private long spilledBytes = 0;
+
+	/**
+	 * Creates a new storage which uses the budget specified by the property
+	 * {@link RapidMiner#PROPERTY_RAPIDMINER_SYSTEM_IOOBJECT_STORAGE_BUDGET}.
+	 */
+	public SpillingIOObjectStorage() {
+		this.fixedBudget = -1;
+	}
+
+	/**
+	 * Creates a new storage with a fixed memory budget.
+	 *
+	 * @param memoryBudget
+	 *            the budget in bytes, {@code 0} disables spilling
+	 */
+	public SpillingIOObjectStorage(long memoryBudget) {
+		if (memoryBudget < 0) {
+			throw new IllegalArgumentException("memoryBudget must not be negative");
+		}
+		this.fixedBudget = memoryBudget;
+	}
+
+	/**
+	 * Stores the object under the given name, replacing any previously stored object.
+	 *
+	 * @return {@code true} if an object with the same name was replaced
+	 */
+	public synchronized boolean put(String name, IOObject object) {
+		if (object == null) {
+			throw new IllegalArgumentException("object must not be null");
+		}
+		boolean replaced = discard(entries.remove(name));
+		Entry entry = new Entry(object);
+		entry.lastAccess = ++accessCounter;
+		entries.put(name, entry);
+		memoryUsage += entry.size;
+		enforceBudget();
+		return replaced;
+	}
+
+	/**
+	 * Returns the object stored under the given name or {@code null} if none exists. Spilled
+	 * objects are restored from disk.
+	 */
+	public synchronized IOObject get(String name) {
+		Entry entry = entries.get(name);
+		if (entry == null) {
+			return null;
+		}
+		entry.lastAccess = ++accessCounter;
+		if (!entry.isSpilled()) {
+			memoryHits++;
+			return entry.object;
+		}
+		IOObject object = restore(entry);
+		if (object == null) {
+			// the spill file is unusable, the object is lost
+			entries.remove(name);
+			return null;
+		}
+		diskHits++;
+		enforceBudget();
+		return object;
+	}
+
+	/**
+	 * Removes the object with the given name.
+	 *
+	 * @return the removed object or {@code null} if it did not exist
+	 */
+	public synchronized IOObject remove(String name) {
+		Entry entry = entries.get(name);
+		if (entry == null) {
+			return null;
+		}
+		IOObject object = entry.isSpilled() ? restore(entry) : entry.object;
+		discard(entries.remove(name));
+		return object;
+	}
+
+	/** Returns whether an object is stored under the given name. */
+	public synchronized boolean contains(String name) {
+		return entries.containsKey(name);
+	}
+
+	/**
+	 * Returns the class of the object stored under the given name without restoring it, or
+	 * {@code null} if no such object exists.
+	 */
+	public synchronized Class<? extends IOObject> getObjectClass(String name) {
+		Entry entry = entries.get(name);
+		return entry == null ? null : entry.objectClass;
+	}
+
+	/** Returns a snapshot of the names of all stored objects. */
+	public synchronized Set<String> keySet() {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(entries.keySet()));
+	}
+
+	/** Returns the number of stored objects. */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/** Removes all objects and deletes their spill files. */
+	public synchronized void clear() {
+		for (Entry entry : entries.values()) {
+			discard(entry);
+		}
+		entries.clear();
+		memoryUsage = 0;
+	}
+
+	/** Returns the number of accesses answered from memory. */
+	public synchronized long getMemoryHits() {
+		return memoryHits;
+	}
+
+	/** Returns the number of accesses which required to restore a spilled object. */
+	public synchronized long getDiskHits() {
+		return diskHits;
+	}
+
+	/** Returns how many times an object was written to disk. */
+	public synchronized long getSpillCount() {
+		return spillCount;
+	}
+
+	/** Returns the total number of bytes written to spill files. */
+	public synchronized long getSpilledBytes() {
+		return spilledBytes;
+	}
+
+	/** Returns the estimated number of bytes currently held in memory. */
+	public synchronized long getMemoryUsage() {
+		return memoryUsage;
+	}
+
+	/** Returns the number of objects currently spilled to disk. */
+	public synchronized int getSpilledObjectCount() {
+		int count = 0;
+		for (Entry entry : entries.values()) {
+			if (entry.isSpilled()) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return entries.size() + " objects (" + getSpilledObjectCount() + " spilled), memory: "
+				+ Tools.formatBytes(memoryUsage) + ", memory hits: " + memoryHits + ", disk hits: " + diskHits
+				+ ", spills: " + spillCount + " (" + Tools.formatBytes(spilledBytes) + ")";
+	}
+
+	/**
+	 * Spills the least recently used objects until the memory usage fits into the budget again.
+	 * The most recently used object and objects which could not be written before are never
+	 * spilled.
+	 */
+	private void enforceBudget() {
+		long budget = getBudget();
+		if (budget <= 0 || memoryUsage <= budget) {
+			return;
+		}
+		List<Entry> candidates = new ArrayList<>(entries.size());
+		for (Entry entry : entries.values()) {
+			if (!entry.isSpilled() && !entry.unspillable && entry.lastAccess != accessCounter) {
+				candidates.add(entry);
+			}
+		}
+		Collections.sort(candidates, new Comparator<Entry>() {
+
+			@Override
+			public int compare(Entry e1, Entry e2) {
+				return Long.compare(e1.lastAccess, e2.lastAccess);
+			}
+		});
+		Iterator<Entry> iterator = candidates.iterator();
+		while (memoryUsage > budget && iterator.hasNext()) {
+			spill(iterator.next());
+		}
+	}
+
+	/**
+	 * Writes the object of the entry to a temporary file and releases it if successful. Otherwise
+	 * the entry is marked as unspillable.
+	 */
+	private void spill(Entry entry) {
+		File file = null;
+		try {
+			file = File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+			// the storage of a session is never cleared, so remove remaining files on exit
+			file.deleteOnExit();
+			try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+				IOObjectSerializer.getInstance().serialize(out, entry.object);
+			}
+		} catch (IOException | RuntimeException e) {
+			// keep the object in memory if it cannot be serialized
+			LogService.getRoot().log(Level.FINE, "com.rapidminer.operator.SpillingIOObjectStorage.spill_failed",
+					new Object[] { entry.objectClass.getSimpleName(), e.getMessage() });
+			if (file != null) {
+				file.delete();
+			}
+			entry.unspillable = true;
+			return;
+		}
+		entry.file = file;
+		entry.object = null;
+		memoryUsage -= entry.size;
+		spillCount++;
+		spilledBytes += file.length();
+	}
+
+	/**
+	 * Reads a spilled object back into memory and deletes its file.
+	 *
+	 * @return the restored object or {@code null} if it could not be read
+	 */
+	private IOObject restore(Entry entry) {
+		IOObject object = null;
+		try (InputStream in = new BufferedInputStream(new FileInputStream(entry.file))) {
+			object = (IOObject) IOObjectSerializer.getInstance().deserialize(in);
+		} catch (IOException | RuntimeException e) {
+			LogService.getRoot().log(Level.WARNING, "com.rapidminer.operator.SpillingIOObjectStorage.restore_failed",
+					new Object[] { entry.objectClass.getSimpleName(), e.getMessage() });
+		}
+		entry.file.delete();
+		entry.file = null;
+		if (object != null) {
+			entry.object = object;
+			memoryUsage += entry.size;
+		}
+		return object;
+	}
+
+	/**
+	 * Releases the resources of a removed entry.
+	 *
+	 * @return {@code true} if the entry was not {@code null}
+	 */
+	private boolean discard(Entry entry) {
+		if (entry == null) {
+			return false;
+		}
+		if (entry.isSpilled()) {
+			if (entry.file != null) {
+				entry.file.delete();
+			}
+		} else {
+			memoryUsage -= entry.size;
+		}
+		return true;
+	}
+
+	/** Returns the memory budget in bytes. */
+	private long getBudget() {
+		if (fixedBudget >= 0) {
+			return fixedBudget;
+		}
+		String value = ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_IOOBJECT_STORAGE_BUDGET);
+		if (value == null || value.isEmpty()) {
+			return 0;
+		}
+		try {
+			return Long.parseLong(value) * 1024 * 1024;
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Estimates the heap size of the given object. Example sets are estimated by their number of
+	 * cells, collections by the sum of their elements.
+	 */
+	private static long estimateSize(IOObject object) {
+		if (object instanceof ExampleSet) {
+			ExampleSet exampleSet = (ExampleSet) object;
+			return DEFAULT_OBJECT_SIZE + (long) exampleSet.size() * exampleSet.getAttributes().allSize() * BYTES_PER_CELL;
+		} else if (object instanceof IOObjectCollection) {
+			long size = DEFAULT_OBJECT_SIZE;
+			for (IOObject element : ((IOObjectCollection<?>) object).getObjects()) {
+				size += estimateSize(element);
+			}
+			return size;
+		}
+		return DEFAULT_OBJECT_SIZE;
+	}
+
+}
@@ -45,6 +45,12 @@ public class DBScan extends RMAbstractClusterer {
 
 	private static final String PARAMETER_MIN_POINTS = "min_points";
 
+	/**
+	 * Maximal number of values copied into a single buffer. Larger example sets are compared
+	 * example by example, so that all buffer offsets fit into an int.
+	 */
+	private static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+
 	public DBScan(OperatorDescription description) {
 		super(description);
 	}
@@ -75,11 +81,30 @@ public class DBScan extends RMAbstractClusterer {
 		boolean[] noised = new boolean[exampleSet.size()];
 		int[] clusterAssignments = new int[exampleSet.size()];
 
-		int i = 0;
+		// copying the values once, so that neighbourhoods are computed on a contiguous buffer,
+		// unless the buffer would exceed the maximal array size
+		int size = exampleSet.size();
+		int dimensions = attributes.size();
+		double[] values = null;
+		if ((long) size * dimensions <= MAX_BUFFER_SIZE) {
+			values = new double[size * dimensions];
+			int row = 0;
+			for (Example example : exampleSet) {
+				int column = 0;
+				for (Attribute attribute : attributes) {
+					values[row * dimensions + column] = example.getValue(attribute);
+					column++;
+				}
+				row++;
+			}
+		}
+		double[] distances = new double[size];
+
 		int clusterIndex = 1;
-		for (Example example : exampleSet) {
+		for (int i = 0; i < size; i++) {
 			if (!visited[i]) {
-				Queue<Integer> centerNeighbourhood = getNeighbourhood(example, exampleSet, measure, epsilon);
+				Queue<Integer> centerNeighbourhood = getNeighbourhood(i, exampleSet, values, dimensions, measure,
+						epsilon, distances);
 				if (centerNeighbourhood.size() < minPoints) {
 					noised[i] = true;
 				} else {
@@ -88,13 +113,13 @@ public class DBScan extends RMAbstractClusterer {
 					// expanding cluster within density borders
 					while (centerNeighbourhood.size() > 0) {
 						int currentIndex = centerNeighbourhood.poll().intValue();
-						Example currentExample = exampleSet.getExample(currentIndex);
 						// assigning example to current cluster
 						clusterAssignments[currentIndex] = clusterIndex;
 						visited[currentIndex] = true;
 
 						// appending own neighbourhood to queue
-						Queue<Integer> neighbourhood = getNeighbourhood(currentExample, exampleSet, measure, epsilon);
+						Queue<Integer> neighbourhood = getNeighbourhood(currentIndex, exampleSet, values, dimensions,
+								measure, epsilon, distances);
 						if (neighbourhood.size() >= minPoints) {
 							// then this neighbor of center is also a center of the cluster
 							while (neighbourhood.size() > 0) {
@@ -115,7 +140,6 @@ public class DBScan extends RMAbstractClusterer {
 					clusterIndex++;
 				}
 			}
-			i++;
 			getProgress().step();
 		}
 
@@ -131,16 +155,27 @@ public class DBScan extends RMAbstractClusterer {
 		return model;
 	}
 
-	private LinkedList<Integer> getNeighbourhood(Example centerExample, ExampleSet exampleSet, DistanceMeasure measure,
-			double epsilon) {
+	/**
+	 * Returns the examples closer to the center than epsilon. The distances are calculated on the
+	 * buffer of all values, or example by example if there is no buffer.
+	 */
+	private LinkedList<Integer> getNeighbourhood(int center, ExampleSet exampleSet, double[] values, int dimensions,
+			DistanceMeasure measure, double epsilon, double[] distances) {
 		LinkedList<Integer> neighbourhood = new LinkedList<Integer>();
-		int i = 0;
-		for (Example example : exampleSet) {
-			double distance = measure.calculateDistance(centerExample, example);
-			if (distance < epsilon) {
+		int size = exampleSet.size();
+		if (values != null) {
+			measure.calculateDistances(values, center, center + 1, values, 0, size, dimensions, distances);
+		} else {
+			Example centerExample = exampleSet.getExample(center);
+			int i = 0;
+			for (Example example : exampleSet) {
+				distances[i++] = measure.calculateDistance(centerExample, example);
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			if (distances[i] < epsilon) {
 				neighbourhood.add(i);
 			}
-			i++;
 		}
 		return neighbourhood;
 	}
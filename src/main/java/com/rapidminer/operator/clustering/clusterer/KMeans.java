@@ -110,7 +110,9 @@ public class KMeans extends RMAbstractClusterer {
 		double minimalIntraClusterDistance = Double.POSITIVE_INFINITY;
 		CentroidClusterModel bestModel = null;
 		int[] bestAssignments = null;
-		double[] values = new double[attributes.size()];
+		int dimensions = attributes.size();
+		double[] values = new double[dimensions];
+		double[] distances = new double[k];
 
 		for (int iter = 0; iter < maxRuns; iter++) {
 			CentroidClusterModel model = new CentroidClusterModel(exampleSet, k, attributeNames, measure, addAsLabel,
@@ -142,16 +144,16 @@ public class KMeans extends RMAbstractClusterer {
 				getProgress().step();
 
 				// assign examples to new centroids
+				double[] centroids = getCentroidValues(model, k, dimensions);
 				i = 0;
 				for (Example example : exampleSet) {
 					double[] exampleValues = getAsDoubleArray(example, attributes, values);
-					double nearestDistance = measure.calculateDistance(model.getCentroidCoordinates(0), exampleValues);
+					measure.calculateDistances(centroids, 0, k, exampleValues, 0, 1, dimensions, distances);
+					double nearestDistance = distances[0];
 					int nearestIndex = 0;
 					for (int centroidIndex = 1; centroidIndex < k; centroidIndex++) {
-						double distance = measure.calculateDistance(model.getCentroidCoordinates(centroidIndex),
-								exampleValues);
-						if (distance < nearestDistance) {
-							nearestDistance = distance;
+						if (distances[centroidIndex] < nearestDistance) {
+							nearestDistance = distances[centroidIndex];
 							nearestIndex = centroidIndex;
 						}
 					}
@@ -199,6 +201,16 @@ public class KMeans extends RMAbstractClusterer {
 		return values;
 	}
 
+	/** Copies the coordinates of all centroids row by row into one array. */
+	private double[] getCentroidValues(CentroidClusterModel model, int k, int dimensions) {
+		double[] centroids = new double[k * dimensions];
+		for (int centroidIndex = 0; centroidIndex < k; centroidIndex++) {
+			System.arraycopy(model.getCentroidCoordinates(centroidIndex), 0, centroids, centroidIndex * dimensions,
+					dimensions);
+		}
+		return centroids;
+	}
+
 	@Override
 	public Class<? extends ClusterModel> getClusterModelClass() {
 		return CentroidClusterModel.class;
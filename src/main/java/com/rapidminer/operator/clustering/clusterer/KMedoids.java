@@ -30,6 +30,7 @@ import com.rapidminer.tools.RandomGenerator;
 import com.rapidminer.tools.math.similarity.DistanceMeasure;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 
@@ -56,6 +57,12 @@ public class KMedoids extends RMAbstractClusterer {
 	 */
 	public static final String PARAMETER_MAX_OPTIMIZATION_STEPS = "max_optimization_steps";
 
+	/**
+	 * Maximal number of values copied into a single buffer. Larger example sets are compared
+	 * example by example, so that all buffer offsets fit into an int.
+	 */
+	private static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+
 	public KMedoids(OperatorDescription description) {
 		super(description);
 	}
@@ -102,7 +109,24 @@ public class KMedoids extends RMAbstractClusterer {
 		double minimalIntraClusterDistance = Double.POSITIVE_INFINITY;
 		CentroidClusterModel bestModel = null;
 		int[] bestAssignments = null;
-		double[] values = new double[attributes.size()];
+		int dimensions = attributes.size();
+		double[] values = new double[dimensions];
+		double[] distances = new double[k];
+
+		// copying the values once, so that the medoid candidates are compared on a contiguous buffer,
+		// unless the buffer would exceed the maximal array size
+		int size = exampleSet.size();
+		double[] exampleSetValues = null;
+		if ((long) size * dimensions <= MAX_BUFFER_SIZE) {
+			exampleSetValues = new double[size * dimensions];
+			int row = 0;
+			for (Example example : exampleSet) {
+				System.arraycopy(getAsDoubleArray(example, attributes, values), 0, exampleSetValues, row * dimensions,
+						dimensions);
+				row++;
+			}
+		}
+
 		for (int iter = 0; iter < maxRuns; iter++) {
 			CentroidClusterModel model = new CentroidClusterModel(exampleSet, k, attributeNames, measure, addAsLabel,
 					removeUnlabeled);
@@ -120,16 +144,16 @@ public class KMedoids extends RMAbstractClusterer {
 			boolean stable = false;
 			for (int step = 0; step < maxOptimizationSteps && !stable; step++) {
 				// assign examples to new centroids
+				double[] centroids = getCentroidValues(model, k, dimensions);
 				i = 0;
 				for (Example example : exampleSet) {
 					double[] exampleValues = getAsDoubleArray(example, attributes, values);
-					double nearestDistance = measure.calculateDistance(model.getCentroidCoordinates(0), exampleValues);
+					measure.calculateDistances(centroids, 0, k, exampleValues, 0, 1, dimensions, distances);
+					double nearestDistance = distances[0];
 					int nearestIndex = 0;
 					for (int centroidIndex = 1; centroidIndex < k; centroidIndex++) {
-						double distance = measure.calculateDistance(model.getCentroidCoordinates(centroidIndex),
-								exampleValues);
-						if (distance < nearestDistance) {
-							nearestDistance = distance;
+						if (distances[centroidIndex] < nearestDistance) {
+							nearestDistance = distances[centroidIndex];
 							nearestIndex = centroidIndex;
 						}
 					}
@@ -137,29 +161,10 @@ public class KMedoids extends RMAbstractClusterer {
 					i++;
 				}
 
+				double[][] medoids = findMedoids(exampleSet, exampleSetValues, centroidAssignments, k, measure);
 				for (int clusterIndex = 0; clusterIndex < k; clusterIndex++) {
-					double[] bestMedoidValues = new double[attributes.size()];
-					double bestDistanceSum = Double.POSITIVE_INFINITY;
-					for (Example medoid : exampleSet) {
-						// calculate intra cluster distance if this example is used as medoid
-						double distanceSum = 0;
-						double[] medoidValues = getAsDoubleArray(medoid, attributes, values);
-						int j = 0;
-						for (Example example : exampleSet) {
-							// add only if in current cluster
-							if (centroidAssignments[j] == clusterIndex) {
-								distanceSum += measure.calculateDistance(getAsDoubleArray(example, attributes, values),
-										medoidValues);
-							}
-							j++;
-						}
-						if (distanceSum < bestDistanceSum) {
-							bestDistanceSum = distanceSum;
-							bestMedoidValues = medoidValues;
-						}
-					}
 					// assigning into model as best point using average of one
-					model.getCentroid(clusterIndex).assignExample(bestMedoidValues);
+					model.getCentroid(clusterIndex).assignExample(medoids[clusterIndex]);
 				}
 				stable = model.finishAssign();
 				getProgress()
@@ -193,7 +198,67 @@ public class KMedoids extends RMAbstractClusterer {
 		return bestModel;
 	}
 
-	private double[] getAsDoubleArray(Example example, Attributes attributes, double[] values) {
+	/**
+	 * Finds the medoid of every cluster, i.e. the example with the smallest sum of distances to
+	 * the examples of the cluster. The distances of every candidate to all examples are calculated
+	 * once and added to the sum of the cluster of the compared example. If several candidates have
+	 * the same sum, the first one is used. The medoid of a cluster whose sums are never smaller
+	 * than infinity consists of zeros.
+	 *
+	 * @param exampleSet
+	 *            the example set
+	 * @param exampleSetValues
+	 *            the values of all examples row by row, or {@code null} if the values must be read
+	 *            from the examples
+	 * @param assignments
+	 *            the cluster of every example
+	 * @param k
+	 *            the number of clusters
+	 * @param measure
+	 *            the distance measure
+	 * @return the values of the medoid of every cluster
+	 */
+	static double[][] findMedoids(ExampleSet exampleSet, double[] exampleSetValues, int[] assignments, int k,
+			DistanceMeasure measure) {
+		Attributes attributes = exampleSet.getAttributes();
+		int size = exampleSet.size();
+		int dimensions = attributes.size();
+		double[][] medoids = new double[k][dimensions];
+		double[] bestDistanceSums = new double[k];
+		Arrays.fill(bestDistanceSums, Double.POSITIVE_INFINITY);
+		double[] distanceSums = new double[k];
+		double[] candidateValues = new double[dimensions];
+		double[] values = new double[dimensions];
+		double[] medoidDistances = new double[size];
+		for (int medoid = 0; medoid < size; medoid++) {
+			// calculate the intra cluster distances if this example is used as medoid
+			if (exampleSetValues != null) {
+				measure.calculateDistances(exampleSetValues, 0, size, exampleSetValues, medoid, medoid + 1, dimensions,
+						medoidDistances);
+				System.arraycopy(exampleSetValues, medoid * dimensions, candidateValues, 0, dimensions);
+			} else {
+				getAsDoubleArray(exampleSet.getExample(medoid), attributes, candidateValues);
+				int j = 0;
+				for (Example example : exampleSet) {
+					medoidDistances[j++] = measure.calculateDistance(getAsDoubleArray(example, attributes, values),
+							candidateValues);
+				}
+			}
+			Arrays.fill(distanceSums, 0);
+			for (int j = 0; j < size; j++) {
+				distanceSums[assignments[j]] += medoidDistances[j];
+			}
+			for (int clusterIndex = 0; clusterIndex < k; clusterIndex++) {
+				if (distanceSums[clusterIndex] < bestDistanceSums[clusterIndex]) {
+					bestDistanceSums[clusterIndex] = distanceSums[clusterIndex];
+					System.arraycopy(candidateValues, 0, medoids[clusterIndex], 0, dimensions);
+				}
+			}
+		}
+		return medoids;
+	}
+
+	private static double[] getAsDoubleArray(Example example, Attributes attributes, double[] values) {
 		int i = 0;
 		for (Attribute attribute : attributes) {
 			values[i] = example.getValue(attribute);
@@ -202,6 +267,16 @@ public class KMedoids extends RMAbstractClusterer {
 		return values;
 	}
 
+	/** Copies the coordinates of all centroids row by row into one array. */
+	private double[] getCentroidValues(CentroidClusterModel model, int k, int dimensions) {
+		double[] centroids = new double[k * dimensions];
+		for (int centroidIndex = 0; centroidIndex < k; centroidIndex++) {
+			System.arraycopy(model.getCentroidCoordinates(centroidIndex), 0, centroids, centroidIndex * dimensions,
+					dimensions);
+		}
+		return centroids;
+	}
+
 	@Override
 	public Class<? extends ClusterModel> getClusterModelClass() {
 		return CentroidClusterModel.class;
@@ -149,61 +149,65 @@ public class SVClustering extends RMAbstractClusterer {
 					getParameterAsDouble(PARAMETER_KERNEL_B));
 		}
 		SVCExampleSet svmExamples = new SVCExampleSet(exampleSet, false);
-		kernel.init(svmExamples, cacheSize);
-
-		// initialize progress
-		getProgress().setTotal(100);
-
-		// creating kernel using SVClusteringAlgorithm
-		SVClusteringAlgorithm clustering = new SVClusteringAlgorithm(this, kernel, svmExamples);
-		clustering.train();
-		getProgress().setCompleted((int) INTERMEDIATE_PROGRESS);
-
-		// doing neighborhood search for density estimation
 		int nextClusterId = 0;
 		int minPts = getParameterAsInt(MIN_PTS_NAME);
 		int[] clusterAssignments = new int[exampleSet.size()];
 		Arrays.fill(clusterAssignments, UNASSIGNED);
 
-		int i = 0;
-		for (Example example : exampleSet) {
-			if (clusterAssignments[i] == UNASSIGNED) {
-				LinkedList<Integer> neighbours = getNeighbours(exampleSet, example, i, clusterAssignments, clustering);
-				if (neighbours.size() >= minPts) {
-					nextClusterId++;
-					clusterAssignments[i] = nextClusterId;
-					for (int exampleIndex : neighbours) {
-						clusterAssignments[exampleIndex] = nextClusterId;
-					}
-					while (neighbours.size() > 0) {
-						// Take the first index from the queue and fetch indexed example
-						int index = neighbours.poll().intValue();
-						Example neighbourExample = exampleSet.getExample(index);
-
-						// Find its neighbours and if the density is sufficient
-						// recurse through them and
-						// assign it the current cluster id
-						LinkedList<Integer> neighboursRecursive = getNeighbours(exampleSet, neighbourExample, index,
-								clusterAssignments, clustering);
-						if (neighboursRecursive.size() >= minPts) {
-							for (int recursiveIndex : neighboursRecursive) {
-								// If already identified as noise, just assign
-								// it, if its unclassified, add to queue
-								if (clusterAssignments[recursiveIndex] == UNASSIGNED) {
-									neighbours.add(recursiveIndex);
+		// initialize progress
+		getProgress().setTotal(100);
+
+		kernel.init(svmExamples, cacheSize);
+		try {
+			// creating kernel using SVClusteringAlgorithm
+			SVClusteringAlgorithm clustering = new SVClusteringAlgorithm(this, kernel, svmExamples);
+			clustering.train();
+			getProgress().setCompleted((int) INTERMEDIATE_PROGRESS);
+
+			// doing neighborhood search for density estimation
+			int i = 0;
+			for (Example example : exampleSet) {
+				if (clusterAssignments[i] == UNASSIGNED) {
+					LinkedList<Integer> neighbours = getNeighbours(exampleSet, example, i, clusterAssignments, clustering);
+					if (neighbours.size() >= minPts) {
+						nextClusterId++;
+						clusterAssignments[i] = nextClusterId;
+						for (int exampleIndex : neighbours) {
+							clusterAssignments[exampleIndex] = nextClusterId;
+						}
+						while (neighbours.size() > 0) {
+							// Take the first index from the queue and fetch indexed example
+							int index = neighbours.poll().intValue();
+							Example neighbourExample = exampleSet.getExample(index);
+
+							// Find its neighbours and if the density is sufficient
+							// recurse through them and
+							// assign it the current cluster id
+							LinkedList<Integer> neighboursRecursive = getNeighbours(exampleSet, neighbourExample, index,
+									clusterAssignments, clustering);
+							if (neighboursRecursive.size() >= minPts) {
+								for (int recursiveIndex : neighboursRecursive) {
+									// If already identified as noise, just assign
+									// it, if its unclassified, add to queue
+									if (clusterAssignments[recursiveIndex] == UNASSIGNED) {
+										neighbours.add(recursiveIndex);
+									}
+									clusterAssignments[recursiveIndex] = nextClusterId;
 								}
-								clusterAssignments[recursiveIndex] = nextClusterId;
 							}
 						}
+					} else {
+						clusterAssignments[i] = NOISE;
 					}
-				} else {
-					clusterAssignments[i] = NOISE;
+				}
+				if (i++ % OPERATOR_PROGRESS_STEPS == 0) {
+					getProgress().setCompleted(
+							(int) (INTERMEDIATE_PROGRESS + (100.0 - INTERMEDIATE_PROGRESS) * i / exampleSet.size()));
 				}
 			}
-			if (i++ % OPERATOR_PROGRESS_STEPS == 0) {
-				getProgress().setCompleted(
-						(int) (INTERMEDIATE_PROGRESS + (100.0 - INTERMEDIATE_PROGRESS) * i / exampleSet.size()));
-			}
+		} finally {
+			// the kernel rows are not needed after clustering, free the shared cache memory
+			kernel.release_kernel_cache();
 		}
 		ClusterModel model = new ClusterModel(exampleSet, nextClusterId + 1, addsLabelAttribute(),
 				getParameterAsBoolean(PARAMETER_REMOVE_UNLABELED));
@@ -344,7 +348,7 @@ public class SVClustering extends RMAbstractClusterer {
 		types.add(type);
 
 		types.add(new ParameterTypeInt(PARAMETER_KERNEL_CACHE, "Size of the cache for kernel evaluations im MB ", 0,
-				Integer.MAX_VALUE, 200));
+				Integer.MAX_VALUE, 400));
 		type = new ParameterTypeDouble(PARAMETER_CONVERGENCE_EPSILON, "Precision on the KKT conditions", 0.0d,
 				Double.POSITIVE_INFINITY, 1e-3);
 		types.add(type);
@@ -27,7 +27,7 @@ import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
-import com.rapidminer.tools.math.MathFunctions;
+import com.rapidminer.tools.math.matrix.CoMomentMatrix;
 
 import java.util.List;
 
@@ -45,8 +45,6 @@ import java.util.List;
  */
 public class CorrelationWeighting extends AbstractWeighting {
 
-	private static final int PROGRESS_UPDATE_STEPS = 200_000;
-	
 	public static final String PARAMETER_SQUARED_CORRELATION = "squared_correlation";
 
 	/**
@@ -64,20 +62,14 @@ public class CorrelationWeighting extends AbstractWeighting {
 		boolean useSquaredCorrelation = getParameterAsBoolean(PARAMETER_SQUARED_CORRELATION);
 
 		AttributeWeights weights = new AttributeWeights(exampleSet);
-		getProgress().setTotal(attributes.size());
-		int progressCounter = 0;
-		int exampleSetSize = exampleSet.size();
-		int exampleCounter = 0;
-		for (Attribute attribute : attributes) {
-			double correlation = MathFunctions.correlation(exampleSet, labelAttribute, attribute, useSquaredCorrelation);
-			weights.setWeight(attribute.getName(), Math.abs(correlation));
-			progressCounter++;
-			exampleCounter += exampleSetSize;
-			if(exampleCounter > PROGRESS_UPDATE_STEPS) {
-				exampleCounter = 0;
-				getProgress().setCompleted(progressCounter);
-			}
+		getProgress().setTotal(100);
+		Attribute[] regularAttributes = attributes.createRegularAttributeArray();
+		CoMomentMatrix moments = CoMomentMatrix.calculateAgainst(exampleSet, labelAttribute, regularAttributes, this);
+		for (int i = 0; i < regularAttributes.length; i++) {
+			double correlation = moments.getCorrelation(0, i + 1, useSquaredCorrelation);
+			weights.setWeight(regularAttributes[i].getName(), Math.abs(correlation));
 		}
+		getProgress().complete();
 
 		return weights;
 	}
@@ -37,6 +37,7 @@ import java.io.File;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -125,7 +126,7 @@ public abstract class AbstractReader<T extends IOObject> extends Operator {
 
 	protected void addAnnotations(T result) {
 		for (ReaderDescription rd : READER_DESCRIPTIONS.values()) {
-			if (rd.readerClass.equals(this.getClass())) {
+			if (rd.readerClassName.equals(this.getClass().getName())) {
 				if (result.getAnnotations().getAnnotation(Annotations.KEY_SOURCE) == null) {
 					try {
 						String source = getParameter(rd.fileParameterKey);
@@ -140,11 +141,16 @@ public abstract class AbstractReader<T extends IOObject> extends Operator {
 		}
 	}
 
-	/** Describes an operator that can read certain file types. */
+	/**
+	 * Describes an operator that can read certain file types. The operator is either given by its
+	 * class or, if the class should not be loaded yet, by its {@link OperatorDescription}.
+	 */
 	public static class ReaderDescription {
 
 		private final String fileExtension;
 		private final Class<? extends AbstractReader<?>> readerClass;
+		private final OperatorDescription readerDescription;
+		private final String readerClassName;
 		/** This parameter must be set to the file name. */
 		private final String fileParameterKey;
 
@@ -153,8 +159,36 @@ public abstract class AbstractReader<T extends IOObject> extends Operator {
 			super();
 			this.fileExtension = fileExtension;
 			this.readerClass = readerClass;
+			this.readerDescription = null;
+			this.readerClassName = readerClass.getName();
+			this.fileParameterKey = fileParameterKey;
+		}
+
+		/**
+		 * Describes the reader by its operator description. The operator class is only loaded when
+		 * a reader is created.
+		 *
+		 * @since 7.6.1
+		 */
+		public ReaderDescription(String fileExtension, OperatorDescription readerDescription, String fileParameterKey) {
+			this.fileExtension = fileExtension;
+			this.readerClass = null;
+			this.readerDescription = readerDescription;
+			this.readerClassName = readerDescription.getOperatorClassName();
 			this.fileParameterKey = fileParameterKey;
 		}
+
+		private AbstractReader<?> createReader() throws OperatorCreationException {
+			if (readerClass != null) {
+				return OperatorService.createOperator(readerClass);
+			}
+			Operator operator = OperatorService.createOperator(readerDescription);
+			if (!(operator instanceof AbstractReader)) {
+				throw new OperatorCreationException(OperatorCreationException.INSTANTIATION_ERROR, readerClassName,
+						null);
+			}
+			return (AbstractReader<?>) operator;
+		}
 	}
 
 	private static final Map<String, ReaderDescription> READER_DESCRIPTIONS = new HashMap<String, ReaderDescription>();
@@ -164,6 +198,18 @@ public abstract class AbstractReader<T extends IOObject> extends Operator {
 		READER_DESCRIPTIONS.put(rd.fileExtension.toLowerCase(), rd);
 	}
 
+	/**
+	 * Registers the operator of the given description for files with the given extension without
+	 * loading its class. This restores the registrations a reader makes in its static initializer,
+	 * e.g. from the operator registry snapshot. A registration of the reader class replaces it.
+	 *
+	 * @since 7.6.1
+	 */
+	public static void registerReaderDescription(String fileExtension, OperatorDescription readerDescription,
+			String fileParameterKey) {
+		registerReaderDescription(new ReaderDescription(fileExtension, readerDescription, fileParameterKey));
+	}
+
 	/**
 	 * @depreacated call {@link #createReader(URI)}
 	 */
@@ -193,7 +239,7 @@ public abstract class AbstractReader<T extends IOObject> extends Operator {
 				return null;
 			}
 
-			AbstractReader<?> reader = OperatorService.createOperator(rd.readerClass);
+			AbstractReader<?> reader = rd.createReader();
 			if (uri.getScheme().equals("file")) {
 				// local file
 				File file = new File(uri);
@@ -221,13 +267,29 @@ public abstract class AbstractReader<T extends IOObject> extends Operator {
 	/** Returns the key of the parameter that specifies the file to be read. */
 	public static String getFileParameterForOperator(Operator operator) {
 		for (ReaderDescription rd : READER_DESCRIPTIONS.values()) {
-			if (rd.readerClass.equals(operator.getClass())) {
+			if (rd.readerClassName.equals(operator.getClass().getName())) {
 				return rd.fileParameterKey;
 			}
 		}
 		return null;
 	}
 
+	/**
+	 * Returns the file extensions the given operator is registered for, see
+	 * {@link #registerReaderDescription(ReaderDescription)}.
+	 *
+	 * @since 7.6.1
+	 */
+	public static List<String> getFileExtensionsForOperator(Operator operator) {
+		List<String> extensions = new ArrayList<>();
+		for (Map.Entry<String, ReaderDescription> entry : READER_DESCRIPTIONS.entrySet()) {
+			if (entry.getValue().readerClassName.equals(operator.getClass().getName())) {
+				extensions.add(entry.getKey());
+			}
+		}
+		return extensions;
+	}
+
 	@Override
 	protected void registerOperator(Process process) {
 		super.registerOperator(process);
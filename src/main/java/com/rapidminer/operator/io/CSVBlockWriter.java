@@ -0,0 +1,347 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.NumericalAttribute;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Formats an {@link ExampleSet} as CSV in blocks of rows. The output is identical to the one of
+ * {@link CSVExampleSetWriter#writeCSV(ExampleSet, java.io.PrintWriter, String, boolean, boolean, boolean, String, OperatorProgress)}
+ * but avoids the per cell overhead: the quoted forms of nominal values are computed once per
+ * mapping index, integral numbers with a magnitude below 10^7 are formatted without
+ * {@link Double#toString(double)} and dates are formatted by one {@link DateFormat} per block.
+ * Other numbers are still formatted by {@link Double#toString(double)}.
+ * <p>
+ * The examples are read once by the iterator of the example set since random access is slow for
+ * some views. When writing to an {@link OutputStream}, the examples of a batch of blocks are read
+ * first, then the blocks are formatted and encoded in parallel by the concurrency context of the
+ * operator and written in row order.
+ *
+ * @since 7.6.1
+ */
+final class CSVBlockWriter {
+
+	/** Approximate number of cells formatted per block. */
+	private static final int BLOCK_CELLS = 1 << 16;
+
+	/** Minimum number of rows per block. */
+	private static final int MIN_BLOCK_ROWS = 100;
+
+	/** Minimum number of cells for parallel formatting. */
+	private static final long MIN_PARALLEL_CELLS = 1 << 18;
+
+	/** Number of blocks formatted per thread before they are written. */
+	private static final int BLOCKS_PER_THREAD = 2;
+
+	/** Maximum mapping size for which the quoted values are precomputed. */
+	private static final int MAX_PRECOMPUTED_VALUES = 1 << 20;
+
+	/**
+	 * Integral values below this magnitude are written by {@link Double#toString(double)} as plain
+	 * digits and are therefore appended directly. Larger values use the scientific notation.
+	 */
+	private static final double PLAIN_INTEGER_LIMIT = 1e7;
+
+	private static final int NOMINAL = 0;
+	private static final int DATE = 1;
+	private static final int NUMERICAL = 2;
+
+	private final ExampleSet exampleSet;
+	private final Attribute[] attributes;
+	private final int[] columnTypes;
+	private final String[][] nominalValues;
+	private final String columnSeparator;
+	private final String lineSeparator = System.lineSeparator();
+	private final boolean quoteNominalValues;
+	private final boolean formatDate;
+	private final String infinitySymbol;
+	private final String negativeInfinitySymbol;
+	private final int blockRows;
+
+	/**
+	 * Creates a new writer for the given example set.
+	 *
+	 * @param infinitySymbol
+	 *            the symbol to use for infinite values; if {@code null} the default symbol
+	 *            "Infinity" is used
+	 */
+	CSVBlockWriter(ExampleSet exampleSet, String columnSeparator, boolean quoteNominalValues, boolean formatDate,
+			String infinitySymbol) {
+		this.exampleSet = exampleSet;
+		this.columnSeparator = columnSeparator;
+		this.quoteNominalValues = quoteNominalValues;
+		this.formatDate = formatDate;
+		this.infinitySymbol = infinitySymbol;
+		this.negativeInfinitySymbol = infinitySymbol != null ? "-" + infinitySymbol : null;
+
+		List<Attribute> attributeList = new ArrayList<>();
+		exampleSet.getAttributes().allAttributes().forEachRemaining(attributeList::add);
+		attributes = attributeList.toArray(new Attribute[attributeList.size()]);
+		columnTypes = new int[attributes.length];
+		nominalValues = new String[attributes.length][];
+		for (int i = 0; i < attributes.length; i++) {
+			Attribute attribute = attributes[i];
+			if (attribute.isNominal()) {
+				columnTypes[i] = NOMINAL;
+				nominalValues[i] = precomputeNominalValues(attribute);
+			} else if (Ontology.ATTRIBUTE_VALUE_TYPE.isA(attribute.getValueType(), Ontology.DATE_TIME)) {
+				columnTypes[i] = DATE;
+			} else {
+				columnTypes[i] = NUMERICAL;
+			}
+		}
+		blockRows = Math.max(MIN_BLOCK_ROWS, BLOCK_CELLS / Math.max(1, attributes.length));
+	}
+
+	/**
+	 * Writes the example set to the given writer. The progress is increased by the number of
+	 * written examples.
+	 */
+	void write(Writer out, boolean writeAttributeNames, OperatorProgress progress) throws IOException,
+			ProcessStoppedException {
+		StringBuilder builder = new StringBuilder();
+		if (writeAttributeNames) {
+			appendHeader(builder);
+			out.append(builder);
+		}
+		DateFormat dateFormat = DateFormat.getInstance();
+		Iterator<Example> examples = exampleSet.iterator();
+		for (int start = 0; start < exampleSet.size(); start += blockRows) {
+			int end = Math.min(exampleSet.size(), start + blockRows);
+			builder.setLength(0);
+			appendRows(examples, end - start, builder, dateFormat);
+			out.append(builder);
+			if (progress != null) {
+				progress.step(end - start);
+			}
+		}
+	}
+
+	/**
+	 * Writes the example set to the given stream using the given charset. The blocks are
+	 * formatted in parallel if the operator provides a concurrency context and the example set is
+	 * large enough. The progress of the operator is increased by the number of written examples.
+	 */
+	void write(OutputStream out, Charset charset, boolean writeAttributeNames, Operator operator)
+			throws IOException, OperatorException {
+		OperatorProgress progress = operator != null ? operator.getProgress() : null;
+		ConcurrencyContext context = null;
+		if (operator != null && (long) exampleSet.size() * attributes.length >= MIN_PARALLEL_CELLS
+				&& isBlockEncodable(charset) && Resources.getConcurrencyContext(operator).getParallelism() > 1) {
+			context = Resources.getConcurrencyContext(operator);
+		}
+		if (context == null) {
+			Writer writer = new OutputStreamWriter(out, charset);
+			write(writer, writeAttributeNames, progress);
+			writer.flush();
+			return;
+		}
+
+		if (writeAttributeNames) {
+			StringBuilder builder = new StringBuilder();
+			appendHeader(builder);
+			out.write(builder.toString().getBytes(charset));
+		}
+		int numberOfBlocks = (exampleSet.size() + blockRows - 1) / blockRows;
+		int blocksPerBatch = context.getParallelism() * BLOCKS_PER_THREAD;
+		Iterator<Example> examples = exampleSet.iterator();
+		for (int batchStart = 0; batchStart < numberOfBlocks; batchStart += blocksPerBatch) {
+			int batchEnd = Math.min(numberOfBlocks, batchStart + blocksPerBatch);
+			List<Callable<byte[]>> tasks = new ArrayList<>(batchEnd - batchStart);
+			for (int block = batchStart; block < batchEnd; block++) {
+				int start = block * blockRows;
+				// read the rows of the block here, the iterator must not be shared by the tasks
+				final List<Example> rows = new ArrayList<>(Math.min(exampleSet.size(), start + blockRows) - start);
+				for (int row = start; row < start + blockRows && examples.hasNext(); row++) {
+					rows.add(examples.next());
+				}
+				final ConcurrencyContext taskContext = context;
+				tasks.add(new Callable<byte[]>() {
+
+					@Override
+					public byte[] call() {
+						taskContext.checkStatus();
+						StringBuilder builder = new StringBuilder();
+						appendRows(rows.iterator(), rows.size(), builder, DateFormat.getInstance());
+						return builder.toString().getBytes(charset);
+					}
+				});
+			}
+			List<byte[]> blocks;
+			try {
+				blocks = context.call(tasks);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				} else {
+					throw new OperatorException(cause.getMessage(), cause);
+				}
+			}
+
+			// write in row order
+			for (int block = batchStart; block < batchEnd; block++) {
+				out.write(blocks.get(block - batchStart));
+				if (progress != null) {
+					int start = block * blockRows;
+					progress.step(Math.min(exampleSet.size(), start + blockRows) - start);
+				}
+			}
+		}
+	}
+
+	/** Appends the line with the attribute names. */
+	void appendHeader(StringBuilder builder) {
+		for (int i = 0; i < attributes.length; i++) {
+			if (i > 0) {
+				builder.append(columnSeparator);
+			}
+			String name = attributes[i].getName();
+			if (quoteNominalValues) {
+				builder.append('"').append(name.replace('"', '\'')).append('"');
+			} else {
+				builder.append(name);
+			}
+		}
+		builder.append(lineSeparator);
+	}
+
+	/** Appends the lines of the next count examples of the given iterator. */
+	void appendRows(Iterator<Example> examples, int count, StringBuilder builder, DateFormat dateFormat) {
+		for (int row = 0; row < count && examples.hasNext(); row++) {
+			Example example = examples.next();
+			for (int i = 0; i < attributes.length; i++) {
+				if (i > 0) {
+					builder.append(columnSeparator);
+				}
+				double value = example.getValue(attributes[i]);
+				if (Double.isNaN(value)) {
+					continue;
+				}
+				switch (columnTypes[i]) {
+					case NOMINAL:
+						appendNominal(builder, i, value);
+						break;
+					case DATE:
+						if (formatDate) {
+							builder.append(dateFormat.format(new Date((long) value)));
+						} else {
+							appendNumber(builder, value);
+						}
+						break;
+					default:
+						if (Double.isInfinite(value) && infinitySymbol != null) {
+							builder.append(value > 0 ? infinitySymbol : negativeInfinitySymbol);
+						} else {
+							appendNumber(builder, value);
+						}
+				}
+			}
+			builder.append(lineSeparator);
+		}
+	}
+
+	private void appendNominal(StringBuilder builder, int column, double value) {
+		String[] values = nominalValues[column];
+		int index = (int) value;
+		if (index == value && index >= 0 && index < values.length) {
+			builder.append(values[index]);
+		} else {
+			builder.append(formatNominal(
+					attributes[column].getAsString(value, NumericalAttribute.UNLIMITED_NUMBER_OF_DIGITS, false)));
+		}
+	}
+
+	private String formatNominal(String value) {
+		return quoteNominalValues ? "\"" + value.replace('"', '\'') + "\"" : value;
+	}
+
+	/** Returns the formatted values for all indices of the mapping if it is small enough. */
+	private String[] precomputeNominalValues(Attribute attribute) {
+		int size;
+		try {
+			size = attribute.getMapping().size();
+		} catch (UnsupportedOperationException e) {
+			return new String[0];
+		}
+		if (size > MAX_PRECOMPUTED_VALUES) {
+			return new String[0];
+		}
+		String[] values = new String[size];
+		for (int i = 0; i < size; i++) {
+			values[i] = formatNominal(attribute.getAsString(i, NumericalAttribute.UNLIMITED_NUMBER_OF_DIGITS, false));
+		}
+		return values;
+	}
+
+	/**
+	 * Appends the value in the format of {@link Double#toString(double)}. Only integral values with
+	 * a magnitude below 10^7 are written directly, all other values are formatted by
+	 * {@link Double#toString(double)}.
+	 */
+	static void appendNumber(StringBuilder builder, double value) {
+		if (Math.abs(value) < PLAIN_INTEGER_LIMIT && value == Math.rint(value)
+				&& (value != 0 || Double.doubleToRawLongBits(value) == 0)) {
+			builder.append((long) value).append(".0");
+		} else {
+			builder.append(value);
+		}
+	}
+
+	/**
+	 * Checks whether separately encoded blocks can be concatenated. This is not the case for
+	 * charsets writing a byte order mark like UTF-16.
+	 */
+	private static boolean isBlockEncodable(Charset charset) {
+		if (!charset.canEncode()) {
+			return false;
+		}
+		byte[] single = "a".getBytes(charset);
+		byte[] concatenated = Arrays.copyOf(single, single.length * 2);
+		System.arraycopy(single, 0, concatenated, single.length, single.length);
+		return Arrays.equals(concatenated, "aa".getBytes(charset));
+	}
+}
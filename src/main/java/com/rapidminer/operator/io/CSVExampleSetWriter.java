@@ -18,29 +18,27 @@
 */
 package com.rapidminer.operator.io;
 
-import com.rapidminer.example.Attribute;
-import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.OperatorProgress;
 import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.operator.UserError;
 import com.rapidminer.operator.ports.Port;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.ParameterTypeString;
 import com.rapidminer.parameter.PortProvider;
 import com.rapidminer.parameter.conditions.PortConnectedCondition;
-import com.rapidminer.tools.Ontology;
 import com.rapidminer.tools.io.Encoding;
 
-import java.io.OutputStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
-import java.sql.Date;
-import java.text.DateFormat;
-import java.util.Iterator;
+import java.nio.charset.Charset;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 
 /**
@@ -78,6 +76,11 @@ public class CSVExampleSetWriter extends AbstractStreamWriter {
 	// Nominal2Date operator
 	public static final String PARAMETER_FORMAT_DATE = "format_date_attributes";
 
+	/** Indicates if the written content should be compressed with gzip. */
+	public static final String PARAMETER_ZIPPED = "zipped";
+
+	private static final int ZIP_BUFFER_SIZE = 1 << 16;
+
 	public CSVExampleSetWriter(OperatorDescription description) {
 		super(description);
 	}
@@ -206,104 +209,31 @@ public class CSVExampleSetWriter extends AbstractStreamWriter {
 	public static void writeCSV(ExampleSet exampleSet, PrintWriter out, String colSeparator, boolean quoteNomValues,
 			boolean writeAttribNames, boolean formatDate, String infinitySymbol, OperatorProgress opProg)
 			throws ProcessStoppedException {
-		String negativeInfinitySymbol = null;
-		if (infinitySymbol != null) {
-			negativeInfinitySymbol = "-" + infinitySymbol;
-		}
-		String columnSeparator = colSeparator;
-		boolean quoteNominalValues = quoteNomValues;
-
-		// write column names
-		if (writeAttribNames) {
-			Iterator<Attribute> a = exampleSet.getAttributes().allAttributes();
-			boolean first = true;
-			while (a.hasNext()) {
-				if (!first) {
-					out.print(columnSeparator);
-				}
-				Attribute attribute = a.next();
-				String name = attribute.getName();
-				if (quoteNominalValues) {
-					name = name.replaceAll("\"", "'");
-					name = "\"" + name + "\"";
-				}
-				out.print(name);
-				first = false;
-			}
-			out.println();
-		}
-
-		// write data
-		int progressCounter = 0;
-		for (Example example : exampleSet) {
-			Iterator<Attribute> a = exampleSet.getAttributes().allAttributes();
-			boolean first = true;
-			while (a.hasNext()) {
-
-				Attribute attribute = a.next();
-				if (!first) {
-					out.print(columnSeparator);
-				}
-				if (!Double.isNaN(example.getValue(attribute))) {
-					if (attribute.isNominal()) {
-						String stringValue = example.getValueAsString(attribute);
-						if (quoteNominalValues) {
-							stringValue = stringValue.replaceAll("\"", "'");
-							stringValue = "\"" + stringValue + "\"";
-						}
-						out.print(stringValue);
-					} else {
-						Double value = example.getValue(attribute);
-						if (Ontology.ATTRIBUTE_VALUE_TYPE.isA(attribute.getValueType(), Ontology.DATE_TIME)) {
-							if (formatDate) {
-								Date date = new Date(value.longValue());
-								String s = DateFormat.getInstance().format(date);
-								out.print(s);
-							} else {
-								out.print(value);
-							}
-						} else {
-							if (value.isInfinite() && infinitySymbol != null) {
-								if (Double.POSITIVE_INFINITY == value) {
-									out.print(infinitySymbol);
-								} else {
-									out.print(negativeInfinitySymbol);
-								}
-							} else {
-								out.print(value);
-							}
-						}
-
-					}
-				}
-				first = false;
-			}
-
-			out.println();
-
-			// trigger operator progress every 100 examples
-			if (opProg != null) {
-				++progressCounter;
-				if (progressCounter % 100 == 0) {
-					opProg.step(100);
-					progressCounter = 0;
-				}
-			}
+		try {
+			new CSVBlockWriter(exampleSet, colSeparator, quoteNomValues, formatDate, infinitySymbol).write(out,
+					writeAttribNames, opProg);
+		} catch (IOException e) {
+			// cannot happen since a PrintWriter does not throw exceptions
 		}
 	}
 
 	@Override
-	public void writeStream(ExampleSet exampleSet, java.io.OutputStream outputStream) throws OperatorException {
+	public void writeStream(ExampleSet exampleSet, OutputStream outputStream) throws OperatorException {
 
 		String columnSeparator = getParameterAsString(PARAMETER_COLUMN_SEPARATOR);
 		boolean quoteNominalValues = getParameterAsBoolean(PARAMETER_QUOTE_NOMINAL_VALUES);
 		boolean writeAttribNames = getParameterAsBoolean(PARAMETER_WRITE_ATTRIBUTE_NAMES);
 		boolean formatDate = getParameterAsBoolean(PARAMETER_FORMAT_DATE);
-		try (PrintWriter out = new PrintWriter(new OutputStreamWriter(outputStream, Encoding.getEncoding(this)))) {
+		boolean zipped = getParameterAsBoolean(PARAMETER_ZIPPED);
+		Charset encoding = Encoding.getEncoding(this);
+		try (OutputStream out = zipped ? new GZIPOutputStream(outputStream, ZIP_BUFFER_SIZE) : outputStream) {
 			// init operator progress
 			getProgress().setTotal(exampleSet.size());
-			writeCSV(exampleSet, out, columnSeparator, quoteNominalValues, writeAttribNames, formatDate, getProgress());
+			new CSVBlockWriter(exampleSet, columnSeparator, quoteNominalValues, formatDate, null).write(out, encoding,
+					writeAttribNames, this);
 			getProgress().complete();
+		} catch (IOException e) {
+			throw new UserError(this, e, 322, "output stream", e.getMessage());
 		}
 	}
 
@@ -331,6 +261,8 @@ public class CSVExampleSetWriter extends AbstractStreamWriter {
 		types.add(new ParameterTypeBoolean(PARAMETER_FORMAT_DATE,
 				"Indicates if date attributes are written as a formated string or as milliseconds past since January 1, 1970, 00:00:00 GMT",
 				true, true));
+		types.add(new ParameterTypeBoolean(PARAMETER_ZIPPED, "Indicates if the file content should be compressed with gzip.",
+				false, true));
 		ParameterType type = new ParameterTypeBoolean(PARAMETER_APPEND_FILE,
 				"Indicates if new content should be appended to the file or if the pre-existing file content should be overwritten.",
 				false, false);
@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner;
+
+import com.rapidminer.example.Attribute;
+
+
+/**
+ * A {@link PredictionModel} which can be evaluated on primitive row buffers instead of single
+ * {@link com.rapidminer.example.Example}s. This allows meta models to apply many base models in a
+ * single pass over the data without creating intermediate prediction attributes.
+ *
+ * @since 7.6.1
+ */
+public interface RowPredictionModel {
+
+	/**
+	 * Creates a {@link RowPredictor} for row buffers in which every row consists of the values of
+	 * the given attributes in the given order.
+	 *
+	 * @param columns
+	 *            the attributes defining the columns of the row buffer
+	 * @return the predictor or {@code null} if this model cannot be evaluated on such rows
+	 */
+	public RowPredictor createRowPredictor(Attribute[] columns);
+
+}
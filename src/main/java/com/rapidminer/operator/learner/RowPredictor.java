@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner;
+
+import com.rapidminer.operator.OperatorException;
+
+
+/**
+ * Predicts single rows of a primitive row buffer. The columns of the buffer are defined when the
+ * predictor is created by a {@link RowPredictionModel}. Row predictors are stateless and can be
+ * used by several threads at the same time.
+ *
+ * @since 7.6.1
+ */
+public interface RowPredictor {
+
+	/**
+	 * Predicts the row starting at the given offset of the buffer.
+	 *
+	 * @param buffer
+	 *            the row buffer containing the values of consecutive rows
+	 * @param offset
+	 *            the position of the first value of the row in the buffer
+	 * @param confidences
+	 *            array of the size of the label mapping which is filled with the confidences for
+	 *            the label values, can be {@code null} if the confidences are not needed
+	 * @return the predicted value
+	 * @throws OperatorException
+	 *             if the prediction fails
+	 */
+	public double predict(double[] buffer, int offset, double[] confidences) throws OperatorException;
+
+}
@@ -31,6 +31,7 @@ import com.rapidminer.operator.ports.metadata.SimpleMetaDataError;
 import com.rapidminer.operator.ports.quickfix.ParameterSettingQuickFix;
 import com.rapidminer.parameter.*;
 import com.rapidminer.parameter.conditions.EqualTypeCondition;
+import com.rapidminer.studio.internal.Resources;
 
 import java.util.Collections;
 import java.util.List;
@@ -142,6 +143,12 @@ public abstract class AbstractMySVMLearner extends AbstractKernelBasedLearner {
 	/** The SVM example set. */
 	private com.rapidminer.operator.learner.functions.kernel.jmysvm.examples.SVMExamples svmExamples;
 
+	/**
+	 * Set while {@link #doWork()} runs. The kernel cache is then kept after learning for the
+	 * performance estimation and released when the work is done.
+	 */
+	private boolean keepKernelCache = false;
+
 	public AbstractMySVMLearner(OperatorDescription description) {
 		super(description);
 	}
@@ -174,6 +181,25 @@ public abstract class AbstractMySVMLearner extends AbstractKernelBasedLearner {
 		return kernel;
 	}
 
+	@Override
+	public void doWork() throws OperatorException {
+		keepKernelCache = true;
+		try {
+			super.doWork();
+		} finally {
+			keepKernelCache = false;
+			releaseKernelCache();
+		}
+	}
+
+	/** Frees the shared cache memory of the kernel, the kernel rows are calculated on demand. */
+	private void releaseKernelCache() {
+		if (kernel != null) {
+			kernel.setConcurrencyContext(null);
+			kernel.release_kernel_cache();
+		}
+	}
+
 	/** Returns the used SVM. */
 	protected SVMInterface getSVM() {
 		return svm;
@@ -267,11 +293,19 @@ public abstract class AbstractMySVMLearner extends AbstractKernelBasedLearner {
 					getParameterAsDouble(PARAMETER_KERNEL_SHIFT));
 		}
 		kernel.init(svmExamples, cacheSize);
+		kernel.setConcurrencyContext(Resources.getConcurrencyContext(this));
 
 		// SVM
-		svm = createSVM(label, kernel, svmExamples, exampleSet);
-		svm.init(kernel, svmExamples);
-		svm.train();
+		try {
+			svm = createSVM(label, kernel, svmExamples, exampleSet);
+			svm.init(kernel, svmExamples);
+			svm.train();
+		} finally {
+			// the kernel rows are not needed after training unless the performance is estimated
+			if (!keepKernelCache) {
+				releaseKernelCache();
+			}
+		}
 
 		return createSVMModel(exampleSet, svmExamples, kernel, kernelType);
 	}
@@ -396,7 +430,7 @@ public abstract class AbstractMySVMLearner extends AbstractKernelBasedLearner {
 		type.setExpert(false);
 		types.add(type);
 		types.add(new ParameterTypeInt(PARAMETER_KERNEL_CACHE, "Size of the cache for kernel evaluations im MB ", 0,
-				Integer.MAX_VALUE, 200));
+				Integer.MAX_VALUE, 400));
 		type = new ParameterTypeDouble(PARAMETER_C,
 				"The SVM complexity constant. Use -1 for different C values for positive and negative.", -1,
 				Double.POSITIVE_INFINITY, 0.0d);
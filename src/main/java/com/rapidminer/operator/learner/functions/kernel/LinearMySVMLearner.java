@@ -32,6 +32,7 @@ import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.ParameterTypeDouble;
 import com.rapidminer.parameter.ParameterTypeInt;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
 import com.rapidminer.tools.RandomGenerator;
 
@@ -131,11 +132,18 @@ public class LinearMySVMLearner extends AbstractKernelBasedLearner {
 		int cacheSize = getParameterAsInt(PARAMETER_KERNEL_CACHE);
 		Kernel kernel = new KernelDot();
 		kernel.init(svmExamples, cacheSize);
+		kernel.setConcurrencyContext(Resources.getConcurrencyContext(this));
 
 		// SVM
-		SVMInterface svm = createSVM(label, kernel, svmExamples, exampleSet);
-		svm.init(kernel, svmExamples);
-		svm.train();
+		try {
+			SVMInterface svm = createSVM(label, kernel, svmExamples, exampleSet);
+			svm.init(kernel, svmExamples);
+			svm.train();
+		} finally {
+			// the kernel rows are not needed after training, free the shared cache memory
+			kernel.setConcurrencyContext(null);
+			kernel.release_kernel_cache();
+		}
 
 		LinearMySVMModel model = new LinearMySVMModel(exampleSet, svmExamples, kernel, KERNEL_DOT);
 		this.svmExamples = null;
@@ -166,7 +174,7 @@ public class LinearMySVMLearner extends AbstractKernelBasedLearner {
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
 		types.add(new ParameterTypeInt(PARAMETER_KERNEL_CACHE, "Size of the cache for kernel evaluations im MB ", 0,
-				Integer.MAX_VALUE, 200));
+				Integer.MAX_VALUE, 400));
 		ParameterType type = new ParameterTypeDouble(PARAMETER_C,
 				"The SVM complexity constant. Use -1 for different C values for positive and negative.", -1,
 				Double.POSITIVE_INFINITY, 0.0d);
@@ -18,11 +18,17 @@
 */
 package com.rapidminer.operator.learner.functions.kernel.jmysvm.kernel;
 
+import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.operator.learner.functions.kernel.jmysvm.examples.SVMExample;
 import com.rapidminer.operator.learner.functions.kernel.jmysvm.examples.SVMExamples;
 import com.rapidminer.operator.learner.functions.kernel.jmysvm.util.Cache;
+import com.rapidminer.operator.learner.functions.kernel.jmysvm.util.KernelCacheBudget;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 
 /**
@@ -34,6 +40,11 @@ public abstract class Kernel implements Serializable {
 
 	private static final long serialVersionUID = 6086202515099260920L;
 
+	/**
+	 * Minimal number of examples for which kernel rows are calculated in parallel
+	 */
+	private static final int PARALLEL_ROW_THRESHOLD = 4096;
+
 	/**
 	 * Container for the examples, parameters etc.
 	 */
@@ -59,6 +70,21 @@ public abstract class Kernel implements Serializable {
 	 */
 	protected int cache_MB;
 
+	/**
+	 * Memory reserved for the cache from the {@link KernelCacheBudget}
+	 */
+	protected transient long kernel_cache_bytes;
+
+	/**
+	 * Whether the cache was released explicitly, further rows are calculated without caching
+	 */
+	protected transient boolean kernel_cache_released;
+
+	/**
+	 * Context used to calculate kernel rows in parallel, may be null
+	 */
+	private transient ConcurrencyContext concurrency_context;
+
 	/**
 	 * number of examples after shrinking
 	 */
@@ -102,6 +128,13 @@ public abstract class Kernel implements Serializable {
 	 */
 	public double innerproduct(int[] x_index, double[] x_att, int[] y_index, double[] y_att) {
 		double result = 0;
+		if (isDense(x_index, y_index)) {
+			// same summation order as below without index comparisons
+			for (int pos = x_att.length - 1; pos >= 0; pos--) {
+				result += x_att[pos] * y_att[pos];
+			}
+			return result;
+		}
 		int xpos = x_index.length - 1;
 		int ypos = y_index.length - 1;
 
@@ -128,6 +161,13 @@ public abstract class Kernel implements Serializable {
 	public double norm2(int[] x_index, double[] x_att, int[] y_index, double[] y_att) {
 		double result = 0;
 		double tmp;
+		if (isDense(x_index, y_index)) {
+			for (int pos = x_att.length - 1; pos >= 0; pos--) {
+				tmp = x_att[pos] - y_att[pos];
+				result += tmp * tmp;
+			}
+			return result;
+		}
 		int xpos = x_index.length - 1;
 		int ypos = y_index.length - 1;
 
@@ -165,15 +205,35 @@ public abstract class Kernel implements Serializable {
 		return result;
 	};
 
+	/**
+	 * Checks whether both examples contain all attributes from 0 to the length of the index. As
+	 * indices are sorted, this is the case if the last index equals the length minus one.
+	 */
+	private static boolean isDense(int[] x_index, int[] y_index) {
+		int length = x_index.length;
+		return length > 0 && y_index.length == length && x_index[length - 1] == length - 1
+				&& y_index[length - 1] == length - 1;
+	}
+
 	/**
 	 * Gets a kernel row
 	 */
 	public double[] get_row(int i) {
 		double[] result = null;
+		if (kernel_cache == null) {
+			if (kernel_cache_released) {
+				// do not reserve memory again after the cache was released
+				result = new double[examples_total];
+				calculate_K_row(result, i);
+				return result;
+			}
+			init_kernel_cache(cache_MB);
+		}
+		;
 		result = ((double[]) kernel_cache.get_element(i));
 		if (result == null) {
-			// get last cache element, don't assign new memory
-			result = (double[]) kernel_cache.get_lru_element();
+			// get the element to be replaced, don't assign new memory
+			result = (double[]) kernel_cache.get_replaced_element(i);
 			if (result == null) {
 				result = new double[examples_total];
 			}
@@ -192,20 +252,52 @@ public abstract class Kernel implements Serializable {
 	 *            of the cache in MB
 	 */
 	public void init_kernel_cache(int size) {
+		release_kernel_cache();
+		kernel_cache_released = false;
 		cache_MB = size;
-		// array of train_size doubles
-		kernel_cache_size = size * 1048576 / 4 / examples_total;
-		if (kernel_cache_size < 1) {
-			kernel_cache_size = 1;
+		// array of train_size doubles, the memory is reserved from the shared budget
+		long row_bytes = Math.max(1, examples_total) * 8L;
+		long requested = Math.max(row_bytes, Math.min(size * 1048576L, row_bytes * the_examples.count_examples()));
+		kernel_cache_bytes = KernelCacheBudget.reserve(requested, row_bytes);
+		kernel_cache_size = get_cache_rows(examples_total);
+		kernel_cache = new Cache(kernel_cache_size, examples_total);
+	};
+
+	/**
+	 * Releases the kernel cache and its memory reservation. Further kernel rows are calculated
+	 * without caching until {@link #init_kernel_cache(int)} is called again.
+	 */
+	public void release_kernel_cache() {
+		kernel_cache = null;
+		kernel_cache_released = true;
+		KernelCacheBudget.release(kernel_cache_bytes);
+		kernel_cache_bytes = 0;
+	};
+
+	/**
+	 * Number of rows with the given number of examples that fit into the reserved memory
+	 */
+	private int get_cache_rows(int row_length) {
+		long rows = kernel_cache_bytes / 8 / Math.max(1, row_length);
+		if (rows < 1) {
+			rows = 1;
 		}
 		;
-		if (kernel_cache_size > the_examples.count_examples()) {
-			kernel_cache_size = the_examples.count_examples();
+		if (rows > row_length) {
+			rows = row_length;
 		}
 		;
-		kernel_cache = new Cache(kernel_cache_size, examples_total);
+		return (int) rows;
 	};
 
+	/**
+	 * Sets the context used to calculate kernel rows in parallel. If the context is null, rows are
+	 * calculated sequentially.
+	 */
+	public void setConcurrencyContext(ConcurrencyContext context) {
+		this.concurrency_context = context;
+	}
+
 	public int getCacheSize() {
 		return cache_MB;
 	}
@@ -214,20 +306,18 @@ public abstract class Kernel implements Serializable {
 	 * Sets the number of examples to new value
 	 */
 	public void set_examples_size(int new_examples_total) {
-		// number of rows that fit into cache:
-		int new_kernel_cache_size = cache_MB * 1048576 / 4 / new_examples_total;
-		if (new_kernel_cache_size < 1) {
-			new_kernel_cache_size = 1;
-		}
-		;
-		if (new_kernel_cache_size > new_examples_total) {
-			new_kernel_cache_size = new_examples_total;
+		if (kernel_cache == null && !kernel_cache_released) {
+			init_kernel_cache(cache_MB);
 		}
 		;
+		// number of rows that fit into the reserved memory:
+		int new_kernel_cache_size = get_cache_rows(new_examples_total);
 
 		// kernel_cache = new Cache(kernel_cache_size);
 
-		if (new_examples_total < examples_total) {
+		if (kernel_cache == null) {
+			// released, nothing cached
+		} else if (new_examples_total < examples_total) {
 			// keep cache
 			kernel_cache.shrink(new_kernel_cache_size, new_examples_total);
 		} else if (new_examples_total > examples_total) {
@@ -259,6 +349,52 @@ public abstract class Kernel implements Serializable {
 	};
 
 	public double[] calculate_K_row(double[] result, int i) {
+		ConcurrencyContext context = concurrency_context;
+		if (context == null || examples_total < PARALLEL_ROW_THRESHOLD || context.getParallelism() <= 1) {
+			calculate_K_row(result, i, 0, examples_total);
+			return result;
+		}
+		;
+
+		// split the row into one part per thread
+		final double[] row = result;
+		final int x = i;
+		int parts = context.getParallelism();
+		int part_size = (examples_total + parts - 1) / parts;
+		List<Callable<Void>> tasks = new ArrayList<>(parts);
+		for (int start = 0; start < examples_total; start += part_size) {
+			final int from = start;
+			final int to = Math.min(examples_total, start + part_size);
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					calculate_K_row(row, x, from, to);
+					return null;
+				}
+			});
+		}
+		;
+		try {
+			context.call(tasks);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new RuntimeException(cause.getMessage(), cause);
+			}
+		}
+		;
+		return result;
+	};
+
+	/**
+	 * Calculates the entries from (inclusive) to (exclusive) of kernel row i
+	 */
+	private void calculate_K_row(double[] result, int i, int from, int to) {
 		int[] x_index;
 		double[] x_att;
 		int[] y_index;
@@ -266,13 +402,12 @@ public abstract class Kernel implements Serializable {
 		x_index = the_examples.index[i];
 		x_att = the_examples.atts[i];
 
-		for (int k = 0; k < examples_total; k++) {
+		for (int k = from; k < to; k++) {
 			y_index = the_examples.index[k];
 			y_att = the_examples.atts[k];
 			result[k] = calculate_K(x_index, x_att, y_index, y_att);
 		}
 		;
-		return result;
 	};
 
 	/**
@@ -283,6 +418,8 @@ public abstract class Kernel implements Serializable {
 	 */
 	public void swap(int pos1, int pos2) {
 		// called after container swap
-		kernel_cache.swap(pos1, pos2);
+		if (kernel_cache != null) {
+			kernel_cache.swap(pos1, pos2);
+		}
 	}
 }
@@ -1389,10 +1389,15 @@ public abstract class SVM implements SVMInterface {
 	public double[] getXiAlphaEstimation(Kernel kernel) {
 		double r_delta = 0.0d;
 
+		double[] norms = new double[examples_total];
 		for (int j = 0; j < examples_total; j++) {
-			double norm_x = kernel.calculate_K(j, j);
-			for (int i = 0; i < examples_total; i++) {
-				double r_current = norm_x - kernel.calculate_K(i, j);
+			norms[j] = kernel.calculate_K(j, j);
+		}
+		// read whole kernel rows to use the cache and the parallel row calculation
+		for (int i = 0; i < examples_total; i++) {
+			double[] row = kernel.get_row(i);
+			for (int j = 0; j < examples_total; j++) {
+				double r_current = norms[j] - row[j];
 				if (r_current > r_delta) {
 					r_delta = r_current;
 				}
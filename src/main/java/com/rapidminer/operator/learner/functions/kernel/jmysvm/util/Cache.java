@@ -19,12 +19,19 @@
 package com.rapidminer.operator.learner.functions.kernel.jmysvm.util;
 
 /**
- * Implements a last recently used cache
+ * Implements a last recently used cache. Elements which were accessed frequently are kept longer:
+ * every access extends the lifetime of an element by the number of cache rows, up to
+ * {@link #FREQUENCY_LIMIT} accesses.
  * 
  * @author Stefan Rueping
  */
 public class Cache {
 
+	/**
+	 * maximal number of accesses taken into account for eviction
+	 */
+	private static final int FREQUENCY_LIMIT = 4;
+
 	/**
 	 * Cache rows
 	 */
@@ -45,6 +52,11 @@ public class Cache {
 	 */
 	long[] last_used;
 
+	/**
+	 * number of accesses since the element was put into the cache
+	 */
+	int[] uses;
+
 	int[] index;
 
 	/**
@@ -89,6 +101,7 @@ public class Cache {
 		;
 		elements = new Object[cache_size];
 		last_used = new long[cache_size];
+		uses = new int[cache_size];
 		index = new int[cache_size + 1];
 		for (int i = 0; i < cache_size; i++) {
 			elements[i] = null;
@@ -105,6 +118,7 @@ public class Cache {
 
 		Object[] new_elements = new Object[size];
 		long[] new_last_used = new long[size];
+		int[] new_uses = new int[size];
 		int[] new_index = new int[size + 1];
 		int i;
 		double[] old_element;
@@ -130,6 +144,7 @@ public class Cache {
 			;
 			new_elements[i] = element;
 			new_last_used[i] = last_used[i];
+			new_uses[i] = element == null ? 0 : uses[i];
 			new_index[i] = index[i];
 			elements[i] = null;
 		}
@@ -145,6 +160,7 @@ public class Cache {
 		// overwrite old
 		elements = new_elements;
 		last_used = new_last_used;
+		uses = new_uses;
 		index = new_index;
 		cache_size = size;
 	};
@@ -159,6 +175,7 @@ public class Cache {
 		;
 		elements = null;
 		last_used = null;
+		uses = null;
 		index = null;
 	};
 
@@ -179,6 +196,7 @@ public class Cache {
 			result = elements[pos];
 			counter++;
 			last_used[pos] = counter;
+			use(pos);
 		}
 		;
 		return result;
@@ -186,17 +204,17 @@ public class Cache {
 
 	public int get_lru_pos() {
 		long[] my_last_used = last_used;
-		long min_time = my_last_used[cache_size - 1]; // heuristic: empty
-														// entries are at the
-														// end. Valid as any
-														// element may be the
-														// min element
+		int[] my_uses = uses;
+		// heuristic: empty entries are at the end. Valid as any element may be the min element
 		int low = cache_size - 1;
+		long min_priority = priority(my_last_used[low], my_uses[low]);
+		long current;
 		int k;
 		for (k = 0; k < cache_size; k++) {
-			// search for last recently used element
-			if (my_last_used[k] < min_time) {
-				min_time = my_last_used[k];
+			// search for the element with the lowest priority
+			current = priority(my_last_used[k], my_uses[k]);
+			if (current < min_priority) {
+				min_priority = current;
 				low = k;
 			}
 			;
@@ -206,24 +224,43 @@ public class Cache {
 	};
 
 	public Object get_lru_element() {
-		long[] my_last_used = last_used;
-		long min_time = my_last_used[cache_size - 1]; // heuristic: empty
-														// entries are at the
-														// end. Valid as any
-														// element may be the
-														// min element
-		int low = cache_size - 1;
-		int k;
-		for (k = 0; k < cache_size; k++) {
-			// search for last recently used element
-			if (my_last_used[k] < min_time) {
-				min_time = my_last_used[k];
-				low = k;
-			}
-			;
+		return elements[get_lru_pos()];
+	};
+
+	/**
+	 * Returns the element which will be replaced if element i is put into the cache. Its memory
+	 * may be reused for the new element. Returns null if there is no such element.
+	 */
+	public Object get_replaced_element(int i) {
+		int pos = lookup(i);
+		if (pos == cache_size) {
+			pos--;
+		}
+		;
+		if (index[pos] == i) {
+			return last_used[pos] > 0 ? null : elements[pos];
+		}
+		;
+		return elements[get_lru_pos()];
+	};
+
+	/**
+	 * The eviction priority of an element. Elements which were not used are evicted first, each
+	 * previous access delays the eviction by cache_size accesses.
+	 */
+	private long priority(long time, int count) {
+		if (time == 0) {
+			return 0;
+		}
+		;
+		return time + (long) Math.min(count, FREQUENCY_LIMIT) * cache_size;
+	};
+
+	private void use(int pos) {
+		if (uses[pos] < FREQUENCY_LIMIT) {
+			uses[pos]++;
 		}
 		;
-		return elements[low];
 	};
 
 	/**
@@ -254,12 +291,14 @@ public class Cache {
 			// delete low, place Object in high
 			Object[] my_elements = elements;
 			long[] my_last_used = last_used;
+			int[] my_uses = uses;
 			int[] my_index = index;
 			if (high <= low) {
 				for (j = low; j > high; j--) {
 					my_elements[j] = my_elements[j - 1];
 					my_index[j] = my_index[j - 1];
 					my_last_used[j] = my_last_used[j - 1];
+					my_uses[j] = my_uses[j - 1];
 				}
 				;
 			} else {
@@ -267,6 +306,7 @@ public class Cache {
 					my_elements[j] = my_elements[j + 1];
 					my_index[j] = my_index[j + 1];
 					my_last_used[j] = my_last_used[j + 1];
+					my_uses[j] = my_uses[j + 1];
 				}
 				;
 				high--;
@@ -275,10 +315,12 @@ public class Cache {
 			pos = high;
 			my_elements[high] = o;
 			my_index[high] = i;
+			my_uses[high] = 0;
 		}
 		;
 		counter++;
 		last_used[pos] = counter;
+		use(pos);
 	};
 
 	protected int lookup(int i) {
@@ -335,6 +377,7 @@ public class Cache {
 			if (last_used[pos] > 0) {
 				counter++;
 				last_used[pos] = counter;
+				use(pos);
 			}
 			;
 		}
@@ -359,12 +402,16 @@ public class Cache {
 			elements[pos_j] = dummy;
 			last_used[pos_i] = last_used[pos_j];
 			last_used[pos_j] = 0;
+			uses[pos_i] = uses[pos_j];
+			uses[pos_j] = 0;
 		} else {
 			// mark rows as invalid
 			if (index[pos_i] == i) {
 				last_used[pos_i] = 0;
+				uses[pos_i] = 0;
 			} else if (index[pos_j] == j) {
 				last_used[pos_j] = 0;
+				uses[pos_j] = 0;
 			}
 			;
 		}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.functions.kernel.jmysvm.util;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.tools.ParameterService;
+
+
+/**
+ * The memory budget shared by the kernel caches of all support vector machines trained at the
+ * same time, e.g. by the {@code JMySVMLearner} and {@code MyKLRLearner} inside of a parallel cross
+ * validation. Every cache reserves its memory before allocation and releases it after training. If
+ * the budget defined by {@link RapidMiner#PROPERTY_RAPIDMINER_SYSTEM_KERNEL_CACHE_BUDGET} is
+ * exhausted, the requested memory is reduced down to the given minimum.
+ *
+ * @since 7.6.1
+ */
+public final class KernelCacheBudget {
+
+	/** number of bytes reserved by all caches */
+	private static long reservedBytes = 0;
+
+	private KernelCacheBudget() {
+		// static utility class
+	}
+
+	/**
+	 * Reserves memory for a kernel cache.
+	 *
+	 * @param requestedBytes
+	 *            the memory the cache would like to use
+	 * @param minimumBytes
+	 *            the memory the cache needs at least, is granted even if the budget is exhausted
+	 * @return the number of reserved bytes which must be released by {@link #release(long)}
+	 */
+	public static synchronized long reserve(long requestedBytes, long minimumBytes) {
+		long granted = requestedBytes;
+		long budget = getBudget();
+		if (budget > 0) {
+			granted = Math.max(minimumBytes, Math.min(requestedBytes, budget - reservedBytes));
+		}
+		reservedBytes += granted;
+		return granted;
+	}
+
+	/**
+	 * Releases memory reserved by {@link #reserve(long, long)}.
+	 */
+	public static synchronized void release(long bytes) {
+		reservedBytes = Math.max(0, reservedBytes - bytes);
+	}
+
+	/**
+	 * @return the number of bytes currently reserved by all kernel caches
+	 */
+	public static synchronized long getReservedBytes() {
+		return reservedBytes;
+	}
+
+	/** Returns the budget in bytes, or {@code 0} if there is no shared budget. */
+	private static long getBudget() {
+		String value = ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_KERNEL_CACHE_BUDGET);
+		if (value == null || value.isEmpty()) {
+			return 0;
+		}
+		try {
+			return Long.parseLong(value) * 1024 * 1024;
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,380 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.meta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.NominalMapping;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.learner.PredictionModel;
+import com.rapidminer.operator.learner.RowPredictionModel;
+import com.rapidminer.operator.learner.RowPredictor;
+import com.rapidminer.operator.learner.SimplePredictionModel;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.RandomGenerator;
+
+
+/**
+ * Applies an ensemble of {@link RowPredictionModel}s in a single pass over the data. The example
+ * set is read once with its iterator in batches of rows which are copied into a primitive row
+ * buffer. All base models are then evaluated on the buffer and their votes or confidences are
+ * accumulated in primitive arrays of the batch, so that no intermediate prediction or confidence
+ * values are written to the example set. If an operator is available and the data is large enough,
+ * a batch consists of several blocks which are processed in parallel.
+ * <p>
+ * The final predictions of a batch are written sequentially in the order of the examples. Ties are
+ * broken by the global {@link RandomGenerator} in the same order as by the example based
+ * implementations of {@link SimpleVoteModel} and {@link ConfidenceVoteModel}, so that the results
+ * are identical.
+ *
+ * @since 7.6.1
+ */
+class BlockwiseEnsemblePredictor {
+
+	/** The supported ways to combine the predictions of the base models. */
+	enum Voting {
+		/** majority vote for nominal labels, average for numerical labels */
+		MAJORITY,
+		/** average of the confidences for nominal labels */
+		CONFIDENCE
+	}
+
+	/** Number of rows evaluated by a single task. */
+	private static final int BLOCK_SIZE = 512;
+
+	/** Number of blocks per thread read into a batch for parallel evaluation. */
+	private static final int BLOCKS_PER_THREAD = 4;
+
+	/**
+	 * The prediction is done in parallel if the product of the number of examples and the number
+	 * of models is greater than this number
+	 */
+	private static final long THRESHOLD_PRODUCT_PARALLEL = 500_000;
+
+	private final PredictionModel owner;
+	private final ExampleSet exampleSet;
+	private final Voting voting;
+	private final boolean nominal;
+	private final int numberOfModels;
+	private final int numberOfClasses;
+	private final Attribute[] columns;
+	private final RowPredictor[] predictors;
+
+	/** the confidence attributes by class index, {@code null} for numerical labels */
+	private Attribute[] confidenceAttributes;
+
+	/** the order in which the classes are compared, {@code null} for numerical labels */
+	private int[] classOrder;
+
+	/** the tied best classes of the current row */
+	private int[] bestClasses;
+
+	private BlockwiseEnsemblePredictor(PredictionModel owner, ExampleSet exampleSet, Voting voting, Attribute[] columns,
+			RowPredictor[] predictors) {
+		this.owner = owner;
+		this.exampleSet = exampleSet;
+		this.voting = voting;
+		this.columns = columns;
+		this.predictors = predictors;
+		this.numberOfModels = predictors.length;
+		this.nominal = owner.getLabel().isNominal();
+		this.numberOfClasses = nominal ? owner.getLabel().getMapping().size() : 1;
+	}
+
+	/**
+	 * Applies the models to the example set if all of them are {@link RowPredictionModel}s that can
+	 * be evaluated on the regular attributes of the example set.
+	 *
+	 * @param owner
+	 *            the meta model, provides the label, the operator and the progress flag
+	 * @param exampleSet
+	 *            the example set to apply the models to
+	 * @param predictedLabel
+	 *            the prediction attribute
+	 * @param models
+	 *            the base models
+	 * @param voting
+	 *            the voting strategy
+	 * @return {@code true} if the prediction was performed, {@code false} if the models do not
+	 *         support row based prediction
+	 * @throws OperatorException
+	 *             if a base model fails
+	 */
+	static boolean performPrediction(PredictionModel owner, ExampleSet exampleSet, Attribute predictedLabel,
+			List<? extends SimplePredictionModel> models, Voting voting) throws OperatorException {
+		if (models.isEmpty() || voting == Voting.CONFIDENCE && !owner.getLabel().isNominal()) {
+			return false;
+		}
+		Attribute[] columns = new Attribute[exampleSet.getAttributes().size()];
+		int column = 0;
+		for (Attribute attribute : exampleSet.getAttributes()) {
+			columns[column++] = attribute;
+		}
+		RowPredictor[] predictors = new RowPredictor[models.size()];
+		for (int i = 0; i < predictors.length; i++) {
+			SimplePredictionModel model = models.get(i);
+			if (!(model instanceof RowPredictionModel)) {
+				return false;
+			}
+			predictors[i] = ((RowPredictionModel) model).createRowPredictor(columns);
+			if (predictors[i] == null) {
+				return false;
+			}
+		}
+
+		new BlockwiseEnsemblePredictor(owner, exampleSet, voting, columns, predictors).predict(predictedLabel);
+		return true;
+	}
+
+	/**
+	 * Reads the example set batch by batch, evaluates all models on each batch and writes the
+	 * combined predictions of the batch before reading the next one.
+	 */
+	private void predict(Attribute predictedLabel) throws OperatorException {
+		int size = exampleSet.size();
+		Operator operator = owner.getOperator();
+		ConcurrencyContext context = null;
+		int batchSize = BLOCK_SIZE;
+		if (operator != null && (long) size * numberOfModels > THRESHOLD_PRODUCT_PARALLEL) {
+			ConcurrencyContext operatorContext = Resources.getConcurrencyContext(operator);
+			if (operatorContext.getParallelism() > 1) {
+				context = operatorContext;
+				batchSize = (int) Math.min(size, (long) context.getParallelism() * BLOCKS_PER_THREAD * BLOCK_SIZE);
+			}
+		}
+		batchSize = Math.min(size, batchSize);
+		prepareWriting();
+
+		OperatorProgress progress = null;
+		if (owner.getShowProgress() && operator != null && operator.getProgress() != null) {
+			progress = operator.getProgress();
+			progress.setTotal(size);
+		}
+
+		int width = columns.length;
+		double[] buffer = new double[batchSize * width];
+		double[] scores = new double[batchSize * numberOfClasses];
+		Example[] examples = new Example[batchSize];
+		Iterator<Example> iterator = exampleSet.iterator();
+		int completed = 0;
+		while (iterator.hasNext()) {
+			// copy the next batch into the row buffer
+			int rows = 0;
+			int offset = 0;
+			while (rows < batchSize && iterator.hasNext()) {
+				Example example = iterator.next();
+				examples[rows++] = example;
+				for (int column = 0; column < width; column++) {
+					buffer[offset++] = example.getValue(columns[column]);
+				}
+			}
+
+			Arrays.fill(scores, 0, rows * numberOfClasses, 0);
+			accumulate(buffer, scores, rows, context);
+			for (int row = 0; row < rows; row++) {
+				writePrediction(examples[row], predictedLabel, scores, row * numberOfClasses);
+				examples[row] = null;
+			}
+
+			completed += rows;
+			if (progress != null) {
+				progress.setCompleted(completed);
+			}
+		}
+	}
+
+	/**
+	 * Evaluates all models on the first rows of the buffer, block by block in parallel if a
+	 * context is given.
+	 */
+	private void accumulate(final double[] buffer, final double[] scores, int rows, final ConcurrencyContext context)
+			throws OperatorException {
+		if (context == null || rows <= BLOCK_SIZE) {
+			if (owner.getOperator() != null) {
+				owner.getOperator().checkForStop();
+			}
+			accumulate(buffer, scores, 0, rows);
+			return;
+		}
+
+		List<Callable<Void>> tasks = new ArrayList<>((rows + BLOCK_SIZE - 1) / BLOCK_SIZE);
+		for (int blockStart = 0; blockStart < rows; blockStart += BLOCK_SIZE) {
+			final int start = blockStart;
+			final int end = Math.min(rows, blockStart + BLOCK_SIZE);
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() throws OperatorException {
+					context.checkStatus();
+					accumulate(buffer, scores, start, end);
+					return null;
+				}
+			});
+		}
+
+		try {
+			context.call(tasks);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else if (cause instanceof OperatorException) {
+				throw (OperatorException) cause;
+			} else {
+				throw new OperatorException(cause.getMessage(), cause);
+			}
+		}
+	}
+
+	/**
+	 * Evaluates all models on the buffer rows from start (inclusive) to end (exclusive), one model
+	 * after the other.
+	 */
+	private void accumulate(double[] buffer, double[] scores, int start, int end) throws OperatorException {
+		int width = columns.length;
+		double[] confidences = voting == Voting.CONFIDENCE ? new double[numberOfClasses] : null;
+		for (RowPredictor predictor : predictors) {
+			int offset = start * width;
+			for (int row = start; row < end; row++, offset += width) {
+				if (voting == Voting.CONFIDENCE) {
+					predictor.predict(buffer, offset, confidences);
+					int scoreOffset = row * numberOfClasses;
+					for (int i = 0; i < numberOfClasses; i++) {
+						if (Double.isNaN(confidences[i])) {
+							throw new OperatorException("Child model failed to compute confidence value.");
+						}
+						scores[scoreOffset + i] += confidences[i];
+					}
+				} else if (nominal) {
+					scores[row * numberOfClasses + (int) predictor.predict(buffer, offset, null)]++;
+				} else {
+					scores[row] += predictor.predict(buffer, offset, null);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Looks up the confidence attributes and the order in which the classes are compared.
+	 */
+	private void prepareWriting() {
+		if (!nominal) {
+			return;
+		}
+		NominalMapping mapping = owner.getLabel().getMapping();
+		confidenceAttributes = new Attribute[numberOfClasses];
+		for (int i = 0; i < numberOfClasses; i++) {
+			confidenceAttributes[i] = exampleSet.getAttributes()
+					.getSpecial(Attributes.CONFIDENCE_NAME + "_" + mapping.mapIndex(i));
+		}
+		classOrder = voting == Voting.CONFIDENCE ? getHashOrder(mapping) : getMappingOrder(mapping);
+		bestClasses = new int[numberOfClasses + 1];
+	}
+
+	/**
+	 * Writes the combined prediction and confidences of a single example from its accumulated
+	 * scores.
+	 */
+	private void writePrediction(Example example, Attribute predictedLabel, double[] scores, int scoreOffset) {
+		if (!nominal) {
+			example.setValue(predictedLabel, scores[scoreOffset] / numberOfModels);
+			return;
+		}
+		int numberOfBest = 0;
+		double best = -1;
+		for (int currentClass : classOrder) {
+			double score = scores[scoreOffset + currentClass];
+			double confidence;
+			if (voting == Voting.CONFIDENCE) {
+				confidence = score / numberOfModels;
+				if (confidence > best) {
+					best = confidence;
+					numberOfBest = 0;
+				}
+				if (confidence == best) {
+					bestClasses[numberOfBest++] = currentClass;
+				}
+			} else if (score > 0) {
+				// same tie handling as SimpleVoteModel: the first best class is counted twice
+				if (score > best) {
+					numberOfBest = 0;
+					bestClasses[numberOfBest++] = currentClass;
+					best = score;
+				}
+				if (score == best) {
+					bestClasses[numberOfBest++] = currentClass;
+				}
+				confidence = score / numberOfModels;
+			} else {
+				confidence = 0.0;
+			}
+			example.setValue(confidenceAttributes[currentClass], confidence);
+		}
+		int bestClassIndex = 0;
+		if (numberOfBest != 1) {
+			bestClassIndex = RandomGenerator.getGlobalRandomGenerator().nextInt(numberOfBest);
+		}
+		example.setValue(predictedLabel, bestClasses[bestClassIndex]);
+	}
+
+	/**
+	 * @return the class indices in the order of the mapping values
+	 */
+	private static int[] getMappingOrder(NominalMapping mapping) {
+		List<String> values = mapping.getValues();
+		int[] order = new int[values.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = mapping.getIndex(values.get(i));
+		}
+		return order;
+	}
+
+	/**
+	 * @return the class indices in the iteration order of a hash map filled with the mapping values,
+	 *         as used by {@link ConfidenceVoteModel#predict(Example)}
+	 */
+	private static int[] getHashOrder(NominalMapping mapping) {
+		Map<String, Integer> classes = new HashMap<>();
+		for (String value : mapping.getValues()) {
+			classes.put(value, mapping.getIndex(value));
+		}
+		int[] order = new int[classes.size()];
+		int i = 0;
+		for (int index : classes.values()) {
+			order[i++] = index;
+		}
+		return order;
+	}
+}
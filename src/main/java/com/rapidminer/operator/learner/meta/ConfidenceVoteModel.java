@@ -18,6 +18,7 @@
 */
 package com.rapidminer.operator.learner.meta;
 
+import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.set.ExampleSetUtilities;
@@ -101,6 +102,19 @@ public class ConfidenceVoteModel extends SimplePredictionModel implements MetaMo
 		return names;
 	}
 
+	/**
+	 * Applies all base models in a single pass over blocks of examples if they support row based
+	 * prediction, otherwise each example is predicted separately.
+	 */
+	@Override
+	public ExampleSet performPrediction(ExampleSet exampleSet, Attribute predictedLabel) throws OperatorException {
+		if (BlockwiseEnsemblePredictor.performPrediction(this, exampleSet, predictedLabel, models,
+				BlockwiseEnsemblePredictor.Voting.CONFIDENCE)) {
+			return exampleSet;
+		}
+		return super.performPrediction(exampleSet, predictedLabel);
+	}
+
 	@Override
 	public double predict(Example example) throws OperatorException {
 		Map<String, Double> classConfidenceSums = new HashMap<>();
@@ -18,6 +18,7 @@
 */
 package com.rapidminer.operator.learner.tree;
 
+import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.set.ExampleSetUtilities;
@@ -87,6 +88,22 @@ public class ConfigurableRandomForestModel extends SimplePredictionModel impleme
 		return "Random Forest Model";
 	}
 
+	/**
+	 * Delegates the prediction to the wrapped voting model which applies all trees in a single pass
+	 * over blocks of examples.
+	 */
+	@Override
+	public ExampleSet performPrediction(ExampleSet exampleSet, Attribute predictedLabel) throws OperatorException {
+		model.setOperator(getOperator());
+		model.setShowProgress(getShowProgress());
+		try {
+			return model.performPrediction(exampleSet, predictedLabel);
+		} finally {
+			model.setOperator(null);
+			model.setShowProgress(false);
+		}
+	}
+
 	@Override
 	public double predict(Example example) throws OperatorException {
 		return model.predict(example);
@@ -0,0 +1,443 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.tree;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.NominalMapping;
+import com.rapidminer.tools.Tools;
+
+
+/**
+ * A {@link Tree} compiled into flat primitive arrays. The nodes are numbered in depth-first order
+ * starting with the root. The outgoing edges of node {@code n} are stored at the positions
+ * {@code edgeStart[n]} (inclusive) to {@code edgeStart[n + 1]} (exclusive) of the edge arrays which
+ * hold the type of the split condition, the index of the tested attribute, the threshold or nominal
+ * index and the child node. Nodes without edges are leaves. For every node, the predicted label
+ * index and the class counts used for the confidences are stored as well. For inner nodes these are
+ * the counts of the whole subtree which are used if no condition matches.
+ * <p>
+ * Compared to the object graph of a {@link Tree}, this representation needs considerably less
+ * memory, serializes to a fraction of the size and can be traversed without attribute lookups.
+ * Predictions are identical to the ones of {@link TreeModel} on the original tree.
+ *
+ * @since 7.6.1
+ */
+public class FlatTree implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Types of the supported split conditions. */
+	static final byte LESS_EQUALS = 0;
+	static final byte GREATER = 1;
+	static final byte NOMINAL = 2;
+	static final byte MISSING = 3;
+	static final byte CONTAINS = 4;
+	static final byte NOT_CONTAINS = 5;
+
+	/** names of the attributes tested by the edges */
+	private final String[] attributeNames;
+
+	/** size of the label mapping */
+	private final int numberOfClasses;
+
+	/** start of the edges of every node, one additional entry marks the end of the last node */
+	private final int[] edgeStart;
+
+	/** the predicted label index of every node */
+	private final double[] predictions;
+
+	/** start of the class counts of every node, one additional entry marks the end */
+	private final int[] countStart;
+	private final int[] countClasses;
+	private final int[] countValues;
+
+	private final byte[] edgeTypes;
+	private final int[] edgeAttributes;
+	private final double[] edgeValues;
+	private final int[] edgeChildren;
+
+	/** the sorted categories of contains conditions, {@code null} if there are no such conditions */
+	private final String[][] edgeCategories;
+
+	private FlatTree(Builder builder) {
+		attributeNames = builder.attributeNames.toArray(new String[builder.attributeNames.size()]);
+		numberOfClasses = builder.labelMapping.size();
+		int numberOfNodes = builder.predictions.size();
+		edgeStart = toIntArray(builder.edgeStart, builder.edgeTypes.size());
+		countStart = toIntArray(builder.countStart, builder.countClasses.size());
+		predictions = new double[numberOfNodes];
+		for (int i = 0; i < numberOfNodes; i++) {
+			predictions[i] = builder.predictions.get(i);
+		}
+		countClasses = toIntArray(builder.countClasses, -1);
+		countValues = toIntArray(builder.countValues, -1);
+		int numberOfEdges = builder.edgeTypes.size();
+		edgeTypes = new byte[numberOfEdges];
+		edgeValues = new double[numberOfEdges];
+		for (int i = 0; i < numberOfEdges; i++) {
+			edgeTypes[i] = builder.edgeTypes.get(i);
+			edgeValues[i] = builder.edgeValues.get(i);
+		}
+		edgeAttributes = toIntArray(builder.edgeAttributes, -1);
+		edgeChildren = toIntArray(builder.edgeChildren, -1);
+		edgeCategories = builder.hasCategories
+				? builder.edgeCategories.toArray(new String[numberOfEdges][]) : null;
+	}
+
+	/**
+	 * Compiles the given tree.
+	 *
+	 * @param root
+	 *            the root of the tree
+	 * @param labelMapping
+	 *            the mapping of the label the tree was trained on
+	 * @return the compiled tree or {@code null} if the tree contains split conditions which are not
+	 *         supported
+	 */
+	public static FlatTree compile(Tree root, NominalMapping labelMapping) {
+		Builder builder = new Builder(labelMapping);
+		if (!builder.add(root)) {
+			return null;
+		}
+		return new FlatTree(builder);
+	}
+
+	/** @return the number of nodes */
+	public int getNumberOfNodes() {
+		return predictions.length;
+	}
+
+	/** @return the names of the attributes used by the split conditions */
+	public String[] getAttributeNames() {
+		return attributeNames.clone();
+	}
+
+	/**
+	 * Determines the node reached by the given example.
+	 */
+	int findNode(Example example) {
+		Attributes attributes = example.getAttributes();
+		Attribute[] resolved = new Attribute[attributeNames.length];
+		int node = 0;
+		descent: while (edgeStart[node] < edgeStart[node + 1]) {
+			for (int edge = edgeStart[node]; edge < edgeStart[node + 1]; edge++) {
+				int attributeIndex = edgeAttributes[edge];
+				Attribute attribute = resolved[attributeIndex];
+				if (attribute == null) {
+					attribute = attributes.get(attributeNames[attributeIndex]);
+					resolved[attributeIndex] = attribute;
+				}
+				if (test(edge, example.getValue(attribute), attribute)) {
+					node = edgeChildren[edge];
+					continue descent;
+				}
+			}
+			// nothing known from training --> use majority class in this node
+			break;
+		}
+		return node;
+	}
+
+	/**
+	 * Determines the node reached by the row starting at the given offset of the buffer.
+	 *
+	 * @param columnMap
+	 *            the column of the buffer for every attribute of {@link #getAttributeNames()}
+	 * @param columns
+	 *            the attributes of the buffer columns, used for the contains conditions
+	 */
+	int findNode(double[] buffer, int offset, int[] columnMap, Attribute[] columns) {
+		int node = 0;
+		descent: while (edgeStart[node] < edgeStart[node + 1]) {
+			for (int edge = edgeStart[node]; edge < edgeStart[node + 1]; edge++) {
+				int column = columnMap[edgeAttributes[edge]];
+				if (test(edge, buffer[offset + column], columns[column])) {
+					node = edgeChildren[edge];
+					continue descent;
+				}
+			}
+			break;
+		}
+		return node;
+	}
+
+	private boolean test(int edge, double value, Attribute attribute) {
+		switch (edgeTypes[edge]) {
+			case LESS_EQUALS:
+				return value <= edgeValues[edge];
+			case GREATER:
+				return value > edgeValues[edge];
+			case NOMINAL:
+				return Tools.isEqual(value, edgeValues[edge]);
+			case MISSING:
+				return Double.isNaN(value);
+			case CONTAINS:
+				return contains(edge, value, attribute);
+			case NOT_CONTAINS:
+				return !contains(edge, value, attribute);
+			default:
+				throw new IllegalStateException("Unknown split condition type " + edgeTypes[edge]);
+		}
+	}
+
+	private boolean contains(int edge, double value, Attribute attribute) {
+		String valueString = Double.isNaN(value) ? Attribute.MISSING_NOMINAL_VALUE
+				: attribute.getMapping().mapIndex((int) value);
+		return Arrays.binarySearch(edgeCategories[edge], valueString) >= 0;
+	}
+
+	/** @return the predicted label index of the node */
+	double getPrediction(int node) {
+		return predictions[node];
+	}
+
+	/**
+	 * Fills the confidences of the node into the given array of size of the label mapping.
+	 */
+	void getConfidences(int node, double[] confidences) {
+		Arrays.fill(confidences, 0);
+		int sum = 0;
+		for (int i = countStart[node]; i < countStart[node + 1]; i++) {
+			confidences[countClasses[i]] = countValues[i];
+			sum += countValues[i];
+		}
+		for (int i = 0; i < numberOfClasses; i++) {
+			confidences[i] = confidences[i] / sum;
+		}
+	}
+
+	/** @return the size of the label mapping */
+	int getNumberOfClasses() {
+		return numberOfClasses;
+	}
+
+	/**
+	 * Restores the object representation of this tree.
+	 *
+	 * @param trainingHeader
+	 *            the header of the training set, provides the tested attributes
+	 * @param labelMapping
+	 *            the mapping of the label
+	 * @return the root of the restored tree
+	 */
+	Tree toTree(ExampleSet trainingHeader, NominalMapping labelMapping) {
+		Attribute[] attributes = new Attribute[attributeNames.length];
+		for (int i = 0; i < attributes.length; i++) {
+			attributes[i] = trainingHeader.getAttributes().get(attributeNames[i]);
+			if (attributes[i] == null) {
+				throw new IllegalStateException("Training header does not contain attribute " + attributeNames[i]);
+			}
+		}
+		return toTree(0, attributes, labelMapping);
+	}
+
+	private Tree toTree(int node, Attribute[] attributes, NominalMapping labelMapping) {
+		Tree tree = new Tree(null);
+		if (edgeStart[node] == edgeStart[node + 1]) {
+			int prediction = (int) predictions[node];
+			tree.setLeaf(prediction < 0 ? null : labelMapping.mapIndex(prediction));
+			for (int i = countStart[node]; i < countStart[node + 1]; i++) {
+				tree.addCount(labelMapping.mapIndex(countClasses[i]), countValues[i]);
+			}
+			return tree;
+		}
+		for (int edge = edgeStart[node]; edge < edgeStart[node + 1]; edge++) {
+			Attribute attribute = attributes[edgeAttributes[edge]];
+			SplitCondition condition;
+			switch (edgeTypes[edge]) {
+				case LESS_EQUALS:
+					condition = new LessEqualsSplitCondition(attribute, edgeValues[edge]);
+					break;
+				case GREATER:
+					condition = new GreaterSplitCondition(attribute, edgeValues[edge]);
+					break;
+				case NOMINAL:
+					condition = new NominalSplitCondition(attribute, Double.isNaN(edgeValues[edge]) ? null
+							: attribute.getMapping().mapIndex((int) edgeValues[edge]));
+					break;
+				case MISSING:
+					condition = new NumericalMissingSplitCondition(attribute);
+					break;
+				case CONTAINS:
+					condition = new ContainsSplitCondition(attribute.getName(), edgeCategories[edge]);
+					break;
+				case NOT_CONTAINS:
+					condition = new NotContainsSplitCondition(attribute.getName(), edgeCategories[edge]);
+					break;
+				default:
+					throw new IllegalStateException("Unknown split condition type " + edgeTypes[edge]);
+			}
+			tree.addChild(toTree(edgeChildren[edge], attributes, labelMapping), condition);
+		}
+		return tree;
+	}
+
+	private static int[] toIntArray(List<Integer> list, int last) {
+		int[] array = new int[last < 0 ? list.size() : list.size() + 1];
+		for (int i = 0; i < list.size(); i++) {
+			array[i] = list.get(i);
+		}
+		if (last >= 0) {
+			array[list.size()] = last;
+		}
+		return array;
+	}
+
+	/** Collects the nodes and edges of a {@link Tree} in depth-first order. */
+	private static class Builder {
+
+		private final NominalMapping labelMapping;
+		private final List<String> attributeNames = new ArrayList<>();
+		private final Map<String, Integer> attributeIndices = new HashMap<>();
+
+		private final List<Integer> edgeStart = new ArrayList<>();
+		private final List<Double> predictions = new ArrayList<>();
+		private final List<Integer> countStart = new ArrayList<>();
+		private final List<Integer> countClasses = new ArrayList<>();
+		private final List<Integer> countValues = new ArrayList<>();
+
+		private final List<Byte> edgeTypes = new ArrayList<>();
+		private final List<Integer> edgeAttributes = new ArrayList<>();
+		private final List<Double> edgeValues = new ArrayList<>();
+		private final List<Integer> edgeChildren = new ArrayList<>();
+		private final List<String[]> edgeCategories = new ArrayList<>();
+		private boolean hasCategories = false;
+
+		private Builder(NominalMapping labelMapping) {
+			this.labelMapping = labelMapping;
+		}
+
+		/**
+		 * Adds the given tree and all its descendants.
+		 *
+		 * @return {@code false} if an unsupported split condition was found
+		 */
+		private boolean add(Tree tree) {
+			countStart.add(countClasses.size());
+			if (tree.isLeaf()) {
+				predictions.add((double) labelMapping.getIndex(tree.getLabel()));
+				addCounts(tree.getCounterMap());
+				edgeStart.add(edgeTypes.size());
+				return true;
+			}
+
+			// the majority class of the subtree is used if no condition matches
+			Map<String, Integer> subtreeCounts = tree.getSubtreeCounterMap();
+			String majorityClass = null;
+			int majorityCounter = -1;
+			for (Entry<String, Integer> entry : subtreeCounts.entrySet()) {
+				if (entry.getValue() > majorityCounter) {
+					majorityCounter = entry.getValue();
+					majorityClass = entry.getKey();
+				}
+			}
+			predictions.add(majorityClass != null ? (double) labelMapping.getIndex(majorityClass) : 0d);
+			addCounts(subtreeCounts);
+
+			// reserve the edges of this node, children are appended afterwards
+			List<Edge> edges = new ArrayList<>(tree.getNumberOfChildren());
+			Iterator<Edge> childIterator = tree.childIterator();
+			while (childIterator.hasNext()) {
+				edges.add(childIterator.next());
+			}
+			int firstEdge = edgeTypes.size();
+			edgeStart.add(firstEdge);
+			for (Edge edge : edges) {
+				if (!addCondition(edge.getCondition())) {
+					return false;
+				}
+				edgeChildren.add(-1);
+			}
+			// edges of the following nodes must not be interleaved with the edges of this node,
+			// so all edges of this node are stored before descending
+			for (int i = 0; i < edges.size(); i++) {
+				edgeChildren.set(firstEdge + i, predictions.size());
+				if (!add(edges.get(i).getChild())) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void addCounts(Map<String, Integer> counterMap) {
+			for (Entry<String, Integer> entry : counterMap.entrySet()) {
+				countClasses.add(labelMapping.getIndex(entry.getKey()));
+				countValues.add(entry.getValue());
+			}
+		}
+
+		private boolean addCondition(SplitCondition condition) {
+			String[] categories = null;
+			double value = Double.NaN;
+			byte type;
+			if (condition instanceof LessEqualsSplitCondition) {
+				type = LESS_EQUALS;
+				value = ((LessEqualsSplitCondition) condition).getValue();
+			} else if (condition instanceof GreaterSplitCondition) {
+				type = GREATER;
+				value = ((GreaterSplitCondition) condition).getValue();
+			} else if (condition instanceof NominalSplitCondition) {
+				type = NOMINAL;
+				value = ((NominalSplitCondition) condition).getValue();
+			} else if (condition instanceof NumericalMissingSplitCondition) {
+				type = MISSING;
+			} else if (condition instanceof ContainsSplitCondition) {
+				type = CONTAINS;
+				categories = toArray(((ContainsSplitCondition) condition).getCategories());
+			} else if (condition instanceof NotContainsSplitCondition) {
+				type = NOT_CONTAINS;
+				categories = toArray(((NotContainsSplitCondition) condition).getCategories());
+			} else {
+				return false;
+			}
+			String name = condition.getAttributeName();
+			Integer attributeIndex = attributeIndices.get(name);
+			if (attributeIndex == null) {
+				attributeIndex = attributeNames.size();
+				attributeNames.add(name);
+				attributeIndices.put(name, attributeIndex);
+			}
+			edgeTypes.add(type);
+			edgeAttributes.add(attributeIndex);
+			edgeValues.add(value);
+			edgeCategories.add(categories);
+			hasCategories |= categories != null;
+			return true;
+		}
+
+		private static String[] toArray(Set<String> categories) {
+			String[] array = categories.toArray(new String[categories.size()]);
+			Arrays.sort(array);
+			return array;
+		}
+	}
+}
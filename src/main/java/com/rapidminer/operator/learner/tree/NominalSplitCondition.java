@@ -53,6 +53,14 @@ public class NominalSplitCondition extends AbstractSplitCondition {
 		return Tools.isEqual(currentValue, value);
 	}
 
+	/**
+	 * @return the index of the value in the mapping of the training attribute
+	 * @since 7.6.1
+	 */
+	public double getValue() {
+		return value;
+	}
+
 	@Override
 	public String getRelation() {
 		return "=";
@@ -0,0 +1,218 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.Statistics;
+import com.rapidminer.example.set.MappedExampleSet;
+import com.rapidminer.operator.Model;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.UserError;
+import com.rapidminer.operator.learner.PredictionModel;
+import com.rapidminer.operator.learner.tree.ConfigurableRandomForestModel.VotingStrategy;
+import com.rapidminer.parameter.ParameterType;
+import com.rapidminer.parameter.ParameterTypeBoolean;
+import com.rapidminer.parameter.ParameterTypeDouble;
+import com.rapidminer.parameter.ParameterTypeInt;
+import com.rapidminer.parameter.ParameterTypeStringCategory;
+import com.rapidminer.parameter.conditions.BooleanParameterCondition;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.RandomGenerator;
+
+
+/**
+ * This operator learns a random forest. Every tree is learned on a bootstrapped sample of the
+ * example set and for every split only a random subset of the attributes is considered. The
+ * resulting forest model contains the single tree models.
+ * <p>
+ * The trees are learned in parallel, each of them by a {@link NonParallelTreeBuilder}. The random
+ * seeds of the trees are drawn before the learning starts, so the forest does not depend on the
+ * number of threads.
+ *
+ * @since 7.6.1
+ */
+public class ParallelRandomForestLearner extends ParallelDecisionTreeLearner {
+
+	/** The parameter name for the number of trees. */
+	public static final String PARAMETER_NUMBER_OF_TREES = "number_of_trees";
+
+	/** The parameter name for using the heuristic subset ratio log(m) + 1. */
+	public static final String PARAMETER_USE_HEURISTIC_SUBSET_RATIO = "guess_subset_ratio";
+
+	/** The parameter name for the ratio of attributes tested at every split. */
+	public static final String PARAMETER_SUBSET_RATIO = "subset_ratio";
+
+	/** The parameter name for the voting strategy of the forest. */
+	public static final String PARAMETER_VOTING_STRATEGY = "voting_strategy";
+
+	/** The parameter name for storing the trees as {@link FlatTree}s. */
+	public static final String PARAMETER_COMPACT_TREES = "compact_trees";
+
+	public ParallelRandomForestLearner(OperatorDescription description) {
+		super(description);
+	}
+
+	@Override
+	public Class<? extends PredictionModel> getModelClass() {
+		return ConfigurableRandomForestModel.class;
+	}
+
+	@Override
+	public Model learn(ExampleSet eSet) throws OperatorException {
+		final ExampleSet exampleSet = (ExampleSet) eSet.clone();
+
+		// check if the label attribute contains any missing values
+		Attribute labelAtt = exampleSet.getAttributes().getLabel();
+		exampleSet.recalculateAttributeStatistics(labelAtt);
+		if (exampleSet.getStatistics(labelAtt, Statistics.UNKNOWN) > 0) {
+			throw new UserError(this, 162, labelAtt.getName());
+		}
+
+		int numberOfTrees = getParameterAsInt(PARAMETER_NUMBER_OF_TREES);
+		final boolean compactTrees = getParameterAsBoolean(PARAMETER_COMPACT_TREES);
+		boolean useHeuristicRatio = getParameterAsBoolean(PARAMETER_USE_HEURISTIC_SUBSET_RATIO);
+		double subsetRatio = getParameterAsDouble(PARAMETER_SUBSET_RATIO);
+
+		// the builders and their random generators are created in advance so that the result does
+		// not depend on the order in which the trees are learned
+		RandomGenerator random = RandomGenerator.getRandomGenerator(this);
+		final TreeModel[] models = new TreeModel[numberOfTrees];
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfTrees);
+		for (int i = 0; i < numberOfTrees; i++) {
+			final int treeIndex = i;
+			final RandomGenerator treeRandom = new RandomGenerator(random.nextInt(Integer.MAX_VALUE));
+			final AbstractParallelTreeBuilder builder = new NonParallelTreeBuilder(this, createCriterion(),
+					getTerminationCriteria(exampleSet), getPruner(),
+					new RandomAttributeSubsetPreprocessing(useHeuristicRatio, subsetRatio, treeRandom),
+					getParameterAsBoolean(PARAMETER_PRE_PRUNING),
+					getParameterAsInt(PARAMETER_NUMBER_OF_PREPRUNING_ALTERNATIVES),
+					getParameterAsInt(PARAMETER_MINIMAL_SIZE_FOR_SPLIT), getParameterAsInt(PARAMETER_MINIMAL_LEAF_SIZE));
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() throws OperatorException {
+					int[] mapping = MappedExampleSet.createBootstrappingMapping(exampleSet, exampleSet.size(),
+							treeRandom);
+					Tree root = builder.learnTree(new MappedExampleSet(exampleSet, mapping));
+					TreeModel model = new TreeModel(exampleSet, root);
+					model.setSource(getName());
+					if (compactTrees) {
+						model.compile();
+					}
+					models[treeIndex] = model;
+					synchronized (models) {
+						getProgress().step();
+					}
+					return null;
+				}
+			});
+		}
+
+		getProgress().setTotal(numberOfTrees);
+		if (Resources.getConcurrencyContext(this).getParallelism() > 1) {
+			try {
+				Resources.getConcurrencyContext(this).call(tasks);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof OperatorException) {
+					throw (OperatorException) cause;
+				} else if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				} else {
+					throw new OperatorException(cause.getMessage(), cause);
+				}
+			}
+		} else {
+			for (Callable<Void> task : tasks) {
+				try {
+					task.call();
+				} catch (OperatorException | RuntimeException e) {
+					throw e;
+				} catch (Exception e) {
+					// nothing else possible
+					throw new OperatorException(e.getMessage(), e);
+				}
+			}
+		}
+		getProgress().complete();
+
+		return new ConfigurableRandomForestModel(exampleSet, Arrays.asList(models), getVotingStrategy());
+	}
+
+	private VotingStrategy getVotingStrategy() throws OperatorException {
+		String strategy = getParameterAsString(PARAMETER_VOTING_STRATEGY);
+		for (VotingStrategy votingStrategy : VotingStrategy.values()) {
+			if (votingStrategy.toString().equals(strategy)) {
+				return votingStrategy;
+			}
+		}
+		return VotingStrategy.MAJORITY_VOTE;
+	}
+
+	@Override
+	public List<ParameterType> getParameterTypes() {
+		List<ParameterType> types = new ArrayList<>();
+
+		ParameterType type = new ParameterTypeInt(PARAMETER_NUMBER_OF_TREES, "The number of learned random trees.", 1,
+				Integer.MAX_VALUE, 10);
+		type.setExpert(false);
+		types.add(type);
+
+		types.addAll(super.getParameterTypes());
+
+		type = new ParameterTypeBoolean(PARAMETER_USE_HEURISTIC_SUBSET_RATIO,
+				"Indicates that log(m) + 1 features are used, otherwise a ratio has to be specified.", true);
+		type.setExpert(false);
+		types.add(type);
+
+		type = new ParameterTypeDouble(PARAMETER_SUBSET_RATIO, "Ratio of randomly chosen attributes to test", 0.0d, 1.0d,
+				0.2d);
+		type.registerDependencyCondition(
+				new BooleanParameterCondition(this, PARAMETER_USE_HEURISTIC_SUBSET_RATIO, false, false));
+		type.setExpert(false);
+		types.add(type);
+
+		VotingStrategy[] strategies = VotingStrategy.values();
+		String[] strategyNames = new String[strategies.length];
+		for (int i = 0; i < strategies.length; i++) {
+			strategyNames[i] = strategies[i].toString();
+		}
+		types.add(new ParameterTypeStringCategory(PARAMETER_VOTING_STRATEGY,
+				"Specifies how the predictions of the trees are combined.", strategyNames,
+				VotingStrategy.MAJORITY_VOTE.toString(), false));
+
+		types.add(new ParameterTypeBoolean(PARAMETER_COMPACT_TREES,
+				"Stores the trees in a compact array representation which needs less memory and is faster to apply.",
+				false, true));
+
+		types.addAll(RandomGenerator.getRandomGeneratorParameters(this));
+
+		return types;
+	}
+}
@@ -24,6 +24,7 @@ import com.rapidminer.operator.learner.PredictionModel;
 import com.rapidminer.operator.learner.tree.ConfigurableRandomForestModel.VotingStrategy;
 import com.rapidminer.operator.preprocessing.sampling.BootstrappingOperator;
 import com.rapidminer.parameter.ParameterType;
+import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.ParameterTypeInt;
 import com.rapidminer.tools.OperatorService;
 import com.rapidminer.tools.RandomGenerator;
@@ -46,6 +47,9 @@ public class RandomForestLearner extends RandomTreeLearner {
 	/** The parameter name for the number of trees. */
 	public static final String PARAMETER_NUMBER_OF_TREES = "number_of_trees";
 
+	/** The parameter name for storing the trees as {@link FlatTree}s. */
+	public static final String PARAMETER_COMPACT_TREES = "compact_trees";
+
 	public RandomForestLearner(OperatorDescription description) {
 		super(description);
 	}
@@ -74,10 +78,14 @@ public class RandomForestLearner extends RandomTreeLearner {
 		// learn base models
 		List<TreeModel> baseModels = new LinkedList<TreeModel>();
 		int numberOfTrees = getParameterAsInt(PARAMETER_NUMBER_OF_TREES);
+		boolean compactTrees = getParameterAsBoolean(PARAMETER_COMPACT_TREES);
 
 		for (int i = 0; i < numberOfTrees; i++) {
 			TreeModel model = (TreeModel) super.learn(bootstrapping.apply(exampleSet));
 			model.setSource(getName());
+			if (compactTrees) {
+				model.compile();
+			}
 			baseModels.add(model);
 		}
 
@@ -120,6 +128,10 @@ public class RandomForestLearner extends RandomTreeLearner {
 
 		types.addAll(super.getParameterTypes());
 
+		types.add(new ParameterTypeBoolean(PARAMETER_COMPACT_TREES,
+				"Stores the trees in a compact array representation which needs less memory and is faster to apply.",
+				false, true));
+
 		return types;
 	}
 }
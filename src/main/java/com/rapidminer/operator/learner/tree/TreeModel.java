@@ -18,10 +18,13 @@
 */
 package com.rapidminer.operator.learner.tree;
 
+import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.set.ExampleSetUtilities;
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.learner.RowPredictionModel;
+import com.rapidminer.operator.learner.RowPredictor;
 import com.rapidminer.operator.learner.SimplePredictionModel;
 
 import java.util.Iterator;
@@ -33,24 +36,84 @@ import java.util.Map.Entry;
  *
  * @author Sebastian Land
  */
-public class TreeModel extends SimplePredictionModel {
+public class TreeModel extends SimplePredictionModel implements RowPredictionModel {
 
 	private static final long serialVersionUID = 4368631725370998591L;
 
+	/** the tree, {@code null} if the model was compiled */
 	private Tree root;
 
+	/** the compiled tree, {@code null} if the model was not compiled */
+	private FlatTree flatTree;
+
+	/** the tree restored from the compiled tree on demand */
+	private transient Tree restoredRoot;
+
+	/** the tree compiled for row prediction if the model itself is not compiled */
+	private transient FlatTree predictionTree;
+
 	public TreeModel(ExampleSet exampleSet, Tree root) {
 		super(exampleSet, ExampleSetUtilities.SetsCompareOption.ALLOW_SUPERSET,
 				ExampleSetUtilities.TypesCompareOption.ALLOW_SAME_PARENTS);
 		this.root = root;
 	}
 
+	/**
+	 * Returns the root of the tree. If the model was {@link #compile() compiled}, the tree is
+	 * restored from the compiled representation on the first call.
+	 */
 	public Tree getRoot() {
-		return this.root;
+		if (root != null) {
+			return root;
+		}
+		synchronized (this) {
+			if (restoredRoot == null) {
+				restoredRoot = flatTree.toTree(getTrainingHeader(), getLabel().getMapping());
+			}
+			return restoredRoot;
+		}
+	}
+
+	/**
+	 * Replaces the tree by a {@link FlatTree}, which needs less memory and is faster to apply and
+	 * to serialize. The predictions are not changed. The tree returned by {@link #getRoot()} is
+	 * restored on demand afterwards.
+	 *
+	 * @return {@code true} if the model is compiled, {@code false} if the tree contains split
+	 *         conditions that cannot be compiled
+	 */
+	public synchronized boolean compile() {
+		if (flatTree != null) {
+			return true;
+		}
+		FlatTree compiled = predictionTree != null ? predictionTree : FlatTree.compile(root, getLabel().getMapping());
+		if (compiled == null) {
+			return false;
+		}
+		flatTree = compiled;
+		root = null;
+		predictionTree = null;
+		return true;
+	}
+
+	/**
+	 * @return whether the model stores its tree as {@link FlatTree}
+	 */
+	public boolean isCompiled() {
+		return flatTree != null;
 	}
 
 	@Override
 	public double predict(Example example) throws OperatorException {
+		if (flatTree != null) {
+			int node = flatTree.findNode(example);
+			double[] confidences = new double[flatTree.getNumberOfClasses()];
+			flatTree.getConfidences(node, confidences);
+			for (int i = 0; i < confidences.length; i++) {
+				example.setConfidence(getLabel().getMapping().mapIndex(i), confidences[i]);
+			}
+			return flatTree.getPrediction(node);
+		}
 		return predict(example, root);
 	}
 
@@ -107,8 +170,23 @@ public class TreeModel extends SimplePredictionModel {
 		}
 	}
 
+	@Override
+	public RowPredictor createRowPredictor(Attribute[] columns) {
+		FlatTree tree;
+		synchronized (this) {
+			tree = flatTree;
+			if (tree == null) {
+				if (predictionTree == null) {
+					predictionTree = FlatTree.compile(root, getLabel().getMapping());
+				}
+				tree = predictionTree;
+			}
+		}
+		return tree == null ? null : TreeRowPredictor.create(tree, columns);
+	}
+
 	@Override
 	public String toString() {
-		return this.root.toString();
+		return getRoot().toString();
 	}
 }
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.tree;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.operator.learner.RowPredictor;
+
+
+/**
+ * {@link RowPredictor} for a {@link TreeModel}. The predictor walks the arrays of a
+ * {@link FlatTree} whose attributes are mapped to the columns of the row buffer on creation, so
+ * that no attribute lookup or map iteration is necessary during prediction. The predictions are
+ * identical to {@link TreeModel#predict(com.rapidminer.example.Example)}.
+ *
+ * @since 7.6.1
+ */
+class TreeRowPredictor implements RowPredictor {
+
+	private final FlatTree tree;
+	private final int[] columnMap;
+	private final Attribute[] columns;
+
+	private TreeRowPredictor(FlatTree tree, int[] columnMap, Attribute[] columns) {
+		this.tree = tree;
+		this.columnMap = columnMap;
+		this.columns = columns;
+	}
+
+	@Override
+	public double predict(double[] buffer, int offset, double[] confidences) {
+		int node = tree.findNode(buffer, offset, columnMap, columns);
+		if (confidences != null) {
+			tree.getConfidences(node, confidences);
+		}
+		return tree.getPrediction(node);
+	}
+
+	/**
+	 * Creates a predictor for the given tree.
+	 *
+	 * @return the predictor or {@code null} if the tree refers to attributes not contained in the
+	 *         columns
+	 */
+	static TreeRowPredictor create(FlatTree tree, Attribute[] columns) {
+		Map<String, Integer> columnIndices = new HashMap<>();
+		for (int i = 0; i < columns.length; i++) {
+			columnIndices.put(columns[i].getName(), i);
+		}
+		String[] attributeNames = tree.getAttributeNames();
+		int[] columnMap = new int[attributeNames.length];
+		for (int i = 0; i < attributeNames.length; i++) {
+			Integer column = columnIndices.get(attributeNames[i]);
+			if (column == null) {
+				return null;
+			}
+			columnMap[i] = column;
+		}
+		return new TreeRowPredictor(tree, columnMap, columns);
+	}
+}
@@ -18,12 +18,14 @@
 */
 package com.rapidminer.operator.meta;
 
+import com.rapidminer.MacroHandler;
 import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.Statistics;
-import com.rapidminer.example.set.Condition;
-import com.rapidminer.example.set.ConditionCreationException;
-import com.rapidminer.example.set.ConditionedExampleSet;
+import com.rapidminer.example.set.MappedExampleSet;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.OperatorChain;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
@@ -33,13 +35,19 @@ import com.rapidminer.operator.ports.OutputPort;
 import com.rapidminer.operator.ports.metadata.*;
 import com.rapidminer.operator.ports.metadata.AttributeSetPrecondition.AttributeNameProvider;
 import com.rapidminer.parameter.*;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.Ontology;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -77,6 +85,12 @@ import java.util.regex.PatternSyntaxException;
  * The current value of the loop can be accessed with the specified macro name.
  * </p>
  * 
+ * <p>
+ * If <code>enable_parallel_execution</code> is selected, the subgroups are processed concurrently
+ * by copies of the subprocess. Each copy sees its own value of the iteration macro, macros defined
+ * inside the subprocess are local to the subgroup and discarded afterwards.
+ * </p>
+ * 
  * @author Tobias Malbrecht
  */
 public class ValueSubgroupIteration extends OperatorChain {
@@ -101,6 +115,27 @@ public class ValueSubgroupIteration extends OperatorChain {
 
 	public static final String DEFAULT_ITERATION_MACRO_NAME = "loop_value";
 
+	public static final String PARAMETER_ENABLE_PARALLEL_EXECUTION = "enable_parallel_execution";
+
+	/** the number of tasks per thread, each task processes its subgroups with its own subprocess copy */
+	private static final int TASKS_PER_THREAD = 4;
+
+	/** A subgroup which is processed after the partitioning. */
+	private static final class Subgroup {
+
+		private final String macroValue;
+
+		private final Attribute attribute;
+
+		private final int[] rows;
+
+		private Subgroup(String macroValue, Attribute attribute, int[] rows) {
+			this.macroValue = macroValue;
+			this.attribute = attribute;
+			this.rows = rows;
+		}
+	}
+
 	private final InputPort exampleSetInput = getInputPorts().createPort("example set in");
 	private final OutputPort innerExampleSetSource = getSubprocess(0).getInnerSources().createPort("example set source");
 
@@ -199,6 +234,7 @@ public class ValueSubgroupIteration extends OperatorChain {
 		double p = getParameterAsDouble(PARAMETER_P);
 		boolean filterAttribute = getParameterAsBoolean(PARAMETER_FILTER_ATTRIBUTE);
 		String iterationMacro = getParameterAsString(PARAMETER_ITERATION_MACRO);
+		List<Subgroup> parallelSubgroups = checkParallelizability() ? new ArrayList<>() : null;
 
 		// applying on complete set
 		if (getParameterAsBoolean(PARAMETER_APPLY_ON_COMPLETE_SET)) {
@@ -234,18 +270,24 @@ public class ValueSubgroupIteration extends OperatorChain {
 					break;
 			}
 
+			// partition the examples once instead of filtering the example set for every value
+			int[][] subgroupRows = null;
+
 			for (String value : values) {
 				if (exampleSet.getStatistics(attribute, Statistics.COUNT, value) > 0) {
-					String className = "attribute_value_filter";
+					if (subgroupRows == null) {
+						subgroupRows = partitionByValue(exampleSet, attribute);
+					}
 					String parameter = attribute.getName() + "=" + value;
-					log("Creating condition '" + className + "' with parameter '" + parameter + "'");
-					Condition condition = null;
-					try {
-						condition = ConditionedExampleSet.createCondition(className, exampleSet, parameter);
-					} catch (ConditionCreationException e) {
-						throw new UserError(this, 904, className, e.getMessage());
+					log("Creating subgroup '" + parameter + "'");
+					int valueIndex = attribute.getMapping().getIndex(value);
+					int[] rows = valueIndex >= 0 && valueIndex < subgroupRows.length ? subgroupRows[valueIndex] : new int[0];
+					if (parallelSubgroups != null) {
+						parallelSubgroups.add(new Subgroup(parameter.replace(' ', '_'), attribute, rows));
+						inApplyLoop();
+						continue;
 					}
-					ExampleSet subgroupSet = new ConditionedExampleSet(exampleSet, condition, false);
+					ExampleSet subgroupSet = new MappedExampleSet(exampleSet, rows, true, false);
 					if (filterAttribute) {
 						subgroupSet.getAttributes().remove(attribute);
 					}
@@ -265,11 +307,145 @@ public class ValueSubgroupIteration extends OperatorChain {
 			}
 		}
 
+		if (parallelSubgroups != null && !parallelSubgroups.isEmpty()) {
+			processInParallel(exampleSet, parallelSubgroups, filterAttribute, iterationMacro);
+		}
+
 		if (iterationMacro != null) {
 			getProcess().getMacroHandler().addMacro(iterationMacro, null);
 		}
 	}
 
+	/**
+	 * Checks whether the parallel execution is enabled, possible with the available threads and
+	 * not prevented by breakpoints inside the subprocess.
+	 */
+	private boolean checkParallelizability() throws UndefinedParameterError {
+		if (!getParameterAsBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION)
+				|| Resources.getConcurrencyContext(this).getParallelism() <= 1) {
+			return false;
+		}
+		for (Operator operator : getSubprocess(0).getAllInnerOperators()) {
+			if (operator.isEnabled() && operator.hasBreakpoint()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Processes the subgroups concurrently. Every task executes a copy of the subprocess for its
+	 * share of the subgroups, with the iteration macro set in a local macro scope. The subgroups are
+	 * materialized one at a time, so that the data is never read concurrently.
+	 */
+	private void processInParallel(final ExampleSet exampleSet, final List<Subgroup> subgroups,
+			final boolean filterAttribute, final String iterationMacro) throws OperatorException {
+		final MacroHandler macroHandler = getProcess().getMacroHandler();
+		final Map<String, String> enclosingMacros = macroHandler.getLocalMacros();
+		int numberOfTasks = Math.min(subgroups.size(),
+				TASKS_PER_THREAD * Resources.getConcurrencyContext(this).getParallelism());
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfTasks);
+		for (int t = 0; t < numberOfTasks; t++) {
+			final int task = t;
+			final int stride = numberOfTasks;
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() throws Exception {
+					ValueSubgroupIteration copy = createParallelCopy();
+					for (int i = task; i < subgroups.size(); i += stride) {
+						Subgroup subgroup = subgroups.get(i);
+						ExampleSet subgroupSet;
+						synchronized (exampleSet) {
+							ExampleSet view = new MappedExampleSet(exampleSet, subgroup.rows, true, false);
+							if (filterAttribute) {
+								view.getAttributes().remove(subgroup.attribute);
+							}
+							subgroupSet = ExampleSets.createThreadSafeCopy(view);
+						}
+						Map<String, String> macros = new LinkedHashMap<>(enclosingMacros);
+						if (iterationMacro != null) {
+							macros.put(iterationMacro, subgroup.macroValue);
+						}
+						macroHandler.callInLocalScope(macros, () -> {
+							copy.innerExampleSetSource.deliver(subgroupSet);
+							copy.getSubprocess(0).execute();
+							return null;
+						});
+						copy.getSubprocess(0).freeMemory();
+						checkForStop();
+					}
+					return null;
+				}
+			});
+		}
+
+		try {
+			Resources.getConcurrencyContext(this).call(tasks);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else if (cause instanceof OperatorException) {
+				throw (OperatorException) cause;
+			} else {
+				throw new OperatorException(cause.getMessage(), cause);
+			}
+		}
+	}
+
+	/**
+	 * Creates a copy of this operator for the parallel execution of its subprocess. The copy is
+	 * part of the same process, but not registered as one of its operators.
+	 */
+	private ValueSubgroupIteration createParallelCopy() {
+		ValueSubgroupIteration copy = (ValueSubgroupIteration) cloneOperator(getName(), true);
+		copy.setEnclosingProcess(getExecutionUnit());
+		return copy;
+	}
+
+	/**
+	 * Partitions the rows of the example set by the values of the nominal attribute with a single
+	 * pass over the examples.
+	 *
+	 * @return the ascending row indices for each index of the attribute's mapping, examples with
+	 *         missing values are not contained in any partition
+	 */
+	static int[][] partitionByValue(ExampleSet exampleSet, Attribute attribute) {
+		int numberOfValues = attribute.getMapping().size();
+		int[] valueIndices = new int[exampleSet.size()];
+		int[] counts = new int[numberOfValues];
+		int row = 0;
+		for (Example example : exampleSet) {
+			double value = example.getValue(attribute);
+			int valueIndex = Double.isNaN(value) ? -1 : (int) value;
+			if (valueIndex >= numberOfValues) {
+				// mapping was extended while reading
+				numberOfValues = valueIndex + 1;
+				counts = Arrays.copyOf(counts, numberOfValues);
+			}
+			if (valueIndex >= 0) {
+				counts[valueIndex]++;
+			}
+			valueIndices[row++] = valueIndex;
+		}
+
+		int[][] partitions = new int[numberOfValues][];
+		for (int i = 0; i < numberOfValues; i++) {
+			partitions[i] = new int[counts[i]];
+		}
+		Arrays.fill(counts, 0);
+		for (int i = 0; i < row; i++) {
+			int valueIndex = valueIndices[i];
+			if (valueIndex >= 0) {
+				partitions[valueIndex][counts[valueIndex]++] = i;
+			}
+		}
+		return partitions;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
@@ -286,6 +462,9 @@ public class ValueSubgroupIteration extends OperatorChain {
 				false));
 		types.add(new ParameterTypeString(PARAMETER_ITERATION_MACRO, "Name of macro which is set in each iteration.",
 				DEFAULT_ITERATION_MACRO_NAME));
+		types.add(new ParameterTypeBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION,
+				"Processes the subgroups in parallel. Macros defined inside the subprocess are local to each subgroup.",
+				false, true));
 		return types;
 	}
 }
@@ -191,10 +191,10 @@ public class XlsxResultSet implements DataResultSet {
 			Charset encoding = StandardCharsets.UTF_8;
 
 			// Parse shared strings file (only if it exists)
-			String[] sharedStrings = new String[0];
+			XlsxSharedStrings sharedStrings = XlsxSharedStrings.EMPTY;
 			if (workbookRelations.sharedStringsPath != null) {
 				sharedStrings = new XlsxSharedStringsParser(xlsxFile, workbookRelations.sharedStringsPath,
-						XML_STREAM_FACTORY).parseSharedStrings(callingOperator, encoding);
+						XML_STREAM_FACTORY).parseSharedStringPool(callingOperator, encoding);
 
 			}
 
@@ -205,9 +205,11 @@ public class XlsxResultSet implements DataResultSet {
 						.parseNumberFormats();
 			}
 
-			// initialize worksheet parser
+			// initialize worksheet parser, the operator reads the whole sheet so parse it in the
+			// background while the rows are converted
+			boolean pipelined = readMode == XlsxReadMode.OPERATOR && Runtime.getRuntime().availableProcessors() > 1;
 			this.worksheetParser = new XlsxSheetContentParser(xlsxFile, workbookRelations.worksheetsPath, sharedStrings,
-					numberFormats, sheetMetaData, XML_STREAM_FACTORY, encoding);
+					numberFormats, sheetMetaData, XML_STREAM_FACTORY, encoding, pipelined);
 		} catch (IOException | XMLStreamException e) {
 			throw new UserError(callingOperator, e, 321, configuration.getFile(), e.getMessage());
 		} catch (ParserConfigurationException | SAXException e) {
@@ -0,0 +1,234 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.nio.model.xlsx;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+
+/**
+ * A compact pool of the strings of a XLSX Shared String Table. All distinct strings are stored
+ * UTF-8 encoded in a single byte array, duplicates are only stored once. Strings are decoded on
+ * access, recently decoded strings are cached.
+ * <p>
+ * Instances are created by the {@link Builder} and are not thread-safe.
+ *
+ * @since 7.6.1
+ */
+final class XlsxSharedStrings {
+
+	/** An empty pool used if the workbook has no Shared String Table. */
+	static final XlsxSharedStrings EMPTY = new Builder(0).build();
+
+	/** the number of slots of the decoded string cache, must be a power of two */
+	private static final int CACHE_SIZE = 1 << 12;
+
+	/** the UTF-8 bytes of all distinct strings */
+	private final byte[] data;
+
+	/** the start offsets of the distinct strings within {@link #data}, plus the end offset */
+	private final int[] offsets;
+
+	/** the index of the distinct string for each item or {@code -1} for items without text */
+	private final int[] items;
+
+	private final String[] cache = new String[CACHE_SIZE];
+	private final int[] cachedIds = new int[CACHE_SIZE];
+
+	private XlsxSharedStrings(byte[] data, int[] offsets, int[] items) {
+		this.data = data;
+		this.offsets = offsets;
+		this.items = items;
+		Arrays.fill(cachedIds, -1);
+	}
+
+	/**
+	 * @return the number of items of the Shared String Table
+	 */
+	int size() {
+		return items.length;
+	}
+
+	/**
+	 * @return the number of distinct strings stored in the pool
+	 */
+	int getNumberOfDistinctStrings() {
+		return offsets.length - 1;
+	}
+
+	/**
+	 * Returns the string of the item with the given index.
+	 *
+	 * @param index
+	 *            the {@code 0-based} index of the item
+	 * @return the string or {@code null} if the item has no text
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if there is no item with the given index
+	 */
+	String get(int index) {
+		int id = items[index];
+		if (id < 0) {
+			return null;
+		}
+		int slot = id & CACHE_SIZE - 1;
+		if (cachedIds[slot] == id) {
+			return cache[slot];
+		}
+		String value = new String(data, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.UTF_8);
+		cache[slot] = value;
+		cachedIds[slot] = id;
+		return value;
+	}
+
+	/**
+	 * @return all items as an array
+	 */
+	String[] toArray() {
+		String[] result = new String[items.length];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = get(i);
+		}
+		return result;
+	}
+
+	/**
+	 * Collects the items of a Shared String Table and removes duplicates.
+	 */
+	static final class Builder {
+
+		private byte[] data;
+		private int dataSize;
+		private int[] offsets;
+		private int numberOfDistinct;
+		private int[] items;
+		private int numberOfItems;
+
+		/** open addressing hash table of distinct string ids plus one, {@code 0} marks free slots */
+		private int[] table;
+
+		/**
+		 * @param expectedItems
+		 *            the expected number of items used for the initial capacity
+		 */
+		Builder(int expectedItems) {
+			int capacity = Math.max(16, expectedItems);
+			data = new byte[capacity * 8];
+			offsets = new int[capacity + 1];
+			items = new int[capacity];
+			table = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+		}
+
+		/**
+		 * Appends the next item.
+		 *
+		 * @param value
+		 *            the text of the item, can be {@code null}
+		 */
+		void add(String value) {
+			if (numberOfItems == items.length) {
+				items = Arrays.copyOf(items, items.length * 2);
+			}
+			items[numberOfItems++] = value == null ? -1 : intern(value.getBytes(StandardCharsets.UTF_8));
+		}
+
+		/**
+		 * @return the number of items added so far
+		 */
+		int size() {
+			return numberOfItems;
+		}
+
+		/**
+		 * @return the pool containing all items added so far
+		 */
+		XlsxSharedStrings build() {
+			return new XlsxSharedStrings(Arrays.copyOf(data, dataSize), Arrays.copyOf(offsets, numberOfDistinct + 1),
+					Arrays.copyOf(items, numberOfItems));
+		}
+
+		/**
+		 * Returns the id of the given bytes and stores them if they were not added before.
+		 */
+		private int intern(byte[] bytes) {
+			int hash = hash(bytes);
+			int mask = table.length - 1;
+			int slot = hash & mask;
+			while (table[slot] != 0) {
+				int id = table[slot] - 1;
+				if (equals(id, bytes)) {
+					return id;
+				}
+				slot = slot + 1 & mask;
+			}
+			int id = numberOfDistinct++;
+			table[slot] = id + 1;
+			if (dataSize + bytes.length > data.length) {
+				data = Arrays.copyOf(data, Math.max(data.length * 2, dataSize + bytes.length));
+			}
+			System.arraycopy(bytes, 0, data, dataSize, bytes.length);
+			dataSize += bytes.length;
+			if (numberOfDistinct + 1 > offsets.length) {
+				offsets = Arrays.copyOf(offsets, offsets.length * 2);
+			}
+			offsets[numberOfDistinct] = dataSize;
+			if (numberOfDistinct * 2 > table.length) {
+				rehash();
+			}
+			return id;
+		}
+
+		private boolean equals(int id, byte[] bytes) {
+			int start = offsets[id];
+			if (offsets[id + 1] - start != bytes.length) {
+				return false;
+			}
+			for (int i = 0; i < bytes.length; i++) {
+				if (data[start + i] != bytes[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void rehash() {
+			table = new int[table.length * 2];
+			int mask = table.length - 1;
+			for (int id = 0; id < numberOfDistinct; id++) {
+				int slot = hash(data, offsets[id], offsets[id + 1]) & mask;
+				while (table[slot] != 0) {
+					slot = slot + 1 & mask;
+				}
+				table[slot] = id + 1;
+			}
+		}
+
+		private static int hash(byte[] bytes) {
+			return hash(bytes, 0, bytes.length);
+		}
+
+		private static int hash(byte[] bytes, int from, int to) {
+			int hash = 1;
+			for (int i = from; i < to; i++) {
+				hash = 31 * hash + bytes[i];
+			}
+			// spread the bits since the table size is a power of two
+			return hash ^ hash >>> 16;
+		}
+	}
+}
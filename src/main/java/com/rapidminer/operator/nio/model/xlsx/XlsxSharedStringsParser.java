@@ -139,17 +139,36 @@ public class XlsxSharedStringsParser {
 	 *             in case the shared string XML content is invalid
 	 */
 	public String[] parseSharedStrings(Operator op, Charset encoding) throws XMLStreamException, IOException, UserError {
+		return parseSharedStringPool(op, encoding).toArray();
+	}
+
+	/**
+	 * Parses the XLSX shared strings XML file into a compact pool which stores duplicate strings
+	 * only once.
+	 *
+	 * @return the parsed shared strings
+	 * @throws IOException
+	 *             in case the Shared Strings Zip entry cannot be opened
+	 * @throws XMLStreamException
+	 *             in case the {@link XMLInputFactory} cannot create a {@link XMLStreamReader}
+	 * @throws UserError
+	 *             in case the shared string content is malformed
+	 * @since 7.6.1
+	 */
+	XlsxSharedStrings parseSharedStringPool(Operator op, Charset encoding)
+			throws XMLStreamException, IOException, UserError {
 
 		boolean isCurrentTagText = false;
 		int numberOfItems = 0;
-		int stringItemCounter = 0;
-		String[] xlsxSharedStrings = null;
+		XlsxSharedStrings.Builder xlsxSharedStrings = null;
+		StringBuilder currentText = new StringBuilder();
+		boolean hasText = false;
 		XMLStreamReader reader = null;
 		try (ZipFile zipFile = new ZipFile(xlsxFile)) {
 			ZipEntry zipEntry = zipFile.getEntry(XlsxUtilities.XLSX_PATH_PREFIX + sharedStringsFilePath);
 			if (zipEntry == null) {
 				// no shared strings defined
-				return new String[0];
+				return XlsxSharedStrings.EMPTY;
 			}
 
 			InputStream inputStream = zipFile.getInputStream(zipEntry);
@@ -157,8 +176,8 @@ public class XlsxSharedStringsParser {
 			while (reader.hasNext()) {
 				switch (reader.next()) {
 					case XMLStreamReader.START_ELEMENT:
-						Attributes attributes = XlsxUtilities.getAttributes(reader);
 						if (reader.getLocalName().equals(TAG_SHARED_STRING_TABLE)) {
+							Attributes attributes = XlsxUtilities.getAttributes(reader);
 
 							// retrieve uniqueCount values
 							String uniqueCount = attributes.getValue(ATT_SHARED_STRING_TABLE_UNIQUE_COUNT);
@@ -175,8 +194,8 @@ public class XlsxSharedStringsParser {
 								}
 							}
 
-							// initialize String array
-							xlsxSharedStrings = new String[numberOfItems];
+							// initialize string pool
+							xlsxSharedStrings = new XlsxSharedStrings.Builder(numberOfItems);
 
 						} else if (reader.getLocalName().equals(TAG_TEXT)) {
 							// we ignore formatting stored within the Shared Table XML because we
@@ -186,24 +205,26 @@ public class XlsxSharedStringsParser {
 						break;
 					case XMLStreamReader.END_ELEMENT:
 						if (reader.getLocalName().equals(TAG_STRING_ITEM)) {
-							stringItemCounter++;
+							if (xlsxSharedStrings == null) {
+								throw new UserError(op, "xlsx_content_malformed");
+							}
+							xlsxSharedStrings.add(hasText ? currentText.toString() : null);
+							currentText.setLength(0);
+							hasText = false;
 						} else if (reader.getLocalName().equals(TAG_TEXT)) {
 							isCurrentTagText = false;
 						}
 						break;
 					case XMLStreamReader.CHARACTERS:
 						if (isCurrentTagText) {
-							if (xlsxSharedStrings[stringItemCounter] == null) {
-								// no text found yet for current TAG_STRING_ITEM
-								xlsxSharedStrings[stringItemCounter] = reader.getText();
-							} else {
-								// append new text to other text for current TAG_STRING_ITEM
-								xlsxSharedStrings[stringItemCounter] += reader.getText();
-							}
+							// append text to other text for current TAG_STRING_ITEM
+							currentText.append(reader.getText());
+							hasText = true;
 						}
 						break;
 					case XMLStreamReader.END_DOCUMENT:
 						// Final check of correctness of logic
+						int stringItemCounter = xlsxSharedStrings == null ? 0 : xlsxSharedStrings.size();
 						if (stringItemCounter != numberOfItems) {
 							throw new UserError(op, "xlsx_content_malformed");
 						}
@@ -218,6 +239,6 @@ public class XlsxSharedStringsParser {
 				reader.close();
 			}
 		}
-		return xlsxSharedStrings;
+		return xlsxSharedStrings == null ? XlsxSharedStrings.EMPTY : xlsxSharedStrings.build();
 	}
 }
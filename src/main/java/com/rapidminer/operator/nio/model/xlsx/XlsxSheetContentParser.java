@@ -23,12 +23,9 @@ import com.rapidminer.operator.nio.model.ParsingError;
 import com.rapidminer.operator.nio.model.ParsingError.ErrorCode;
 import com.rapidminer.operator.nio.model.xlsx.XlsxResultSet.XlsxReadMode;
 import com.rapidminer.operator.nio.model.xlsx.XlsxUtilities.XlsxCell;
-import org.apache.tika.io.CountingInputStream;
-import org.xml.sax.Attributes;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.XMLStreamReader;
 import java.io.*;
 import java.nio.charset.Charset;
 import java.util.Arrays;
@@ -44,76 +41,6 @@ import java.util.zip.ZipFile;
  */
 class XlsxSheetContentParser implements AutoCloseable {
 
-	/**
-	 * An enumeration representing the cell's data type.
-	 *
-	 * @see ECMA-376, 4th Edition, 18.3.1.4 Cell (p. 1589)
-	 */
-	private static final String ATT_CELL_TYPE = "t";
-
-	/**
-	 * The index of this cell's style. Style records are stored in the Styles Part.
-	 *
-	 * @see ECMA-376, 4th Edition, 18.3.1.4 Cell (p. 1589)
-	 */
-	private static final String ATT_CELL_STYLE = "s";
-
-	/**
-	 * This element expresses the value contained in a cell. If the cell contains a string, then
-	 * this value is an index into the shared string table, pointing to the actual string value.
-	 * Otherwise, the value of the cell is expressed directly in this element.
-	 *
-	 * Cells containing formulas express the last calculated result of the formula in this element.
-	 * For applications not wanting to implement the shared string table, an 'inline string' can be
-	 * expressed in an <is> element under <c> (instead of a <v> element under <c>),in the same way a
-	 * string would be expressed in the shared string table.
-	 *
-	 * [Example: In this example, cell B4 contains the number "360", cell C4 contains the local date
-	 * and time 22 November 1976, 08:30, and cell C5 contains the 1900 date system serial date-time
-	 * for the date-time in cell C4.
-	 *
-	 * <pre>
-	 * {@code
-	 * <c r="B4">
-	 * 	<v>360</v>
-	 * </c>
-	 * <c r="C4" t="d">
-	 * 	<v>1976-11-22T08:30</v>
-	 * </c>
-	 * <c r="C5">
-	 * 	<f>C4</f>
-	 * 	<v>28086.3541666667</v>
-	 * </c>
-	 * }
-	 * </pre>
-	 *
-	 * end example]
-	 *
-	 * @see ECMA-376, 4th Edition, 18.3.1.96 Cell Value (pp. 1699 ff.)
-	 */
-	private static final String TAG_VALUE = "v";
-
-	/**
-	 * This element allows for strings to be expressed directly in the cell definition instead of
-	 * implementing the shared string table.<br/>
-	 * [Example:
-	 *
-	 * <pre>
-	 * {@code
-	 * <c r="A1">
-	 *  <is>
-	 *   <t>String</t>
-	 *  </is>
-	 * </c>
-	 * }
-	 * </pre>
-	 *
-	 * end example]
-	 *
-	 * @see ECMA-376, 4th Edition, 18.3.1.53 Rich Text Inline (pp. 1648 ff.)
-	 */
-	private static final String TAG_INLINE_STRING = "is";
-
 	/** The XLSX file itself */
 	private final File xlsxFile;
 
@@ -121,7 +48,7 @@ class XlsxSheetContentParser implements AutoCloseable {
 	private final String workbookZipEntryPath;
 
 	/** Strings shared in multiple sheets */
-	private final String[] sharedStrings;
+	private final XlsxSharedStrings sharedStrings;
 
 	/** Number formats defined for XLSX cells */
 	private final XlsxNumberFormats numberFormats;
@@ -129,11 +56,11 @@ class XlsxSheetContentParser implements AutoCloseable {
 	/** The ZipFile object used to open the {@link #reader} */
 	private ZipFile xlsxZipFile;
 
-	/** Reads XML stream */
-	private XMLStreamReader reader;
+	/** Reads the worksheet events, also used to determine the operator progress */
+	private XlsxSheetEventReader reader;
 
-	/** CountingInputStream that is used to determine the operator progress */
-	private CountingInputStream cis;
+	/** Defines whether the worksheet XML is parsed by a background thread */
+	private final boolean pipelined;
 
 	/** The current row content. */
 	private XlsxCell[] currentRowContent;
@@ -182,27 +109,31 @@ class XlsxSheetContentParser implements AutoCloseable {
 	 * @param workbookZipEntryPath
 	 *            the path of the workbook Zip entry
 	 * @param sharedStrings
-	 *            A ordered list of shared strings to generate complete cell values.
+	 *            the shared strings to generate complete cell values.
 	 * @param numberFormats
 	 *            the parsed XLSX number formats
 	 * @param maximumCellRange
 	 *            the maximum cell that should be parsed
 	 * @param columnOffset
 	 *            the offset of the first column to use.
+	 * @param pipelined
+	 *            if {@code true} the worksheet XML is decompressed and parsed by a background
+	 *            thread while the rows are consumed
 	 * @throws XMLStreamException
 	 *             On errors creating a XML stream reader.
 	 * @throws IOException
 	 *             in case opening the workbook does not work
 	 */
-	public XlsxSheetContentParser(File xlsxFile, String workbookZipEntryPath, String[] sharedStrings,
-			XlsxNumberFormats numberFormats, XlsxSheetMetaData sheetMetaData, XMLInputFactory factory, Charset encoding)
-			throws XMLStreamException, IOException {
+	public XlsxSheetContentParser(File xlsxFile, String workbookZipEntryPath, XlsxSharedStrings sharedStrings,
+			XlsxNumberFormats numberFormats, XlsxSheetMetaData sheetMetaData, XMLInputFactory factory, Charset encoding,
+			boolean pipelined) throws XMLStreamException, IOException {
 		this.xlsxFile = xlsxFile;
 		this.workbookZipEntryPath = workbookZipEntryPath;
 		this.sharedStrings = sharedStrings;
 		this.numberFormats = numberFormats;
 		this.sheetMetaData = sheetMetaData;
 		this.encoding = encoding;
+		this.pipelined = pipelined;
 		this.emptyColumn = new boolean[sheetMetaData.getNumberOfColumns()];
 		Arrays.fill(emptyColumn, true);
 		reset(factory);
@@ -290,7 +221,6 @@ class XlsxSheetContentParser implements AutoCloseable {
 	private XlsxCell[] parseNextRowWithContent() throws ParseException, XMLStreamException {
 
 		boolean isRowWithContent = false;
-		boolean isValue = false;
 		boolean contentFound = false;
 		int columnIndex = 0;
 
@@ -301,66 +231,52 @@ class XlsxSheetContentParser implements AutoCloseable {
 
 			// Parse the next element
 			switch (reader.next()) {
-				case XMLStreamReader.START_ELEMENT:
-					String startLocalName = reader.getLocalName();
-					if (startLocalName.equals(XlsxUtilities.TAG_ROW)) {
-						// We need to subtract 1 as XLSX indices start with 1
-						String indexValue = XlsxUtilities.getAttributes(reader).getValue(XlsxUtilities.TAG_ROW_INDEX);
-						try {
-							parsedRowIndex = Integer.parseInt(indexValue) - 1;
-						} catch (NumberFormatException e) {
-							throw new ParseException(
-									new ParsingError(parsedRowIndex, columnIndex, ErrorCode.FILE_SYNTAX_ERROR, indexValue));
-						}
-					} else if (startLocalName.equals(XlsxUtilities.TAG_CELL)) {
-						Attributes attributes = XlsxUtilities.getAttributes(reader);
-
-						// Update column index
-						String cellReference = attributes.getValue(XlsxUtilities.TAG_CELL_REFERENCE);
-						try {
-							columnIndex = sheetMetaData
-									.mapColumnIndex(XlsxUtilities.convertCellRefToCoordinates(cellReference).columnNumber);
-						} catch (IllegalArgumentException e) {
-							throw new ParseException(new ParsingError(parsedRowIndex, columnIndex,
-									ParsingError.ErrorCode.FILE_SYNTAX_ERROR, cellReference));
-						}
+				case XlsxSheetEventReader.ROW_START:
+					// We need to subtract 1 as XLSX indices start with 1
+					String indexValue = reader.getValue();
+					try {
+						parsedRowIndex = Integer.parseInt(indexValue) - 1;
+					} catch (NumberFormatException e) {
+						throw new ParseException(
+								new ParsingError(parsedRowIndex, columnIndex, ErrorCode.FILE_SYNTAX_ERROR, indexValue));
+					}
+					break;
+				case XlsxSheetEventReader.CELL_START:
+					// Update column index
+					String cellReference = reader.getValue();
+					try {
+						columnIndex = sheetMetaData
+								.mapColumnIndex(XlsxUtilities.convertCellRefToCoordinates(cellReference).columnNumber);
+					} catch (IllegalArgumentException e) {
+						throw new ParseException(new ParsingError(parsedRowIndex, columnIndex,
+								ParsingError.ErrorCode.FILE_SYNTAX_ERROR, cellReference));
+					}
 
-						// Check if the current column should be skipped
-						if (sheetMetaData.isSkipColumn(columnIndex)) {
-							break;
-						}
+					// Check if the current column should be skipped
+					if (sheetMetaData.isSkipColumn(columnIndex)) {
+						break;
+					}
 
-						// Parse cell type and create new XLSX cell
-						String cellType = attributes.getValue(ATT_CELL_TYPE);
-						String cellStyle = attributes.getValue(ATT_CELL_STYLE);
-						XlsxCellType type = XlsxCellType.getCellType(cellType, numberFormats, cellStyle);
-						if (type != null) {
-							nextRowWithContent[columnIndex] = new XlsxCell(type);
-						} else {
-							throw new ParseException(new ParsingError(parsedRowIndex, columnIndex,
-									ParsingError.ErrorCode.FILE_SYNTAX_ERROR, cellType));
-						}
-					} else if (startLocalName.equals(TAG_VALUE) || startLocalName.equals(TAG_INLINE_STRING)) {
-						// Information for value parsing
-						isValue = true;
+					// Parse cell type and create new XLSX cell
+					String cellType = reader.getCellType();
+					XlsxCellType type = XlsxCellType.getCellType(cellType, numberFormats, reader.getCellStyle());
+					if (type != null) {
+						nextRowWithContent[columnIndex] = new XlsxCell(type);
+					} else {
+						throw new ParseException(new ParsingError(parsedRowIndex, columnIndex,
+								ParsingError.ErrorCode.FILE_SYNTAX_ERROR, cellType));
 					}
 					break;
-				case XMLStreamReader.END_ELEMENT:
-					String endLocalName = reader.getLocalName();
-					if (endLocalName.equals(XlsxUtilities.TAG_ROW)) {
-						// At least one value has been parsed for current row
-						// so stop parsing any further
-						isRowWithContent = contentFound;
-					} else if (endLocalName.equals(TAG_VALUE) || endLocalName.equals(TAG_INLINE_STRING)) {
-						// Text part ends
-						isValue = false;
-					}
+				case XlsxSheetEventReader.ROW_END:
+					// At least one value has been parsed for current row
+					// so stop parsing any further
+					isRowWithContent = contentFound;
 					break;
-				case XMLStreamReader.CHARACTERS:
-					if (!sheetMetaData.isSkipColumn(columnIndex) && isValue) {
-						String text = reader.getText();
+				case XlsxSheetEventReader.TEXT:
+					if (!sheetMetaData.isSkipColumn(columnIndex)) {
+						String text = reader.getValue();
 						if (nextRowWithContent[columnIndex].cellType.equals(XlsxCellType.SHARED_STRING)) {
-							nextRowWithContent[columnIndex].value = sharedStrings[Integer.parseInt(text)];
+							nextRowWithContent[columnIndex].value = sharedStrings.get(Integer.parseInt(text));
 						} else {
 							nextRowWithContent[columnIndex].value = text;
 						}
@@ -368,7 +284,7 @@ class XlsxSheetContentParser implements AutoCloseable {
 						contentFound = true;
 					}
 					break;
-				case XMLStreamReader.END_DOCUMENT:
+				case XlsxSheetEventReader.END_DOCUMENT:
 					// end of document was reached but no new row with content was found
 					this.hasMoreContent = false;
 					break;
@@ -391,26 +307,23 @@ class XlsxSheetContentParser implements AutoCloseable {
 		boolean skipRows = currentRowIndex < rowIndexBeforeFirstRow;
 		while (skipRows && reader.hasNext()) {
 			int nextEvent = reader.next();
-			if (nextEvent == XMLStreamReader.START_ELEMENT) {
-				// If a row was found..
-				if (reader.getLocalName().equals(XlsxUtilities.TAG_ROW)) {
-					// ... parse the row index (subtract 1 as XLSX indices start with 1)
-					parsedRowIndex = Integer
-							.parseInt(XlsxUtilities.getAttributes(reader).getValue(XlsxUtilities.TAG_ROW_INDEX)) - 1;
-
-					// Check whether the parsed index is already
-					// behind the desired end index (which means that all rows before were
-					// empty)
-					if (parsedRowIndex > rowIndexBeforeFirstRow) {
-						currentRowIndex = rowIndexBeforeFirstRow;
-						skipRows = false;
-					} else {
-						// Update the current row index if parsed index is still
-						// before first row to read
-						currentRowIndex = parsedRowIndex;
-					}
+			// If a row was found..
+			if (nextEvent == XlsxSheetEventReader.ROW_START) {
+				// ... parse the row index (subtract 1 as XLSX indices start with 1)
+				parsedRowIndex = Integer.parseInt(reader.getValue()) - 1;
+
+				// Check whether the parsed index is already
+				// behind the desired end index (which means that all rows before were
+				// empty)
+				if (parsedRowIndex > rowIndexBeforeFirstRow) {
+					currentRowIndex = rowIndexBeforeFirstRow;
+					skipRows = false;
+				} else {
+					// Update the current row index if parsed index is still
+					// before first row to read
+					currentRowIndex = parsedRowIndex;
 				}
-			} else if (nextEvent == XMLStreamReader.END_ELEMENT && reader.getLocalName().equals(XlsxUtilities.TAG_ROW)) {
+			} else if (nextEvent == XlsxSheetEventReader.ROW_END) {
 				// parse until end of row if we haven't parsed too far yet
 				skipRows = currentRowIndex < rowIndexBeforeFirstRow;
 			}
@@ -439,7 +352,7 @@ class XlsxSheetContentParser implements AutoCloseable {
 	@Override
 	public void close() throws XMLStreamException, IOException {
 
-		// Close the XMLStreamReader
+		// Close the event reader and stop its background thread
 		if (reader != null) {
 			reader.close();
 		}
@@ -451,7 +364,7 @@ class XlsxSheetContentParser implements AutoCloseable {
 	}
 
 	/**
-	 * @return <code>true</code> in case the {@link XMLStreamReader} has more rows with content
+	 * @return <code>true</code> in case the {@link XlsxSheetEventReader} has more rows with content
 	 *         available.
 	 */
 	boolean hasNext() {
@@ -459,13 +372,12 @@ class XlsxSheetContentParser implements AutoCloseable {
 	}
 
 	/**
-	 * Closes the current open {@link XMLStreamReader} and creates a new one which starts the
+	 * Closes the current open {@link XlsxSheetEventReader} and creates a new one which starts the
 	 * reading process at the first row. It is assumed the the XLSX content and operator
 	 * configuration remain the same.
 	 *
 	 * @param factory
-	 *            the {@link XMLInputFactory} that should be used to open the
-	 *            {@link XMLStreamReader}.
+	 *            the {@link XMLInputFactory} that should be used to open the XML stream reader.
 	 *
 	 * @throws IOException
 	 *             if an I/O error has occurred
@@ -487,8 +399,7 @@ class XlsxSheetContentParser implements AutoCloseable {
 							+ workbookZipEntryPath);
 		}
 		InputStream inputStream = xlsxZipFile.getInputStream(workbookZipEntry);
-		cis = new CountingInputStream(inputStream);
-		reader = xmlFactory.createXMLStreamReader(new InputStreamReader(cis, encoding));
+		reader = XlsxSheetEventReader.create(inputStream, encoding, xmlFactory, pipelined);
 
 		// reset other variables
 		currentRowIndex = -1;
@@ -532,7 +443,7 @@ class XlsxSheetContentParser implements AutoCloseable {
 	 *         operator progress
 	 */
 	long getCurrentPosition() {
-		return cis.getByteCount();
+		return reader.getPosition();
 	}
 
 }
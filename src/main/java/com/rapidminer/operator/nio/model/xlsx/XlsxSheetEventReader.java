@@ -0,0 +1,416 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.nio.model.xlsx;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.tika.io.CountingInputStream;
+
+
+/**
+ * Reads the events of a XLSX worksheet which are relevant for the {@link XlsxSheetContentParser}.
+ * All other XML events are skipped. Text is only reported within cell values and inline strings.
+ * <p>
+ * The reader either parses the XML on the calling thread or in a pipelined mode in which a
+ * background thread decompresses and parses the worksheet into batches of events while the calling
+ * thread processes the previous batches.
+ *
+ * @since 7.6.1
+ */
+abstract class XlsxSheetEventReader implements AutoCloseable {
+
+	/** Start of a row, {@link #getValue()} returns the row reference */
+	static final int ROW_START = 0;
+
+	/**
+	 * Start of a cell, {@link #getValue()} returns the cell reference, {@link #getCellType()} and
+	 * {@link #getCellStyle()} return the cell attributes
+	 */
+	static final int CELL_START = 1;
+
+	/** Text within a cell value or inline string, {@link #getValue()} returns the text */
+	static final int TEXT = 2;
+
+	/** End of a row */
+	static final int ROW_END = 3;
+
+	/** End of the worksheet */
+	static final int END_DOCUMENT = 4;
+
+	/**
+	 * This element expresses the value contained in a cell.
+	 *
+	 * @see ECMA-376, 4th Edition, 18.3.1.96 Cell Value (pp. 1699 ff.)
+	 */
+	private static final String TAG_VALUE = "v";
+
+	/**
+	 * This element allows for strings to be expressed directly in the cell definition.
+	 *
+	 * @see ECMA-376, 4th Edition, 18.3.1.53 Rich Text Inline (pp. 1648 ff.)
+	 */
+	private static final String TAG_INLINE_STRING = "is";
+
+	/**
+	 * An enumeration representing the cell's data type.
+	 *
+	 * @see ECMA-376, 4th Edition, 18.3.1.4 Cell (p. 1589)
+	 */
+	private static final String ATT_CELL_TYPE = "t";
+
+	/**
+	 * The index of this cell's style.
+	 *
+	 * @see ECMA-376, 4th Edition, 18.3.1.4 Cell (p. 1589)
+	 */
+	private static final String ATT_CELL_STYLE = "s";
+
+	/** the number of events passed from the background thread at once */
+	private static final int BATCH_SIZE = 1 << 13;
+
+	/** the number of parsed batches the background thread may run ahead */
+	private static final int QUEUED_BATCHES = 4;
+
+	/**
+	 * Creates a new reader for the given worksheet stream.
+	 *
+	 * @param pipelined
+	 *            if {@code true} the XML is parsed by a background thread
+	 * @throws XMLStreamException
+	 *             if the XML stream reader cannot be created
+	 */
+	static XlsxSheetEventReader create(InputStream inputStream, Charset encoding, XMLInputFactory factory,
+			boolean pipelined) throws XMLStreamException {
+		DirectReader reader = new DirectReader(inputStream, encoding, factory);
+		return pipelined ? new PipelinedReader(reader) : reader;
+	}
+
+	/**
+	 * @return {@code true} if more events are available
+	 * @throws XMLStreamException
+	 *             if parsing the XML failed
+	 */
+	abstract boolean hasNext() throws XMLStreamException;
+
+	/**
+	 * Moves to the next event.
+	 *
+	 * @return the type of the event
+	 * @throws XMLStreamException
+	 *             if parsing the XML failed
+	 */
+	abstract int next() throws XMLStreamException;
+
+	/**
+	 * @return the reference of the current row or cell or the current text
+	 */
+	abstract String getValue();
+
+	/**
+	 * @return the type attribute of the current cell
+	 */
+	abstract String getCellType();
+
+	/**
+	 * @return the style attribute of the current cell
+	 */
+	abstract String getCellStyle();
+
+	/**
+	 * @return the number of compressed bytes read up to the current event
+	 */
+	abstract long getPosition();
+
+	@Override
+	public abstract void close() throws XMLStreamException;
+
+	/**
+	 * Parses the XML on the calling thread.
+	 */
+	private static final class DirectReader extends XlsxSheetEventReader {
+
+		private final CountingInputStream cis;
+		private final XMLStreamReader reader;
+		private boolean isValue;
+		private String value;
+		private String cellType;
+		private String cellStyle;
+
+		private DirectReader(InputStream inputStream, Charset encoding, XMLInputFactory factory)
+				throws XMLStreamException {
+			this.cis = new CountingInputStream(inputStream);
+			this.reader = factory.createXMLStreamReader(new InputStreamReader(cis, encoding));
+		}
+
+		@Override
+		boolean hasNext() throws XMLStreamException {
+			return reader.hasNext();
+		}
+
+		@Override
+		int next() throws XMLStreamException {
+			while (true) {
+				switch (reader.next()) {
+					case XMLStreamReader.START_ELEMENT:
+						String startLocalName = reader.getLocalName();
+						if (startLocalName.equals(XlsxUtilities.TAG_ROW)) {
+							value = getAttribute(XlsxUtilities.TAG_ROW_INDEX);
+							return ROW_START;
+						} else if (startLocalName.equals(XlsxUtilities.TAG_CELL)) {
+							value = getAttribute(XlsxUtilities.TAG_CELL_REFERENCE);
+							cellType = getAttribute(ATT_CELL_TYPE);
+							cellStyle = getAttribute(ATT_CELL_STYLE);
+							return CELL_START;
+						} else if (startLocalName.equals(TAG_VALUE) || startLocalName.equals(TAG_INLINE_STRING)) {
+							isValue = true;
+						}
+						break;
+					case XMLStreamReader.END_ELEMENT:
+						String endLocalName = reader.getLocalName();
+						if (endLocalName.equals(XlsxUtilities.TAG_ROW)) {
+							return ROW_END;
+						} else if (endLocalName.equals(TAG_VALUE) || endLocalName.equals(TAG_INLINE_STRING)) {
+							isValue = false;
+						}
+						break;
+					case XMLStreamReader.CHARACTERS:
+						if (isValue) {
+							value = reader.getText();
+							return TEXT;
+						}
+						break;
+					case XMLStreamReader.END_DOCUMENT:
+						return END_DOCUMENT;
+					default:
+						// ignore other events
+						break;
+				}
+			}
+		}
+
+		private String getAttribute(String localName) {
+			for (int i = 0; i < reader.getAttributeCount(); i++) {
+				if (localName.equals(reader.getAttributeLocalName(i))) {
+					return reader.getAttributeValue(i);
+				}
+			}
+			return null;
+		}
+
+		@Override
+		String getValue() {
+			return value;
+		}
+
+		@Override
+		String getCellType() {
+			return cellType;
+		}
+
+		@Override
+		String getCellStyle() {
+			return cellStyle;
+		}
+
+		@Override
+		long getPosition() {
+			return cis.getByteCount();
+		}
+
+		@Override
+		public void close() throws XMLStreamException {
+			reader.close();
+		}
+	}
+
+	/**
+	 * A batch of events parsed by the background thread. Values and cell attributes are stored in
+	 * parallel arrays, cell attributes are only set for {@link #CELL_START} events.
+	 */
+	private static final class EventBatch {
+
+		private final int[] events;
+		private final String[] values;
+		private final String[] cellTypes;
+		private final String[] cellStyles;
+		private int size;
+		private long position;
+		private boolean last;
+		private XMLStreamException error;
+		private RuntimeException runtimeError;
+
+		private EventBatch(int capacity) {
+			events = new int[capacity];
+			values = new String[capacity];
+			cellTypes = new String[capacity];
+			cellStyles = new String[capacity];
+		}
+	}
+
+	/**
+	 * Parses the XML in a background thread using a {@link DirectReader} and passes the events in
+	 * batches through a bounded queue. Errors of the background thread are rethrown by
+	 * {@link #next()} once all previously parsed events have been consumed.
+	 */
+	private static final class PipelinedReader extends XlsxSheetEventReader {
+
+		private final DirectReader source;
+		private final BlockingQueue<EventBatch> queue = new ArrayBlockingQueue<>(QUEUED_BATCHES);
+		private final Thread thread;
+		private volatile boolean closed;
+
+		private EventBatch batch;
+		private int index = -1;
+		private long position;
+
+		private PipelinedReader(DirectReader source) {
+			this.source = source;
+			thread = new Thread("XLSX-Parser") {
+
+				@Override
+				public void run() {
+					parse();
+				}
+			};
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		/** Runs in the background thread until the document is read, an error occurs or closed. */
+		private void parse() {
+			try {
+				boolean running = true;
+				while (running && !closed) {
+					EventBatch next = new EventBatch(BATCH_SIZE);
+					try {
+						while (next.size < BATCH_SIZE && source.hasNext()) {
+							int event = source.next();
+							next.events[next.size] = event;
+							if (event == CELL_START) {
+								next.cellTypes[next.size] = source.getCellType();
+								next.cellStyles[next.size] = source.getCellStyle();
+							}
+							if (event != ROW_END && event != END_DOCUMENT) {
+								next.values[next.size] = source.getValue();
+							}
+							next.size++;
+						}
+						next.last = !source.hasNext();
+					} catch (XMLStreamException e) {
+						next.error = e;
+					} catch (RuntimeException e) {
+						next.runtimeError = e;
+					}
+					next.position = source.getPosition();
+					running = !next.last && next.error == null && next.runtimeError == null;
+					next.last |= !running;
+					queue.put(next);
+				}
+			} catch (InterruptedException e) {
+				// closed while waiting for the consumer
+			}
+		}
+
+		@Override
+		boolean hasNext() throws XMLStreamException {
+			while (batch == null || index + 1 >= batch.size) {
+				if (batch != null && batch.last) {
+					throwErrors();
+					return false;
+				}
+				takeBatch();
+			}
+			return true;
+		}
+
+		@Override
+		int next() throws XMLStreamException {
+			if (!hasNext()) {
+				throw new XMLStreamException("No more events");
+			}
+			index++;
+			return batch.events[index];
+		}
+
+		private void takeBatch() throws XMLStreamException {
+			if (closed) {
+				throw new XMLStreamException("Reader is closed");
+			}
+			try {
+				batch = queue.take();
+				index = -1;
+				position = batch.position;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new XMLStreamException(e);
+			}
+		}
+
+		private void throwErrors() throws XMLStreamException {
+			if (batch.error != null) {
+				throw batch.error;
+			} else if (batch.runtimeError != null) {
+				throw batch.runtimeError;
+			}
+		}
+
+		@Override
+		String getValue() {
+			return batch.values[index];
+		}
+
+		@Override
+		String getCellType() {
+			return batch.cellTypes[index];
+		}
+
+		@Override
+		String getCellStyle() {
+			return batch.cellStyles[index];
+		}
+
+		@Override
+		long getPosition() {
+			return position;
+		}
+
+		@Override
+		public void close() throws XMLStreamException {
+			if (!closed) {
+				closed = true;
+				thread.interrupt();
+				queue.clear();
+				try {
+					thread.join();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			source.close();
+		}
+	}
+}
@@ -37,6 +37,9 @@ public abstract class AbstractOutputPort extends AbstractPort implements OutputP
 
 	private MetaData realMetaData;
 
+	/** the number of calls of {@link #deliverMD(MetaData)} */
+	private int metaDataDeliveries;
+
 	protected AbstractOutputPort(Ports<? extends Port> owner, String name, boolean simulatesStack) {
 		super(owner, name, simulatesStack);
 	}
@@ -44,6 +47,7 @@ public abstract class AbstractOutputPort extends AbstractPort implements OutputP
 	@Override
 	public void deliverMD(MetaData md) {
 		this.metaData = md;
+		metaDataDeliveries++;
 		if (connectedTo != null) {
 			this.connectedTo.receiveMD(md);
 		}
@@ -153,6 +157,16 @@ public abstract class AbstractOutputPort extends AbstractPort implements OutputP
 		fireUpdate(this);
 	}
 
+	/**
+	 * Returns how often meta data was delivered to this port. This allows to notice deliveries
+	 * even if the same meta data object is delivered again.
+	 *
+	 * @since 7.6.1
+	 */
+	public int getMetaDataDeliveryCount() {
+		return metaDataDeliveries;
+	}
+
 	/**
 	 * @return the realMetaData
 	 */
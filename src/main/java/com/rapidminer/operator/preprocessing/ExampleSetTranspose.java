@@ -18,9 +18,13 @@
 */
 package com.rapidminer.operator.preprocessing;
 
+import com.rapidminer.RapidMiner;
 import com.rapidminer.example.*;
 import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.table.NominalMapping;
+import com.rapidminer.example.table.internal.ColumnarExampleTable;
 import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
 import com.rapidminer.example.utils.ExampleSets;
 import com.rapidminer.operator.AbstractExampleSetProcessing;
 import com.rapidminer.operator.OperatorDescription;
@@ -29,12 +33,20 @@ import com.rapidminer.operator.annotation.ResourceConsumptionEstimator;
 import com.rapidminer.operator.ports.metadata.ExampleSetMetaData;
 import com.rapidminer.operator.ports.metadata.MetaData;
 import com.rapidminer.operator.preprocessing.filter.ChangeAttributeRole;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.Ontology;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
+import com.rapidminer.tools.ParameterService;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.function.IntToDoubleFunction;
 
 
 /**
@@ -68,6 +80,12 @@ import java.util.List;
  */
 public class ExampleSetTranspose extends AbstractExampleSetProcessing {
 
+	/** The number of examples transposed together into new columns. */
+	private static final int TILE_WIDTH = 256;
+
+	/** The maximal size of shared mappings whose translations are cached. */
+	private static final int MAX_SHARED_MAPPING_SIZE = 1024;
+
 	public ExampleSetTranspose(OperatorDescription description) {
 		super(description);
 	}
@@ -126,43 +144,227 @@ public class ExampleSetTranspose extends AbstractExampleSetProcessing {
 			}
 		}
 
-		// create and fill table
-		ExampleSetBuilder builder = ExampleSets.from(newAttributes);
+		// the old attributes except the id become the new rows
+		List<Attribute> rowAttributeList = new ArrayList<>();
 		a = exampleSet.getAttributes().allAttributeRoles();
 		while (a.hasNext()) {
 			AttributeRole attributeRole = a.next();
 			if (!attributeRole.isSpecial() || !attributeRole.getSpecialName().equals(Attributes.ID_NAME)) {
-				Attribute attribute = attributeRole.getAttribute();
-				double[] data = new double[exampleSet.size() + 1];
-				data[0] = newIdAttribute.getMapping().mapString(attribute.getName());
-				int counter = 1;
-				for (Example e : exampleSet) {
-					double currentValue = e.getValue(attribute);
-					data[counter] = currentValue;
-					Attribute newAttribute = newAttributes.get(counter);
-					if (newAttribute.isNominal()) {
-						if (!Double.isNaN(currentValue)) {
-							String currentValueString = currentValue + "";
-							if (attribute.isNominal()) {
-								currentValueString = attribute.getMapping().mapIndex((int) currentValue);
-							}
-							data[counter] = newAttribute.getMapping().mapString(currentValueString);
-						}
-					}
-					counter++;
-				}
-				builder.addRow(data);
+				rowAttributeList.add(attributeRole.getAttribute());
 			}
-			getProgress().step();
+		}
+		Attribute[] rowAttributes = rowAttributeList.toArray(new Attribute[rowAttributeList.size()]);
+
+		// create and fill table
+		ExampleSet result;
+		if (Boolean.parseBoolean(ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT))) {
+			result = transposeRows(exampleSet, rowAttributes, newAttributes, newIdAttribute);
+		} else {
+			result = transposeColumns(exampleSet, rowAttributes, newAttributes, newIdAttribute);
 		}
 
 		// create and deliver example set
 		getProgress().complete();
-		ExampleSet result = builder.withRole(newIdAttribute, Attributes.ID_NAME).build();
 		result.getAnnotations().addAll(exampleSet.getAnnotations());
 		return result;
 	}
 
+	/**
+	 * Transposes the example set by adding one row for every old attribute.
+	 */
+	private ExampleSet transposeRows(ExampleSet exampleSet, Attribute[] rowAttributes, List<Attribute> newAttributes,
+			Attribute newIdAttribute) throws OperatorException {
+		ExampleSetBuilder builder = ExampleSets.from(newAttributes);
+		for (Attribute attribute : rowAttributes) {
+			double[] data = new double[exampleSet.size() + 1];
+			data[0] = newIdAttribute.getMapping().mapString(attribute.getName());
+			int counter = 1;
+			for (Example e : exampleSet) {
+				double currentValue = e.getValue(attribute);
+				data[counter] = currentValue;
+				Attribute newAttribute = newAttributes.get(counter);
+				if (newAttribute.isNominal()) {
+					if (!Double.isNaN(currentValue)) {
+						String currentValueString = currentValue + "";
+						if (attribute.isNominal()) {
+							currentValueString = attribute.getMapping().mapIndex((int) currentValue);
+						}
+						data[counter] = newAttribute.getMapping().mapString(currentValueString);
+					}
+				}
+				counter++;
+			}
+			builder.addRow(data);
+			getProgress().step();
+		}
+		return builder.withRole(newIdAttribute, Attributes.ID_NAME).build();
+	}
+
+	/**
+	 * Transposes the example set tile by tile directly into the columns of a
+	 * {@link ColumnarExampleTable}. Every tile covers {@link #TILE_WIDTH} examples which become
+	 * new columns. The tile is filled row by row, so the values of an old attribute are read for
+	 * consecutive examples and written into the same row of consecutive new columns. The tiles are
+	 * filled in parallel since they write disjoint columns.
+	 */
+	private ExampleSet transposeColumns(final ExampleSet exampleSet, final Attribute[] rowAttributes,
+			final List<Attribute> newAttributes, Attribute newIdAttribute) throws OperatorException {
+		final ColumnarExampleTable table = new ColumnarExampleTable(newAttributes, DataManagement.AUTO, true);
+		table.addBlankRows(rowAttributes.length);
+
+		// the names of the old attributes become the ids
+		final double[] ids = new double[rowAttributes.length];
+		for (int i = 0; i < rowAttributes.length; i++) {
+			ids[i] = newIdAttribute.getMapping().mapString(rowAttributes[i].getName());
+		}
+		table.fillColumn(newIdAttribute, row -> ids[row]);
+
+		final IntToDoubleFunction[] readers = createColumnReaders(exampleSet, rowAttributes);
+		final boolean[] sharedMappings = findSharedMappings(rowAttributes);
+		int size = exampleSet.size();
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int start = 0; start < size; start += TILE_WIDTH) {
+			final int from = start;
+			final int to = Math.min(size, start + TILE_WIDTH);
+			tasks.add(() -> {
+				checkForStop();
+				transposeTile(exampleSet, rowAttributes, readers, sharedMappings, newAttributes, from, to, table);
+				return null;
+			});
+		}
+
+		if (tasks.size() == 1) {
+			try {
+				tasks.get(0).call();
+			} catch (OperatorException | RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				// cannot happen, the tasks throw no other checked exceptions
+				throw new RuntimeException(e.getMessage(), e);
+			}
+		} else if (tasks.size() > 1) {
+			try {
+				Resources.getConcurrencyContext(this).call(tasks);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				} else if (cause instanceof OperatorException) {
+					throw (OperatorException) cause;
+				} else {
+					throw new OperatorException(cause.getMessage(), cause);
+				}
+			}
+		}
+		getProgress().setCompleted(rowAttributes.length);
+
+		table.complete();
+		return table.createExampleSet(null, null, newIdAttribute);
+	}
+
+	/**
+	 * Fills the new columns of the examples in the given range. Nominal values of old attributes
+	 * sharing their mapping with other old attributes are translated once per column.
+	 */
+	private static void transposeTile(ExampleSet exampleSet, Attribute[] rowAttributes, IntToDoubleFunction[] readers,
+			boolean[] sharedMappings, List<Attribute> newAttributes, int from, int to, ColumnarExampleTable table) {
+		int width = to - from;
+		Attribute[] targets = newAttributes.subList(from + 1, to + 1).toArray(new Attribute[width]);
+		boolean nominal = targets[0].isNominal();
+		Example[] examples = new Example[width];
+		for (IntToDoubleFunction reader : readers) {
+			if (reader == null) {
+				for (int k = 0; k < width; k++) {
+					examples[k] = exampleSet.getExample(from + k);
+				}
+				break;
+			}
+		}
+		Map<NominalMapping, int[][]> remappings = new IdentityHashMap<>();
+
+		table.fillColumns(targets, (values, row) -> {
+			Attribute attribute = rowAttributes[row];
+			IntToDoubleFunction reader = readers[row];
+			for (int k = 0; k < width; k++) {
+				values[k] = reader != null ? reader.applyAsDouble(from + k) : examples[k].getValue(attribute);
+			}
+			if (!nominal) {
+				return;
+			}
+			NominalMapping mapping = attribute.isNominal() ? attribute.getMapping() : null;
+			int[][] remapping = sharedMappings[row] ? remappings.computeIfAbsent(mapping, m -> new int[width][]) : null;
+			for (int k = 0; k < width; k++) {
+				double value = values[k];
+				if (Double.isNaN(value)) {
+					continue;
+				}
+				if (remapping != null) {
+					int[] columnRemapping = remapping[k];
+					if (columnRemapping == null) {
+						columnRemapping = new int[mapping.size()];
+						Arrays.fill(columnRemapping, -1);
+						remapping[k] = columnRemapping;
+					}
+					int index = (int) value;
+					if (columnRemapping[index] < 0) {
+						columnRemapping[index] = targets[k].getMapping().mapString(mapping.mapIndex(index));
+					}
+					values[k] = columnRemapping[index];
+				} else {
+					String valueString = mapping != null ? mapping.mapIndex((int) value) : value + "";
+					values[k] = targets[k].getMapping().mapString(valueString);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Creates readers for the raw column values of the attributes if the example set is backed by
+	 * a {@link ColumnarExampleTable}. The reader of an attribute is {@code null} if its values must
+	 * be read from the examples.
+	 */
+	private static IntToDoubleFunction[] createColumnReaders(ExampleSet exampleSet, Attribute[] attributes) {
+		IntToDoubleFunction[] readers = new IntToDoubleFunction[attributes.length];
+		if (exampleSet.getExampleTable() instanceof ColumnarExampleTable) {
+			ColumnarExampleTable sourceTable = (ColumnarExampleTable) exampleSet.getExampleTable();
+			int[] rowMapping = MaterializeDataInMemory.createRowMapping(exampleSet, sourceTable);
+			if (rowMapping != null) {
+				if (MaterializeDataInMemory.isIdentity(rowMapping, sourceTable.size())) {
+					rowMapping = null;
+				}
+				for (int i = 0; i < attributes.length; i++) {
+					if (MaterializeDataInMemory.isPlainColumn(attributes[i], sourceTable)) {
+						readers[i] = sourceTable.getColumnReader(attributes[i], rowMapping);
+					}
+				}
+			}
+		}
+		return readers;
+	}
+
+	/**
+	 * Marks the nominal attributes whose small mapping is shared with another attribute, so that
+	 * their translations into the new mappings can be reused.
+	 */
+	private static boolean[] findSharedMappings(Attribute[] attributes) {
+		Map<NominalMapping, Integer> counts = new IdentityHashMap<>();
+		for (Attribute attribute : attributes) {
+			if (attribute.isNominal()) {
+				counts.merge(attribute.getMapping(), 1, Integer::sum);
+			}
+		}
+		boolean[] shared = new boolean[attributes.length];
+		for (int i = 0; i < attributes.length; i++) {
+			if (attributes[i].isNominal()) {
+				NominalMapping mapping = attributes[i].getMapping();
+				shared[i] = counts.get(mapping) > 1 && mapping.size() <= MAX_SHARED_MAPPING_SIZE;
+			}
+		}
+		return shared;
+	}
+
 	@Override
 	public boolean writesIntoExistingData() {
 		return false;
@@ -27,6 +27,8 @@ import com.rapidminer.example.table.AttributeFactory;
 import com.rapidminer.example.table.DataRow;
 import com.rapidminer.example.table.DataRowFactory;
 import com.rapidminer.example.table.NominalMapping;
+import com.rapidminer.example.table.ViewAttribute;
+import com.rapidminer.example.table.internal.ColumnarExampleTable;
 import com.rapidminer.example.utils.ExampleSetBuilder;
 import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
 import com.rapidminer.example.utils.ExampleSets;
@@ -207,10 +209,27 @@ public class MaterializeDataInMemory extends AbstractDataProcessing {
 		} else {
 			builder.withBlankSize(exampleSet.size());
 			builder.withOptimizationHint(newDataManagement);
+			ColumnarExampleTable sourceTable = null;
+			int[] rowMapping = null;
+			if (exampleSet.getExampleTable() instanceof ColumnarExampleTable) {
+				sourceTable = (ColumnarExampleTable) exampleSet.getExampleTable();
+				rowMapping = createRowMapping(exampleSet, sourceTable);
+				if (rowMapping == null) {
+					sourceTable = null;
+				} else if (isIdentity(rowMapping, sourceTable.size())) {
+					rowMapping = null;
+				}
+			}
 			for (int i = 0; i < sourceAttributes.length; i++) {
 				final int index = i;
-				builder.withColumnFiller(targetAttributes[i],
-						j -> exampleSet.getExample(j).getValue(sourceAttributes[index]));
+				if (sourceTable != null && isPlainColumn(sourceAttributes[i], sourceTable)) {
+					// copy the column values directly without creating examples
+					builder.withColumnFiller(targetAttributes[i],
+							sourceTable.getColumnReader(sourceAttributes[i], rowMapping));
+				} else {
+					builder.withColumnFiller(targetAttributes[i],
+							j -> exampleSet.getExample(j).getValue(sourceAttributes[index]));
+				}
 			}
 		}
 
@@ -223,6 +242,50 @@ public class MaterializeDataInMemory extends AbstractDataProcessing {
 		return createdSet;
 	}
 
+	/**
+	 * Resolves the rows of the underlying table for all examples of a view, e.g. a sorted,
+	 * conditioned or mapped example set, with a single pass over the examples.
+	 *
+	 * @return the table row for each example or {@code null} if an example is not backed by the
+	 *         table
+	 */
+	static int[] createRowMapping(ExampleSet exampleSet, ColumnarExampleTable table) {
+		int[] rowMapping = new int[exampleSet.size()];
+		int i = 0;
+		for (Example example : exampleSet) {
+			int row = table.getRowIndex(example.getDataRow());
+			if (row < 0) {
+				return null;
+			}
+			rowMapping[i++] = row;
+		}
+		return i == rowMapping.length ? rowMapping : null;
+	}
+
+	/**
+	 * Returns whether the row mapping is the identity on a table of the given size.
+	 */
+	static boolean isIdentity(int[] rowMapping, int tableSize) {
+		if (rowMapping.length != tableSize) {
+			return false;
+		}
+		for (int i = 0; i < rowMapping.length; i++) {
+			if (rowMapping[i] != i) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns whether the values of the attribute are the raw values of its table column.
+	 */
+	static boolean isPlainColumn(Attribute attribute, ColumnarExampleTable table) {
+		int tableIndex = attribute.getTableIndex();
+		return !(attribute instanceof ViewAttribute) && attribute.getLastTransformation() == null && tableIndex >= 0
+				&& tableIndex < table.getNumberOfAttributes() && table.getAttribute(tableIndex) != null;
+	}
+
 	/**
 	 * Returns whether the given type is sparse.
 	 */
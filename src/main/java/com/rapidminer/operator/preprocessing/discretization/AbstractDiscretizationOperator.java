@@ -54,6 +54,16 @@ public abstract class AbstractDiscretizationOperator extends PreprocessingOperat
 
 	private static Set<Class<? extends AbstractDiscretizationOperator>> ALL_DISCRETIZATION_OPERATORS = new HashSet<Class<? extends AbstractDiscretizationOperator>>();
 
+	static {
+		// the core operators are registered explicitly, their classes might not be initialized yet
+		// if the operator registry was restored from a snapshot
+		ALL_DISCRETIZATION_OPERATORS.add(BinDiscretization.class);
+		ALL_DISCRETIZATION_OPERATORS.add(FrequencyDiscretization.class);
+		ALL_DISCRETIZATION_OPERATORS.add(MinMaxBinDiscretization.class);
+		ALL_DISCRETIZATION_OPERATORS.add(AbsoluteDiscretization.class);
+		ALL_DISCRETIZATION_OPERATORS.add(UserBasedDiscretization.class);
+	}
+
 	protected static void registerDiscretizationOperator(Class<? extends AbstractDiscretizationOperator> clazz) {
 		ALL_DISCRETIZATION_OPERATORS.add(clazz);
 	}
@@ -19,7 +19,6 @@
 package com.rapidminer.operator.preprocessing.filter;
 
 import com.rapidminer.example.Attribute;
-import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.table.AttributeFactory;
 import com.rapidminer.operator.OperatorDescription;
@@ -39,8 +38,10 @@ import com.rapidminer.parameter.UndefinedParameterError;
 import com.rapidminer.tools.Ontology;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
 
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
@@ -119,12 +120,15 @@ public class AttributeValueReplace extends AbstractValueProcessing {
 		}
 
 		LinkedHashMap<Attribute, Attribute> attributeMap = new LinkedHashMap<>();
+		Map<Attribute, int[]> lookups = new HashMap<>();
 		for (Attribute oldAttribute : exampleSet.getAttributes()) {
 			Attribute newAttribute = AttributeFactory.createAttribute(oldAttribute.getValueType());
 			attributeMap.put(oldAttribute, newAttribute);
 			if (oldAttribute.isNominal() && newAttribute.isNominal()) {
-				for (String value : oldAttribute.getMapping().getValues()) {
-					Matcher whatMatcher = whatPattern.matcher(value);
+				// replace in every value once and remember the index of the replaced value
+				int[] lookup = NominalRemapping.createLookup(oldAttribute);
+				for (int i = 0; i < lookup.length; i++) {
+					Matcher whatMatcher = whatPattern.matcher(oldAttribute.getMapping().mapIndex(i));
 					String replacedValue = null;
 					try {
 						replacedValue = whatMatcher.replaceAll(replaceBy);
@@ -132,9 +136,10 @@ public class AttributeValueReplace extends AbstractValueProcessing {
 						throw new UserError(this, "malformed_regexp_replacement", replaceBy, replaceWhat);
 					}
 					if (replacedValue.length() > 0) {
-						newAttribute.getMapping().mapString(replacedValue);
+						lookup[i] = newAttribute.getMapping().mapString(replacedValue);
 					}
 				}
+				lookups.put(oldAttribute, lookup);
 			}
 		}
 
@@ -144,21 +149,7 @@ public class AttributeValueReplace extends AbstractValueProcessing {
 			if (oldAttribute.isNominal() && newAttribute.isNominal()) {
 				exampleSet.getExampleTable().addAttribute(newAttribute);
 				exampleSet.getAttributes().addRegular(newAttribute);
-				for (Example example : exampleSet) {
-					double value = example.getValue(oldAttribute);
-					if (Double.isNaN(value)) {
-						example.setValue(newAttribute, Double.NaN);
-					} else {
-						String stringValue = oldAttribute.getMapping().mapIndex((int) value);
-						Matcher whatMatcher = whatPattern.matcher(stringValue);
-						String newValue = whatMatcher.replaceAll(replaceBy);
-						if (newValue.length() == 0) {
-							example.setValue(newAttribute, Double.NaN);
-						} else {
-							example.setValue(newAttribute, newAttribute.getMapping().mapString(newValue));
-						}
-					}
-				}
+				NominalRemapping.remap(exampleSet, oldAttribute, newAttribute, lookups.get(oldAttribute));
 				exampleSet.getAttributes().remove(oldAttribute);
 				newAttribute.setName(oldAttribute.getName());
 				newAttribute
@@ -232,12 +232,51 @@ public class AttributeValueSplit extends AbstractDataProcessing {
 		return exampleSet;
 	}
 
+	/**
+	 * Splits each nominal value at most once and caches the parts by mapping index.
+	 */
+	private static final class ValueSplitter {
+
+		private final Attribute attribute;
+		private final Pattern splittingPattern;
+		private final String[][] parts;
+		private String[] missingParts;
+
+		private ValueSplitter(Attribute attribute, Pattern splittingPattern) {
+			this.attribute = attribute;
+			this.splittingPattern = splittingPattern;
+			this.parts = new String[attribute.getMapping().size()][];
+		}
+
+		/**
+		 * Returns the parts of the nominal value of the given example.
+		 */
+		private String[] split(Example example) {
+			double value = example.getValue(attribute);
+			if (Double.isNaN(value)) {
+				if (missingParts == null) {
+					missingParts = splittingPattern.split(Attribute.MISSING_NOMINAL_VALUE);
+				}
+				return missingParts;
+			}
+			int index = (int) value;
+			if (index >= parts.length) {
+				return splittingPattern.split(attribute.getMapping().mapIndex(index));
+			}
+			if (parts[index] == null) {
+				parts[index] = splittingPattern.split(attribute.getMapping().mapIndex(index));
+			}
+			return parts[index];
+		}
+	}
+
 	private void orderedSplit(ExampleSet exampleSet, Attribute attribute, Pattern splittingPattern) {
+		ValueSplitter splitter = new ValueSplitter(attribute, splittingPattern);
+
 		// check for maximum number
 		int maxNumber = 0;
 		for (Example example : exampleSet) {
-			String value = example.getNominalValue(attribute);
-			String[] parts = splittingPattern.split(value);
+			String[] parts = splitter.split(example);
 			maxNumber = Math.max(maxNumber, parts.length);
 		}
 
@@ -250,16 +289,29 @@ public class AttributeValueSplit extends AbstractDataProcessing {
 				exampleSet.getAttributes().addRegular(newAttributes[a]);
 			}
 
-			// fill new attributes with values
+			// fill new attributes with values, the part indices of a value are determined when it
+			// occurs first to keep the order of the new mappings
+			int[][] partIndices = new int[attribute.getMapping().size()][];
 			for (Example example : exampleSet) {
 				int p = 0;
 				// check if value is missing, otherwise a "?" string could be filled in.
-				if (!Double.isNaN(example.getValue(attribute))) {
-					String value = example.getNominalValue(attribute);
-					String[] parts = splittingPattern.split(value);
+				double value = example.getValue(attribute);
+				if (!Double.isNaN(value)) {
+					int index = (int) value;
+					int[] indices = index < partIndices.length ? partIndices[index] : null;
+					if (indices == null) {
+						String[] parts = splitter.split(example);
+						indices = new int[parts.length];
+						for (int i = 0; i < parts.length; i++) {
+							indices[i] = newAttributes[i].getMapping().mapString(parts[i]);
+						}
+						if (index < partIndices.length) {
+							partIndices[index] = indices;
+						}
+					}
 
-					for (String part : parts) {
-						example.setValue(newAttributes[p], newAttributes[p].getMapping().mapString(part));
+					for (int partIndex : indices) {
+						example.setValue(newAttributes[p], partIndex);
 						p++;
 					}
 				}
@@ -274,12 +326,13 @@ public class AttributeValueSplit extends AbstractDataProcessing {
 	}
 
 	private void unorderedSplit(ExampleSet exampleSet, Attribute attribute, Pattern splittingPattern) {
+		ValueSplitter splitter = new ValueSplitter(attribute, splittingPattern);
+
 		// check for maximum number
 		SortedSet<String> allValues = new TreeSet<>();
 		boolean splitFound = false;
 		for (Example example : exampleSet) {
-			String value = example.getNominalValue(attribute);
-			String[] parts = splittingPattern.split(value);
+			String[] parts = splitter.split(example);
 			for (String part : parts) {
 				allValues.add(part);
 			}
@@ -312,8 +365,7 @@ public class AttributeValueSplit extends AbstractDataProcessing {
 					example.setValue(newAttribute, newAttribute.getMapping().mapString("false"));
 				}
 
-				String value = example.getNominalValue(attribute);
-				String[] parts = splittingPattern.split(value);
+				String[] parts = splitter.split(example);
 				// int p = 0;
 				for (String part : parts) {
 					Attribute newAttribute = newAttributes[indexMap.get(part)];
@@ -19,7 +19,6 @@
 package com.rapidminer.operator.preprocessing.filter;
 
 import com.rapidminer.example.Attribute;
-import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.table.AttributeFactory;
 import com.rapidminer.operator.OperatorDescription;
@@ -35,8 +34,10 @@ import com.rapidminer.parameter.UndefinedParameterError;
 import com.rapidminer.tools.Ontology;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
 
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
@@ -68,17 +69,22 @@ public class AttributeValueSubstring extends AbstractValueProcessing {
 		int lastIndex = getParameterAsInt(PARAMETER_LAST);
 
 		LinkedHashMap<Attribute, Attribute> attributeMap = new LinkedHashMap<Attribute, Attribute>();
+		Map<Attribute, int[]> lookups = new HashMap<>();
 		for (Attribute oldAttribute : exampleSet.getAttributes()) {
 			Attribute newAttribute = AttributeFactory.createAttribute(oldAttribute.getValueType());
 			attributeMap.put(oldAttribute, newAttribute);
-			for (String value : oldAttribute.getMapping().getValues()) {
+			// determine the substring of every value once and remember its index
+			int[] lookup = NominalRemapping.createLookup(oldAttribute);
+			for (int i = 0; i < lookup.length; i++) {
+				String stringValue = oldAttribute.getMapping().mapIndex(i);
 				int actualFirst = firstIndex - 1;
-				int actualLast = lastIndex <= value.length() ? lastIndex : value.length();
-				String substringValue = value.substring(actualFirst, actualLast);
+				int actualLast = lastIndex <= stringValue.length() ? lastIndex : stringValue.length();
+				String substringValue = stringValue.substring(actualFirst, actualLast);
 				if (substringValue.length() > 0) {
-					newAttribute.getMapping().mapString(substringValue);
+					lookup[i] = newAttribute.getMapping().mapString(substringValue);
 				}
 			}
+			lookups.put(oldAttribute, lookup);
 		}
 
 		for (Entry<Attribute, Attribute> entry : attributeMap.entrySet()) {
@@ -86,26 +92,7 @@ public class AttributeValueSubstring extends AbstractValueProcessing {
 			Attribute newAttribute = entry.getValue();
 			exampleSet.getExampleTable().addAttribute(newAttribute);
 			exampleSet.getAttributes().addRegular(newAttribute);
-			for (Example example : exampleSet) {
-				double value = example.getValue(oldAttribute);
-				if (Double.isNaN(value)) {
-					example.setValue(newAttribute, Double.NaN);
-				} else {
-					String stringValue = oldAttribute.getMapping().mapIndex((int) value);
-					int actualFirst = firstIndex - 1;
-					int actualLast = lastIndex <= stringValue.length() ? lastIndex : stringValue.length();
-					if (lastIndex < firstIndex) {
-						example.setValue(newAttribute, Double.NaN);
-					} else {
-						String substringValue = stringValue.substring(actualFirst, actualLast);
-						if (substringValue.length() == 0) {
-							example.setValue(newAttribute, Double.NaN);
-						} else {
-							example.setValue(newAttribute, substringValue);
-						}
-					}
-				}
-			}
+			NominalRemapping.remap(exampleSet, oldAttribute, newAttribute, lookups.get(oldAttribute));
 			exampleSet.getAttributes().remove(oldAttribute);
 			newAttribute.setName(oldAttribute.getName());
 		}
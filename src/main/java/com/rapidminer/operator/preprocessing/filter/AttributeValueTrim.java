@@ -19,7 +19,6 @@
 package com.rapidminer.operator.preprocessing.filter;
 
 import com.rapidminer.example.Attribute;
-import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.table.AttributeFactory;
 import com.rapidminer.operator.OperatorDescription;
@@ -32,7 +31,9 @@ import com.rapidminer.operator.preprocessing.AbstractValueProcessing;
 import com.rapidminer.tools.Ontology;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
 
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
@@ -53,15 +54,19 @@ public class AttributeValueTrim extends AbstractValueProcessing {
 	@Override
 	public ExampleSet applyOnFiltered(ExampleSet exampleSet) throws OperatorException {
 		LinkedHashMap<Attribute, Attribute> attributeMap = new LinkedHashMap<Attribute, Attribute>();
+		Map<Attribute, int[]> lookups = new HashMap<>();
 		for (Attribute oldAttribute : exampleSet.getAttributes()) {
 			Attribute newAttribute = AttributeFactory.createAttribute(oldAttribute.getValueType());
 			attributeMap.put(oldAttribute, newAttribute);
-			for (String value : oldAttribute.getMapping().getValues()) {
-				String trimmedValue = value.trim();
+			// trim every value once and remember the index of the trimmed value
+			int[] lookup = NominalRemapping.createLookup(oldAttribute);
+			for (int i = 0; i < lookup.length; i++) {
+				String trimmedValue = oldAttribute.getMapping().mapIndex(i).trim();
 				if (trimmedValue.length() > 0) {
-					newAttribute.getMapping().mapString(trimmedValue);
+					lookup[i] = newAttribute.getMapping().mapString(trimmedValue);
 				}
 			}
+			lookups.put(oldAttribute, lookup);
 		}
 
 		for (Entry<Attribute, Attribute> entry : attributeMap.entrySet()) {
@@ -69,19 +74,7 @@ public class AttributeValueTrim extends AbstractValueProcessing {
 			Attribute newAttribute = entry.getValue();
 			exampleSet.getExampleTable().addAttribute(newAttribute);
 			exampleSet.getAttributes().addRegular(newAttribute);
-			for (Example example : exampleSet) {
-				double value = example.getValue(oldAttribute);
-				if (Double.isNaN(value)) {
-					example.setValue(newAttribute, Double.NaN);
-				} else {
-					String trimmedValue = oldAttribute.getMapping().mapIndex((int) value).trim();
-					if (trimmedValue.length() == 0) {
-						example.setValue(newAttribute, Double.NaN);
-					} else {
-						example.setValue(newAttribute, newAttribute.getMapping().mapString(trimmedValue));
-					}
-				}
-			}
+			NominalRemapping.remap(exampleSet, oldAttribute, newAttribute, lookups.get(oldAttribute));
 			exampleSet.getAttributes().remove(oldAttribute);
 			newAttribute.setName(oldAttribute.getName());
 		}
@@ -0,0 +1,338 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.studio.internal.Resources;
+
+
+/**
+ * Finds duplicate examples with respect to a set of attributes. The first example of every group of
+ * equal examples is kept, all later ones are marked as duplicates.
+ * <p>
+ * In a first pass a 64-bit fingerprint of the attribute values is calculated for every example.
+ * The fingerprints are then distributed by their highest bits to independent shards, each holding
+ * a primitive open addressing table of example indices. Every shard inserts its examples in their
+ * original order, so the first occurrence is kept. The attribute values are only compared if two
+ * fingerprints are equal. Both passes run in parallel if an operator is given and allows it.
+ * <p>
+ * Two examples are equal if all their values are equal. Missing values are equal to each other if
+ * {@code missingsAsDuplicates} is set, otherwise examples with missing values are never duplicates.
+ *
+ * @since 7.6.1
+ */
+final class DuplicateDetector {
+
+	/** Marks examples which are the first of their kind. */
+	static final int NO_DUPLICATE = 0;
+
+	/** Marks examples which are equal to a previous example. */
+	static final int DUPLICATE = 1;
+
+	/** Minimal number of examples for which the work is split into several tasks. */
+	private static final int MIN_EXAMPLES_PER_TASK = 1 << 15;
+
+	/** Number of examples after which is checked whether the process was stopped. */
+	private static final int CHECK_INTERVAL = 1 << 12;
+
+	/** Marks unused slots of the tables. */
+	private static final int EMPTY = -1;
+
+	/** Multiplier used to mix the values into the fingerprint, the golden ratio in 64 bits. */
+	private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+	/** A unit of work which can be interrupted between calls. */
+	private interface Task {
+
+		void run(int from, int to);
+	}
+
+	private final ExampleSet exampleSet;
+	private final Attribute[] attributes;
+	private final boolean missingsAsDuplicates;
+	private final Operator operator;
+
+	/** the fingerprint of every example */
+	private long[] fingerprints;
+
+	/** examples which are not considered because of missing values, or {@code null} */
+	private boolean[] ignored;
+
+	/**
+	 * Creates a new detector.
+	 *
+	 * @param exampleSet
+	 *            the example set to search for duplicates
+	 * @param attributes
+	 *            the attributes to compare
+	 * @param missingsAsDuplicates
+	 *            whether missing values are equal to each other
+	 * @param operator
+	 *            the operator used for parallel execution and stop checks, can be {@code null}
+	 */
+	DuplicateDetector(ExampleSet exampleSet, Attribute[] attributes, boolean missingsAsDuplicates, Operator operator) {
+		this.exampleSet = exampleSet;
+		this.attributes = attributes;
+		this.missingsAsDuplicates = missingsAsDuplicates;
+		this.operator = operator;
+	}
+
+	/**
+	 * Marks every example either as {@link #NO_DUPLICATE} or {@link #DUPLICATE}.
+	 *
+	 * @return the partition of the examples
+	 * @throws ProcessStoppedException
+	 *             if the process was stopped
+	 */
+	int[] findDuplicates() throws ProcessStoppedException {
+		final int size = exampleSet.size();
+		final int[] partition = new int[size];
+		if (size < 2) {
+			return partition;
+		}
+
+		fingerprints = new long[size];
+		if (!missingsAsDuplicates) {
+			ignored = new boolean[size];
+		}
+		int numberOfTasks = getNumberOfTasks(size);
+		boolean parallel = numberOfTasks > 1;
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfTasks);
+		for (int i = 0; i < numberOfTasks; i++) {
+			tasks.add(createTask(getStart(size, numberOfTasks, i), getStart(size, numberOfTasks, i + 1), parallel,
+					new Task() {
+
+						@Override
+						public void run(int from, int to) {
+							calculateFingerprints(from, to);
+						}
+					}));
+		}
+		run(tasks);
+
+		// every shard passes over all examples in their order and inserts its own ones
+		final int shardBits = 31 - Integer.numberOfLeadingZeros(numberOfTasks);
+		int numberOfShards = 1 << shardBits;
+		int[] shardSizes = countShardSizes(shardBits, numberOfShards);
+		tasks = new ArrayList<>(numberOfShards);
+		for (int i = 0; i < numberOfShards; i++) {
+			final int shard = i;
+			final int[] table = new int[getTableSize(shardSizes[shard])];
+			Arrays.fill(table, EMPTY);
+			tasks.add(createTask(0, size, parallel, new Task() {
+
+				@Override
+				public void run(int from, int to) {
+					insert(from, to, shard, shardBits, table, partition);
+				}
+			}));
+		}
+		run(tasks);
+		return partition;
+	}
+
+	/**
+	 * Calculates the fingerprints of the examples in the given range.
+	 */
+	private void calculateFingerprints(int from, int to) {
+		for (int i = from; i < to; i++) {
+			Example example = exampleSet.getExample(i);
+			long hash = 0;
+			for (Attribute attribute : attributes) {
+				double value = example.getValue(attribute);
+				if (ignored != null && Double.isNaN(value)) {
+					ignored[i] = true;
+					break;
+				}
+				hash = (hash ^ Double.doubleToLongBits(value)) * MULTIPLIER;
+				hash ^= hash >>> 29;
+			}
+			fingerprints[i] = mix(hash);
+		}
+	}
+
+	/**
+	 * Inserts the examples of the given range which belong to the shard into its table. Examples
+	 * whose values are already contained are marked as duplicates.
+	 */
+	private void insert(int from, int to, int shard, int shardBits, int[] table, int[] partition) {
+		int mask = table.length - 1;
+		for (int i = from; i < to; i++) {
+			if (ignored != null && ignored[i]) {
+				continue;
+			}
+			long fingerprint = fingerprints[i];
+			if (getShard(fingerprint, shardBits) != shard) {
+				continue;
+			}
+			int slot = (int) fingerprint & mask;
+			while (true) {
+				int other = table[slot];
+				if (other == EMPTY) {
+					table[slot] = i;
+					break;
+				}
+				if (fingerprints[other] == fingerprint && isEqual(i, other)) {
+					partition[i] = DUPLICATE;
+					break;
+				}
+				slot = slot + 1 & mask;
+			}
+		}
+	}
+
+	/**
+	 * Counts the examples per shard.
+	 */
+	private int[] countShardSizes(int shardBits, int numberOfShards) {
+		int[] sizes = new int[numberOfShards];
+		for (int i = 0; i < fingerprints.length; i++) {
+			if (ignored == null || !ignored[i]) {
+				sizes[getShard(fingerprints[i], shardBits)]++;
+			}
+		}
+		return sizes;
+	}
+
+	/**
+	 * Compares the values of the two examples.
+	 */
+	private boolean isEqual(int first, int second) {
+		Example firstExample = exampleSet.getExample(first);
+		Example secondExample = exampleSet.getExample(second);
+		for (Attribute attribute : attributes) {
+			// missing values can only occur here if they are treated as duplicates
+			if (Double.doubleToLongBits(firstExample.getValue(attribute)) != Double
+					.doubleToLongBits(secondExample.getValue(attribute))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the shard of the fingerprint, determined by its highest bits.
+	 */
+	private static int getShard(long fingerprint, int shardBits) {
+		return shardBits == 0 ? 0 : (int) (fingerprint >>> 64 - shardBits);
+	}
+
+	/**
+	 * Returns the smallest power of two which holds the given number of entries with a load factor
+	 * of at most 0.75.
+	 */
+	private static int getTableSize(int entries) {
+		long minimalSize = Math.max(2, (long) entries * 4 / 3 + 1);
+		long size = Long.highestOneBit(minimalSize - 1) << 1;
+		if (size > 1 << 30) {
+			throw new IllegalArgumentException("Too many examples: " + entries);
+		}
+		return (int) size;
+	}
+
+	/**
+	 * Final mixing step of MurmurHash3 distributing the entropy to all bits.
+	 */
+	private static long mix(long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	private int getNumberOfTasks(int size) {
+		if (operator == null || size < 2 * MIN_EXAMPLES_PER_TASK) {
+			return 1;
+		}
+		int parallelism = Resources.getConcurrencyContext(operator).getParallelism();
+		return Math.max(1, Math.min(parallelism, size / MIN_EXAMPLES_PER_TASK));
+	}
+
+	private static int getStart(int size, int numberOfTasks, int task) {
+		return (int) ((long) size * task / numberOfTasks);
+	}
+
+	/**
+	 * Wraps the task into a callable which processes the range in chunks and checks for stop in
+	 * between.
+	 */
+	private Callable<Void> createTask(final int start, final int end, boolean parallel, final Task task) {
+		final ConcurrencyContext context = parallel ? Resources.getConcurrencyContext(operator) : null;
+		return new Callable<Void>() {
+
+			@Override
+			public Void call() throws ProcessStoppedException {
+				for (int from = start; from < end; from += CHECK_INTERVAL) {
+					if (context != null) {
+						context.checkStatus();
+					} else if (operator != null) {
+						operator.checkForStop();
+					}
+					task.run(from, Math.min(end, from + CHECK_INTERVAL));
+				}
+				return null;
+			}
+		};
+	}
+
+	/**
+	 * Runs the tasks sequentially if there is only one, otherwise in the concurrency context of the
+	 * operator.
+	 */
+	private void run(List<Callable<Void>> tasks) throws ProcessStoppedException {
+		if (tasks.size() == 1) {
+			try {
+				tasks.get(0).call();
+			} catch (ProcessStoppedException | RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				// cannot happen, the tasks throw no other checked exceptions
+				throw new RuntimeException(e.getMessage(), e);
+			}
+			return;
+		}
+		try {
+			Resources.getConcurrencyContext(operator).call(tasks);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else if (cause instanceof ProcessStoppedException) {
+				throw (ProcessStoppedException) cause;
+			} else {
+				throw new RuntimeException(cause.getMessage(), cause);
+			}
+		}
+	}
+}
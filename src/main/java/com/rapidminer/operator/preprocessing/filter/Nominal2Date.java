@@ -265,6 +265,31 @@ public class Nominal2Date extends AbstractDateDataProcessing {
 		return metaData;
 	}
 
+	/**
+	 * Parses the value and returns the date in milliseconds.
+	 *
+	 * @throws UserError
+	 *             if the value cannot be parsed
+	 */
+	private double parseDate(String value, SimpleDateFormat parser, int dateType, String dateFormat,
+			Attribute oldAttribute, int row) throws UserError {
+		Date date = null;
+		try {
+			date = parser.parse(value);
+		} catch (ParseException e1) {
+			throw new UserError(this, 931, dateFormat, oldAttribute.getName(), row,
+					e1.getMessage().replaceAll("\"", "\'"));
+		}
+		if (dateType == TIME) {
+			Calendar calendar = Calendar.getInstance();
+			calendar.setTime(date);
+			calendar.set(1970, 1, 1);
+			return calendar.getTimeInMillis();
+		} else {
+			return date.getTime();
+		}
+	}
+
 	@Override
 	public ExampleSet apply(ExampleSet exampleSet) throws OperatorException {
 		String attributeName = getParameterAsString(PARAMETER_ATTRIBUTE_NAME);
@@ -302,27 +327,29 @@ public class Nominal2Date extends AbstractDateDataProcessing {
 
 		parser.setTimeZone(Tools.getTimeZone(getParameterAsInt(PARAMETER_TIME_ZONE)));
 
+		// nominal values are parsed once per distinct value when they first occur, so that parse
+		// errors are still reported for the first row containing the value
+		double[] parsedValues = null;
+		if (oldAttribute.isNominal()) {
+			parsedValues = new double[oldAttribute.getMapping().size()];
+			Arrays.fill(parsedValues, Double.NaN);
+		}
+
 		int row = 1;
 		for (Example e : exampleSet) {
-			if (Double.isNaN(e.getValue(oldAttribute))) {
+			double value = e.getValue(oldAttribute);
+			if (Double.isNaN(value)) {
 				e.setValue(newAttribute, Double.NaN);
-			} else {
-				String oldValue = e.getValueAsString(oldAttribute);
-				Date date = null;
-				try {
-					date = parser.parse(oldValue);
-				} catch (ParseException e1) {
-					throw new UserError(this, 931, dateFormat, oldAttribute.getName(), row, e1.getMessage().replaceAll("\"",
-							"\'"));
-				}
-				if (dateType == TIME) {
-					Calendar calendar = Calendar.getInstance();
-					calendar.setTime(date);
-					calendar.set(1970, 1, 1);
-					e.setValue(newAttribute, calendar.getTimeInMillis());
-				} else {
-					e.setValue(newAttribute, date.getTime());
+			} else if (parsedValues != null && (int) value < parsedValues.length) {
+				int index = (int) value;
+				if (Double.isNaN(parsedValues[index])) {
+					parsedValues[index] = parseDate(e.getValueAsString(oldAttribute), parser, dateType, dateFormat,
+							oldAttribute, row);
 				}
+				e.setValue(newAttribute, parsedValues[index]);
+			} else {
+				e.setValue(newAttribute,
+						parseDate(e.getValueAsString(oldAttribute), parser, dateType, dateFormat, oldAttribute, row));
 			}
 			row++;
 		}
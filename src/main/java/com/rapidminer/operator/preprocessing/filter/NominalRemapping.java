@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.filter;
+
+import java.util.Arrays;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+
+
+/**
+ * Helper for operators which transform each value of a nominal attribute independently of the row
+ * it occurs in. The transformation is evaluated once per value of the {@link
+ * com.rapidminer.example.table.NominalMapping NominalMapping} and stored in a lookup table from
+ * the source to the target mapping indices, the rows are then remapped by this table.
+ *
+ * @since 7.6.1
+ */
+final class NominalRemapping {
+
+	/** Marks source values which are mapped to a missing target value. */
+	static final int MISSING = -1;
+
+	private NominalRemapping() {}
+
+	/**
+	 * Creates a lookup table for the given source attribute with all entries set to
+	 * {@link #MISSING}.
+	 */
+	static int[] createLookup(Attribute source) {
+		int[] lookup = new int[source.getMapping().size()];
+		Arrays.fill(lookup, MISSING);
+		return lookup;
+	}
+
+	/**
+	 * Sets the target value of every example to the target index looked up for the source index.
+	 * Missing source values and source indices mapped to {@link #MISSING} result in missing target
+	 * values.
+	 *
+	 * @param exampleSet
+	 *            the example set to remap
+	 * @param source
+	 *            the nominal source attribute
+	 * @param target
+	 *            the nominal target attribute, must already be part of the example table
+	 * @param lookup
+	 *            the target index for each source index
+	 */
+	static void remap(ExampleSet exampleSet, Attribute source, Attribute target, int[] lookup) {
+		for (Example example : exampleSet) {
+			double value = example.getValue(source);
+			int index = Double.isNaN(value) ? MISSING : lookup[(int) value];
+			example.setValue(target, index == MISSING ? Double.NaN : index);
+		}
+	}
+}
@@ -269,12 +269,35 @@ public class NominalToNumericModel extends PreprocessingModel {
 
 		// copying values
 		for (Attribute nominalAttribute : nominalAttributes) {
+			List<Attribute> targets = targetAttributesFromSources.get(nominalAttribute);
+			String[] targetNames = new String[targets.size()];
+			for (int t = 0; t < targetNames.length; t++) {
+				targetNames[t] = targets.get(t).getName();
+			}
+
+			// the codes only depend on the nominal value, so they are determined once per value of
+			// the mapping, the last entry holds the codes of missing values
+			int mappingSize = nominalAttribute.getMapping().size();
+			double[][] codes = new double[mappingSize + 1][targetNames.length];
+			boolean[][] unexpected = new boolean[mappingSize + 1][targetNames.length];
+			for (int i = 0; i <= mappingSize; i++) {
+				double sourceValue = i < mappingSize ? i : Double.NaN;
+				for (int t = 0; t < targetNames.length; t++) {
+					codes[i][t] = getCodedValue(targetNames[t], sourceValue);
+					unexpected[i][t] = codes[i][t] == 0 && isUnexpectedValue(targetNames[t], sourceValue);
+				}
+			}
+
 			for (Example example : exampleSet) {
 				double sourceValue = example.getValue(nominalAttribute);
-				for (Attribute targetAttribute : targetAttributesFromSources.get(nominalAttribute)) {
-					example.setValue(targetAttribute, getValue(targetAttribute, sourceValue));
+				int index = Double.isNaN(sourceValue) ? mappingSize : (int) sourceValue;
+				for (int t = 0; t < targetNames.length; t++) {
+					example.setValue(targets.get(t), codes[index][t]);
+					if (unexpected[index][t]) {
+						handleUnexpectedValue(targetNames[t]);
+					}
 				}
-				if (++progressCompletedCounter % 10_000 == 0) {
+				if (progress != null && ++progressCompletedCounter % 10_000 == 0) {
 					progress.setCompleted((int) (1000.0d * progressCompletedCounter / progressTotal));
 				}
 			}
@@ -383,43 +406,51 @@ public class NominalToNumericModel extends PreprocessingModel {
 
 	@Override
 	public double getValue(Attribute targetAttribute, double value) {
-		if (codingType == NominalToNumeric.DUMMY_CODING) {
+		if (codingType == NominalToNumeric.DUMMY_CODING || codingType == NominalToNumeric.EFFECT_CODING) {
 			String targetName = targetAttribute.getName();
-			Double oneValue = attributeTo1ValueMap.get(targetName);
-			if (oneValue != null && oneValue == value) {
-				return 1;
-			} else {
-				// check if the value has been present in the training set
-				if (unexpectedValueHandling != NominalToNumeric.ALL_ZEROES_AND_NO_WARNING
-						&& !isValueInTrainingSet(targetAttribute, value)) {
-					handleUnexpectedValue(targetName);
-				}
-
-				return 0;
+			double codedValue = getCodedValue(targetName, value);
+			// check if the value has been present in the training set
+			if (codedValue == 0 && isUnexpectedValue(targetName, value)) {
+				handleUnexpectedValue(targetName);
 			}
-		} else if (codingType == NominalToNumeric.EFFECT_CODING) {
-			String targetName = targetAttribute.getName();
+			return codedValue;
+		} else if (codingType == NominalToNumeric.INTEGERS_CODING) {
+			return value;
+		} else {
+			assert false; // unsupported coding
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Returns the dummy or effect code of the given source value for the target attribute with
+	 * the given name. Unexpected values are coded as 0 but not handled.
+	 */
+	private double getCodedValue(String targetName, double value) {
+		if (codingType == NominalToNumeric.DUMMY_CODING) {
+			Double oneValue = attributeTo1ValueMap.get(targetName);
+			return oneValue != null && oneValue == value ? 1 : 0;
+		} else {
 			Pair<Double, Double> storedValue = attributeToValuesMap.get(targetName);
 			if (storedValue.getFirst() == value) {
 				return 1;
 			} else if (storedValue.getSecond() == value) {
 				return -1;
 			} else {
-				// check if the value has been present in the training set
-				if (unexpectedValueHandling != NominalToNumeric.ALL_ZEROES_AND_NO_WARNING
-						&& !isValueInTrainingSet(targetAttribute, value)) {
-					handleUnexpectedValue(targetName);
-				}
 				return 0;
 			}
-		} else if (codingType == NominalToNumeric.INTEGERS_CODING) {
-			return value;
-		} else {
-			assert false; // unsupported coding
-			return Double.NaN;
 		}
 	}
 
+	/**
+	 * Returns whether the given source value must be handled as unexpected value for the target
+	 * attribute with the given name.
+	 */
+	private boolean isUnexpectedValue(String targetName, double value) {
+		return unexpectedValueHandling != NominalToNumeric.ALL_ZEROES_AND_NO_WARNING
+				&& !isValueInTrainingSet(targetName, value);
+	}
+
 	private int handleUnexpectedValue(String targetName) {
 		switch (unexpectedValueHandling) {
 			case NominalToNumeric.ALL_ZEROES_AND_WARNING:
@@ -434,8 +465,8 @@ public class NominalToNumericModel extends PreprocessingModel {
 		}
 	}
 
-	private boolean isValueInTrainingSet(Attribute targetAttribute, double value) {
-		String sourceAttribute = targetAttributeToSourceAttributeMap.get(targetAttribute.getName());
+	private boolean isValueInTrainingSet(String targetName, double value) {
+		String sourceAttribute = targetAttributeToSourceAttributeMap.get(targetName);
 		if (sourceAttribute != null) {
 			List<String> trainingValues = attributeToAllNominalValues.get(sourceAttribute);
 			if (trainingValues != null) {
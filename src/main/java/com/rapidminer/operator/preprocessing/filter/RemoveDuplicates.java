@@ -19,7 +19,6 @@
 package com.rapidminer.operator.preprocessing.filter;
 
 import com.rapidminer.example.Attribute;
-import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.set.Partition;
 import com.rapidminer.example.set.SplittedExampleSet;
@@ -38,12 +37,14 @@ import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.UndefinedParameterError;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
 
-import java.util.*;
+import java.util.List;
+import java.util.Set;
 
 
 /**
  * This operator removed duplicate examples from an example set by comparing all examples with each
- * other on basis of the specified attributes.
+ * other on basis of the specified attributes. The first example of every group of equal examples
+ * is kept. The comparison is done by the {@link DuplicateDetector}.
  * 
  * @author Ingo Mierswa, Sebastian Land, Zoltan Prekopcsak
  */
@@ -53,10 +54,10 @@ public class RemoveDuplicates extends AbstractDataProcessing {
 	private static final String PARAMETER_TREAT_MISSING_VALUES_AS_DUPLICATES = "treat_missing_values_as_duplicates";
 
 	/** The first of their kind */
-	private static final int NO_DUPLICATE = 0;
+	private static final int NO_DUPLICATE = DuplicateDetector.NO_DUPLICATE;
 
 	/** Duplicate entries are marked with this */
-	private static final int DUPLICATE = 1;
+	private static final int DUPLICATE = DuplicateDetector.DUPLICATE;
 
 	/** The duplicates */
 	private final OutputPort duplicateSetOutput = getOutputPorts().createPort("duplicates");
@@ -91,8 +92,6 @@ public class RemoveDuplicates extends AbstractDataProcessing {
 
 	@Override
 	public ExampleSet apply(ExampleSet exampleSet) throws OperatorException {
-		// partition: 0 select, 1 deselect
-		int[] partition = new int[exampleSet.size()];
 		Set<Attribute> compareAttributes = subsetSelector.getAttributeSubset(exampleSet, false);
 
 		// if set is empty: Nothing can be done!
@@ -100,55 +99,10 @@ public class RemoveDuplicates extends AbstractDataProcessing {
 			throw new UserError(this, 153, 1, 0);
 		}
 
-		// Creating hash buckets and check in case of collision if the example is equal to any other
-		// in the bucket
-		HashMap<Integer, List<Integer>> buckets = new HashMap<>();
 		boolean missingsAsDuplicates = getParameterAsBoolean(PARAMETER_TREAT_MISSING_VALUES_AS_DUPLICATES);
-		for (int i = 0; i < exampleSet.size(); i++) {
-			this.checkForStop();
-			Example example = exampleSet.getExample(i);
-			int hash = 0;
-			for (Attribute attribute : compareAttributes) {
-				long bits = Double.doubleToLongBits(example.getValue(attribute));
-				hash = hash * 31 + (int) (bits ^ bits >>> 32);
-			}
-			if (!buckets.containsKey(hash)) {
-				buckets.put(hash, Collections.singletonList(Integer.valueOf(i)));
-			} else {
-				List<Integer> bucketExampleIndicesList = buckets.get(hash);
-				for (Integer exampleIndex : bucketExampleIndicesList) {
-					boolean equal = true;
-					Example compExample = exampleSet.getExample(exampleIndex);
-					for (Attribute attribute : compareAttributes) {
-						if (missingsAsDuplicates) {
-							if (Double.isNaN(example.getValue(attribute)) && Double.isNaN(compExample.getValue(attribute))) {
-								continue;
-							}
-						}
-						if (example.getValue(attribute) != compExample.getValue(attribute)) {
-							equal = false;
-							break;
-						}
-					}
-					if (equal) {
-						partition[i] = DUPLICATE;
-					}
-				}
-				if (partition[i] == 0) { // then it is unequal with same hash value
-					if (bucketExampleIndicesList.size() == 1) {
-						// in case of a collision we have to replace the singeltonList by an
-						// extendible collection.
-						List<Integer> newList = new ArrayList<>(bucketExampleIndicesList);
-						newList.add(Integer.valueOf(i));
-						buckets.put(hash, newList);
-					} else {
-						// in this case we already have put in an ArrayList, because we had to store
-						// a second example on a previous collision
-						bucketExampleIndicesList.add(i);
-					}
-				}
-			}
-		}
+		int[] partition = new DuplicateDetector(exampleSet,
+				compareAttributes.toArray(new Attribute[compareAttributes.size()]), missingsAsDuplicates, this)
+						.findDuplicates();
 
 		SplittedExampleSet result = new SplittedExampleSet(exampleSet, new Partition(partition, 2));
 
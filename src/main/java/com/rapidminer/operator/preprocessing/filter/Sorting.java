@@ -30,8 +30,12 @@ import com.rapidminer.operator.preprocessing.AbstractDataProcessing;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeAttribute;
 import com.rapidminer.parameter.ParameterTypeCategory;
+import com.rapidminer.parameter.ParameterTypeList;
+import com.rapidminer.parameter.ParameterTypeStringCategory;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
 
+import java.util.Arrays;
 import java.util.List;
 
 
@@ -41,6 +45,11 @@ import java.util.List;
  * sorted according to the natural order of the values of this attribute either in increasing or in
  * decreasing direction.
  * </p>
+ * <p>
+ * Additional sorting attributes, each with its own direction, can be specified to order examples
+ * with equal values. Examples which are equal with respect to all sorting attributes keep their
+ * original order.
+ * </p>
  *
  * @author Ingo Mierswa
  */
@@ -55,11 +64,20 @@ public class Sorting extends AbstractDataProcessing {
 	/** The parameter name for &quot;Indicates the direction of the sorting.&quot; */
 	public static final String PARAMETER_SORTING_DIRECTION = "sorting_direction";
 
+	/**
+	 * The parameter name for &quot;Additional attributes and directions used for examples with equal
+	 * values.&quot;
+	 */
+	public static final String PARAMETER_ADDITIONAL_SORTING_ATTRIBUTES = "additional_sorting_attributes";
+
 	public Sorting(OperatorDescription description) {
 		super(description);
 
 		getExampleSetInputPort().addPrecondition(new AttributeSetPrecondition(getExampleSetInputPort(),
 				AttributeSetPrecondition.getAttributesByParameter(this, PARAMETER_ATTRIBUTE_NAME)));
+		getExampleSetInputPort().addPrecondition(new AttributeSetPrecondition(getExampleSetInputPort(),
+				AttributeSetPrecondition.getAttributesByParameterListEntry(this, PARAMETER_ADDITIONAL_SORTING_ATTRIBUTES,
+						0)));
 	}
 
 	@Override
@@ -71,7 +89,25 @@ public class Sorting extends AbstractDataProcessing {
 			throw new AttributeNotFoundError(this, PARAMETER_ATTRIBUTE_NAME, getParameterAsString(PARAMETER_ATTRIBUTE_NAME));
 		}
 
-		ExampleSet result = new SortedExampleSet(exampleSet, sortingAttribute, sortingDirection, getProgress());
+		List<String[]> additionalKeys = getParameterList(PARAMETER_ADDITIONAL_SORTING_ATTRIBUTES);
+		Attribute[] sortingAttributes = new Attribute[additionalKeys.size() + 1];
+		int[] sortingDirections = new int[sortingAttributes.length];
+		sortingAttributes[0] = sortingAttribute;
+		sortingDirections[0] = sortingDirection;
+		for (int i = 0; i < additionalKeys.size(); i++) {
+			String[] key = additionalKeys.get(i);
+			sortingAttributes[i + 1] = exampleSet.getAttributes().get(key[0]);
+			if (sortingAttributes[i + 1] == null) {
+				throw new AttributeNotFoundError(this, PARAMETER_ADDITIONAL_SORTING_ATTRIBUTES, key[0]);
+			}
+			sortingDirections[i + 1] = Arrays.asList(SortedExampleSet.SORTING_DIRECTIONS).indexOf(key[1]);
+			if (sortingDirections[i + 1] < 0) {
+				sortingDirections[i + 1] = SortedExampleSet.INCREASING;
+			}
+		}
+
+		ExampleSet result = new SortedExampleSet(exampleSet, sortingAttributes, sortingDirections,
+				Resources.getConcurrencyContext(this), getProgress());
 
 		return result;
 	}
@@ -84,6 +120,15 @@ public class Sorting extends AbstractDataProcessing {
 				false));
 		types.add(new ParameterTypeCategory(PARAMETER_SORTING_DIRECTION, "Indicates the direction of the sorting.",
 				SortedExampleSet.SORTING_DIRECTIONS, SortedExampleSet.INCREASING, false));
+		types.add(new ParameterTypeList(PARAMETER_ADDITIONAL_SORTING_ATTRIBUTES,
+				"Additional attributes and directions used for examples with equal values.",
+				new ParameterTypeAttribute(PARAMETER_ATTRIBUTE_NAME,
+						"The attribute used for sorting examples with equal values of the previous attributes.",
+						getExampleSetInputPort(), false),
+				new ParameterTypeStringCategory(PARAMETER_SORTING_DIRECTION, "The direction of the sorting.",
+						SortedExampleSet.SORTING_DIRECTIONS, SortedExampleSet.SORTING_DIRECTIONS[SortedExampleSet.INCREASING],
+						false),
+				false));
 		return types;
 	}
 
@@ -118,7 +118,7 @@ public class DBOutlierOperator extends AbstractOutlierDetection {
 		sr.resetOutlierStatus();
 
 		// perform the DB(p,d)-Outlier search
-		sr.allRadiusSearch(d, p, kindOfDistance);
+		sr.allRadiusSearch(d, p, kindOfDistance, this);
 
 		// create a new special attribute for the exampleSet
 		Attribute outlierAttribute = AttributeFactory.createAttribute(Attributes.OUTLIER_NAME, Ontology.BINOMINAL);
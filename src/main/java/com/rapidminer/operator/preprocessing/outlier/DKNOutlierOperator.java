@@ -27,6 +27,7 @@ import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.annotation.ResourceConsumptionEstimator;
 import com.rapidminer.parameter.ParameterType;
+import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.ParameterTypeCategory;
 import com.rapidminer.parameter.ParameterTypeInt;
 import com.rapidminer.tools.Ontology;
@@ -81,6 +82,12 @@ public class DKNOutlierOperator extends AbstractOutlierDetection {
 	 * &quot;
 	 */
 	public static final String PARAMETER_DISTANCE_FUNCTION = "distance_function";
+
+	/**
+	 * The parameter name for &quot;Indicates if the neighbourhood of each object should be
+	 * restricted to exactly k objects.&quot;
+	 */
+	public static final String PARAMETER_APPROXIMATE_NEIGHBORS = "approximate_neighbors";
 	private static final String[] distanceFunctionList = { "euclidian distance", "squared distance", "cosine distance",
 			"inverted cosine distance", "angle" };
 
@@ -132,7 +139,7 @@ public class DKNOutlierOperator extends AbstractOutlierDetection {
 		sr.resetOutlierStatus();
 
 		// find all Containers for the DKN first
-		sr.findAllKdContainers(kindOfDistance, this);
+		sr.findAllKdContainers(kindOfDistance, k, getParameterAsBoolean(PARAMETER_APPROXIMATE_NEIGHBORS), this);
 
 		// perform the outlier search
 		sr.computeDKN(k, n, this);
@@ -171,6 +178,9 @@ public class DKNOutlierOperator extends AbstractOutlierDetection {
 		types.add(new ParameterTypeCategory(PARAMETER_DISTANCE_FUNCTION,
 				"choose which distance function will be used for calculating " + "the distance between two objects",
 				distanceFunctionList, 0, false));
+		types.add(new ParameterTypeBoolean(PARAMETER_APPROXIMATE_NEIGHBORS,
+				"Indicates if the neighbourhood of each object should be restricted to exactly k objects even if further objects have the same distance. This is faster for data with many duplicates, but results may differ slightly.",
+				false, true));
 		return types;
 	}
 
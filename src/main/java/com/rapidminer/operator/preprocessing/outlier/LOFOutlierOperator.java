@@ -31,6 +31,7 @@ import com.rapidminer.operator.ports.metadata.ExampleSetMetaData;
 import com.rapidminer.operator.ports.metadata.MetaData;
 import com.rapidminer.operator.ports.metadata.SetRelation;
 import com.rapidminer.parameter.ParameterType;
+import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.ParameterTypeCategory;
 import com.rapidminer.parameter.ParameterTypeInt;
 import com.rapidminer.tools.Ontology;
@@ -101,6 +102,12 @@ public class LOFOutlierOperator extends AbstractOutlierDetection {
 	 * &quot;
 	 */
 	public static final String PARAMETER_DISTANCE_FUNCTION = "distance_function";
+
+	/**
+	 * The parameter name for &quot;Indicates if the neighbourhood of each object should be
+	 * restricted to exactly k objects.&quot;
+	 */
+	public static final String PARAMETER_APPROXIMATE_NEIGHBORS = "approximate_neighbors";
 	private static final String[] distanceFunctionList = { "euclidian distance", "squared distance", "cosine distance",
 			"inverted cosine distance", "angle" };
 
@@ -156,7 +163,8 @@ public class LOFOutlierOperator extends AbstractOutlierDetection {
 		sr.resetOutlierStatus();
 
 		// find all Containers for the LOF first
-		sr.findAllKdContainers(kindOfDistance, this);
+		sr.findAllKdContainers(kindOfDistance, minPtsUpperBound, getParameterAsBoolean(PARAMETER_APPROXIMATE_NEIGHBORS),
+				this);
 
 		// perform the LOF-Outlier search
 		sr.computeLOF(minPtsLowerBound, minPtsUpperBound, this);
@@ -201,6 +209,9 @@ public class LOFOutlierOperator extends AbstractOutlierDetection {
 				distanceFunctionList, 0);
 		type.setExpert(false);
 		types.add(type);
+		types.add(new ParameterTypeBoolean(PARAMETER_APPROXIMATE_NEIGHBORS,
+				"Indicates if the neighbourhood of each object should be restricted to exactly k objects even if further objects have the same distance. This is faster for data with many duplicates, but results may differ slightly.",
+				false, true));
 		return types;
 	}
 
@@ -0,0 +1,507 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.outlier;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.container.Tupel;
+import com.rapidminer.tools.math.container.BallTree;
+import com.rapidminer.tools.math.container.GeometricDataCollection;
+import com.rapidminer.tools.math.container.KDTree;
+import com.rapidminer.tools.math.similarity.numerical.EuclideanDistance;
+
+
+/**
+ * The k-nearest neighbour graph of the objects of a {@link SearchSpace}. For every object it holds
+ * all other objects whose distance is at most the k-distance of the object, i.e. the k nearest
+ * neighbours together with all objects tied with the k-th neighbour, sorted by increasing distance
+ * and, for equal distances, by their index. This is exactly the part of the k-distance containers
+ * the LOF and D^k_n outlier searches look at.
+ * <p>
+ * For euclidian and squared distances on low dimensional data without missing values the
+ * neighbours are retrieved from a {@link KDTree} and verified with the exact distance function of
+ * the {@link SearchObject}s. Otherwise every object is compared with all others. Both ways give
+ * identical neighbourhoods. In approximate mode the neighbourhoods are cut at exactly k neighbours
+ * ignoring further ties, and high dimensional data is searched with a {@link BallTree}.
+ * <p>
+ * The objects are processed in parallel if an operator is given and allows it.
+ *
+ * @since 7.6.1
+ */
+public class NearestNeighborGraph {
+
+	/** Kind of distance for the euclidian distance, see {@link SearchObject#getDistance}. */
+	static final int EUCLIDIAN = 0;
+
+	/** Kind of distance for the squared euclidian distance. */
+	static final int SQUARED = 1;
+
+	/** Kind of distance for the cosine. */
+	static final int COSINE = 2;
+
+	/** Kind of distance for one minus the cosine. */
+	static final int INV_COSINE = 3;
+
+	/** Kind of distance for the angle in radiant. */
+	static final int ANGLE_RADIANT = 4;
+
+	/** Maximal number of dimensions for which a kd-tree is used in exact mode. */
+	private static final int KD_TREE_MAX_DIMENSIONS = 10;
+
+	/** Minimal number of objects for which a tree is built. */
+	private static final int MIN_TREE_SIZE = 1024;
+
+	/** Relative tolerance between the tree distances and the exact distances. */
+	private static final double TREE_TOLERANCE = 1e-9;
+
+	/** Number of objects whose neighbours are searched between two stop checks. */
+	private static final int CHECK_INTERVAL = 64;
+
+	/** Minimal number of objects per parallel task. */
+	private static final int MIN_OBJECTS_PER_TASK = 256;
+
+	private final int[][] neighbors;
+
+	private final double[][] distances;
+
+	private NearestNeighborGraph(int[][] neighbors, double[][] distances) {
+		this.neighbors = neighbors;
+		this.distances = distances;
+	}
+
+	/** Returns the number of objects. */
+	public int size() {
+		return neighbors.length;
+	}
+
+	/**
+	 * Returns the indices of the neighbours of the object sorted by distance. In exact mode
+	 * {@code null} is returned if the distance of the object to another object is undefined, e.g.
+	 * the angle to a zero vector, because there is no well defined order of the neighbours then.
+	 */
+	public int[] getNeighbors(int object) {
+		return neighbors[object];
+	}
+
+	/** Returns the distances to the neighbours in the order of {@link #getNeighbors(int)}. */
+	public double[] getDistances(int object) {
+		return distances[object];
+	}
+
+	/**
+	 * Builds the k-nearest neighbour graph of all objects in the search space.
+	 *
+	 * @param space
+	 *            the search space
+	 * @param k
+	 *            the number of neighbours
+	 * @param kindOfDistance
+	 *            the kind of distance as in {@link SearchObject#getDistance(SearchObject, int)}
+	 * @param approximate
+	 *            if {@code true}, ties with the k-th neighbour are ignored and trees are used for
+	 *            high dimensional data as well
+	 * @param operator
+	 *            the executing operator used for stop checks and parallelization, can be
+	 *            {@code null}
+	 * @throws ProcessStoppedException
+	 *             if the process was stopped
+	 */
+	public static NearestNeighborGraph create(SearchSpace space, int k, int kindOfDistance, boolean approximate,
+			Operator operator) throws ProcessStoppedException {
+		final double[][] points = getPoints(space);
+		final int size = points.length;
+		final int[][] neighbors = new int[size][];
+		final double[][] distances = new double[size][];
+		if (k <= 0 || size == 0) {
+			for (int i = 0; i < size; i++) {
+				neighbors[i] = new int[0];
+				distances[i] = new double[0];
+			}
+			return new NearestNeighborGraph(neighbors, distances);
+		}
+
+		final GeometricDataCollection<Integer> tree = createTree(points, kindOfDistance, approximate);
+		final Searcher searcher = new Searcher() {
+
+			@Override
+			public void search(int from, int to) {
+				int[] candidates = tree == null ? new int[size] : null;
+				double[] candidateDistances = tree == null ? new double[size] : null;
+				for (int i = from; i < to; i++) {
+					if (tree == null) {
+						searchAll(points, i, k, kindOfDistance, approximate, candidates, candidateDistances, neighbors,
+								distances);
+					} else {
+						searchTree(tree, points, i, k, kindOfDistance, approximate, neighbors, distances);
+					}
+				}
+			}
+		};
+		run(size, searcher, operator);
+		return new NearestNeighborGraph(neighbors, distances);
+	}
+
+	/**
+	 * Determines the DB(p,D)-outliers of the search space according to Knorr and Ng. An object is
+	 * an outlier if at most a proportion of 1-p of all objects, including the object itself, is
+	 * closer than D. The comparisons of an object stop as soon as it is known not to be an
+	 * outlier.
+	 *
+	 * @return the outlier status of every object
+	 * @throws ProcessStoppedException
+	 *             if the process was stopped
+	 */
+	public static boolean[] findDistanceOutliers(SearchSpace space, final double d, double p, final int kindOfDistance,
+			Operator operator) throws ProcessStoppedException {
+		final double[][] points = getPoints(space);
+		final int size = points.length;
+		final long m = Math.round(size * (1 - p));
+		final boolean[] outliers = new boolean[size];
+		run(size, new Searcher() {
+
+			@Override
+			public void search(int from, int to) {
+				for (int i = from; i < to; i++) {
+					int counter = 0;
+					for (int j = 0; j < size; j++) {
+						if (distance(points[i], points[j], kindOfDistance) < d) {
+							counter++;
+							if (counter > m) {
+								break;
+							}
+						}
+					}
+					outliers[i] = counter <= m;
+				}
+			}
+		}, operator);
+		return outliers;
+	}
+
+	/**
+	 * Returns the distance between the two vectors exactly as calculated by
+	 * {@link SearchObject#getDistance(SearchObject, int)}. Unknown kinds of distance are treated as
+	 * euclidian distance.
+	 */
+	static double distance(double[] x, double[] y, int kindOfDistance) {
+		int dimensions = Math.min(x.length, y.length);
+		if (kindOfDistance != COSINE && kindOfDistance != INV_COSINE && kindOfDistance != ANGLE_RADIANT) {
+			double distance = 0;
+			for (int i = 0; i < dimensions; i++) {
+				distance = distance + Math.pow(x[i] - y[i], 2);
+			}
+			return kindOfDistance == SQUARED ? distance : Math.sqrt(distance);
+		}
+
+		double sumOfProducts = 0;
+		double sumXSquared = 0;
+		double sumYSquared = 0;
+		for (int i = 0; i < dimensions; i++) {
+			sumOfProducts = sumOfProducts + x[i] * y[i];
+			sumXSquared = sumXSquared + Math.pow(x[i], 2);
+			sumYSquared = sumYSquared + Math.pow(y[i], 2);
+		}
+		double cosine = sumOfProducts / (Math.sqrt(sumXSquared) * Math.sqrt(sumYSquared));
+		if (kindOfDistance == COSINE) {
+			return cosine;
+		} else if (kindOfDistance == INV_COSINE) {
+			return 1 - cosine;
+		} else {
+			return Math.acos(cosine);
+		}
+	}
+
+	/** Searches the neighbours of all objects in a range. */
+	private interface Searcher {
+
+		void search(int from, int to);
+	}
+
+	/**
+	 * Runs the searcher over all objects in chunks, in parallel if the operator allows it.
+	 */
+	private static void run(int size, final Searcher searcher, Operator operator) throws ProcessStoppedException {
+		if (operator == null || size < 2 * MIN_OBJECTS_PER_TASK
+				|| Resources.getConcurrencyContext(operator).getParallelism() <= 1) {
+			for (int from = 0; from < size; from += CHECK_INTERVAL) {
+				if (operator != null) {
+					operator.checkForStop();
+				}
+				searcher.search(from, Math.min(size, from + CHECK_INTERVAL));
+			}
+			return;
+		}
+
+		final ConcurrencyContext context = Resources.getConcurrencyContext(operator);
+		int numberOfTasks = Math.min(context.getParallelism() * 4, size / MIN_OBJECTS_PER_TASK);
+		int objectsPerTask = size / numberOfTasks;
+		int rest = size % numberOfTasks;
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfTasks);
+		int end = 0;
+		for (int i = 0; i < numberOfTasks; i++) {
+			final int start = end;
+			end = start + objectsPerTask + (i < rest ? 1 : 0);
+			final int taskEnd = end;
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					for (int from = start; from < taskEnd; from += CHECK_INTERVAL) {
+						context.checkStatus();
+						searcher.search(from, Math.min(taskEnd, from + CHECK_INTERVAL));
+					}
+					return null;
+				}
+			});
+		}
+
+		try {
+			context.call(tasks);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new RuntimeException(cause.getMessage(), cause);
+			}
+		}
+	}
+
+	/** Copies the vectors of all objects. */
+	private static double[][] getPoints(SearchSpace space) {
+		int size = space.getNumberOfObjects();
+		double[][] points = new double[size][];
+		for (int i = 0; i < size; i++) {
+			SearchObject object = space.getObject(i);
+			double[] point = new double[object.getDimensions()];
+			for (int j = 0; j < point.length; j++) {
+				point[j] = object.getVektor(j);
+			}
+			points[i] = point;
+		}
+		return points;
+	}
+
+	/**
+	 * Builds a tree over all points if the distance is euclidian and the data is large enough,
+	 * otherwise returns {@code null}. Points are inserted in a random order to keep the kd-tree
+	 * balanced for sorted data.
+	 */
+	private static GeometricDataCollection<Integer> createTree(double[][] points, int kindOfDistance,
+			boolean approximate) {
+		if (kindOfDistance != EUCLIDIAN && kindOfDistance != SQUARED || points.length < MIN_TREE_SIZE) {
+			return null;
+		}
+		int dimensions = points[0].length;
+		if (dimensions == 0 || !approximate && dimensions > KD_TREE_MAX_DIMENSIONS) {
+			return null;
+		}
+		for (double[] point : points) {
+			if (point.length != dimensions) {
+				return null;
+			}
+			for (double value : point) {
+				if (Double.isNaN(value) || Double.isInfinite(value)) {
+					// the tree distance ignores missing values and cannot order infinite ones
+					return null;
+				}
+			}
+		}
+
+		GeometricDataCollection<Integer> tree = dimensions > KD_TREE_MAX_DIMENSIONS
+				? new BallTree<Integer>(new EuclideanDistance()) : new KDTree<Integer>(dimensions, new EuclideanDistance());
+		int[] order = new int[points.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Random random = new Random(points.length);
+		for (int i = order.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int tmp = order[i];
+			order[i] = order[j];
+			order[j] = tmp;
+		}
+		for (int index : order) {
+			tree.add(points[index], index);
+		}
+		return tree;
+	}
+
+	/** Compares all other objects with the given one. */
+	private static void searchAll(double[][] points, int object, int k, int kindOfDistance, boolean approximate,
+			int[] candidates, double[] candidateDistances, int[][] neighbors, double[][] distances) {
+		double[] point = points[object];
+		int count = 0;
+		boolean undefined = false;
+		for (int j = 0; j < points.length; j++) {
+			if (j != object) {
+				double distance = distance(point, points[j], kindOfDistance);
+				undefined |= Double.isNaN(distance);
+				candidates[count] = j;
+				candidateDistances[count++] = distance;
+			}
+		}
+		if (undefined && !approximate) {
+			// the containers of undefined distances depend on the insertion order, see getNeighbors
+			neighbors[object] = null;
+			distances[object] = null;
+			return;
+		}
+		select(candidates, candidateDistances, count, k, approximate, object, neighbors, distances);
+	}
+
+	/**
+	 * Retrieves the neighbour candidates from the tree. The query is enlarged until all objects
+	 * within the tree distance of the (k+1)-th nearest object, which might be the object itself,
+	 * are found, so that no tie is missed. The candidates are verified with the exact distance.
+	 */
+	private static void searchTree(GeometricDataCollection<Integer> tree, double[][] points, int object, int k,
+			int kindOfDistance, boolean approximate, int[][] neighbors, double[][] distances) {
+		int size = points.length;
+		int query = Math.min(size, k + 1);
+		Collection<Tupel<Double, Integer>> result = tree.getNearestValueDistances(query, points[object]);
+		double radius = maximumDistance(result) * (1 + TREE_TOLERANCE);
+		if (!approximate) {
+			while (query < size && maximumDistance(result) <= radius) {
+				query = (int) Math.min(size, 2L * query);
+				result = tree.getNearestValueDistances(query, points[object]);
+			}
+		}
+
+		int[] candidates = new int[result.size()];
+		int count = 0;
+		for (Tupel<Double, Integer> tupel : result) {
+			int index = tupel.getSecond();
+			if (index != object && tupel.getFirst() <= radius) {
+				candidates[count++] = index;
+			}
+		}
+		Arrays.sort(candidates, 0, count);
+		double[] candidateDistances = new double[count];
+		for (int i = 0; i < count; i++) {
+			candidateDistances[i] = distance(points[object], points[candidates[i]], kindOfDistance);
+		}
+		select(candidates, candidateDistances, count, k, approximate, object, neighbors, distances);
+	}
+
+	private static double maximumDistance(Collection<Tupel<Double, Integer>> result) {
+		double maximum = 0;
+		for (Tupel<Double, Integer> tupel : result) {
+			maximum = Math.max(maximum, tupel.getFirst());
+		}
+		return maximum;
+	}
+
+	/**
+	 * Selects the neighbours among the candidates, which must be sorted by index. All candidates
+	 * not farther away than the k-th nearest are kept, or exactly k in approximate mode.
+	 */
+	private static void select(int[] candidates, final double[] candidateDistances, int count, int k,
+			boolean approximate, int object, int[][] neighbors, double[][] distances) {
+		int selected = count;
+		Integer[] order = new Integer[count];
+		if (count > k) {
+			double kDistance = kthSmallest(candidateDistances, count, k);
+			selected = 0;
+			for (int i = 0; i < count; i++) {
+				if (Double.compare(candidateDistances[i], kDistance) <= 0) {
+					order[selected++] = i;
+				}
+			}
+		} else {
+			for (int i = 0; i < count; i++) {
+				order[i] = i;
+			}
+		}
+
+		// stable sort keeps the index order for equal distances
+		Arrays.sort(order, 0, selected, new Comparator<Integer>() {
+
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return Double.compare(candidateDistances[o1], candidateDistances[o2]);
+			}
+		});
+		if (approximate) {
+			selected = Math.min(selected, k);
+		}
+		int[] objectNeighbors = new int[selected];
+		double[] objectDistances = new double[selected];
+		for (int i = 0; i < selected; i++) {
+			objectNeighbors[i] = candidates[order[i]];
+			objectDistances[i] = candidateDistances[order[i]];
+		}
+		neighbors[object] = objectNeighbors;
+		distances[object] = objectDistances;
+	}
+
+	/** Returns the k-th smallest of the first count values using a bounded max-heap. */
+	private static double kthSmallest(double[] values, int count, int k) {
+		double[] heap = new double[k];
+		int heapSize = 0;
+		for (int i = 0; i < count; i++) {
+			double value = values[i];
+			if (heapSize < k) {
+				// sift up
+				int position = heapSize++;
+				while (position > 0) {
+					int parent = (position - 1) / 2;
+					if (Double.compare(heap[parent], value) >= 0) {
+						break;
+					}
+					heap[position] = heap[parent];
+					position = parent;
+				}
+				heap[position] = value;
+			} else if (Double.compare(value, heap[0]) < 0) {
+				// replace the maximum and sift down
+				int position = 0;
+				while (true) {
+					int child = 2 * position + 1;
+					if (child >= k) {
+						break;
+					}
+					if (child + 1 < k && Double.compare(heap[child + 1], heap[child]) > 0) {
+						child++;
+					}
+					if (Double.compare(heap[child], value) <= 0) {
+						break;
+					}
+					heap[position] = heap[child];
+					position = child;
+				}
+				heap[position] = value;
+			}
+		}
+		return heap[0];
+	}
+}
@@ -402,68 +402,7 @@ public class SearchObject {
 	 * @param kindOfDistance
 	 */
 	public double getDistance(SearchObject toObject, int kindOfDistance) {
-		double distance = 0;
-		int SQUARED = 1; // squared value of the euclidian distance will be used
-		int EUCLIDIAN = 0; // euclidian (metric) distance will be used
-		int COSINE = 2; // cosine distance will be used
-		int INV_COSINE = 3; // 1-cos distance will be used
-		int ANGLE_RADIANT = 4; // the angle in radiant will be used
-
-		// check if the distance modifier is properly set, if not, fall back to euclidian as default
-		// and log to STDOUT
-		if (kindOfDistance != COSINE && kindOfDistance != SQUARED && kindOfDistance != INV_COSINE
-				&& kindOfDistance != ANGLE_RADIANT) {
-			if (kindOfDistance != EUCLIDIAN) {
-				kindOfDistance = EUCLIDIAN;
-			}
-		}
-
-		// check, if the dimensions of the objects are ok (the same) and computation can go ahead,
-		// else fix this first
-		int dim_of_toObject = toObject.getDimensions();
-		int minimumDimensions = 0;
-		minimumDimensions = Math.min(this.dimensions, dim_of_toObject); // if both are equal, we can
-																		// take the equal min
-
-		// if the euclidian distance is sought for, compute and return
-		if (kindOfDistance == EUCLIDIAN || kindOfDistance == SQUARED) {
-			for (int i = 0; i < minimumDimensions; i++) {
-				distance = distance + Math.pow((this.getVektor(i) - toObject.getVektor(i)), 2);
-			}
-			// if distance is squared, simply return the distance value, else for euclidian return
-			// the square-root value
-			return (kindOfDistance == SQUARED ? distance : Math.sqrt(distance));
-		}
-
-		/*
-		 * else, we assume that cosine distance or inverted cosine distance or angle in radiant is
-		 * sought for and compute this and return
-		 */
-		double sumOfProductsxiyi = 0;
-		double sumxisquared = 0;
-		double sumyisquared = 0;
-
-		for (int i = 0; i < minimumDimensions; i++) {
-			sumOfProductsxiyi = sumOfProductsxiyi + (this.getVektor(i) * toObject.getVektor(i));
-			sumxisquared = sumxisquared + Math.pow(this.getVektor(i), 2);
-			sumyisquared = sumyisquared + Math.pow(toObject.getVektor(i), 2);
-		}
-
-		distance = sumOfProductsxiyi / (Math.sqrt(sumxisquared) * Math.sqrt(sumyisquared));
-
-		if (kindOfDistance == COSINE) {
-			return distance; // if COSINE, simply return the computed cosine distance
-		} else {
-			if (kindOfDistance == INV_COSINE) {
-				return 1 - distance; // if inverted COSINE, return 1-cos (equals sin) of the cosine
-										// distance
-			} else {
-				return Math.acos(distance); // if the Angle is looked for, return it using arcus
-											// cosine function
-				// according to JAVA Math-Class documentation, the result of acos() is in radiant!
-			}
-		}
-
+		return NearestNeighborGraph.distance(this.vector, toObject.vector, kindOfDistance);
 	}
 
 	/**
@@ -406,6 +406,25 @@ public class SearchSpace {
 		}
 	}
 
+	/**
+	 * Determines the DB(p,d)-outlier status of all objects like {@link #allRadiusSearch(double,
+	 * double, int)}, but compares the objects in parallel if the operator allows it.
+	 *
+	 * @param operator
+	 *            if this is NOT <code>null</code>, will be used to check for stop and to run the
+	 *            search in parallel
+	 * @throws ProcessStoppedException
+	 *             only if the the operator parameter was not <code>null</code> and a stop request
+	 *             was issued
+	 */
+	public void allRadiusSearch(double d, double p, int kindOfDistance, Operator operator)
+			throws ProcessStoppedException {
+		boolean[] outliers = NearestNeighborGraph.findDistanceOutliers(this, d, p, kindOfDistance, operator);
+		for (int i = 0; i < outliers.length; i++) {
+			this.listOfObjects.elementAt(i).setOutlierStatus(outliers[i]);
+		}
+	}
+
 	/**
 	 * Returns the average distances measures for the objects in the SearchSpace, calculating:
 	 * 
@@ -621,6 +640,56 @@ public class SearchSpace {
 		}
 	}
 
+	/**
+	 * Fills the k distance containers for all objects in the Search Room, but only up to the
+	 * k-distance of each object. The containers are derived from a {@link NearestNeighborGraph},
+	 * so the objects are not compared pairwise if an index can be used and the neighbours are
+	 * searched in parallel if the operator allows it. As {@link #computeLOF(int, int, Operator)}
+	 * and {@link #computeDKN(int, int, Operator)} never look beyond the k-distance, their results
+	 * are the same as with {@link #findAllKdContainers(int, Operator)} unless approximate mode is
+	 * used. Objects with undefined distances to other objects are handled by
+	 * {@link #findKdistanceContainers(SearchObject, int)}.
+	 *
+	 * @param kindOfDistance
+	 * @param k
+	 *            the maximal k which will be used afterwards
+	 * @param approximate
+	 *            if <code>true</code>, at most k objects are stored even if further objects have
+	 *            the same distance as the k-th nearest
+	 * @param operator
+	 *            if this is NOT <code>null</code>, will be used to check for stop and to run the
+	 *            search in parallel
+	 * @throws ProcessStoppedException
+	 *             only if the the operator parameter was not <code>null</code> and a stop request
+	 *             was issued
+	 */
+	public void findAllKdContainers(int kindOfDistance, int k, boolean approximate, Operator operator)
+			throws ProcessStoppedException {
+		NearestNeighborGraph graph = NearestNeighborGraph.create(this, k, kindOfDistance, approximate, operator);
+		for (int i = 0; i < this.getNumberOfObjects(); i++) {
+			if (operator != null && i % 1000 == 0) {
+				operator.checkForStop();
+			}
+			SearchObject so = this.listOfObjects.elementAt(i);
+			int[] neighbors = graph.getNeighbors(i);
+			if (neighbors == null) {
+				// undefined distances, use the sequential container search
+				findKdistanceContainers(so, kindOfDistance);
+				continue;
+			}
+			double[] distances = graph.getDistances(i);
+			KdistanceContainer container = null;
+			for (int j = 0; j < neighbors.length; j++) {
+				// neighbours are sorted by distance, so equal distances are adjacent
+				if (container == null || container.getDistance() != distances[j]) {
+					container = new KdistanceContainer(so);
+					so.addKdContainer(container);
+				}
+				container.addObject(this.listOfObjects.elementAt(neighbors[j]), distances[j]);
+			}
+		}
+	}
+
 	/**
 	 * <p>
 	 * Some deeper magic to compute all the LOFs for the objects in the searchroom up to MinPtsUB =
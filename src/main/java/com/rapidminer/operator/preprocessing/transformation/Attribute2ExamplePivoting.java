@@ -19,12 +19,9 @@
 package com.rapidminer.operator.preprocessing.transformation;
 
 import com.rapidminer.example.Attribute;
-import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.table.AttributeFactory;
 import com.rapidminer.example.table.NominalMapping;
-import com.rapidminer.example.utils.ExampleSetBuilder;
-import com.rapidminer.example.utils.ExampleSets;
 import com.rapidminer.operator.*;
 import com.rapidminer.operator.ProcessSetupError.Severity;
 import com.rapidminer.operator.annotation.ResourceConsumptionEstimator;
@@ -258,67 +255,10 @@ public class Attribute2ExamplePivoting extends ExampleSetTransformationOperator
 			}
 		}
 
-		ExampleSetBuilder builder = ExampleSets.from(newAttributes);
-		boolean keepMissings = getParameterAsBoolean(PARAMETER_KEEP_MISSINGS);
-		int counter = 0;
-		for (Example example : exampleSet) {
-
-			// report progress every 100 examples
-			++counter;
-			if (counter % 100 == 0) {
-				getProgress().step(100);
-				counter = 0;
-			}
-
-			int l = 0;
-			for (int k = 0; k < seriesLength; k++) {
-				l++;
-				double[] data = new double[newAttributes.size()];
-				for (int i = 0; i < data.length; i++) {
-					data[i] = Double.NaN;
-				}
-
-				// set constant attribute values
-				for (int i = 0; i < constantAttributes.size(); i++) {
-					data[i] = example.getValue(constantAttributes.get(i));
-				}
-
-				// set index attribute value
-				if (!createNominalIndex) {
-					data[data.length - numberOfSeries - 1] = l;
-				} else {
-					data[data.length - numberOfSeries - 1] = indexAttribute.getMapping()
-							.mapString(seriesAttributes.get(0).get(k).getName());
-				}
-
-				// set series attribute values
-				boolean onlyMissings = true;
-				for (int i = 0; i < numberOfSeries; i++) {
-					Attribute seriesAttribute = seriesAttributes.get(i).get(k);
-					double seriesValue = example.getValue(seriesAttribute);
-					double newValue = Double.NaN;
-					if (!Double.isNaN(seriesValue)) {
-						if (seriesAttribute.isNominal()) {
-							newValue = newAttributes.get(newAttributes.size() - numberOfSeries + i).getMapping()
-									.mapString(seriesAttribute.getMapping().mapIndex((int) seriesValue));
-						} else {
-							newValue = seriesValue;
-						}
-						onlyMissings = false;
-					}
-					data[data.length - numberOfSeries + i] = newValue;
-				}
-				checkForStop();
-				if (!keepMissings && onlyMissings) {
-					continue;
-				} else {
-					builder.addRow(data);
-				}
-			}
-		}
-
 		// create and deliver example set
-		ExampleSet result = builder.build();
+		boolean keepMissings = getParameterAsBoolean(PARAMETER_KEEP_MISSINGS);
+		ExampleSet result = new PivotingEngine(this).unpivot(exampleSet, constantAttributes, seriesAttributes,
+				newAttributes, indexAttribute, createNominalIndex, keepMissings);
 		result.recalculateAllAttributeStatistics();
 		result.getAnnotations().addAll(exampleSet.getAnnotations());
 
@@ -20,14 +20,9 @@ package com.rapidminer.operator.preprocessing.transformation;
 
 import com.rapidminer.RapidMiner;
 import com.rapidminer.example.Attribute;
-import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.set.SortedExampleSet;
 import com.rapidminer.example.table.AttributeFactory;
-import com.rapidminer.example.table.DataRow;
-import com.rapidminer.example.table.DataRowFactory;
-import com.rapidminer.example.utils.ExampleSetBuilder;
-import com.rapidminer.example.utils.ExampleSets;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.UserError;
@@ -37,6 +32,7 @@ import com.rapidminer.operator.generator.ExampleSetGenerator;
 import com.rapidminer.operator.ports.metadata.*;
 import com.rapidminer.parameter.*;
 import com.rapidminer.parameter.conditions.BooleanParameterCondition;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.Ontology;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
 import com.rapidminer.tools.ParameterService;
@@ -44,9 +40,11 @@ import com.rapidminer.tools.math.function.aggregation.AbstractAggregationFunctio
 import com.rapidminer.tools.math.function.aggregation.AggregationFunction;
 import com.rapidminer.tools.parameter.internal.DataManagementParameterHelper;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Vector;
+import java.util.Map;
 
 
 /**
@@ -177,73 +175,44 @@ public class Example2AttributePivoting extends ExampleSetTransformationOperator
 
 		Attribute weightAttribute = sourceExampleSet.getAttributes().getWeight();
 
-		SortedExampleSet exampleSet = new SortedExampleSet(
-				new SortedExampleSet(sourceExampleSet, indexAttribute, SortedExampleSet.INCREASING), groupAttribute,
-				SortedExampleSet.INCREASING);
-		// identify static or dynamic attributes and record index values
-		List<String> indexValues = new Vector<>();
-		Attribute[] attributes = exampleSet.getAttributes().createRegularAttributeArray();
-		boolean[] constantAttributeValues = new boolean[attributes.length];
-		for (int i = 0; i < constantAttributeValues.length; i++) {
-			constantAttributeValues[i] = true;
-		}
-
 		// init operator progress
 		getProgress().setTotal(100);
 
-		Example lastExample = null;
-		int counter = 0;
-		for (Example example : exampleSet) {
-			if (lastExample != null) {
-				if (lastExample.getValue(groupAttribute) == example.getValue(groupAttribute)) {
-					for (int i = 0; i < attributes.length; i++) {
-						Attribute attribute = attributes[i];
-						if (Double.isNaN(lastExample.getValue(attribute)) && Double.isNaN(example.getValue(attribute))) {
-							continue;
-						}
-						if (lastExample.getValue(attribute) != example.getValue(attribute)) {
-							constantAttributeValues[i] = false;
-							continue;
-						}
-					}
-				}
-			}
-			String indexValue = example.getValueAsString(indexAttribute);
-			if (!indexValues.contains(indexValue)) {
-				indexValues.add(indexValue);
-			}
-			lastExample = example;
+		SortedExampleSet exampleSet = new SortedExampleSet(sourceExampleSet,
+				new Attribute[] { groupAttribute, indexAttribute },
+				new int[] { SortedExampleSet.INCREASING, SortedExampleSet.INCREASING },
+				Resources.getConcurrencyContext(this), null);
 
-			if (++counter % 100 == 0) {
-				getProgress().setCompleted((int) ((float) counter / exampleSet.size() * 30));
-			}
-		}
+		// identify static or dynamic attributes and record index values
+		PivotingEngine engine = new PivotingEngine(this);
+		Attribute[] attributes = exampleSet.getAttributes().createRegularAttributeArray();
+		PivotingEngine.Groups groups = engine.discoverGroups(exampleSet, attributes, groupAttribute, indexAttribute);
 		getProgress().setCompleted(30);
+
+		List<String> indexValues = new ArrayList<>(groups.indexValues);
 		if (!indexAttribute.isNominal()) {
 			Collections.sort(indexValues);
 		}
-		List<String> attributeNames = new Vector<>();
-		List<Attribute> newAttributes = new Vector<>();
+		List<Attribute> newAttributes = new ArrayList<>();
+		Map<String, Integer> positions = new HashMap<>();
 		Attribute newWeightAttribute = null;
 		if (weightAttribute != null && considerWeights) {
 			newWeightAttribute = AttributeFactory.createAttribute(weightAttribute.getName(), Ontology.REAL);
-			newAttributes.add(newWeightAttribute);
-			attributeNames.add(newWeightAttribute.getName());
+			addAttribute(newWeightAttribute, newAttributes, positions);
 		}
 		for (int i = 0; i < attributes.length; i++) {
 			Attribute attribute = attributes[i];
 			if (!attribute.equals(indexAttribute)) {
-				if (skipConstantAttributes && constantAttributeValues[i] || attribute.equals(groupAttribute)) {
-					newAttributes.add(AttributeFactory.createAttribute(attribute.getName(), attribute.getValueType()));
-					attributeNames.add(attribute.getName());
+				if (skipConstantAttributes && groups.constant[i] || attribute.equals(groupAttribute)) {
+					addAttribute(AttributeFactory.createAttribute(attribute.getName(), attribute.getValueType()),
+							newAttributes, positions);
 				} else {
 					for (String indexValue : indexValues) {
 						String newAttributeName = attribute.getName() + "_" + indexValue;
 						Attribute newAttribute = AttributeFactory.createAttribute(newAttributeName,
 								attribute.getValueType());
 						newAttribute.setDefault(Double.NaN);
-						newAttributes.add(newAttribute);
-						attributeNames.add(newAttributeName);
+						addAttribute(newAttribute, newAttributes, positions);
 					}
 				}
 			}
@@ -251,105 +220,50 @@ public class Example2AttributePivoting extends ExampleSetTransformationOperator
 				getProgress().setCompleted((int) ((float) i / attributes.length * 10 + 30));
 			}
 		}
-		getProgress().setCompleted(40);
-
-		ExampleSetBuilder builder = ExampleSets.from(newAttributes);
 
-		int datamanagement = getParameterAsInt(PARAMETER_DATAMANAGEMENT);
-		if (!Boolean.parseBoolean(ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT))) {
-			datamanagement = DataRowFactory.TYPE_DOUBLE_ARRAY;
-			builder.withOptimizationHint(DataManagementParameterHelper.getSelectedDataManagement(this));
-		}
-
-		AggregationFunction aggregationFunction = null;
-		if (newWeightAttribute != null && considerWeights) {
-			try {
-				aggregationFunction = AbstractAggregationFunction.createAggregationFunction(weightAggregationFunctionIndex);
-			} catch (Exception e) {
-				throw new UserError(this, 904,
-						AbstractAggregationFunction.KNOWN_AGGREGATION_FUNCTION_NAMES[weightAggregationFunctionIndex],
-						e.getMessage());
-			}
-		}
-		double lastGroupValue = Double.NaN;
-
-		DataRowFactory dataRowFactory = new DataRowFactory(datamanagement, '.');
-		DataRow dataRow = dataRowFactory.create(newAttributes.size());
-		if (exampleSet.size() > 0) {
-			// if the original example set has a size = 0 we would create a size = 1 new example set
-			// without the size check here
-			for (Attribute newAttribute : newAttributes) {
-				dataRow.set(newAttribute, Double.NaN);
+		// determine the new attribute receiving the values of every attribute for every index value
+		int[][] targets = new int[attributes.length][groups.indexValues.size()];
+		for (int i = 0; i < attributes.length; i++) {
+			Attribute attribute = attributes[i];
+			boolean keptOnce = skipConstantAttributes && groups.constant[i] || attribute.equals(groupAttribute);
+			for (int id = 0; id < targets[i].length; id++) {
+				String newAttributeName = keptOnce ? attribute.getName()
+						: attribute.getName() + "_" + groups.indexValues.get(id);
+				Integer position = positions.get(newAttributeName);
+				// the weight is aggregated separately
+				targets[i][id] = position == null || newAttributes.get(position) == newWeightAttribute ? -1 : position;
 			}
 		}
+		getProgress().setCompleted(40);
 
-		counter = 0;
-		for (Example example : exampleSet) {
-			double currentGroupValue = example.getValue(groupAttribute);
-			if (!Double.isNaN(lastGroupValue) && lastGroupValue != currentGroupValue) {
-				if (aggregationFunction != null) {
-					dataRow.set(newWeightAttribute, aggregationFunction.getValue());
-					try {
-						aggregationFunction = AbstractAggregationFunction
-								.createAggregationFunction(weightAggregationFunctionIndex);
-					} catch (Exception e) {
-						throw new UserError(this, 904,
-								AbstractAggregationFunction.KNOWN_AGGREGATION_FUNCTION_NAMES[weightAggregationFunctionIndex],
-								e.getMessage());
-					}
-				}
-				builder.addDataRow(dataRow);
-				dataRow = dataRowFactory.create(newAttributes.size());
-				for (Attribute newAttribute : newAttributes) {
-					dataRow.set(newAttribute, Double.NaN);
-				}
-			}
-			if (aggregationFunction != null) {
-				aggregationFunction.update(example.getWeight());
-			}
-			for (int i = 0; i < attributes.length; i++) {
-				Attribute attribute = attributes[i];
-				int newIndex = -1;
-				if (skipConstantAttributes && constantAttributeValues[i] || attribute.equals(groupAttribute)) {
-					newIndex = attributeNames.indexOf(attribute.getName());
-				} else {
-					String newAttributeName = attribute.getName() + "_" + example.getValueAsString(indexAttribute);
-					newIndex = attributeNames.indexOf(newAttributeName);
+		double[] weights = null;
+		if (newWeightAttribute != null) {
+			weights = new double[groups.size()];
+			for (int group = 0; group < weights.length; group++) {
+				AggregationFunction aggregationFunction;
+				try {
+					aggregationFunction = AbstractAggregationFunction.createAggregationFunction(weightAggregationFunctionIndex);
+				} catch (Exception e) {
+					throw new UserError(this, 904,
+							AbstractAggregationFunction.KNOWN_AGGREGATION_FUNCTION_NAMES[weightAggregationFunctionIndex],
+							e.getMessage());
 				}
-				if (newIndex != -1) {
-					Attribute newAttribute = newAttributes.get(newIndex);
-					double value = example.getValue(attribute);
-					if (Double.isNaN(value)) {
-						dataRow.set(newAttribute, Double.NaN);
-					} else {
-						if (attribute.isNominal()) {
-							dataRow.set(newAttribute,
-									newAttribute.getMapping().mapString(attribute.getMapping().mapIndex((int) value)));
-						} else {
-							dataRow.set(newAttribute, value);
-						}
-					}
+				for (int i = groups.starts[group]; i < groups.starts[group + 1]; i++) {
+					aggregationFunction.update(exampleSet.getExample(i).getWeight());
 				}
+				weights[group] = aggregationFunction.getValue();
 			}
-			lastGroupValue = currentGroupValue;
-
-			// report progress every 100 examples
-			if (++counter % 100 == 0) {
-				getProgress().setCompleted((int) ((float) counter / exampleSet.size() * 60 + 40));
-			}
-		}
-		if (aggregationFunction != null) {
-			dataRow.set(newWeightAttribute, aggregationFunction.getValue());
-		}
-
-		if (exampleSet.size() > 0) {
-			// if the original example set has size = 0 we would create a size = 1 new example set
-			// without the size check here
-			builder.addDataRow(dataRow);
 		}
 
 		// create and deliver example set
-		ExampleSet result = builder.build();
+		ExampleSet result;
+		if (Boolean.parseBoolean(ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT))) {
+			result = engine.createRows(exampleSet, groups, attributes, targets, newAttributes, newWeightAttribute,
+					weights, getParameterAsInt(PARAMETER_DATAMANAGEMENT));
+		} else {
+			result = engine.createColumns(exampleSet, groups, attributes, targets, newAttributes, newWeightAttribute,
+					weights, DataManagementParameterHelper.getSelectedDataManagement(this));
+		}
 		if (newWeightAttribute != null) {
 			result.getAttributes().setWeight(newWeightAttribute);
 		}
@@ -360,6 +274,16 @@ public class Example2AttributePivoting extends ExampleSetTransformationOperator
 		return result;
 	}
 
+	/**
+	 * Adds the attribute and remembers the position of the first attribute with its name.
+	 */
+	private static void addAttribute(Attribute attribute, List<Attribute> newAttributes, Map<String, Integer> positions) {
+		if (!positions.containsKey(attribute.getName())) {
+			positions.put(attribute.getName(), newAttributes.size());
+		}
+		newAttributes.add(attribute);
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
@@ -0,0 +1,864 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.transformation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.ObjIntConsumer;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.DataRow;
+import com.rapidminer.example.table.DataRowFactory;
+import com.rapidminer.example.table.internal.ColumnarExampleTable;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.studio.internal.Resources;
+
+
+/**
+ * Performs the data intensive parts of {@link Example2AttributePivoting} and
+ * {@link Attribute2ExamplePivoting}.
+ * <p>
+ * For pivoting, the index values are encoded as primitive ids and the groups are determined by
+ * their first example in a single pass over the sorted example set. The values are then scattered
+ * group by group directly into the columns of the new table, every source attribute filling its own
+ * columns. For unpivoting, the number of rows created by every example is counted first so that
+ * all examples can write their rows into preallocated columns independently.
+ * <p>
+ * Both passes run in parallel if an operator is given and the example set is large enough. The
+ * results, including the order of the nominal mappings of the new attributes, are the same as for a
+ * sequential run. Unpivoting reports every written example to the progress of the operator.
+ *
+ * @since 7.6.1
+ */
+final class PivotingEngine {
+
+	/** Default minimal number of examples per task when the work is split into several tasks. */
+	private static final int MIN_EXAMPLES_PER_TASK = 1 << 15;
+
+	/** Number of examples or rows after which is checked whether the process was stopped. */
+	private static final int CHECK_INTERVAL = 1 << 12;
+
+	/**
+	 * The groups of an example set sorted by the group attribute together with the encoded index
+	 * values.
+	 */
+	static final class Groups {
+
+		/** the distinct index values in the order of their first appearance */
+		final List<String> indexValues;
+
+		/** the position of the index value of every example in {@link #indexValues} */
+		final int[] indexIds;
+
+		/** whether an attribute never changes its value within a group */
+		final boolean[] constant;
+
+		/** the first example of every group, followed by the number of examples */
+		final int[] starts;
+
+		private Groups(List<String> indexValues, int[] indexIds, boolean[] constant, int[] starts) {
+			this.indexValues = indexValues;
+			this.indexIds = indexIds;
+			this.constant = constant;
+			this.starts = starts;
+		}
+
+		/** Returns the number of groups. */
+		int size() {
+			return starts.length - 1;
+		}
+	}
+
+	/** Assigns ids to the index values of the examples in the order of their first appearance. */
+	private static final class IndexEncoder {
+
+		private final Attribute indexAttribute;
+
+		/** the id of every nominal mapping index or {@code null} for numerical attributes */
+		private final int[] nominalIds;
+
+		private final Map<Double, Integer> ids = new HashMap<>();
+
+		private final List<String> values = new ArrayList<>();
+
+		private IndexEncoder(Attribute indexAttribute) {
+			this.indexAttribute = indexAttribute;
+			if (indexAttribute.isNominal()) {
+				nominalIds = new int[indexAttribute.getMapping().size()];
+				Arrays.fill(nominalIds, -1);
+			} else {
+				nominalIds = null;
+			}
+		}
+
+		private int encode(Example example) {
+			double value = example.getValue(indexAttribute);
+			if (nominalIds != null && value >= 0 && value < nominalIds.length) {
+				int mappingIndex = (int) value;
+				int id = nominalIds[mappingIndex];
+				if (id < 0) {
+					id = add(example);
+					nominalIds[mappingIndex] = id;
+				}
+				return id;
+			}
+			Integer id = ids.get(value);
+			if (id == null) {
+				id = add(example);
+				ids.put(value, id);
+			}
+			return id;
+		}
+
+		private int add(Example example) {
+			// different values can share the same string, they are merged later on
+			values.add(example.getValueAsString(indexAttribute));
+			return values.size() - 1;
+		}
+	}
+
+	/**
+	 * Writes the values of some source attributes into their new columns. A target column is only
+	 * written by a single scatter so that the scatters can run concurrently.
+	 */
+	private final class Scatter {
+
+		private final ExampleSet exampleSet;
+		private final Groups groups;
+
+		private final Attribute[] sources;
+
+		/** the local target of every source attribute for every index id, or {@code -1} */
+		private final int[][] localTargets;
+
+		/** the new attributes written by this scatter */
+		private final Attribute[] targets;
+
+		/** the positions of the targets within the new attributes */
+		private final int[] targetPositions;
+
+		private Scatter(ExampleSet exampleSet, Groups groups, Attribute[] sources, int[][] localTargets,
+				Attribute[] targets, int[] targetPositions) {
+			this.exampleSet = exampleSet;
+			this.groups = groups;
+			this.sources = sources;
+			this.localTargets = localTargets;
+			this.targets = targets;
+			this.targetPositions = targetPositions;
+		}
+
+		/**
+		 * Writes the values of all examples of the group into the array, later examples overwrite
+		 * earlier ones.
+		 */
+		private void fill(double[] values, int group) {
+			Arrays.fill(values, Double.NaN);
+			int end = groups.starts[group + 1];
+			for (int i = groups.starts[group]; i < end; i++) {
+				Example example = exampleSet.getExample(i);
+				int indexId = groups.indexIds[i];
+				for (int s = 0; s < sources.length; s++) {
+					int target = localTargets[s][indexId];
+					if (target < 0) {
+						continue;
+					}
+					Attribute source = sources[s];
+					double value = example.getValue(source);
+					if (!Double.isNaN(value) && source.isNominal()) {
+						value = targets[target].getMapping().mapString(source.getMapping().mapIndex((int) value));
+					}
+					values[target] = value;
+				}
+			}
+		}
+	}
+
+	private final Operator operator;
+
+	private final int minExamplesPerTask;
+
+	/**
+	 * Creates a new engine.
+	 *
+	 * @param operator
+	 *            the operator used for parallel execution, progress and stop checks, can be
+	 *            {@code null}
+	 */
+	PivotingEngine(Operator operator) {
+		this(operator, MIN_EXAMPLES_PER_TASK);
+	}
+
+	/**
+	 * Creates a new engine which splits the work into tasks of at least the given number of
+	 * examples.
+	 *
+	 * @param operator
+	 *            the operator used for parallel execution, progress and stop checks, can be
+	 *            {@code null}
+	 * @param minExamplesPerTask
+	 *            the minimal number of examples per task
+	 */
+	PivotingEngine(Operator operator, int minExamplesPerTask) {
+		this.operator = operator;
+		this.minExamplesPerTask = minExamplesPerTask;
+	}
+
+	/**
+	 * Determines the groups of the example set, the ids of the index values and which attributes
+	 * are constant within all groups. A new group starts whenever the value of the group attribute
+	 * changes, unless the previous value is missing.
+	 *
+	 * @param exampleSet
+	 *            the example set sorted by the group attribute
+	 * @param attributes
+	 *            the attributes to check for constant values
+	 * @param groupAttribute
+	 *            the attribute identifying the groups
+	 * @param indexAttribute
+	 *            the attribute identifying the examples within a group
+	 * @return the groups
+	 * @throws ProcessStoppedException
+	 *             if the process was stopped
+	 */
+	Groups discoverGroups(final ExampleSet exampleSet, final Attribute[] attributes, final Attribute groupAttribute,
+			final Attribute indexAttribute) throws ProcessStoppedException {
+		int size = exampleSet.size();
+		final double[] groupValues = new double[size];
+		final int[] indexIds = new int[size];
+		final int numberOfTasks = getNumberOfTasks(size);
+		final int[] taskStarts = getTaskStarts(size, numberOfTasks);
+		final boolean[][] changed = new boolean[numberOfTasks][];
+		final IndexEncoder[] encoders = new IndexEncoder[numberOfTasks];
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfTasks);
+		for (int t = 0; t < numberOfTasks; t++) {
+			final int task = t;
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					changed[task] = new boolean[attributes.length];
+					encoders[task] = new IndexEncoder(indexAttribute);
+					discover(exampleSet, attributes, groupAttribute, taskStarts[task], taskStarts[task + 1], groupValues,
+							indexIds, changed[task], encoders[task]);
+					return null;
+				}
+			});
+		}
+		run(tasks);
+
+		// merge the index values of all tasks, keeping the order of their first appearance
+		List<String> indexValues = new ArrayList<>();
+		Map<String, Integer> ids = new HashMap<>();
+		for (int t = 0; t < numberOfTasks; t++) {
+			List<String> localValues = encoders[t].values;
+			int[] translation = new int[localValues.size()];
+			for (int j = 0; j < translation.length; j++) {
+				String value = localValues.get(j);
+				Integer id = ids.get(value);
+				if (id == null) {
+					id = indexValues.size();
+					indexValues.add(value);
+					ids.put(value, id);
+				}
+				translation[j] = id;
+			}
+			for (int i = taskStarts[t]; i < taskStarts[t + 1]; i++) {
+				indexIds[i] = translation[indexIds[i]];
+			}
+		}
+
+		boolean[] constant = new boolean[attributes.length];
+		Arrays.fill(constant, true);
+		for (boolean[] localChanged : changed) {
+			for (int a = 0; a < constant.length; a++) {
+				constant[a] &= !localChanged[a];
+			}
+		}
+
+		return new Groups(indexValues, indexIds, constant, findGroupStarts(groupValues));
+	}
+
+	/**
+	 * Reads the group values, encodes the index values and detects changing attribute values for
+	 * the examples in the given range.
+	 */
+	private void discover(ExampleSet exampleSet, Attribute[] attributes, Attribute groupAttribute, int from, int to,
+			double[] groupValues, int[] indexIds, boolean[] changed, IndexEncoder encoder) {
+		// the first example of the range is compared to the last one of the previous range
+		Example previous = from > 0 ? exampleSet.getExample(from - 1) : null;
+		for (int i = from; i < to; i++) {
+			if ((i - from) % CHECK_INTERVAL == 0) {
+				checkStatus();
+			}
+			Example example = exampleSet.getExample(i);
+			double groupValue = example.getValue(groupAttribute);
+			groupValues[i] = groupValue;
+			if (previous != null && previous.getValue(groupAttribute) == groupValue) {
+				for (int a = 0; a < attributes.length; a++) {
+					if (changed[a]) {
+						continue;
+					}
+					double previousValue = previous.getValue(attributes[a]);
+					double value = example.getValue(attributes[a]);
+					if (!(Double.isNaN(previousValue) && Double.isNaN(value)) && previousValue != value) {
+						changed[a] = true;
+					}
+				}
+			}
+			indexIds[i] = encoder.encode(example);
+			previous = example;
+		}
+	}
+
+	/**
+	 * Returns the first example of every group followed by the number of examples.
+	 */
+	private static int[] findGroupStarts(double[] groupValues) {
+		if (groupValues.length == 0) {
+			return new int[] { 0 };
+		}
+		int numberOfGroups = 1;
+		for (int i = 1; i < groupValues.length; i++) {
+			if (isNewGroup(groupValues, i)) {
+				numberOfGroups++;
+			}
+		}
+		int[] starts = new int[numberOfGroups + 1];
+		int group = 1;
+		for (int i = 1; i < groupValues.length; i++) {
+			if (isNewGroup(groupValues, i)) {
+				starts[group++] = i;
+			}
+		}
+		starts[numberOfGroups] = groupValues.length;
+		return starts;
+	}
+
+	private static boolean isNewGroup(double[] groupValues, int i) {
+		double previous = groupValues[i - 1];
+		return !Double.isNaN(previous) && previous != groupValues[i];
+	}
+
+	/**
+	 * Creates the pivoted example set backed by a {@link ColumnarExampleTable}. Every group
+	 * becomes one row. The source attributes whose target columns are not shared with other source
+	 * attributes fill their columns concurrently.
+	 *
+	 * @param exampleSet
+	 *            the example set sorted by the group attribute
+	 * @param groups
+	 *            the groups of the example set
+	 * @param attributes
+	 *            the source attributes
+	 * @param targets
+	 *            the position of the new attribute receiving the values of every source attribute
+	 *            for every index id, or {@code -1} if the values are dropped
+	 * @param newAttributes
+	 *            the attributes of the new example set
+	 * @param weightAttribute
+	 *            the new attribute holding the weights of the groups, or {@code null}
+	 * @param weights
+	 *            the weight of every group, or {@code null}
+	 * @param management
+	 *            the data management of the new table
+	 * @return the pivoted example set
+	 * @throws ProcessStoppedException
+	 *             if the process was stopped
+	 */
+	ExampleSet createColumns(ExampleSet exampleSet, Groups groups, Attribute[] attributes, int[][] targets,
+			List<Attribute> newAttributes, Attribute weightAttribute, final double[] weights,
+			DataManagement management) throws ProcessStoppedException {
+		final ColumnarExampleTable table = new ColumnarExampleTable(newAttributes, management, true);
+		table.addBlankRows(groups.size());
+
+		boolean split = operator != null && exampleSet.size() >= 2 * minExamplesPerTask;
+		List<Scatter> scatters = createScatters(exampleSet, groups, attributes, targets, newAttributes, split);
+		List<Callable<Void>> tasks = new ArrayList<>(scatters.size());
+		boolean[] filled = new boolean[newAttributes.size()];
+		for (final Scatter scatter : scatters) {
+			for (int position : scatter.targetPositions) {
+				filled[position] = true;
+			}
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					table.fillColumns(scatter.targets, new ObjIntConsumer<double[]>() {
+
+						@Override
+						public void accept(double[] values, int group) {
+							if (group % CHECK_INTERVAL == 0) {
+								checkStatus();
+							}
+							scatter.fill(values, group);
+						}
+					});
+					return null;
+				}
+			});
+		}
+		run(tasks);
+
+		// columns without values from any source attribute
+		for (int i = 0; i < filled.length; i++) {
+			Attribute newAttribute = newAttributes.get(i);
+			if (newAttribute == weightAttribute) {
+				table.fillColumn(weightAttribute, new IntToDoubleFunction() {
+
+					@Override
+					public double applyAsDouble(int group) {
+						return weights[group];
+					}
+				});
+			} else if (!filled[i]) {
+				table.fillColumn(newAttribute, new IntToDoubleFunction() {
+
+					@Override
+					public double applyAsDouble(int group) {
+						return Double.NaN;
+					}
+				});
+			}
+		}
+		table.complete();
+		return table.createExampleSet();
+	}
+
+	/**
+	 * Creates the pivoted example set from data rows of the given type. Used for the legacy data
+	 * management, see {@link #createColumns} for the parameters.
+	 */
+	ExampleSet createRows(ExampleSet exampleSet, Groups groups, Attribute[] attributes, int[][] targets,
+			List<Attribute> newAttributes, Attribute weightAttribute, double[] weights, int dataRowType) {
+		ExampleSetBuilder builder = ExampleSets.from(newAttributes);
+		Scatter scatter = createScatters(exampleSet, groups, attributes, targets, newAttributes, false).get(0);
+		DataRowFactory dataRowFactory = new DataRowFactory(dataRowType, '.');
+		double[] values = new double[scatter.targets.length];
+		for (int group = 0; group < groups.size(); group++) {
+			if (group % CHECK_INTERVAL == 0) {
+				checkStatus();
+			}
+			scatter.fill(values, group);
+			DataRow dataRow = dataRowFactory.create(newAttributes.size());
+			for (Attribute newAttribute : newAttributes) {
+				dataRow.set(newAttribute, Double.NaN);
+			}
+			for (int j = 0; j < values.length; j++) {
+				dataRow.set(scatter.targets[j], values[j]);
+			}
+			if (weightAttribute != null) {
+				dataRow.set(weightAttribute, weights[group]);
+			}
+			builder.addDataRow(dataRow);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Distributes the source attributes to scatters. If splitting is allowed and no target column
+	 * is shared between different source attributes, every source attribute gets its own scatter.
+	 * Otherwise a single scatter handles all source attributes.
+	 */
+	private List<Scatter> createScatters(ExampleSet exampleSet, Groups groups, Attribute[] attributes,
+			int[][] targets, List<Attribute> newAttributes, boolean split) {
+		int[] writers = new int[newAttributes.size()];
+		for (int[] attributeTargets : targets) {
+			BitSet written = new BitSet(writers.length);
+			for (int target : attributeTargets) {
+				if (target >= 0 && !written.get(target)) {
+					written.set(target);
+					writers[target]++;
+				}
+			}
+		}
+		for (int count : writers) {
+			split &= count <= 1;
+		}
+
+		List<Scatter> scatters = new ArrayList<>();
+		if (split) {
+			for (int a = 0; a < attributes.length; a++) {
+				Scatter scatter = createScatter(exampleSet, groups, new int[] { a }, attributes, targets, newAttributes);
+				if (scatter.targets.length > 0) {
+					scatters.add(scatter);
+				}
+			}
+		} else {
+			int[] all = new int[attributes.length];
+			for (int a = 0; a < all.length; a++) {
+				all[a] = a;
+			}
+			scatters.add(createScatter(exampleSet, groups, all, attributes, targets, newAttributes));
+		}
+		return scatters;
+	}
+
+	/**
+	 * Creates a scatter for the given source attributes, numbering their targets locally.
+	 */
+	private Scatter createScatter(ExampleSet exampleSet, Groups groups, int[] sourceIndices, Attribute[] attributes,
+			int[][] targets, List<Attribute> newAttributes) {
+		int[] localIndex = new int[newAttributes.size()];
+		Arrays.fill(localIndex, -1);
+		List<Integer> positions = new ArrayList<>();
+		Attribute[] sources = new Attribute[sourceIndices.length];
+		int[][] localTargets = new int[sourceIndices.length][];
+		for (int s = 0; s < sourceIndices.length; s++) {
+			sources[s] = attributes[sourceIndices[s]];
+			int[] attributeTargets = targets[sourceIndices[s]];
+			localTargets[s] = new int[attributeTargets.length];
+			for (int id = 0; id < attributeTargets.length; id++) {
+				int target = attributeTargets[id];
+				if (target >= 0 && localIndex[target] < 0) {
+					localIndex[target] = positions.size();
+					positions.add(target);
+				}
+				localTargets[s][id] = target < 0 ? -1 : localIndex[target];
+			}
+		}
+		Attribute[] localAttributes = new Attribute[positions.size()];
+		int[] targetPositions = new int[positions.size()];
+		for (int j = 0; j < targetPositions.length; j++) {
+			targetPositions[j] = positions.get(j);
+			localAttributes[j] = newAttributes.get(targetPositions[j]);
+		}
+		return new Scatter(exampleSet, groups, sources, localTargets, localAttributes, targetPositions);
+	}
+
+	/**
+	 * Creates the unpivoted example set. Every example creates one row for every position in the
+	 * series, rows with only missing series values are skipped unless they should be kept. The new
+	 * attributes consist of the copies of the constant attributes, followed by the index attribute
+	 * and one attribute for every series.
+	 *
+	 * @param exampleSet
+	 *            the example set to unpivot
+	 * @param constantAttributes
+	 *            the attributes whose values are copied to all rows of an example
+	 * @param seriesAttributes
+	 *            the attributes of every series, all series must have the same length
+	 * @param newAttributes
+	 *            the attributes of the new example set
+	 * @param indexAttribute
+	 *            the new index attribute
+	 * @param nominalIndex
+	 *            whether the index holds the names of the attributes of the first series instead of
+	 *            the positions
+	 * @param keepMissings
+	 *            whether rows with only missing series values are kept
+	 * @return the unpivoted example set
+	 * @throws ProcessStoppedException
+	 *             if the process was stopped
+	 */
+	ExampleSet unpivot(final ExampleSet exampleSet, List<Attribute> constantAttributes,
+			List<? extends List<Attribute>> seriesAttributes, List<Attribute> newAttributes, Attribute indexAttribute,
+			boolean nominalIndex, final boolean keepMissings) throws ProcessStoppedException {
+		final int size = exampleSet.size();
+		final int numberOfSeries = seriesAttributes.size();
+		final int seriesLength = numberOfSeries > 0 ? seriesAttributes.get(0).size() : 0;
+		if (size == 0 || seriesLength == 0) {
+			return ExampleSets.from(newAttributes).build();
+		}
+
+		final Attribute[][] series = new Attribute[numberOfSeries][];
+		final boolean[] nominal = new boolean[numberOfSeries];
+		for (int i = 0; i < numberOfSeries; i++) {
+			series[i] = seriesAttributes.get(i).toArray(new Attribute[seriesLength]);
+			nominal[i] = series[i][0].isNominal();
+		}
+
+		// count the rows of every example and collect the nominal series values in order of
+		// their first appearance
+		final int[] rowCounts = new int[size];
+		final int numberOfTasks = getNumberOfTasks(size);
+		final int[] taskStarts = getTaskStarts(size, numberOfTasks);
+		final long[][][] appearances = new long[numberOfTasks][][];
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfTasks);
+		for (int t = 0; t < numberOfTasks; t++) {
+			final int task = t;
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					appearances[task] = countRows(exampleSet, series, nominal, keepMissings, taskStarts[task],
+							taskStarts[task + 1], rowCounts);
+					return null;
+				}
+			});
+		}
+		run(tasks);
+
+		// map the nominal values in the order a sequential pass would have used
+		final int[][][] remappings = new int[numberOfSeries][seriesLength][];
+		for (int i = 0; i < numberOfSeries; i++) {
+			if (!nominal[i]) {
+				continue;
+			}
+			Attribute newSeriesAttribute = newAttributes.get(newAttributes.size() - numberOfSeries + i);
+			for (long[][] taskAppearances : appearances) {
+				for (long code : taskAppearances[i]) {
+					int position = (int) (code >>> 32);
+					int mappingIndex = (int) code;
+					int[] remapping = remappings[i][position];
+					if (remapping == null) {
+						remapping = new int[series[i][position].getMapping().size()];
+						Arrays.fill(remapping, -1);
+						remappings[i][position] = remapping;
+					}
+					if (remapping[mappingIndex] < 0) {
+						remapping[mappingIndex] = newSeriesAttribute.getMapping()
+								.mapString(series[i][position].getMapping().mapIndex(mappingIndex));
+					}
+				}
+			}
+		}
+		final double[] indexValues = new double[seriesLength];
+		for (int k = 0; k < seriesLength; k++) {
+			indexValues[k] = nominalIndex ? indexAttribute.getMapping().mapString(series[0][k].getName()) : k + 1;
+		}
+
+		final int[] offsets = new int[size + 1];
+		for (int e = 0; e < size; e++) {
+			offsets[e + 1] = offsets[e] + rowCounts[e];
+		}
+		int numberOfRows = offsets[size];
+
+		final Attribute[] constants = constantAttributes.toArray(new Attribute[constantAttributes.size()]);
+		final double[][] columns = new double[newAttributes.size()][numberOfRows];
+		tasks = new ArrayList<>(numberOfTasks);
+		for (int t = 0; t < numberOfTasks; t++) {
+			final int task = t;
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() throws ProcessStoppedException {
+					writeRows(exampleSet, constants, series, remappings, indexValues, keepMissings, taskStarts[task],
+							taskStarts[task + 1], offsets, columns);
+					return null;
+				}
+			});
+		}
+		run(tasks);
+
+		ExampleSetBuilder builder = ExampleSets.from(newAttributes).withBlankSize(numberOfRows);
+		for (int j = 0; j < columns.length; j++) {
+			final double[] column = columns[j];
+			builder.withColumnFiller(newAttributes.get(j), new IntToDoubleFunction() {
+
+				@Override
+				public double applyAsDouble(int row) {
+					return column[row];
+				}
+			});
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Counts the rows created by the examples in the given range and collects the nominal series
+	 * values. For every series, the returned array holds the position within the series in the
+	 * upper and the mapping index in the lower half of a code, in the order of their first
+	 * appearance in this range.
+	 */
+	private long[][] countRows(ExampleSet exampleSet, Attribute[][] series, boolean[] nominal, boolean keepMissings,
+			int from, int to, int[] rowCounts) {
+		int numberOfSeries = series.length;
+		int seriesLength = series[0].length;
+		BitSet[][] seen = new BitSet[numberOfSeries][seriesLength];
+		long[][] codes = new long[numberOfSeries][16];
+		int[] numberOfCodes = new int[numberOfSeries];
+		for (int e = from; e < to; e++) {
+			if ((e - from) % CHECK_INTERVAL == 0) {
+				checkStatus();
+			}
+			Example example = exampleSet.getExample(e);
+			int rows = 0;
+			for (int k = 0; k < seriesLength; k++) {
+				boolean onlyMissings = true;
+				for (int i = 0; i < numberOfSeries; i++) {
+					double value = example.getValue(series[i][k]);
+					if (Double.isNaN(value)) {
+						continue;
+					}
+					onlyMissings = false;
+					if (nominal[i]) {
+						int mappingIndex = (int) value;
+						BitSet positionSeen = seen[i][k];
+						if (positionSeen == null) {
+							positionSeen = new BitSet();
+							seen[i][k] = positionSeen;
+						}
+						if (!positionSeen.get(mappingIndex)) {
+							positionSeen.set(mappingIndex);
+							if (numberOfCodes[i] == codes[i].length) {
+								codes[i] = Arrays.copyOf(codes[i], codes[i].length * 2);
+							}
+							codes[i][numberOfCodes[i]++] = (long) k << 32 | mappingIndex;
+						}
+					}
+				}
+				if (keepMissings || !onlyMissings) {
+					rows++;
+				}
+			}
+			rowCounts[e] = rows;
+		}
+		for (int i = 0; i < numberOfSeries; i++) {
+			codes[i] = Arrays.copyOf(codes[i], numberOfCodes[i]);
+		}
+		return codes;
+	}
+
+	/**
+	 * Writes the rows of the examples in the given range into the columns and reports the examples
+	 * to the progress.
+	 */
+	private void writeRows(ExampleSet exampleSet, Attribute[] constants, Attribute[][] series, int[][][] remappings,
+			double[] indexValues, boolean keepMissings, int from, int to, int[] offsets, double[][] columns)
+			throws ProcessStoppedException {
+		int numberOfSeries = series.length;
+		int seriesLength = indexValues.length;
+		int indexColumn = columns.length - numberOfSeries - 1;
+		int firstSeriesColumn = columns.length - numberOfSeries;
+		double[] seriesValues = new double[numberOfSeries];
+		int reported = from;
+		for (int e = from; e < to; e++) {
+			if ((e - from) % CHECK_INTERVAL == 0) {
+				checkStatus();
+				reportProgress(e - reported);
+				reported = e;
+			}
+			Example example = exampleSet.getExample(e);
+			int row = offsets[e];
+			for (int k = 0; k < seriesLength; k++) {
+				boolean onlyMissings = true;
+				for (int i = 0; i < numberOfSeries; i++) {
+					double value = example.getValue(series[i][k]);
+					if (!Double.isNaN(value)) {
+						if (remappings[i][k] != null) {
+							value = remappings[i][k][(int) value];
+						}
+						onlyMissings = false;
+					}
+					seriesValues[i] = value;
+				}
+				if (!keepMissings && onlyMissings) {
+					continue;
+				}
+				for (int c = 0; c < constants.length; c++) {
+					columns[c][row] = example.getValue(constants[c]);
+				}
+				columns[indexColumn][row] = indexValues[k];
+				for (int i = 0; i < numberOfSeries; i++) {
+					columns[firstSeriesColumn + i][row] = seriesValues[i];
+				}
+				row++;
+			}
+		}
+		reportProgress(to - reported);
+	}
+
+	/**
+	 * Adds the given number of examples to the progress of the operator. The progress is shared by
+	 * all tasks.
+	 */
+	private void reportProgress(int examples) throws ProcessStoppedException {
+		if (operator != null && examples > 0) {
+			OperatorProgress progress = operator.getProgress();
+			synchronized (progress) {
+				progress.step(examples);
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the process was stopped.
+	 */
+	private void checkStatus() {
+		if (operator != null) {
+			Resources.getConcurrencyContext(operator).checkStatus();
+		}
+	}
+
+	private int getNumberOfTasks(int size) {
+		if (operator == null || size < 2 * minExamplesPerTask) {
+			return 1;
+		}
+		int parallelism = Resources.getConcurrencyContext(operator).getParallelism();
+		return Math.max(1, Math.min(parallelism, size / minExamplesPerTask));
+	}
+
+	private static int[] getTaskStarts(int size, int numberOfTasks) {
+		int[] starts = new int[numberOfTasks + 1];
+		for (int t = 0; t <= numberOfTasks; t++) {
+			starts[t] = (int) ((long) size * t / numberOfTasks);
+		}
+		return starts;
+	}
+
+	/**
+	 * Runs the tasks sequentially if there is at most one, otherwise in the concurrency context of
+	 * the operator.
+	 */
+	private void run(List<Callable<Void>> tasks) throws ProcessStoppedException {
+		if (tasks.size() <= 1) {
+			for (Callable<Void> task : tasks) {
+				try {
+					task.call();
+				} catch (RuntimeException | ProcessStoppedException e) {
+					throw e;
+				} catch (Exception e) {
+					// cannot happen, the tasks throw no other checked exceptions
+					throw new RuntimeException(e.getMessage(), e);
+				}
+			}
+			return;
+		}
+		ConcurrencyContext context = Resources.getConcurrencyContext(operator);
+		try {
+			context.call(tasks);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else if (cause instanceof ProcessStoppedException) {
+				throw (ProcessStoppedException) cause;
+			} else {
+				throw new RuntimeException(cause.getMessage(), cause);
+			}
+		}
+	}
+}
@@ -40,8 +40,7 @@ import com.rapidminer.parameter.ParameterTypeCategory;
 import com.rapidminer.parameter.ParameterTypeInt;
 import com.rapidminer.parameter.conditions.BooleanParameterCondition;
 import com.rapidminer.tools.Ontology;
-import com.rapidminer.tools.container.Tupel;
-import com.rapidminer.tools.math.container.BoundedPriorityQueue;
+import com.rapidminer.tools.math.similarity.CrossDistanceCalculator;
 import com.rapidminer.tools.math.similarity.DistanceMeasure;
 import com.rapidminer.tools.math.similarity.DistanceMeasures;
 
@@ -114,7 +113,7 @@ public class CrossDistancesOperator extends Operator {
 		Tools.checkAndCreateIds(documentSet);
 
 		DistanceMeasure measure = DistanceMeasures.createMeasure(this);
-		measure.init(requestSet.getAttributes(), documentSet.getAttributes());
+		CrossDistanceCalculator calculator = new CrossDistanceCalculator(measure, requestSet, documentSet);
 
 		Attribute oldRequestId = requestSet.getAttributes().getId();
 		Attribute oldDocumentId = documentSet.getAttributes().getId();
@@ -126,59 +125,57 @@ public class CrossDistancesOperator extends Operator {
 
 		List<Attribute> newAttributes = new LinkedList<Attribute>();
 		Collections.addAll(newAttributes, requestId, documentId, distance);
-		ExampleSetBuilder builder = ExampleSets.from(newAttributes);
+		final ExampleSetBuilder builder = ExampleSets.from(newAttributes);
 
-		double searchModeFactor = getParameterAsInt(PARAMETER_SEARCH_MODE) == MODE_FARTHEST ? -1d : 1d;
+		boolean farthest = getParameterAsInt(PARAMETER_SEARCH_MODE) == MODE_FARTHEST;
 		boolean computeSimilarity = getParameterAsBoolean(PARAMETER_COMPUTE_SIMILARITIES);
 		boolean useK = getParameterAsBoolean(PARAMETER_USE_K);
-		int k = getParameterAsInt(PARAMETER_K);
+		int k = useK ? getParameterAsInt(PARAMETER_K) : 0;
+		if (useK && !farthest && !computeSimilarity) {
+			calculator.useReferenceIndex();
+		}
 
+		// collecting the id values of both sets, the reference ids are mapped when they are emitted
+		final double[] requestIdValues = new double[requestSet.size()];
+		int index = 0;
 		for (Example request : requestSet) {
-			Collection<Tupel<Double, Double>> distances;
-			if (useK) {
-				distances = new BoundedPriorityQueue<Tupel<Double, Double>>(k);
-			} else {
-				distances = new ArrayList<Tupel<Double, Double>>();
-			}
-
-			// calculating distance
-			for (Example document : documentSet) {
-				if (computeSimilarity) {
-					distances
-							.add(new Tupel<Double, Double>(measure.calculateSimilarity(request, document) * searchModeFactor,
-									document.getValue(oldDocumentId)));
-				} else {
-					distances.add(new Tupel<Double, Double>(measure.calculateDistance(request, document) * searchModeFactor,
-							document.getValue(oldDocumentId)));
-				}
-				checkForStop();
-			}
-
-			// writing into table
-			DataRowFactory factory = new DataRowFactory(DataRowFactory.TYPE_DOUBLE_ARRAY, '.');
 			double requestIdValue = request.getValue(oldRequestId);
 			if (oldRequestId.isNominal()) {
 				requestIdValue = requestId.getMapping().mapString(request.getValueAsString(oldRequestId));
 			}
+			requestIdValues[index++] = requestIdValue;
+		}
+		final double[] documentIdValues = new double[documentSet.size()];
+		index = 0;
+		for (Example document : documentSet) {
+			documentIdValues[index++] = document.getValue(oldDocumentId);
+		}
+
+		// calculating distances and writing into table
+		final DataRowFactory factory = new DataRowFactory(DataRowFactory.TYPE_DOUBLE_ARRAY, '.');
+		calculator.calculate(k, computeSimilarity, farthest, this, new CrossDistanceCalculator.ResultHandler() {
 
-			for (Tupel<Double, Double> tupel : distances) {
-				double documentIdValue = tupel.getSecond();
-				if (oldDocumentId.isNominal()) {
-					documentIdValue = documentId.getMapping()
-							.mapString(oldDocumentId.getMapping().mapIndex((int) documentIdValue));
+			@Override
+			public void handle(int request, int[] references, double[] values, int count) throws OperatorException {
+				for (int i = 0; i < count; i++) {
+					DataRow row = factory.create(3);
+					row.set(distance, values[i]);
+					row.set(requestId, requestIdValues[request]);
+					double documentIdValue = documentIdValues[references[i]];
+					if (oldDocumentId.isNominal()) {
+						documentIdValue = documentId.getMapping()
+								.mapString(oldDocumentId.getMapping().mapIndex((int) documentIdValue));
+					}
+					row.set(documentId, documentIdValue);
+					builder.addDataRow(row);
 				}
-				DataRow row = factory.create(3);
-				row.set(distance, tupel.getFirst() * searchModeFactor);
-				row.set(requestId, requestIdValue);
-				row.set(documentId, documentIdValue);
-				builder.addDataRow(row);
 				checkForStop();
 			}
-		}
+		});
 
 		// sorting set
 		ExampleSet result = new SortedExampleSet(builder.build(), distance,
-				searchModeFactor == -1d ? SortedExampleSet.DECREASING : SortedExampleSet.INCREASING);
+				farthest ? SortedExampleSet.DECREASING : SortedExampleSet.INCREASING);
 
 		requestSetOutput.deliver(requestSet);
 		referenceSetOutput.deliver(documentSet);
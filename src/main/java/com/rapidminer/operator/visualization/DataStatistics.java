@@ -19,12 +19,17 @@
 package com.rapidminer.operator.visualization;
 
 import com.rapidminer.example.Attribute;
+import com.rapidminer.example.AttributeSketch;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.Statistics;
 import com.rapidminer.operator.ResultObjectAdapter;
 import com.rapidminer.tools.Ontology;
 import com.rapidminer.tools.Tools;
+import com.rapidminer.tools.math.sketch.HeavyHitters;
+import com.rapidminer.tools.math.sketch.QuantileSketch;
 
+import java.util.Date;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -36,6 +41,9 @@ import java.util.List;
  * interface of RapidMiner. Since they cannot be displayed with the command line version of
  * RapidMiner the operator {@link DataStatisticsOperator} can be used as a workaround in cases where
  * the graphical user interface cannot be used.
+ * <p>
+ * If an {@link AttributeSketch} is given, the approximate number of distinct values and the most
+ * frequent values or the quartiles are added together with their error bounds.
  * 
  * @author Ingo Mierswa
  */
@@ -43,6 +51,12 @@ public class DataStatistics extends ResultObjectAdapter {
 
 	private static final long serialVersionUID = -9182815345498602690L;
 
+	/** the number of most frequent nominal values which are listed */
+	private static final int FREQUENT_VALUES = 3;
+
+	/** the confidence of the rank error of the quartiles */
+	private static final double QUANTILE_CONFIDENCE = 0.95;
+
 	private List<String> statistics = new LinkedList<String>();
 
 	@Override
@@ -51,6 +65,16 @@ public class DataStatistics extends ResultObjectAdapter {
 	}
 
 	public void addInfo(ExampleSet exampleSet, Attribute attribute) {
+		addInfo(exampleSet, attribute, null);
+	}
+
+	/**
+	 * Adds the statistics of the attribute. If the sketch is not <code>null</code>, its estimates
+	 * are added as well.
+	 *
+	 * @since 7.6.1
+	 */
+	public void addInfo(ExampleSet exampleSet, Attribute attribute, AttributeSketch sketch) {
 		StringBuffer result = new StringBuffer(attribute.toString() + ": ");
 		if (Ontology.ATTRIBUTE_VALUE_TYPE.isA(attribute.getValueType(), Ontology.DATE_TIME)) {
 			long minMilliseconds = (long) exampleSet.getStatistics(attribute, Statistics.MINIMUM);
@@ -82,9 +106,52 @@ public class DataStatistics extends ResultObjectAdapter {
 					+ Math.sqrt(exampleSet.getStatistics(attribute, Statistics.VARIANCE)));
 		}
 		result.append("; unknown = " + exampleSet.getStatistics(attribute, Statistics.UNKNOWN));
+		if (sketch != null) {
+			appendEstimates(result, attribute, sketch);
+		}
 		statistics.add(result.toString());
 	}
 
+	private static void appendEstimates(StringBuffer result, Attribute attribute, AttributeSketch sketch) {
+		result.append("; distinct ~ " + sketch.getDistinctValues() + " (+/- "
+				+ Tools.formatPercent(sketch.getDistinctValuesError()) + ")");
+		if (attribute.isNominal()) {
+			HeavyHitters frequentValues = sketch.getFrequentValues();
+			result.append("; most frequent = ");
+			Iterator<HeavyHitters.Counter> i = frequentValues.getTopValues().iterator();
+			for (int n = 0; n < FREQUENT_VALUES && i.hasNext(); n++) {
+				HeavyHitters.Counter counter = i.next();
+				if (n > 0) {
+					result.append(", ");
+				}
+				result.append(attribute.getMapping().mapIndex((int) counter.getValue()) + " ("
+						+ Tools.formatIntegerIfPossible(counter.getCount()) + ")");
+			}
+			if (frequentValues.getMaximumError() > 0) {
+				result.append(" +/- " + Tools.formatIntegerIfPossible(frequentValues.getMaximumError()));
+			}
+		} else {
+			QuantileSketch quantiles = sketch.getQuantiles();
+			result.append("; quartiles ~ " + formatValue(attribute, quantiles.getQuantile(0.25)) + ", "
+					+ formatValue(attribute, quantiles.getQuantile(0.5)) + ", "
+					+ formatValue(attribute, quantiles.getQuantile(0.75)));
+			double rankError = quantiles.getRankError(QUANTILE_CONFIDENCE);
+			if (rankError > 0) {
+				result.append(" (rank +/- " + Tools.formatPercent(rankError) + ")");
+			}
+		}
+	}
+
+	private static String formatValue(Attribute attribute, double value) {
+		if (Double.isNaN(value)) {
+			return "?";
+		}
+		if (Ontology.ATTRIBUTE_VALUE_TYPE.isA(attribute.getValueType(), Ontology.DATE_TIME)) {
+			return Tools.format(new Date((long) value), attribute.getValueType());
+		}
+		return Tools.formatIntegerIfPossible(value);
+	}
+
 	@Override
 	public String toString() {
 		StringBuffer result = new StringBuffer();
@@ -20,14 +20,19 @@ package com.rapidminer.operator.visualization;
 
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.ProgressiveStatistics;
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.ports.InputPort;
 import com.rapidminer.operator.ports.OutputPort;
 import com.rapidminer.operator.ports.metadata.GenerateNewMDRule;
+import com.rapidminer.parameter.ParameterType;
+import com.rapidminer.parameter.ParameterTypeBoolean;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 
 /**
@@ -37,11 +42,20 @@ import java.util.Iterator;
  * interface of RapidMiner. Since they cannot be displayed with the command line version of
  * RapidMiner this operator can be used as a workaround in cases where the graphical user interface
  * cannot be used.
+ * <p>
+ * Optionally, the number of distinct values and the most frequent values or quartiles are
+ * estimated by sketches in the same scan, see {@link ProgressiveStatistics}.
  * 
  * @author Ingo Mierswa ingomierswa Exp $
  */
 public class DataStatisticsOperator extends Operator {
 
+	/** Indicates if distinct values, frequent values and quartiles should be estimated. */
+	public static final String PARAMETER_ESTIMATE_DISTRIBUTIONS = "estimate_distributions";
+
+	/** the seed of the sampling, fixed so that the results are reproducible */
+	private static final long SKETCH_SEED = 2001;
+
 	private InputPort exampleSetInput = getInputPorts().createPort("example set");
 	private OutputPort statisticsOutput = getOutputPorts().createPort("statistics");
 	private OutputPort exampleSetOutput = getOutputPorts().createPort("example set");
@@ -58,12 +72,35 @@ public class DataStatisticsOperator extends Operator {
 	public void doWork() throws OperatorException {
 		ExampleSet eSet = exampleSetInput.getData(ExampleSet.class);
 		eSet.recalculateAllAttributeStatistics();
+
+		ProgressiveStatistics sketches = null;
+		if (getParameterAsBoolean(PARAMETER_ESTIMATE_DISTRIBUTIONS)) {
+			List<Attribute> attributes = new ArrayList<>();
+			eSet.getAttributes().allAttributes().forEachRemaining(attributes::add);
+			sketches = new ProgressiveStatistics(eSet, attributes, ProgressiveStatistics.DEFAULT_BLOCK_SIZE, SKETCH_SEED);
+			getProgress().setTotal(eSet.size());
+			while (sketches.scanNextBlock()) {
+				getProgress().setCompleted(sketches.getScannedExamples());
+			}
+			getProgress().complete();
+		}
+
 		DataStatistics statistics = new DataStatistics();
 		Iterator<Attribute> i = eSet.getAttributes().allAttributes();
 		while (i.hasNext()) {
-			statistics.addInfo(eSet, i.next());
+			Attribute attribute = i.next();
+			statistics.addInfo(eSet, attribute, sketches == null ? null : sketches.getSketch(attribute));
 		}
 		exampleSetOutput.deliver(eSet);
 		statisticsOutput.deliver(statistics);
 	}
+
+	@Override
+	public List<ParameterType> getParameterTypes() {
+		List<ParameterType> types = super.getParameterTypes();
+		types.add(new ParameterTypeBoolean(PARAMETER_ESTIMATE_DISTRIBUTIONS,
+				"Indicates if the number of distinct values, the most frequent nominal values and the quartiles of numerical values should be estimated.",
+				false));
+		return types;
+	}
 }
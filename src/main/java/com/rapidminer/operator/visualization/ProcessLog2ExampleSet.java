@@ -18,6 +18,7 @@
 */
 package com.rapidminer.operator.visualization;
 
+import com.rapidminer.datatable.ColumnarDataTable;
 import com.rapidminer.datatable.DataTable;
 import com.rapidminer.datatable.DataTableRow;
 import com.rapidminer.example.Attribute;
@@ -38,7 +39,9 @@ import com.rapidminer.parameter.ParameterTypeString;
 import com.rapidminer.tools.Ontology;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -102,6 +105,12 @@ public class ProcessLog2ExampleSet extends Operator {
 
 		// create table
 		ExampleSetBuilder builder = ExampleSets.from(attributes);
+		if (table instanceof ColumnarDataTable) {
+			fillColumns(builder, (ColumnarDataTable) table, attributes);
+			exampleSetOutput.deliver(builder.build());
+			dummyPorts.passDataThrough();
+			return;
+		}
 		for (int r = 0; r < table.getNumberOfRows(); r++) {
 			DataTableRow row = table.getRow(r);
 			double[] data = new double[attributes.size()];
@@ -126,6 +135,34 @@ public class ProcessLog2ExampleSet extends Operator {
 		dummyPorts.passDataThrough();
 	}
 
+	/**
+	 * Fills the builder with the columns of the table without creating row objects. Nominal values
+	 * are mapped once per distinct value of the table.
+	 */
+	private void fillColumns(ExampleSetBuilder builder, ColumnarDataTable table, List<Attribute> attributes) {
+		int size = table.getNumberOfRows();
+		builder.withBlankSize(size);
+		for (int i = 0; i < table.getNumberOfColumns(); i++) {
+			final double[] values = table.getColumn(i);
+			Attribute attribute = attributes.get(i);
+			if (attribute.isNominal()) {
+				Map<Integer, Integer> indexMap = new HashMap<>();
+				for (int r = 0; r < size; r++) {
+					if (!Double.isNaN(values[r])) {
+						int tableIndex = (int) values[r];
+						Integer index = indexMap.get(tableIndex);
+						if (index == null) {
+							index = attribute.getMapping().mapString(table.mapIndex(i, tableIndex));
+							indexMap.put(tableIndex, index);
+						}
+						values[r] = index;
+					}
+				}
+			}
+			builder.withColumnFiller(attribute, r -> values[r]);
+		}
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
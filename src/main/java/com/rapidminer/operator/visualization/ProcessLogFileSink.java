@@ -0,0 +1,193 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.visualization;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Writes the lines of a process log to a file in a background thread. The file is opened once and
+ * flushed whenever all queued lines are written, so the file stays up to date while the process
+ * runs without blocking the logging operator on file access. The queue is bounded: if the file
+ * cannot be written as fast as lines are logged, {@link #write(String)} blocks until there is
+ * space again.
+ * <p>
+ * Errors of the background thread are reported by the next call of {@link #write(String)} or
+ * {@link #close()}.
+ *
+ * @since 7.6.1
+ */
+final class ProcessLogFileSink implements Closeable {
+
+	/** marks the end of the queue */
+	private static final String END = new String();
+
+	private static final int MAXIMUM_BATCH_SIZE = 1024;
+
+	/** maximum number of queued lines */
+	private static final int CAPACITY = 8 * MAXIMUM_BATCH_SIZE;
+
+	/** interval for checking whether the background thread is still running while waiting */
+	private static final long OFFER_TIMEOUT_MS = 100;
+
+	private final File file;
+	private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(CAPACITY);
+	private final Thread thread;
+	private volatile IOException error;
+	private boolean closed;
+
+	/**
+	 * Opens the file and starts the background thread.
+	 *
+	 * @param append
+	 *            if {@code true} the lines are appended to an existing file
+	 * @throws IOException
+	 *             if the file cannot be opened
+	 */
+	ProcessLogFileSink(File file, boolean append) throws IOException {
+		this.file = file;
+		final Writer out = new BufferedWriter(
+				new OutputStreamWriter(new FileOutputStream(file, append), Charset.defaultCharset()));
+		thread = new Thread("ProcessLog-" + file.getName()) {
+
+			@Override
+			public void run() {
+				List<String> lines = new ArrayList<>();
+				try {
+					boolean running = true;
+					while (running) {
+						lines.add(queue.take());
+						queue.drainTo(lines, MAXIMUM_BATCH_SIZE);
+						for (String line : lines) {
+							if (line == END) {
+								running = false;
+								break;
+							}
+							out.write(line);
+							out.write(System.lineSeparator());
+						}
+						lines.clear();
+						if (queue.isEmpty()) {
+							out.flush();
+						}
+					}
+				} catch (IOException e) {
+					error = e;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					try {
+						out.close();
+					} catch (IOException e) {
+						if (error == null) {
+							error = e;
+						}
+					}
+				}
+			}
+		};
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/** Returns the file written by this sink. */
+	File getFile() {
+		return file;
+	}
+
+	/**
+	 * Queues the given line for writing. Blocks while the queue is full.
+	 *
+	 * @throws IOException
+	 *             if writing a previous line failed or the current thread is interrupted
+	 */
+	void write(String line) throws IOException {
+		if (error != null) {
+			throw error;
+		}
+		if (closed) {
+			throw new IOException("Sink is closed");
+		}
+		enqueue(line);
+	}
+
+	/**
+	 * Waits until the line is queued. Stops waiting if the background thread terminated, e.g.
+	 * after an error, since it will not take lines anymore.
+	 *
+	 * @return {@code false} if the background thread terminated before the line was queued
+	 */
+	private boolean enqueue(String line) throws IOException {
+		try {
+			while (!queue.offer(line, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+				if (error != null) {
+					throw error;
+				}
+				if (!thread.isAlive()) {
+					return false;
+				}
+			}
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while writing to " + file);
+		}
+	}
+
+	/**
+	 * Writes the remaining lines and closes the file.
+	 *
+	 * @throws IOException
+	 *             if writing or closing failed
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			try {
+				if (enqueue(END)) {
+					thread.join();
+				}
+			} catch (InterruptedIOException e) {
+				// stop the background thread, it closes the file
+				thread.interrupt();
+				throw e;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				thread.interrupt();
+			}
+		}
+		if (error != null) {
+			throw error;
+		}
+	}
+}
@@ -18,9 +18,9 @@
 */
 package com.rapidminer.operator.visualization;
 
+import com.rapidminer.datatable.ColumnarDataTable;
 import com.rapidminer.datatable.DataTable;
 import com.rapidminer.datatable.DataTableRow;
-import com.rapidminer.datatable.SimpleDataTable;
 import com.rapidminer.datatable.SimpleDataTableRow;
 import com.rapidminer.operator.*;
 import com.rapidminer.operator.ProcessSetupError.Severity;
@@ -30,6 +30,7 @@ import com.rapidminer.operator.ports.metadata.MDTransformationRule;
 import com.rapidminer.operator.ports.quickfix.ParameterSettingQuickFix;
 import com.rapidminer.parameter.*;
 import com.rapidminer.parameter.ParameterTypeValue.OperatorValueSelection;
+import com.rapidminer.parameter.conditions.BooleanParameterCondition;
 import com.rapidminer.parameter.conditions.EqualTypeCondition;
 
 import java.io.File;
@@ -59,7 +60,8 @@ import java.util.*;
  * Each time the ProcessLogOperator is applied, all the values and parameters specified by the list
  * <var>log</var> are collected and stored in a data row. When the process finishes, the operator
  * writes the collected data rows to a file (if specified). In GUI mode, 2D or 3D plots are
- * automatically generated and displayed in the result viewer. <br/>
+ * automatically generated and displayed in the result viewer. The data rows are stored in a
+ * {@link ColumnarDataTable} which can be limited to the most recent rows. <br/>
  * Please refer to section {@rapidminer.ref sec:parameter_optimization|Advanced Processes/Parameter
  * and performance analysis} for an example application.
  *
@@ -86,6 +88,10 @@ public class ProcessLogOperator extends Operator {
 
 	public static final String PARAMETER_SORTING_K = "sorting_k";
 
+	public static final String PARAMETER_LIMIT_ROWS = "limit_rows";
+
+	public static final String PARAMETER_ROW_LIMIT = "row_limit";
+
 	public static final String[] SORTING_TYPES = { "none", "top-k", "bottom-k" };
 
 	public static final int SORTING_TYPE_NONE = 0;
@@ -94,6 +100,12 @@ public class ProcessLogOperator extends Operator {
 
 	private PortPairExtender dummyPorts = new DummyPortPairExtender("through", getInputPorts(), getOutputPorts());
 
+	/**
+	 * the sink for persistent logging, open while the process runs; closed when the process
+	 * finishes or, if finishing failed before, when the next run starts
+	 */
+	private ProcessLogFileSink fileSink;
+
 	public ProcessLogOperator(OperatorDescription description) {
 		super(description);
 
@@ -129,8 +141,7 @@ public class ProcessLogOperator extends Operator {
 					Object actualValue = value.getValue();
 					if (actualValue != null) {
 						String valueString = value.getValue().toString();
-						SimpleDataTable table = (SimpleDataTable) getProcess().getDataTable(getName());
-						return table.mapString(column, valueString);
+						return getDataTable().mapString(column, valueString);
 					} else {
 						return Double.NaN;
 					}
@@ -152,8 +163,7 @@ public class ProcessLogOperator extends Operator {
 						}
 					} else { // nominal
 						String value = parameterType.toString(operator.getParameter(selection.getParameterName()));
-						SimpleDataTable table = (SimpleDataTable) getProcess().getDataTable(getName());
-						return table.mapString(column, value);
+						return getDataTable().mapString(column, value);
 					}
 				}
 			}
@@ -173,17 +183,24 @@ public class ProcessLogOperator extends Operator {
 	}
 
 	public void createDataTable() throws OperatorException {
-		getProcess().addDataTable(new SimpleDataTable(getName(), getColumnNames()));
+		int rowLimit = 0;
+		if (getParameterAsInt(PARAMETER_SORTING_TYPE) == SORTING_TYPE_NONE && getParameterAsBoolean(PARAMETER_LIMIT_ROWS)) {
+			rowLimit = getParameterAsInt(PARAMETER_ROW_LIMIT);
+		}
+		getProcess().addDataTable(new ColumnarDataTable(getName(), getColumnNames(), rowLimit));
+	}
+
+	private ColumnarDataTable getDataTable() {
+		return (ColumnarDataTable) getProcess().getDataTable(getName());
 	}
 
 	@Override
 	public void doWork() throws OperatorException {
-		SimpleDataTable dataTable = (SimpleDataTable) getProcess().getDataTable(getName());
-		if (dataTable == null) {
+		if (!(getProcess().getDataTable(getName()) instanceof ColumnarDataTable)) {
 			createDataTable();
 		}
 
-		DataTableRow row = fetchAllValues();
+		double[] row = fetchAllValues();
 		if (getParameterAsInt(PARAMETER_SORTING_TYPE) == SORTING_TYPE_NONE && getParameterAsBoolean(PARAMETER_PERSISTENT)) {
 			writeOnline(row);
 		}
@@ -191,34 +208,55 @@ public class ProcessLogOperator extends Operator {
 		dummyPorts.passDataThrough();
 	}
 
-	private void writeOnline(DataTableRow row) throws UserError {
-		DataTable table = getProcess().getDataTable(getName());
+	/**
+	 * Queues the row for writing to the log file. The file is opened once per process run and
+	 * written asynchronously by a {@link ProcessLogFileSink}.
+	 */
+	private void writeOnline(double[] row) throws UserError {
+		DataTable table = getDataTable();
 		File outputFile = getParameterAsFile(PARAMETER_FILENAME, true);
 		try {
-			// writing header if file does not exist or applyCount is 1 and file exists and has to
-			// be overwritten
-			if (!outputFile.exists() || getApplyCount() == 1) {
-				try (FileWriter fw = new FileWriter(outputFile); PrintWriter out = new PrintWriter(fw)) {
-					out.println("# Generated by " + getName() + "[" + getClass().getName() + "]");
+			if (fileSink == null || !fileSink.getFile().equals(outputFile)) {
+				closeFileSink();
+				// writing header if file does not exist or applyCount is 1 and file exists and has
+				// to be overwritten
+				boolean writeHeader = !outputFile.exists() || getApplyCount() == 1;
+				fileSink = new ProcessLogFileSink(outputFile, !writeHeader);
+				if (writeHeader) {
+					fileSink.write("# Generated by " + getName() + "[" + getClass().getName() + "]");
+					StringBuilder header = new StringBuilder();
 					for (int j = 0; j < table.getNumberOfColumns(); j++) {
-						out.print((j != 0 ? "\t" : "# ") + table.getColumnName(j));
+						header.append(j != 0 ? "\t" : "# ").append(table.getColumnName(j));
 					}
-					out.println();
+					fileSink.write(header.toString());
 				}
 			}
 			// writing actual data
-			try (FileWriter fw = new FileWriter(outputFile, true); PrintWriter out = new PrintWriter(fw)) {
-				for (int j = 0; j < row.getNumberOfValues(); j++) {
-					out.print((j != 0 ? "\t" : "") + table.getValueAsString(row, j));
-				}
-				out.println();
+			DataTableRow dataRow = new SimpleDataTableRow(row, null);
+			StringBuilder line = new StringBuilder();
+			for (int j = 0; j < row.length; j++) {
+				line.append(j != 0 ? "\t" : "").append(table.getValueAsString(dataRow, j));
 			}
+			fileSink.write(line.toString());
 		} catch (IOException e) {
 			throw new UserError(this, 303, outputFile, e.getMessage());
 		}
 	}
 
-	private DataTableRow fetchAllValues() throws UndefinedParameterError {
+	/** Writes the queued rows and closes the sink of the persistent log file. */
+	private void closeFileSink() throws UserError {
+		if (fileSink != null) {
+			ProcessLogFileSink sink = fileSink;
+			fileSink = null;
+			try {
+				sink.close();
+			} catch (IOException e) {
+				throw new UserError(this, 303, sink.getFile(), e.getMessage());
+			}
+		}
+	}
+
+	private double[] fetchAllValues() throws UndefinedParameterError {
 		Collection<OperatorValueSelection> valueDescriptions = getValueDescriptions();
 		double[] row = new double[valueDescriptions.size()];
 		int i = 0;
@@ -226,12 +264,11 @@ public class ProcessLogOperator extends Operator {
 			row[i] = fetchValue(selection, i);
 			i++;
 		}
-		DataTableRow dataRow = new SimpleDataTableRow(row, null);
-		SimpleDataTable dataTable = (SimpleDataTable) getProcess().getDataTable(getName());
+		ColumnarDataTable dataTable = getDataTable();
 
 		int sortingType = getParameterAsInt(PARAMETER_SORTING_TYPE);
 		if (sortingType == SORTING_TYPE_NONE || dataTable.getNumberOfRows() < getParameterAsInt(PARAMETER_SORTING_K)) {
-			dataTable.add(dataRow);
+			dataTable.add(row);
 		} else {
 			// sorting
 			String sortingDimension = getParameterAsString(PARAMETER_SORTING_DIMENSION);
@@ -241,7 +278,7 @@ public class ProcessLogOperator extends Operator {
 				String currentWorst = null;
 				int currentWorstIndex = -1;
 				for (int r = 0; r < dataTable.getNumberOfRows(); r++) {
-					double currentValue = dataTable.getRow(r).getValue(sortingDimensionIndex);
+					double currentValue = dataTable.getValue(r, sortingDimensionIndex);
 					String currentNominalValue = dataTable.mapIndex(sortingDimensionIndex, (int) currentValue);
 					if (currentWorst == null || sortingType == SORTING_TYPE_TOP_K
 							&& currentNominalValue.compareTo(currentWorst) < 0 || sortingType == SORTING_TYPE_BOTTOM_K
@@ -251,20 +288,20 @@ public class ProcessLogOperator extends Operator {
 					}
 				}
 
-				double candidateValue = dataRow.getValue(sortingDimensionIndex);
+				double candidateValue = row[sortingDimensionIndex];
 				String candidateNominalValue = dataTable.mapIndex(sortingDimensionIndex, (int) candidateValue);
 				if (currentWorstIndex >= 0 && sortingType == SORTING_TYPE_TOP_K
 						&& candidateNominalValue.compareTo(currentWorst) > 0 || sortingType == SORTING_TYPE_BOTTOM_K
 						&& candidateNominalValue.compareTo(currentWorst) < 0) {
-					dataTable.remove(dataTable.getRow(currentWorstIndex));
-					dataTable.add(dataRow);
+					dataTable.remove(currentWorstIndex);
+					dataTable.add(row);
 					dataTable.cleanMappingTables();
 				}
 			} else {
 				double currentWorst = Double.NaN;
 				int currentWorstIndex = -1;
 				for (int r = 0; r < dataTable.getNumberOfRows(); r++) {
-					double currentValue = dataTable.getRow(r).getValue(sortingDimensionIndex);
+					double currentValue = dataTable.getValue(r, sortingDimensionIndex);
 					if (Double.isNaN(currentWorst) || sortingType == SORTING_TYPE_TOP_K && currentValue < currentWorst
 							|| sortingType == SORTING_TYPE_BOTTOM_K && currentValue > currentWorst) {
 						currentWorst = currentValue;
@@ -272,21 +309,36 @@ public class ProcessLogOperator extends Operator {
 					}
 				}
 
-				double candidateValue = dataRow.getValue(sortingDimensionIndex);
+				double candidateValue = row[sortingDimensionIndex];
 				if (currentWorstIndex >= 0 && sortingType == SORTING_TYPE_TOP_K && candidateValue > currentWorst
 						|| sortingType == SORTING_TYPE_BOTTOM_K && candidateValue < currentWorst) {
-					dataTable.remove(dataTable.getRow(currentWorstIndex));
-					dataTable.add(dataRow);
+					dataTable.remove(currentWorstIndex);
+					dataTable.add(row);
 					dataTable.cleanMappingTables();
 				}
 			}
 		}
-		return dataRow;
+		return row;
+	}
+
+	@Override
+	public void processStarts() throws OperatorException {
+		super.processStarts();
+		// the sink of the previous run is still open if an operator failed before this one finished
+		try {
+			closeFileSink();
+		} catch (UserError e) {
+			logWarning(e.getMessage());
+		}
 	}
 
 	@Override
 	public void processFinished() throws OperatorException {
-		super.processFinished();
+		try {
+			super.processFinished();
+		} finally {
+			closeFileSink();
+		}
 
 		if (!getParameterAsBoolean(PARAMETER_PERSISTENT)) {
 			DataTable table = getProcess().getDataTable(getName());
@@ -349,6 +401,20 @@ public class ProcessLogOperator extends Operator {
 				SORTING_TYPE_NONE));
 		types.add(type);
 
+		type = new ParameterTypeBoolean(PARAMETER_LIMIT_ROWS,
+				"Indicates if only the most recent rows should be kept in memory. The log file still contains all rows if results are written immediately.",
+				false);
+		type.registerDependencyCondition(new EqualTypeCondition(this, PARAMETER_SORTING_TYPE, SORTING_TYPES, false,
+				SORTING_TYPE_NONE));
+		types.add(type);
+
+		type = new ParameterTypeInt(PARAMETER_ROW_LIMIT, "The maximum number of rows kept in memory.", 1, Integer.MAX_VALUE,
+				100000);
+		type.registerDependencyCondition(new BooleanParameterCondition(this, PARAMETER_LIMIT_ROWS, true, true));
+		type.registerDependencyCondition(new EqualTypeCondition(this, PARAMETER_SORTING_TYPE, SORTING_TYPES, false,
+				SORTING_TYPE_NONE));
+		types.add(type);
+
 		return types;
 	}
 
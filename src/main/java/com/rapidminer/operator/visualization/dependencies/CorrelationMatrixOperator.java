@@ -29,7 +29,7 @@ import com.rapidminer.operator.ports.OutputPort;
 import com.rapidminer.operator.ports.metadata.GenerateNewMDRule;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
-import com.rapidminer.tools.math.MathFunctions;
+import com.rapidminer.tools.math.matrix.CoMomentMatrix;
 
 import java.util.List;
 
@@ -45,8 +45,8 @@ import java.util.List;
  * </p>
  *
  * <p>
- * Please note that this simple implementation performs a data scan for each attribute combination
- * and might therefore take some time for non-memory example tables.
+ * All correlations are calculated in a single scan of the data which is done in parallel for large
+ * example sets.
  * </p>
  *
  * @author Ingo Mierswa
@@ -79,23 +79,16 @@ public class CorrelationMatrixOperator extends Operator {
 		boolean squared = getParameterAsBoolean(PARAMETER_SQUARED_CORRELATION);
 		boolean createWeights = getParameterAsBoolean(PARAMETER_CREATE_WEIGHTS);
 		boolean normalizeWeights = getParameterAsBoolean(PARAMETER_NORMALIZE_WEIGHTS);
-		int k = 0;
-		long progressCounter = 0;
 		getProgress().setTotal(100);
-		long batch = Math.max(1L, exampleSet.getAttributes().size() * (long) exampleSet.getAttributes().size() / 100);
 		Attribute[] regularAttributes = exampleSet.getAttributes().createRegularAttributeArray();
-		for (Attribute firstAttribute : regularAttributes) {
-			int l = 0;
-			for (Attribute secondAttribute : regularAttributes) {
-				matrix.setValue(k, l,
-						MathFunctions.correlation(exampleSet, firstAttribute, secondAttribute, squared || createWeights));
-				l++;
-				if (++progressCounter % batch == 0 || progressCounter % 1000 == 0) {
-					getProgress().setCompleted((int) (progressCounter * 100
-							/ (exampleSet.getAttributes().size() * (long) exampleSet.getAttributes().size())));
-				}
+		CoMomentMatrix moments = CoMomentMatrix.calculate(exampleSet, regularAttributes, this);
+		getProgress().setCompleted(90);
+		for (int k = 0; k < numberOfAttributes; k++) {
+			for (int l = k; l < numberOfAttributes; l++) {
+				double correlation = moments.getCorrelation(k, l, squared || createWeights);
+				matrix.setValue(k, l, correlation);
+				matrix.setValue(l, k, correlation);
 			}
-			k++;
 		}
 
 		AttributeWeights weights = new AttributeWeights();
@@ -83,4 +83,25 @@ public class Resources {
 		root.setUserData(USER_DATA_KEY, data);
 		return context;
 	}
+
+	/**
+	 * Replaces the {@link ConcurrencyContext} of the process the given {@link Operator} belongs to.
+	 * This is only accessible within this package and allows tests to execute operators with a
+	 * fixed level of parallelism.
+	 *
+	 * @param operator
+	 *            the operator
+	 * @param context
+	 *            the context to use for the operator and all other operators of its process
+	 * @since 7.6.1
+	 */
+	static void setConcurrencyContext(Operator operator, ConcurrencyContext context) {
+		if (operator == null) {
+			throw new IllegalArgumentException("operator must not be null");
+		}
+		if (context == null) {
+			throw new IllegalArgumentException("context must not be null");
+		}
+		operator.getRoot().setUserData(USER_DATA_KEY, new ContextUserData(context));
+	}
 }
@@ -0,0 +1,284 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.tools.plugin.Plugin;
+
+
+/**
+ * A persisted snapshot of the results of the operator registration. Registering an operator
+ * requires to instantiate it and to transform its meta data in order to find out which
+ * {@link com.rapidminer.operator.IOObject}s its ports handle. The snapshot stores these IO object
+ * classes for every operator description file, keyed by a checksum of the file, of the path, size
+ * and modification time of the jar of the providing extension and of the RapidMiner version. It
+ * also stores the file extensions readers register in their static initializers, see
+ * {@link com.rapidminer.operator.io.AbstractReader#getFileExtensionsForOperator}. If the checksum
+ * of a file did not change, the {@link OperatorService} restores both from the snapshot without
+ * instantiating the operators, so that the operator classes are only loaded on first usage.
+ * <p>
+ * The snapshot is stored in the user directory and can be disabled by the property
+ * {@link RapidMiner#PROPERTY_RAPIDMINER_INIT_OPERATORS_SNAPSHOT}. This class is not thread safe,
+ * it is only used during the initialization of the {@link OperatorService}.
+ *
+ * @since 7.6.1
+ */
+final class OperatorRegistrySnapshot {
+
+	/** the snapshot registration results of a single operator description file */
+	static final class Source {
+
+		private final long checksum;
+		private final Map<String, List<String>> ioObjects;
+		private final Map<String, Map<String, String>> readers;
+		private boolean modified;
+
+		private Source(long checksum, Map<String, List<String>> ioObjects, Map<String, Map<String, String>> readers) {
+			this.checksum = checksum;
+			this.ioObjects = ioObjects;
+			this.readers = readers;
+		}
+
+		/**
+		 * Returns the fully qualified names of the IO object classes handled by the ports of the
+		 * operator with the given key, or {@code null} if the operator is not part of the snapshot.
+		 */
+		List<String> getIOObjects(String operatorKey) {
+			return ioObjects.get(operatorKey);
+		}
+
+		/** Stores the IO object classes handled by the ports of the operator with the given key. */
+		void putIOObjects(String operatorKey, List<String> classNames) {
+			ioObjects.put(operatorKey, Collections.unmodifiableList(new ArrayList<>(classNames)));
+			modified = true;
+		}
+
+		/**
+		 * Returns the file parameter keys by file extension the operator with the given key is
+		 * registered for as reader. The map is empty if the operator is no reader.
+		 */
+		Map<String, String> getReaders(String operatorKey) {
+			Map<String, String> operatorReaders = readers.get(operatorKey);
+			return operatorReaders != null ? operatorReaders : Collections.<String, String> emptyMap();
+		}
+
+		/** Stores the file parameter keys by file extension of the operator with the given key. */
+		void putReaders(String operatorKey, Map<String, String> fileParameterKeys) {
+			if (fileParameterKeys.isEmpty()) {
+				readers.remove(operatorKey);
+			} else {
+				readers.put(operatorKey, Collections.unmodifiableMap(new LinkedHashMap<>(fileParameterKeys)));
+			}
+			modified = true;
+		}
+	}
+
+	private static final int FORMAT_VERSION = 2;
+
+	private static final String FILE_NAME = "operator_registry.snapshot";
+
+	/** the sources read from the snapshot file */
+	private final Map<String, Source> restoredSources;
+
+	/** the sources used during the current initialization */
+	private final Map<String, Source> currentSources = new LinkedHashMap<>();
+
+	private OperatorRegistrySnapshot(Map<String, Source> restoredSources) {
+		this.restoredSources = restoredSources;
+	}
+
+	/**
+	 * Returns the snapshot source for the operator description file with the given id. If the
+	 * stored checksum differs from the given one, an empty source is returned.
+	 */
+	Source getSource(String sourceId, long checksum) {
+		Source source = restoredSources.get(sourceId);
+		if (source == null || source.checksum != checksum) {
+			source = new Source(checksum, new HashMap<String, List<String>>(),
+					new HashMap<String, Map<String, String>>());
+			source.modified = true;
+		}
+		currentSources.put(sourceId, source);
+		return source;
+	}
+
+	/**
+	 * Writes the snapshot if any source changed. Sources which were not used during the current
+	 * initialization, e.g. of uninstalled extensions, are dropped.
+	 */
+	void save() {
+		save(FileSystemService.getUserConfigFile(FILE_NAME));
+	}
+
+	/** Writes the snapshot to the given file if any source changed. */
+	void save(File file) {
+		boolean modified = !restoredSources.keySet().equals(currentSources.keySet());
+		for (Source source : currentSources.values()) {
+			modified |= source.modified;
+		}
+		if (!modified) {
+			return;
+		}
+		File tempFile = null;
+		try {
+			tempFile = File.createTempFile(FILE_NAME, ".tmp", file.getParentFile());
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+				out.writeInt(FORMAT_VERSION);
+				out.writeUTF(RapidMiner.getLongVersion());
+				out.writeInt(currentSources.size());
+				for (Map.Entry<String, Source> sourceEntry : currentSources.entrySet()) {
+					Source source = sourceEntry.getValue();
+					out.writeUTF(sourceEntry.getKey());
+					out.writeLong(source.checksum);
+					out.writeInt(source.ioObjects.size());
+					for (Map.Entry<String, List<String>> operatorEntry : source.ioObjects.entrySet()) {
+						out.writeUTF(operatorEntry.getKey());
+						out.writeInt(operatorEntry.getValue().size());
+						for (String className : operatorEntry.getValue()) {
+							out.writeUTF(className);
+						}
+					}
+					out.writeInt(source.readers.size());
+					for (Map.Entry<String, Map<String, String>> operatorEntry : source.readers.entrySet()) {
+						out.writeUTF(operatorEntry.getKey());
+						out.writeInt(operatorEntry.getValue().size());
+						for (Map.Entry<String, String> readerEntry : operatorEntry.getValue().entrySet()) {
+							out.writeUTF(readerEntry.getKey());
+							out.writeUTF(readerEntry.getValue());
+						}
+					}
+				}
+			}
+			// replace atomically, other instances might read the snapshot concurrently
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException | RuntimeException e) {
+			LogService.getRoot().log(Level.FINE, "com.rapidminer.tools.OperatorRegistrySnapshot.writing_failed",
+					new Object[] { file, e.getMessage() });
+			if (tempFile != null) {
+				tempFile.delete();
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the snapshot should be used, i.e. whether the file system can be accessed and
+	 * the property {@link RapidMiner#PROPERTY_RAPIDMINER_INIT_OPERATORS_SNAPSHOT} is not disabled.
+	 */
+	static boolean isEnabled() {
+		if (!RapidMiner.getExecutionMode().canAccessFilesystem()) {
+			return false;
+		}
+		String value = ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_INIT_OPERATORS_SNAPSHOT);
+		return value == null || value.isEmpty() || Boolean.parseBoolean(value);
+	}
+
+	/**
+	 * Reads the snapshot from the user directory. Returns an empty snapshot if the file does not
+	 * exist, is unreadable or was written by another RapidMiner version.
+	 */
+	static OperatorRegistrySnapshot load() {
+		return load(FileSystemService.getUserConfigFile(FILE_NAME));
+	}
+
+	/** Reads the snapshot from the given file, see {@link #load()}. */
+	static OperatorRegistrySnapshot load(File file) {
+		Map<String, Source> sources = new HashMap<>();
+		if (!file.exists()) {
+			return new OperatorRegistrySnapshot(sources);
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != FORMAT_VERSION || !RapidMiner.getLongVersion().equals(in.readUTF())) {
+				return new OperatorRegistrySnapshot(sources);
+			}
+			int sourceCount = in.readInt();
+			for (int i = 0; i < sourceCount; i++) {
+				String sourceId = in.readUTF();
+				long checksum = in.readLong();
+				int operatorCount = in.readInt();
+				Map<String, List<String>> ioObjects = new HashMap<>(operatorCount * 2);
+				for (int j = 0; j < operatorCount; j++) {
+					String operatorKey = in.readUTF();
+					int classCount = in.readInt();
+					List<String> classNames = new ArrayList<>(classCount);
+					for (int k = 0; k < classCount; k++) {
+						classNames.add(in.readUTF());
+					}
+					ioObjects.put(operatorKey, Collections.unmodifiableList(classNames));
+				}
+				int readerCount = in.readInt();
+				Map<String, Map<String, String>> readers = new HashMap<>(readerCount * 2);
+				for (int j = 0; j < readerCount; j++) {
+					String operatorKey = in.readUTF();
+					int extensionCount = in.readInt();
+					Map<String, String> fileParameterKeys = new LinkedHashMap<>(extensionCount * 2);
+					for (int k = 0; k < extensionCount; k++) {
+						fileParameterKeys.put(in.readUTF(), in.readUTF());
+					}
+					readers.put(operatorKey, Collections.unmodifiableMap(fileParameterKeys));
+				}
+				sources.put(sourceId, new Source(checksum, ioObjects, readers));
+			}
+		} catch (IOException | RuntimeException e) {
+			LogService.getRoot().log(Level.FINE, "com.rapidminer.tools.OperatorRegistrySnapshot.reading_failed",
+					new Object[] { file, e.getMessage() });
+			sources.clear();
+		}
+		return new OperatorRegistrySnapshot(sources);
+	}
+
+	/**
+	 * Calculates the checksum of an operator description file. It covers the content of the file,
+	 * the RapidMiner version and the path, size and modification time of the jar of the providing
+	 * extension, if any. The jar itself is not read since an extension provides several files.
+	 */
+	static long checksum(byte[] operatorsXML, Plugin provider) {
+		CRC32 crc = new CRC32();
+		crc.update(RapidMiner.getLongVersion().getBytes(StandardCharsets.UTF_8));
+		crc.update(operatorsXML);
+		if (provider != null && provider.getFile() != null) {
+			File jar = provider.getFile();
+			crc.update(jar.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+			crc.update(Long.toString(jar.length()).getBytes(StandardCharsets.UTF_8));
+			crc.update(Long.toString(jar.lastModified()).getBytes(StandardCharsets.UTF_8));
+		}
+		return crc.getValue();
+	}
+}
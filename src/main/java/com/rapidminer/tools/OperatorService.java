@@ -21,6 +21,7 @@ package com.rapidminer.tools;
 import com.rapidminer.RapidMiner;
 import com.rapidminer.io.process.XMLTools;
 import com.rapidminer.operator.*;
+import com.rapidminer.operator.io.AbstractReader;
 import com.rapidminer.operator.ports.IncompatibleMDClassException;
 import com.rapidminer.operator.ports.Port;
 import com.rapidminer.operator.ports.Ports;
@@ -36,6 +37,7 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
 import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -97,8 +99,8 @@ public class OperatorService {
 	 */
 	private static final Map<String, OperatorDescription> KEYS_TO_DESCRIPTIONS = new HashMap<>();
 
-	/** Set of all Operator classes registered. */
-	private static final Set<Class<? extends Operator>> REGISTERED_OPERATOR_CLASSES = new HashSet<>();
+	/** Set of the names of all Operator classes registered. */
+	private static final Set<String> REGISTERED_OPERATOR_CLASSES = new HashSet<>();
 
 	/** The Map for all IO objects (maps short names on classes). */
 	private static final Map<String, Class<? extends IOObject>> IO_OBJECT_NAME_MAP = new TreeMap<>();
@@ -108,7 +110,29 @@ public class OperatorService {
 
 	private static final GroupTreeRoot groupTreeRoot = new GroupTreeRoot();
 
+	/** The registry snapshot used during {@link #init()}, {@code null} if disabled. */
+	private static OperatorRegistrySnapshot snapshot;
+
+	/** The snapshot source of the operator description file currently registered. */
+	private static OperatorRegistrySnapshot.Source snapshotSource;
+
 	public static void init() {
+		snapshot = OperatorRegistrySnapshot.isEnabled() ? OperatorRegistrySnapshot.load() : null;
+		try {
+			registerAllOperators();
+		} finally {
+			if (snapshot != null) {
+				snapshot.save();
+				snapshot = null;
+			}
+		}
+
+		LogService.getRoot().log(Level.FINE,
+				"com.rapidminer.tools.OperatorService.number_of_registered_operator_classes_and_descriptions",
+				new Object[] { REGISTERED_OPERATOR_CLASSES.size(), KEYS_TO_DESCRIPTIONS.size(), DEPRECATION_MAP.size() });
+	}
+
+	private static void registerAllOperators() {
 		URL mainOperators = getMainOperators();
 		if (mainOperators == null) {
 			LogService.getRoot().log(Level.SEVERE,
@@ -160,10 +184,6 @@ public class OperatorService {
 
 		// add parent folder as operator tag
 		addParentFolderOperatorTags();
-
-		LogService.getRoot().log(Level.FINE,
-				"com.rapidminer.tools.OperatorService.number_of_registered_operator_classes_and_descriptions",
-				new Object[] { REGISTERED_OPERATOR_CLASSES.size(), KEYS_TO_DESCRIPTIONS.size(), DEPRECATION_MAP.size() });
 	}
 
 	/**
@@ -175,7 +195,7 @@ public class OperatorService {
 			if (operatorDescription == null) {
 				continue;
 			}
-			if (ProcessRootOperator.class.equals(operatorDescription.getOperatorClass())) {
+			if (ProcessRootOperator.class.getName().equals(operatorDescription.getOperatorClassName())) {
 				// no tags for the root process
 				continue;
 			}
@@ -232,6 +252,18 @@ public class OperatorService {
 	}
 
 	public static void registerOperators(String name, InputStream operatorsXML, ClassLoader classLoader, Plugin provider) {
+		registerOperators(name, operatorsXML, classLoader, provider, snapshot);
+	}
+
+	/**
+	 * Registers all operators from a given XML input stream. The IO objects of the operators are
+	 * restored from the given snapshot if possible.
+	 *
+	 * @param snapshot
+	 *            the registry snapshot, may be {@code null}
+	 */
+	static void registerOperators(String name, InputStream operatorsXML, ClassLoader classLoader, Plugin provider,
+			OperatorRegistrySnapshot snapshot) {
 		// register operators
 		if (classLoader == null) {
 			classLoader = OperatorService.class.getClassLoader();
@@ -241,6 +273,14 @@ public class OperatorService {
 		String version = null;
 		Document document = null;
 		try {
+			OperatorRegistrySnapshot.Source source = null;
+			if (snapshot != null) {
+				// the checksum of the content decides whether the snapshot can be used
+				byte[] content = Tools.readInputStream(operatorsXML);
+				String sourceId = provider != null ? provider.getExtensionId() : name;
+				source = snapshot.getSource(sourceId, OperatorRegistrySnapshot.checksum(content, provider));
+				operatorsXML = new ByteArrayInputStream(content);
+			}
 			document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(operatorsXML);
 			if (!document.getDocumentElement().getTagName().toLowerCase().equals("operators")) {
 				LogService.getRoot().log(Level.SEVERE,
@@ -249,7 +289,12 @@ public class OperatorService {
 			}
 			version = document.getDocumentElement().getAttribute("version");
 			if (version.startsWith("5.") || version.startsWith("6.") || version.startsWith("7.")) {
-				parseOperators(document, classLoader, provider);
+				snapshotSource = source;
+				try {
+					parseOperators(document, classLoader, provider);
+				} finally {
+					snapshotSource = null;
+				}
 			} else {
 				LogService.getRoot().log(Level.WARNING, I18N.getMessage(LogService.getRoot().getResourceBundle(),
 						"com.rapidminer.tools.OperatorService.operator_description_file_wrong_version", name, version));
@@ -485,8 +530,8 @@ public class OperatorService {
 			// oldDescription.getOperatorClass().getName() + ". Overwriting with " +
 			// description.getOperatorClass() + ".");
 			LogService.getRoot().log(Level.WARNING, "com.rapidminer.tools.OperatorService.operator_key_already_registered",
-					new Object[] { description.getKey(), oldDescription.getOperatorClass().getName(),
-							description.getOperatorClass() });
+					new Object[] { description.getKey(), oldDescription.getOperatorClassName(),
+							description.getOperatorClassName() });
 		}
 
 		// check if icon already was set.
@@ -496,14 +541,37 @@ public class OperatorService {
 
 		// register in maps
 		KEYS_TO_DESCRIPTIONS.put(description.getKey(), description);
-		REGISTERED_OPERATOR_CLASSES.add(description.getOperatorClass());
-
-		// TODO: Check if still necessary.
-		Operator currentOperator = description.createOperatorInstance();
-		currentOperator.assumePreconditionsSatisfied();
-		currentOperator.transformMetaData();
-		checkIOObjects(currentOperator.getInputPorts());
-		checkIOObjects(currentOperator.getOutputPorts());
+		REGISTERED_OPERATOR_CLASSES.add(description.getOperatorClassName());
+
+		// register the IO objects handled by the ports, the snapshot avoids creating the operator
+		OperatorRegistrySnapshot.Source source = snapshotSource;
+		if (source == null || !registerIOObjects(description, source.getIOObjects(description.getKey()))) {
+			Operator currentOperator = description.createOperatorInstance();
+			currentOperator.assumePreconditionsSatisfied();
+			currentOperator.transformMetaData();
+			List<Class<? extends IOObject>> ioObjects = new ArrayList<>();
+			collectIOObjects(currentOperator.getInputPorts(), ioObjects);
+			collectIOObjects(currentOperator.getOutputPorts(), ioObjects);
+			registerIOObjects(ioObjects);
+			if (source != null) {
+				List<String> classNames = new ArrayList<>(ioObjects.size());
+				for (Class<? extends IOObject> ioObject : ioObjects) {
+					classNames.add(ioObject.getName());
+				}
+				source.putIOObjects(description.getKey(), classNames);
+				// the static initializer of a reader registers its file extensions
+				Map<String, String> readers = new LinkedHashMap<>();
+				for (String extension : AbstractReader.getFileExtensionsForOperator(currentOperator)) {
+					readers.put(extension, AbstractReader.getFileParameterForOperator(currentOperator));
+				}
+				source.putReaders(description.getKey(), readers);
+			}
+		} else {
+			// the class is not loaded, so restore the registrations of its static initializer
+			for (Map.Entry<String, String> reader : source.getReaders(description.getKey()).entrySet()) {
+				AbstractReader.registerReaderDescription(reader.getKey(), description, reader.getValue());
+			}
+		}
 
 		// inform listener
 		invokeOperatorRegisteredListener(description, bundle);
@@ -514,7 +582,7 @@ public class OperatorService {
 	 */
 	public static void unregisterOperator(OperatorDescription description) {
 		KEYS_TO_DESCRIPTIONS.remove(description.getKey());
-		REGISTERED_OPERATOR_CLASSES.remove(description.getOperatorClass());
+		REGISTERED_OPERATOR_CLASSES.remove(description.getOperatorClassName());
 
 		// inform all listener including GroupTree
 		invokeOperatorUnregisteredListener(description);
@@ -533,11 +601,9 @@ public class OperatorService {
 	}
 
 	/**
-	 * Checks if the classes generated by these ports are already registered and registers them if
-	 * not.
+	 * Adds the classes generated by these ports to the given list.
 	 */
-	private static void checkIOObjects(Ports<? extends Port> ports) {
-		List<Class<? extends IOObject>> result = new LinkedList<>();
+	private static void collectIOObjects(Ports<? extends Port> ports, List<Class<? extends IOObject>> result) {
 		for (Port port : ports.getAllPorts()) {
 			try {
 				if (port.getMetaData(MetaData.class) != null) {
@@ -547,7 +613,35 @@ public class OperatorService {
 				// cannot happen since MetaData is the base class for all meta data
 			}
 		}
+	}
+
+	/**
+	 * Registers the IO object classes restored from the registry snapshot for the given
+	 * description. Classes already registered under their short name are not loaded again.
+	 *
+	 * @return {@code false} if no classes are known or one of them cannot be loaded
+	 */
+	private static boolean registerIOObjects(OperatorDescription description, List<String> classNames) {
+		if (classNames == null) {
+			return false;
+		}
+		ClassLoader classLoader = description.getProvider() != null ? description.getProvider().getClassLoader()
+				: OperatorService.class.getClassLoader();
+		List<Class<? extends IOObject>> result = new ArrayList<>(classNames.size());
+		for (String className : classNames) {
+			Class<? extends IOObject> registered = IO_OBJECT_NAME_MAP
+					.get(className.substring(className.lastIndexOf(".") + 1));
+			if (registered != null && registered.getName().equals(className)) {
+				continue;
+			}
+			try {
+				result.add(Class.forName(className, false, classLoader).asSubclass(IOObject.class));
+			} catch (ClassNotFoundException | LinkageError | ClassCastException e) {
+				return false;
+			}
+		}
 		registerIOObjects(result);
+		return true;
 	}
 
 	/** Checks if the given classes are already registered and adds them if not. */
@@ -612,7 +706,8 @@ public class OperatorService {
 		}
 		List<OperatorDescription> result = new ArrayList<>(1);
 		for (OperatorDescription current : KEYS_TO_DESCRIPTIONS.values()) {
-			if (current.getOperatorClass().equals(clazz)) {
+			// compare the names first to avoid loading the classes of all operators
+			if (current.getOperatorClassName().equals(clazz.getName()) && current.getOperatorClass().equals(clazz)) {
 				result.add(current);
 			}
 		}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.expression.internal.function;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+
+/**
+ * Caches objects which are expensive to derive from the string arguments of a {@link AbstractFunction},
+ * like compiled {@link Pattern}s or date formats. A cache belongs to a single callable of an
+ * expression evaluator and is, like the callables, not thread-safe.
+ * <p>
+ * The object of the last arguments is kept separately and found by identity first. Constant
+ * arguments therefore cost a single comparison per evaluation after the object was created once.
+ * Changing arguments are kept in a bounded least recently used cache. Objects are created lazily,
+ * so errors caused by invalid arguments are still reported when the function is evaluated. Such
+ * errors are not cached.
+ *
+ * @param <V>
+ *            the type of the cached objects
+ * @since 7.6.1
+ */
+public final class ArgumentCache<V> {
+
+	/**
+	 * Creates the object for the arguments.
+	 *
+	 * @param <V>
+	 *            the type of the created objects
+	 */
+	public interface Factory<V> {
+
+		/**
+		 * Creates the object for the given arguments.
+		 *
+		 * @param first
+		 *            the first argument, never {@code null}
+		 * @param second
+		 *            the second argument, {@code null} if the cache is used with a single argument
+		 * @return the object, must not be {@code null}
+		 */
+		V create(String first, String second);
+	}
+
+	/** The default number of objects for changing arguments. */
+	public static final int DEFAULT_CAPACITY = 64;
+
+	/** Factory compiling the first argument as regular expression. */
+	public static final Factory<Pattern> PATTERN_FACTORY = new Factory<Pattern>() {
+
+		@Override
+		public Pattern create(String first, String second) {
+			return Pattern.compile(first);
+		}
+	};
+
+	/** The key of two arguments. */
+	private static final class Key {
+
+		private final String first;
+		private final String second;
+
+		private Key(String first, String second) {
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return first.equals(other.first) && Objects.equals(second, other.second);
+		}
+
+		@Override
+		public int hashCode() {
+			return first.hashCode() * 31 + Objects.hashCode(second);
+		}
+	}
+
+	private final Factory<V> factory;
+
+	private final Map<Key, V> cache;
+
+	private String lastFirst;
+	private String lastSecond;
+	private V lastValue;
+
+	/**
+	 * Creates a cache holding up to {@link #DEFAULT_CAPACITY} objects.
+	 */
+	public ArgumentCache(Factory<V> factory) {
+		this(factory, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a cache holding up to the given number of objects.
+	 */
+	public ArgumentCache(Factory<V> factory, final int capacity) {
+		this.factory = factory;
+		this.cache = new LinkedHashMap<Key, V>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns the object for the single argument.
+	 *
+	 * @param argument
+	 *            the argument, must not be {@code null}
+	 */
+	public V get(String argument) {
+		return get(argument, null);
+	}
+
+	/**
+	 * Returns the object for the two arguments.
+	 *
+	 * @param first
+	 *            the first argument, must not be {@code null}
+	 * @param second
+	 *            the second argument, can be {@code null}
+	 */
+	public V get(String first, String second) {
+		if (lastValue != null && first == lastFirst && second == lastSecond) {
+			return lastValue;
+		}
+		Key key = new Key(first, second);
+		V value = cache.get(key);
+		if (value == null) {
+			value = factory.create(first, second);
+			cache.put(key, value);
+		}
+		lastFirst = first;
+		lastSecond = second;
+		lastValue = value;
+		return value;
+	}
+}
@@ -22,9 +22,9 @@ import com.rapidminer.tools.Ontology;
 import com.rapidminer.tools.expression.*;
 import com.rapidminer.tools.expression.internal.SimpleExpressionEvaluator;
 import com.rapidminer.tools.expression.internal.function.AbstractFunction;
+import com.rapidminer.tools.expression.internal.function.ArgumentCache;
 
 import java.text.SimpleDateFormat;
-import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
 import java.util.concurrent.Callable;
@@ -39,6 +39,15 @@ import java.util.concurrent.Callable;
  */
 public class DateParseCustom extends AbstractFunction {
 
+	/** Creates the date format for a pattern and a locale. */
+	private static final ArgumentCache.Factory<SimpleDateFormat> FORMAT_FACTORY = new ArgumentCache.Factory<SimpleDateFormat>() {
+
+		@Override
+		public SimpleDateFormat create(String pattern, String locale) {
+			return new SimpleDateFormat(pattern, new Locale(locale));
+		}
+	};
+
 	/**
 	 * Constructs an AbstractFunction with {@link FunctionDescription} generated from the arguments
 	 * and the function name generated from the description.
@@ -75,6 +84,9 @@ public class DateParseCustom extends AbstractFunction {
 		final Callable<String> funcDateString = date.getStringFunction();
 		final Callable<String> funcPattern = pattern.getStringFunction();
 
+		final ArgumentCache<SimpleDateFormat> formats = new ArgumentCache<>(FORMAT_FACTORY);
+		final String defaultLocale = Locale.getDefault().getISO3Language();
+
 		try {
 			final String valuePattern = pattern.isConstant() ? funcPattern.call() : null;
 			final String valueDate = date.isConstant() ? funcDateString.call() : null;
@@ -90,7 +102,7 @@ public class DateParseCustom extends AbstractFunction {
 
 							@Override
 							public Date call() throws Exception {
-								return compute(valueDate, valuePattern, valueLocale);
+								return compute(valueDate, valuePattern, valueLocale, formats);
 							}
 						};
 					} else if (date.isConstant()) {
@@ -98,7 +110,7 @@ public class DateParseCustom extends AbstractFunction {
 
 							@Override
 							public Date call() throws Exception {
-								return compute(valueDate, valuePattern, funcLocale.call());
+								return compute(valueDate, valuePattern, funcLocale.call(), formats);
 							}
 						};
 					} else if (locale.isConstant()) {
@@ -106,7 +118,7 @@ public class DateParseCustom extends AbstractFunction {
 
 							@Override
 							public Date call() throws Exception {
-								return compute(funcDateString.call(), valuePattern, valueLocale);
+								return compute(funcDateString.call(), valuePattern, valueLocale, formats);
 							}
 						};
 					} else {
@@ -114,7 +126,7 @@ public class DateParseCustom extends AbstractFunction {
 
 							@Override
 							public Date call() throws Exception {
-								return compute(funcDateString.call(), valuePattern, funcLocale.call());
+								return compute(funcDateString.call(), valuePattern, funcLocale.call(), formats);
 							}
 						};
 					}
@@ -124,7 +136,7 @@ public class DateParseCustom extends AbstractFunction {
 
 							@Override
 							public Date call() throws Exception {
-								return compute(valueDate, funcPattern.call(), valueLocale);
+								return compute(valueDate, funcPattern.call(), valueLocale, formats);
 							}
 						};
 					} else if (date.isConstant()) {
@@ -132,7 +144,7 @@ public class DateParseCustom extends AbstractFunction {
 
 							@Override
 							public Date call() throws Exception {
-								return compute(valueDate, funcPattern.call(), funcLocale.call());
+								return compute(valueDate, funcPattern.call(), funcLocale.call(), formats);
 							}
 						};
 					} else if (locale.isConstant()) {
@@ -140,7 +152,7 @@ public class DateParseCustom extends AbstractFunction {
 
 							@Override
 							public Date call() throws Exception {
-								return compute(funcDateString.call(), funcPattern.call(), valueLocale);
+								return compute(funcDateString.call(), funcPattern.call(), valueLocale, formats);
 							}
 						};
 					} else {
@@ -148,7 +160,7 @@ public class DateParseCustom extends AbstractFunction {
 
 							@Override
 							public Date call() throws Exception {
-								return compute(funcDateString.call(), funcPattern.call(), funcLocale.call());
+								return compute(funcDateString.call(), funcPattern.call(), funcLocale.call(), formats);
 							}
 						};
 					}
@@ -160,7 +172,7 @@ public class DateParseCustom extends AbstractFunction {
 
 						@Override
 						public Date call() throws Exception {
-							return compute(valueDate, valuePattern);
+							return compute(valueDate, valuePattern, defaultLocale, formats);
 						}
 					};
 				} else if (date.isConstant()) {
@@ -168,7 +180,7 @@ public class DateParseCustom extends AbstractFunction {
 
 						@Override
 						public Date call() throws Exception {
-							return compute(valueDate, funcPattern.call());
+							return compute(valueDate, funcPattern.call(), defaultLocale, formats);
 						}
 					};
 				} else if (pattern.isConstant()) {
@@ -176,7 +188,7 @@ public class DateParseCustom extends AbstractFunction {
 
 						@Override
 						public Date call() throws Exception {
-							return compute(funcDateString.call(), valuePattern);
+							return compute(funcDateString.call(), valuePattern, defaultLocale, formats);
 						}
 					};
 				} else {
@@ -184,7 +196,7 @@ public class DateParseCustom extends AbstractFunction {
 
 						@Override
 						public Date call() throws Exception {
-							return compute(funcDateString.call(), funcPattern.call());
+							return compute(funcDateString.call(), funcPattern.call(), defaultLocale, formats);
 						}
 					};
 				}
@@ -223,23 +235,27 @@ public class DateParseCustom extends AbstractFunction {
 	 * @return the result of the computation.
 	 */
 	protected Date compute(String dateString, String patternString, String localeString) {
+		return compute(dateString, patternString, localeString, null);
+	}
+
+	/**
+	 * Computes the result for three string input values, taking the date format from the cache if
+	 * one is given.
+	 */
+	private Date compute(String dateString, String patternString, String localeString,
+			ArgumentCache<SimpleDateFormat> formats) {
 		if (dateString == null || patternString == null || localeString == null) {
 			return null;
 		}
-		Locale locale = new Locale(localeString);
-		SimpleDateFormat simpleDateFormatter = null;
-		Date parsedDate = null;
 		try {
-			simpleDateFormatter = new SimpleDateFormat(patternString, locale);
-			parsedDate = simpleDateFormatter.parse(dateString);
+			SimpleDateFormat simpleDateFormatter = formats == null ? FORMAT_FACTORY.create(patternString, localeString)
+					: formats.get(patternString, localeString);
+			return simpleDateFormatter.parse(dateString);
 		} catch (IllegalArgumentException e) {
 			throw new FunctionInputException("invalid_argument.custom_format", getFunctionName());
 		} catch (java.text.ParseException e) {
 			throw new FunctionInputException("invalid_argument.date", getFunctionName());
 		}
-		Calendar cal = Calendar.getInstance(locale);
-		cal.setTime(parsedDate);
-		return cal.getTime();
 	}
 
 	@Override
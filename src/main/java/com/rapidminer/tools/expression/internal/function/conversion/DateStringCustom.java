@@ -22,6 +22,7 @@ import com.rapidminer.tools.Ontology;
 import com.rapidminer.tools.expression.*;
 import com.rapidminer.tools.expression.internal.SimpleExpressionEvaluator;
 import com.rapidminer.tools.expression.internal.function.AbstractFunction;
+import com.rapidminer.tools.expression.internal.function.ArgumentCache;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -38,6 +39,15 @@ import java.util.concurrent.Callable;
  */
 public class DateStringCustom extends AbstractFunction {
 
+	/** Creates the date format for a pattern and a locale. */
+	private static final ArgumentCache.Factory<SimpleDateFormat> FORMAT_FACTORY = new ArgumentCache.Factory<SimpleDateFormat>() {
+
+		@Override
+		public SimpleDateFormat create(String pattern, String locale) {
+			return new SimpleDateFormat(pattern, new Locale(locale));
+		}
+	};
+
 	/**
 	 * Constructs an AbstractFunction with {@link FunctionDescription} generated from the arguments
 	 * and the function name generated from the description.
@@ -72,6 +82,9 @@ public class DateStringCustom extends AbstractFunction {
 		final Callable<Date> funcDate = date.getDateFunction();
 		final Callable<String> funcPattern = pattern.getStringFunction();
 
+		final ArgumentCache<SimpleDateFormat> formats = new ArgumentCache<>(FORMAT_FACTORY);
+		final String defaultLocale = Locale.getDefault().getISO3Language();
+
 		try {
 			final Date valueDate = date.isConstant() ? funcDate.call() : null;
 			final String valuePattern = pattern.isConstant() ? funcPattern.call() : null;
@@ -87,7 +100,7 @@ public class DateStringCustom extends AbstractFunction {
 
 							@Override
 							public String call() throws Exception {
-								return compute(valueDate, valuePattern, valueLocale);
+								return compute(valueDate, valuePattern, valueLocale, formats);
 							}
 						};
 					} else if (date.isConstant()) {
@@ -95,7 +108,7 @@ public class DateStringCustom extends AbstractFunction {
 
 							@Override
 							public String call() throws Exception {
-								return compute(valueDate, funcPattern.call(), valueLocale);
+								return compute(valueDate, funcPattern.call(), valueLocale, formats);
 							}
 
 						};
@@ -105,7 +118,7 @@ public class DateStringCustom extends AbstractFunction {
 
 							@Override
 							public String call() throws Exception {
-								return compute(funcDate.call(), valuePattern, valueLocale);
+								return compute(funcDate.call(), valuePattern, valueLocale, formats);
 							}
 
 						};
@@ -115,7 +128,7 @@ public class DateStringCustom extends AbstractFunction {
 
 							@Override
 							public String call() throws Exception {
-								return compute(funcDate.call(), funcPattern.call(), valueLocale);
+								return compute(funcDate.call(), funcPattern.call(), valueLocale, formats);
 							}
 						};
 					}
@@ -126,7 +139,7 @@ public class DateStringCustom extends AbstractFunction {
 
 							@Override
 							public String call() throws Exception {
-								return compute(valueDate, valuePattern, funcLocale.call());
+								return compute(valueDate, valuePattern, funcLocale.call(), formats);
 							}
 						};
 					} else if (date.isConstant()) {
@@ -134,7 +147,7 @@ public class DateStringCustom extends AbstractFunction {
 
 							@Override
 							public String call() throws Exception {
-								return compute(valueDate, funcPattern.call(), funcLocale.call());
+								return compute(valueDate, funcPattern.call(), funcLocale.call(), formats);
 							}
 
 						};
@@ -144,7 +157,7 @@ public class DateStringCustom extends AbstractFunction {
 
 							@Override
 							public String call() throws Exception {
-								return compute(funcDate.call(), valuePattern, funcLocale.call());
+								return compute(funcDate.call(), valuePattern, funcLocale.call(), formats);
 							}
 
 						};
@@ -154,7 +167,7 @@ public class DateStringCustom extends AbstractFunction {
 
 							@Override
 							public String call() throws Exception {
-								return compute(funcDate.call(), funcPattern.call(), funcLocale.call());
+								return compute(funcDate.call(), funcPattern.call(), funcLocale.call(), formats);
 							}
 						};
 					}
@@ -165,7 +178,7 @@ public class DateStringCustom extends AbstractFunction {
 
 						@Override
 						public String call() throws Exception {
-							return compute(valueDate, valuePattern);
+							return compute(valueDate, valuePattern, defaultLocale, formats);
 						}
 					};
 				} else if (date.isConstant()) {
@@ -173,7 +186,7 @@ public class DateStringCustom extends AbstractFunction {
 
 						@Override
 						public String call() throws Exception {
-							return compute(valueDate, funcPattern.call());
+							return compute(valueDate, funcPattern.call(), defaultLocale, formats);
 						}
 
 					};
@@ -183,7 +196,7 @@ public class DateStringCustom extends AbstractFunction {
 
 						@Override
 						public String call() throws Exception {
-							return compute(funcDate.call(), valuePattern);
+							return compute(funcDate.call(), valuePattern, defaultLocale, formats);
 						}
 
 					};
@@ -193,7 +206,7 @@ public class DateStringCustom extends AbstractFunction {
 
 						@Override
 						public String call() throws Exception {
-							return compute(funcDate.call(), funcPattern.call());
+							return compute(funcDate.call(), funcPattern.call(), defaultLocale, formats);
 						}
 					};
 				}
@@ -232,15 +245,23 @@ public class DateStringCustom extends AbstractFunction {
 	 * @return the result of the computation.
 	 */
 	protected String compute(Date dateDate, String patternString, String localeString) {
+		return compute(dateDate, patternString, localeString, null);
+	}
+
+	/**
+	 * Computes the result for one date and two string input values, taking the date format from
+	 * the cache if one is given.
+	 */
+	private String compute(Date dateDate, String patternString, String localeString,
+			ArgumentCache<SimpleDateFormat> formats) {
 		if (dateDate == null || patternString == null || localeString == null) {
 			return null;
 		}
 
-		Locale locale = new Locale(localeString);
-
 		SimpleDateFormat simpleDateFormatter;
 		try {
-			simpleDateFormatter = new SimpleDateFormat(patternString, locale);
+			simpleDateFormatter = formats == null ? FORMAT_FACTORY.create(patternString, localeString)
+					: formats.get(patternString, localeString);
 		} catch (IllegalArgumentException e) {
 			throw new FunctionInputException("invalid_argument.custom_format", getFunctionName());
 		}
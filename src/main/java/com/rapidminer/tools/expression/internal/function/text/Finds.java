@@ -18,8 +18,12 @@
 */
 package com.rapidminer.tools.expression.internal.function.text;
 
+import com.rapidminer.tools.expression.ExpressionEvaluator;
 import com.rapidminer.tools.expression.FunctionInputException;
+import com.rapidminer.tools.expression.internal.function.ArgumentCache;
 
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 
@@ -32,6 +36,15 @@ import java.util.regex.PatternSyntaxException;
  */
 public class Finds extends Abstract2StringInputBooleanOutputFunction {
 
+	/** Compiles the regular expression such that it matches anywhere in the value. */
+	private static final ArgumentCache.Factory<Pattern> FIND_PATTERN_FACTORY = new ArgumentCache.Factory<Pattern>() {
+
+		@Override
+		public Pattern create(String first, String second) {
+			return Pattern.compile(".*" + first + ".*");
+		}
+	};
+
 	/**
 	 * Creates a function which checks whether any substring of a nominal Value matches a regular
 	 * expression
@@ -40,13 +53,42 @@ public class Finds extends Abstract2StringInputBooleanOutputFunction {
 		super("text_information.finds");
 	}
 
+	/**
+	 * Compiles the regular expression only once per distinct value if not all arguments are
+	 * constant.
+	 */
+	@Override
+	protected Callable<Boolean> makeBooleanCallable(ExpressionEvaluator left, ExpressionEvaluator right) {
+		if (left.isConstant() && right.isConstant()) {
+			return super.makeBooleanCallable(left, right);
+		}
+		final Callable<String> funcLeft = left.getStringFunction();
+		final Callable<String> funcRight = right.getStringFunction();
+		final ArgumentCache<Pattern> patterns = new ArgumentCache<>(FIND_PATTERN_FACTORY);
+		return new Callable<Boolean>() {
+
+			@Override
+			public Boolean call() throws Exception {
+				return compute(funcLeft.call(), funcRight.call(), patterns);
+			}
+		};
+	}
+
 	@Override
 	protected Boolean compute(String value1, String value2) {
+		return compute(value1, value2, null);
+	}
+
+	/**
+	 * Matches the value against the regular expression, taken from the cache if one is given.
+	 */
+	private Boolean compute(String value1, String value2, ArgumentCache<Pattern> patterns) {
 		if (value1 == null || value2 == null) {
 			return null;
 		}
 		try {
-			return value1.matches(".*" + value2 + ".*");
+			Pattern pattern = patterns == null ? FIND_PATTERN_FACTORY.create(value2, null) : patterns.get(value2);
+			return pattern.matcher(value1).matches();
 		} catch (PatternSyntaxException e) {
 			throw new FunctionInputException("process.error.invalid_regex", value2);
 		}
@@ -18,8 +18,12 @@
 */
 package com.rapidminer.tools.expression.internal.function.text;
 
+import com.rapidminer.tools.expression.ExpressionEvaluator;
 import com.rapidminer.tools.expression.FunctionInputException;
+import com.rapidminer.tools.expression.internal.function.ArgumentCache;
 
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 
@@ -38,13 +42,42 @@ public class Matches extends Abstract2StringInputBooleanOutputFunction {
 		super("text_information.matches");
 	}
 
+	/**
+	 * Compiles the regular expression only once per distinct value if not all arguments are
+	 * constant.
+	 */
+	@Override
+	protected Callable<Boolean> makeBooleanCallable(ExpressionEvaluator left, ExpressionEvaluator right) {
+		if (left.isConstant() && right.isConstant()) {
+			return super.makeBooleanCallable(left, right);
+		}
+		final Callable<String> funcLeft = left.getStringFunction();
+		final Callable<String> funcRight = right.getStringFunction();
+		final ArgumentCache<Pattern> patterns = new ArgumentCache<>(ArgumentCache.PATTERN_FACTORY);
+		return new Callable<Boolean>() {
+
+			@Override
+			public Boolean call() throws Exception {
+				return compute(funcLeft.call(), funcRight.call(), patterns);
+			}
+		};
+	}
+
 	@Override
 	protected Boolean compute(String value1, String value2) {
+		return compute(value1, value2, null);
+	}
+
+	/**
+	 * Matches the value against the regular expression, taken from the cache if one is given.
+	 */
+	private Boolean compute(String value1, String value2, ArgumentCache<Pattern> patterns) {
 		if (value1 == null || value2 == null) {
 			return null;
 		}
 		try {
-			return value1.matches(value2);
+			Pattern pattern = patterns == null ? ArgumentCache.PATTERN_FACTORY.create(value2, null) : patterns.get(value2);
+			return pattern.matcher(value1).matches();
 		} catch (PatternSyntaxException e) {
 			throw new FunctionInputException("expression_parser.invalid_regex", value2, getFunctionName());
 		}
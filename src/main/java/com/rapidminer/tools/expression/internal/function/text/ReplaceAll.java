@@ -18,8 +18,13 @@
 */
 package com.rapidminer.tools.expression.internal.function.text;
 
+import com.rapidminer.tools.expression.ExpressionEvaluator;
 import com.rapidminer.tools.expression.FunctionInputException;
 import com.rapidminer.tools.expression.internal.function.AbstractArbitraryStringInputStringOutputFunction;
+import com.rapidminer.tools.expression.internal.function.ArgumentCache;
+
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
 
 
 /**
@@ -48,6 +53,15 @@ public class ReplaceAll extends AbstractArbitraryStringInputStringOutputFunction
 	 * @return the string with replacements
 	 */
 	protected String compute(String text, String regex, String replacement) {
+		return compute(text, regex, replacement, null);
+	}
+
+	/**
+	 * Replaces all occurences of <code>regex</code> in <code>text</code> with
+	 * <code>replacement</code>, taking the compiled regular expression from the cache if one is
+	 * given.
+	 */
+	private String compute(String text, String regex, String replacement, ArgumentCache<Pattern> patterns) {
 
 		// missing values are not changed
 		if (text == null || regex == null || replacement == null) {
@@ -56,10 +70,35 @@ public class ReplaceAll extends AbstractArbitraryStringInputStringOutputFunction
 			if (regex.length() == 0) {
 				throw new FunctionInputException("expression_parser.function_missing_arguments", "regex", getFunctionName());
 			}
-			return text.replaceAll(regex, replacement);
+			if (patterns == null) {
+				return text.replaceAll(regex, replacement);
+			}
+			return patterns.get(regex).matcher(text).replaceAll(replacement);
 		}
 	}
 
+	/**
+	 * Compiles the regular expression only once per distinct value if not all arguments are
+	 * constant.
+	 */
+	@Override
+	protected Callable<String> makeStringCallable(ExpressionEvaluator[] inputEvaluators) {
+		if (isResultConstant(inputEvaluators)) {
+			return super.makeStringCallable(inputEvaluators);
+		}
+		final Callable<String> funcText = inputEvaluators[0].getStringFunction();
+		final Callable<String> funcRegex = inputEvaluators[1].getStringFunction();
+		final Callable<String> funcReplacement = inputEvaluators[2].getStringFunction();
+		final ArgumentCache<Pattern> patterns = new ArgumentCache<>(ArgumentCache.PATTERN_FACTORY);
+		return new Callable<String>() {
+
+			@Override
+			public String call() throws Exception {
+				return compute(funcText.call(), funcRegex.call(), funcReplacement.call(), patterns);
+			}
+		};
+	}
+
 	@Override
 	protected String compute(String... values) {
 		return compute(values[0], values[1], values[2]);
@@ -0,0 +1,458 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.matrix;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.studio.internal.Resources;
+
+
+/**
+ * Calculates the co-moments of pairs of attributes in a single pass over the example set. The rows
+ * are read block by block into a column buffer. For every block and pair the count, the means, the
+ * sums of squared deviations and the co-moment are calculated on the centered values and merged
+ * into the running totals with the pairwise update formulas of Chan et al. This is numerically
+ * stable and allows to process disjoint row ranges in parallel and merge the partial results
+ * afterwards.
+ * <p>
+ * Missing values are handled by pairwise deletion, i.e. each pair only uses the rows where both
+ * values are known. Either all pairs of attributes or only the pairs of the first attribute with
+ * all attributes are calculated. Covariances and correlations are symmetric, so
+ * {@link #getCovariance(int, int)} and {@link #getCorrelation(int, int)} accept the indices in any
+ * order.
+ *
+ * @since 7.6.1
+ */
+public class CoMomentMatrix {
+
+	/** Number of rows copied into the column buffer at once. */
+	private static final int BLOCK_SIZE = 256;
+
+	/** Number of rows times pairs above which the calculation is done in parallel. */
+	private static final long THRESHOLD_CELLS_PARALLEL = 2_000_000;
+
+	/** Bytes needed per pair for the accumulated moments. */
+	private static final long BYTES_PER_PAIR = 6 * 8;
+
+	/** Relative sum of squares below which a column is regarded as constant. */
+	private static final double CONSTANT_EPSILON = 1e-24;
+
+	private final int numberOfColumns;
+
+	/** {@code true} if all pairs are calculated, {@code false} for the first column against all */
+	private final boolean allPairs;
+
+	private final int numberOfPairs;
+
+	/** number of rows without missing value in the column, used to detect missing values */
+	private final long[] columnCounts;
+
+	private final long numberOfRows;
+
+	private final Moments moments;
+
+	private CoMomentMatrix(int numberOfColumns, boolean allPairs, long numberOfRows, long[] columnCounts,
+			Moments moments) {
+		this.numberOfColumns = numberOfColumns;
+		this.allPairs = allPairs;
+		this.numberOfPairs = moments.count.length;
+		this.numberOfRows = numberOfRows;
+		this.columnCounts = columnCounts;
+		this.moments = moments;
+	}
+
+	/**
+	 * Calculates the co-moments of all pairs of the given attributes.
+	 *
+	 * @param exampleSet
+	 *            the data
+	 * @param attributes
+	 *            the attributes to use
+	 * @param operator
+	 *            the executing operator used for stop checks and parallelization, can be
+	 *            {@code null}
+	 * @throws ProcessStoppedException
+	 *             if the process was stopped
+	 */
+	public static CoMomentMatrix calculate(ExampleSet exampleSet, Attribute[] attributes, Operator operator)
+			throws ProcessStoppedException {
+		return new Calculation(exampleSet, attributes, true, operator).run();
+	}
+
+	/**
+	 * Calculates the co-moments of the target attribute with each of the given attributes. The
+	 * target has index {@code 0} in the result, the attributes follow with the indices {@code 1}
+	 * to {@code attributes.length}. Only pairs containing index {@code 0} can be queried.
+	 *
+	 * @param exampleSet
+	 *            the data
+	 * @param target
+	 *            the attribute all others are paired with
+	 * @param attributes
+	 *            the attributes to pair with the target
+	 * @param operator
+	 *            the executing operator used for stop checks and parallelization, can be
+	 *            {@code null}
+	 * @throws ProcessStoppedException
+	 *             if the process was stopped
+	 */
+	public static CoMomentMatrix calculateAgainst(ExampleSet exampleSet, Attribute target, Attribute[] attributes,
+			Operator operator) throws ProcessStoppedException {
+		Attribute[] columns = new Attribute[attributes.length + 1];
+		columns[0] = target;
+		System.arraycopy(attributes, 0, columns, 1, attributes.length);
+		return new Calculation(exampleSet, columns, false, operator).run();
+	}
+
+	/** Returns the number of columns of this matrix. */
+	public int getNumberOfColumns() {
+		return numberOfColumns;
+	}
+
+	/** Returns whether the column with the given index contains missing values. */
+	public boolean hasMissingValues(int column) {
+		return columnCounts[column] < numberOfRows;
+	}
+
+	/** Returns the number of rows in which both columns are known. */
+	public long getCount(int first, int second) {
+		return moments.count[getPairIndex(first, second)];
+	}
+
+	/**
+	 * Returns the sample covariance of the two columns, i.e. the co-moment divided by the number
+	 * of rows minus one. Rows with missing values in one of the columns are ignored.
+	 */
+	public double getCovariance(int first, int second) {
+		int pair = getPairIndex(first, second);
+		return moments.comoment[pair] / (moments.count[pair] - 1);
+	}
+
+	/**
+	 * Returns the Pearson correlation of the two columns or {@link Double#NaN} if one of them is
+	 * constant on the rows where both are known.
+	 *
+	 * @param squared
+	 *            if {@code true}, the squared correlation is returned
+	 */
+	public double getCorrelation(int first, int second, boolean squared) {
+		int pair = getPairIndex(first, second);
+		long count = moments.count[pair];
+		if (count == 0 || isConstant(moments.m2First[pair], moments.meanFirst[pair], count)
+				|| isConstant(moments.m2Second[pair], moments.meanSecond[pair], count)) {
+			return Double.NaN;
+		}
+		double correlation = moments.comoment[pair] / Math.sqrt(moments.m2First[pair] * moments.m2Second[pair]);
+		return squared ? correlation * correlation : correlation;
+	}
+
+	/** Returns the Pearson correlation of the two columns, see {@link #getCorrelation(int, int, boolean)}. */
+	public double getCorrelation(int first, int second) {
+		return getCorrelation(first, second, false);
+	}
+
+	private static boolean isConstant(double m2, double mean, long count) {
+		return m2 <= 0 || m2 <= count * mean * mean * CONSTANT_EPSILON;
+	}
+
+	private int getPairIndex(int first, int second) {
+		if (first > second) {
+			int tmp = first;
+			first = second;
+			second = tmp;
+		}
+		if (first < 0 || second >= numberOfColumns) {
+			throw new IndexOutOfBoundsException("Column index out of range: " + first + ", " + second);
+		}
+		if (allPairs) {
+			// row-wise upper triangle including the diagonal
+			return first * numberOfColumns - first * (first - 1) / 2 + second - first;
+		} else if (first == 0) {
+			return second;
+		} else {
+			throw new IllegalArgumentException("Only pairs with the first column are available.");
+		}
+	}
+
+	/** Accumulated moments of all pairs. */
+	private static final class Moments {
+
+		private final long[] count;
+		private final double[] meanFirst;
+		private final double[] meanSecond;
+		private final double[] m2First;
+		private final double[] m2Second;
+		private final double[] comoment;
+
+		private Moments(int numberOfPairs) {
+			count = new long[numberOfPairs];
+			meanFirst = new double[numberOfPairs];
+			meanSecond = new double[numberOfPairs];
+			m2First = new double[numberOfPairs];
+			m2Second = new double[numberOfPairs];
+			comoment = new double[numberOfPairs];
+		}
+
+		/** Merges the moments of a disjoint set of rows into the moments of the pair. */
+		private void merge(int pair, long otherCount, double otherMeanFirst, double otherMeanSecond,
+				double otherM2First, double otherM2Second, double otherComoment) {
+			if (otherCount == 0) {
+				return;
+			}
+			long ownCount = count[pair];
+			if (ownCount == 0) {
+				count[pair] = otherCount;
+				meanFirst[pair] = otherMeanFirst;
+				meanSecond[pair] = otherMeanSecond;
+				m2First[pair] = otherM2First;
+				m2Second[pair] = otherM2Second;
+				comoment[pair] = otherComoment;
+				return;
+			}
+			long total = ownCount + otherCount;
+			double deltaFirst = otherMeanFirst - meanFirst[pair];
+			double deltaSecond = otherMeanSecond - meanSecond[pair];
+			double factor = (double) ownCount * otherCount / total;
+			meanFirst[pair] += deltaFirst * otherCount / total;
+			meanSecond[pair] += deltaSecond * otherCount / total;
+			m2First[pair] += otherM2First + deltaFirst * deltaFirst * factor;
+			m2Second[pair] += otherM2Second + deltaSecond * deltaSecond * factor;
+			comoment[pair] += otherComoment + deltaFirst * deltaSecond * factor;
+			count[pair] = total;
+		}
+
+		private void merge(Moments other) {
+			for (int pair = 0; pair < count.length; pair++) {
+				merge(pair, other.count[pair], other.meanFirst[pair], other.meanSecond[pair], other.m2First[pair],
+						other.m2Second[pair], other.comoment[pair]);
+			}
+		}
+	}
+
+	/** A single calculation over an example set. */
+	private static final class Calculation {
+
+		private final ExampleSet exampleSet;
+		private final Attribute[] columns;
+		private final boolean allPairs;
+		private final Operator operator;
+		private final int numberOfPairs;
+
+		private Calculation(ExampleSet exampleSet, Attribute[] columns, boolean allPairs, Operator operator) {
+			this.exampleSet = exampleSet;
+			this.columns = columns;
+			this.allPairs = allPairs;
+			this.operator = operator;
+			int width = columns.length;
+			this.numberOfPairs = allPairs ? width * (width + 1) / 2 : width;
+		}
+
+		private CoMomentMatrix run() throws ProcessStoppedException {
+			int size = exampleSet.size();
+			int width = columns.length;
+			long[] columnCounts = new long[width];
+			Moments moments = new Moments(numberOfPairs);
+			if (operator == null || (long) size * numberOfPairs <= THRESHOLD_CELLS_PARALLEL
+					|| Resources.getConcurrencyContext(operator).getParallelism() <= 1) {
+				accumulate(0, size, moments, columnCounts, null);
+				return new CoMomentMatrix(width, allPairs, size, columnCounts, moments);
+			}
+
+			final ConcurrencyContext context = Resources.getConcurrencyContext(operator);
+			int numberOfBlocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+			long memoryBound = Math.max(1, Runtime.getRuntime().maxMemory() / 8 / (numberOfPairs * BYTES_PER_PAIR));
+			int numberOfTasks = (int) Math.min(Math.min(numberOfBlocks, context.getParallelism()), memoryBound);
+			int blocksPerTask = numberOfBlocks / numberOfTasks;
+			int rest = numberOfBlocks % numberOfTasks;
+
+			final Moments[] partialMoments = new Moments[numberOfTasks];
+			final long[][] partialCounts = new long[numberOfTasks][];
+			List<Callable<Void>> tasks = new ArrayList<>(numberOfTasks);
+			int end = 0;
+			for (int i = 0; i < numberOfTasks; i++) {
+				final int task = i;
+				final int start = end;
+				end = Math.min(size, start + (blocksPerTask + (i < rest ? 1 : 0)) * BLOCK_SIZE);
+				final int taskEnd = end;
+				tasks.add(new Callable<Void>() {
+
+					@Override
+					public Void call() throws ProcessStoppedException {
+						Moments taskMoments = task == 0 ? moments : new Moments(numberOfPairs);
+						long[] taskCounts = task == 0 ? columnCounts : new long[width];
+						accumulate(start, taskEnd, taskMoments, taskCounts, context);
+						partialMoments[task] = taskMoments;
+						partialCounts[task] = taskCounts;
+						return null;
+					}
+				});
+			}
+
+			try {
+				context.call(tasks);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				} else if (cause instanceof ProcessStoppedException) {
+					throw (ProcessStoppedException) cause;
+				} else {
+					throw new RuntimeException(cause.getMessage(), cause);
+				}
+			}
+
+			// merge in row order so that the result does not depend on the scheduling
+			for (int i = 1; i < numberOfTasks; i++) {
+				moments.merge(partialMoments[i]);
+				for (int column = 0; column < width; column++) {
+					columnCounts[column] += partialCounts[i][column];
+				}
+			}
+			return new CoMomentMatrix(width, allPairs, size, columnCounts, moments);
+		}
+
+		/**
+		 * Accumulates the moments of the rows from start (inclusive) to end (exclusive) block by
+		 * block.
+		 */
+		private void accumulate(int start, int end, Moments moments, long[] columnCounts, ConcurrencyContext context)
+				throws ProcessStoppedException {
+			int width = columns.length;
+			double[][] values = new double[width][BLOCK_SIZE];
+			double[][] centered = new double[width][BLOCK_SIZE];
+			int[] known = new int[width];
+			double[] means = new double[width];
+			double[] m2s = new double[width];
+			for (int blockStart = start; blockStart < end; blockStart += BLOCK_SIZE) {
+				if (context != null) {
+					context.checkStatus();
+				} else if (operator != null) {
+					operator.checkForStop();
+				}
+				int length = Math.min(end, blockStart + BLOCK_SIZE) - blockStart;
+
+				// copy the block into the column buffer
+				for (int row = 0; row < length; row++) {
+					Example example = exampleSet.getExample(blockStart + row);
+					for (int column = 0; column < width; column++) {
+						values[column][row] = example.getValue(columns[column]);
+					}
+				}
+
+				// center the columns without missing values
+				for (int column = 0; column < width; column++) {
+					double[] columnValues = values[column];
+					int count = 0;
+					double sum = 0;
+					for (int row = 0; row < length; row++) {
+						double value = columnValues[row];
+						if (!Double.isNaN(value)) {
+							count++;
+							sum += value;
+						}
+					}
+					known[column] = count;
+					columnCounts[column] += count;
+					if (count == length) {
+						double mean = sum / length;
+						double[] columnCentered = centered[column];
+						double m2 = 0;
+						for (int row = 0; row < length; row++) {
+							double deviation = columnValues[row] - mean;
+							columnCentered[row] = deviation;
+							m2 += deviation * deviation;
+						}
+						means[column] = mean;
+						m2s[column] = m2;
+					}
+				}
+
+				if (allPairs) {
+					int pair = 0;
+					for (int first = 0; first < width; first++) {
+						for (int second = first; second < width; second++) {
+							accumulatePair(moments, pair++, first, second, length, values, centered, known, means, m2s);
+						}
+					}
+				} else {
+					for (int second = 0; second < width; second++) {
+						accumulatePair(moments, second, 0, second, length, values, centered, known, means, m2s);
+					}
+				}
+			}
+		}
+
+		private static void accumulatePair(Moments moments, int pair, int first, int second, int length,
+				double[][] values, double[][] centered, int[] known, double[] means, double[] m2s) {
+			if (known[first] == length && known[second] == length) {
+				double[] x = centered[first];
+				double[] y = centered[second];
+				double comoment = 0;
+				for (int row = 0; row < length; row++) {
+					comoment += x[row] * y[row];
+				}
+				moments.merge(pair, length, means[first], means[second], m2s[first], m2s[second], comoment);
+				return;
+			}
+
+			// only use the rows where both values are known
+			double[] x = values[first];
+			double[] y = values[second];
+			int count = 0;
+			double sumX = 0;
+			double sumY = 0;
+			for (int row = 0; row < length; row++) {
+				if (!Double.isNaN(x[row]) && !Double.isNaN(y[row])) {
+					count++;
+					sumX += x[row];
+					sumY += y[row];
+				}
+			}
+			if (count == 0) {
+				return;
+			}
+			double meanX = sumX / count;
+			double meanY = sumY / count;
+			double m2X = 0;
+			double m2Y = 0;
+			double comoment = 0;
+			for (int row = 0; row < length; row++) {
+				if (!Double.isNaN(x[row]) && !Double.isNaN(y[row])) {
+					double deviationX = x[row] - meanX;
+					double deviationY = y[row] - meanY;
+					m2X += deviationX * deviationX;
+					m2Y += deviationY * deviationY;
+					comoment += deviationX * deviationY;
+				}
+			}
+			moments.merge(pair, count, meanX, meanY, m2X, m2Y, comoment);
+		}
+	}
+}
@@ -20,7 +20,6 @@ package com.rapidminer.tools.math.matrix;
 
 import Jama.Matrix;
 import com.rapidminer.example.Attribute;
-import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.ProcessStoppedException;
@@ -35,8 +34,7 @@ import com.rapidminer.operator.ProcessStoppedException;
 public class CovarianceMatrix {
 
 	/**
-	 * Transforms the example set into a double matrix (doubling the amount of used memory) and
-	 * invokes {@link #getCovarianceMatrix(double[][])}.
+	 * Invokes {@link #getCovarianceMatrix(ExampleSet, Operator)} without an operator.
 	 *
 	 * @deprecated Please use {@link #getCovarianceMatrix(ExampleSet, Operator)} so that the
 	 *             calculation can be stopped if necessary.
@@ -53,8 +51,10 @@ public class CovarianceMatrix {
 	}
 
 	/**
-	 * Transforms the example set into a double matrix (doubling the amount of used memory) and
-	 * invokes {@link #getCovarianceMatrix(double[][])}.
+	 * Calculates the covariance matrix of the regular attributes in a single pass over the example
+	 * set with the help of {@link CoMomentMatrix}. Only the upper triangle is calculated, the
+	 * calculation is done in parallel for large data if an operator is given. Attributes with
+	 * missing values have {@link Double#NaN} covariances.
 	 *
 	 * @param exampleSet
 	 *            ExampleSet to construct the covariance matrix from
@@ -64,23 +64,27 @@ public class CovarianceMatrix {
 	 * @throws ProcessStoppedException
 	 */
 	public static Matrix getCovarianceMatrix(ExampleSet exampleSet, Operator op) throws ProcessStoppedException {
-		boolean checkForStop = op != null;
-		double[][] data = new double[exampleSet.size()][exampleSet.getAttributes().size()];
-		int c = 0;
-		for (Attribute attribute : exampleSet.getAttributes()) {
-			int r = 0;
-			for (Example example : exampleSet) {
-				data[r][c] = example.getValue(attribute);
-				r++;
-			}
-			c++;
+		if (exampleSet.size() == 0) {
+			throw new IllegalArgumentException(
+					"Calculation of covariance matrices not possible for data sets with zero rows.");
+		}
+		Attribute[] attributes = exampleSet.getAttributes().createRegularAttributeArray();
+		if (attributes.length == 0) {
+			throw new IllegalArgumentException(
+					"Calculation of covariance matrices not possible for data sets with zero columns.");
+		}
 
-			if (checkForStop) {
-				op.checkForStop();
+		CoMomentMatrix moments = CoMomentMatrix.calculate(exampleSet, attributes, op);
+		double[][] covarianceMatrixEntries = new double[attributes.length][attributes.length];
+		for (int i = 0; i < attributes.length; i++) {
+			for (int j = i; j < attributes.length; j++) {
+				double covariance = moments.hasMissingValues(i) || moments.hasMissingValues(j) ? Double.NaN
+						: moments.getCovariance(i, j);
+				covarianceMatrixEntries[i][j] = covariance;
+				covarianceMatrixEntries[j][i] = covariance;
 			}
 		}
-
-		return getCovarianceMatrix(data, op);
+		return new Matrix(covarianceMatrixEntries);
 	}
 
 	/**
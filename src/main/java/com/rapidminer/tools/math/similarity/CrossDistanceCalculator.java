@@ -0,0 +1,479 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.similarity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.container.Tupel;
+import com.rapidminer.tools.math.container.GeometricDataCollection;
+import com.rapidminer.tools.math.container.KDTree;
+import com.rapidminer.tools.math.similarity.DistanceMeasure.DistanceMeasureConfig;
+import com.rapidminer.tools.math.similarity.numerical.ChebychevNumericalDistance;
+import com.rapidminer.tools.math.similarity.numerical.EuclideanDistance;
+import com.rapidminer.tools.math.similarity.numerical.ManhattanDistance;
+
+
+/**
+ * Calculates the distances or similarities between all examples of a request set and all examples
+ * of a reference set. Both sets are copied into dense row-major arrays once. The requests are
+ * processed in blocks, each block is compared with tiles of references, and blocks are processed
+ * in parallel if an operator is given. If only the top k references are needed, each request keeps
+ * a bounded heap of primitive values, otherwise all values are kept.
+ * <p>
+ * Results are handed to a {@link ResultHandler} in the order of the requests. The top k references
+ * of a request are sorted by their value, references with equal values in the order of the
+ * reference set. If all references are requested, they are delivered in the order of the
+ * reference set.
+ * <p>
+ * For the nearest references by euclidian, manhattan or chebychev distance, a {@link KDTree} over
+ * the reference set can be used instead of comparing all pairs, see
+ * {@link #useReferenceIndex()}. The results are the same.
+ *
+ * @since 7.6.1
+ */
+public class CrossDistanceCalculator {
+
+	/** Receives the results of one request. */
+	public interface ResultHandler {
+
+		/**
+		 * Called once per request in the order of the request set.
+		 *
+		 * @param request
+		 *            the index of the request example
+		 * @param references
+		 *            the indices of the reference examples, only the first count entries are valid
+		 * @param values
+		 *            the distances or similarities to the references
+		 * @param count
+		 *            the number of results
+		 */
+		void handle(int request, int[] references, double[] values, int count) throws OperatorException;
+	}
+
+	/** Number of references compared with a request block at once. */
+	private static final int REFERENCE_TILE_SIZE = 256;
+
+	/** Maximal number of requests processed in one block. */
+	private static final int MAX_REQUEST_BLOCK_SIZE = 64;
+
+	/** Maximal number of results held per block if all references are kept. */
+	private static final int MAX_BLOCK_RESULTS = 1 << 20;
+
+	/** Number of comparisons above which blocks are processed in parallel. */
+	private static final long THRESHOLD_COMPARISONS_PARALLEL = 1_000_000;
+
+	/** Maximal number of dimensions for which a kd-tree is used. */
+	private static final int INDEX_MAX_DIMENSIONS = 10;
+
+	/** Minimal number of references for which a kd-tree is used. */
+	private static final int INDEX_MIN_SIZE = 1024;
+
+	/** Seed for the insertion order of the kd-tree. */
+	private static final long INDEX_SEED = 1992;
+
+	private final DistanceMeasure measure;
+	private final boolean matching;
+	private final int dimensions;
+	private final int numberOfRequests;
+	private final int numberOfReferences;
+	private final double[] requestValues;
+	private final double[] referenceValues;
+
+	private GeometricDataCollection<Integer> referenceIndex;
+
+	/**
+	 * Initializes the measure for the two sets and copies their values.
+	 *
+	 * @param measure
+	 *            the measure, which is initialized by
+	 *            {@link DistanceMeasure#init(com.rapidminer.example.Attributes, com.rapidminer.example.Attributes)}
+	 * @param requestSet
+	 *            the requests
+	 * @param referenceSet
+	 *            the references
+	 */
+	public CrossDistanceCalculator(DistanceMeasure measure, ExampleSet requestSet, ExampleSet referenceSet) {
+		this.measure = measure;
+		DistanceMeasureConfig config = measure.init(requestSet.getAttributes(), referenceSet.getAttributes());
+		this.matching = config.isMatching();
+		this.numberOfRequests = requestSet.size();
+		this.numberOfReferences = referenceSet.size();
+		if (matching) {
+			this.dimensions = config.getFirstSetAttributes().length;
+			this.requestValues = copy(requestSet, config.getFirstSetAttributes());
+			this.referenceValues = copy(referenceSet, config.getSecondSetAttributes());
+		} else {
+			this.dimensions = 0;
+			this.requestValues = null;
+			this.referenceValues = null;
+		}
+	}
+
+	private static double[] copy(ExampleSet exampleSet, Attribute[] attributes) {
+		int width = attributes.length;
+		double[] values = new double[exampleSet.size() * width];
+		int offset = 0;
+		for (Example example : exampleSet) {
+			for (Attribute attribute : attributes) {
+				values[offset++] = example.getValue(attribute);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Builds a kd-tree over the reference set if the measure allows it and the data is suitable,
+	 * i.e. it is low dimensional, large enough and contains neither missing nor infinite values.
+	 * The index is only used for searching the nearest references by distance.
+	 *
+	 * @return whether the index is used
+	 */
+	public boolean useReferenceIndex() {
+		Class<?> measureClass = measure.getClass();
+		if (!matching || dimensions == 0 || dimensions > INDEX_MAX_DIMENSIONS || numberOfReferences < INDEX_MIN_SIZE
+				|| measureClass != EuclideanDistance.class && measureClass != ManhattanDistance.class
+						&& measureClass != ChebychevNumericalDistance.class) {
+			return false;
+		}
+		for (double value : referenceValues) {
+			if (Double.isNaN(value) || Double.isInfinite(value)) {
+				return false;
+			}
+		}
+		for (double value : requestValues) {
+			if (Double.isNaN(value) || Double.isInfinite(value)) {
+				return false;
+			}
+		}
+		// insert in random order, the tree is not balanced and sorted data would degenerate it
+		int[] order = new int[numberOfReferences];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Random random = new Random(INDEX_SEED);
+		for (int i = order.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = order[i];
+			order[i] = order[j];
+			order[j] = swap;
+		}
+		KDTree<Integer> tree = new KDTree<>(dimensions, measure);
+		for (int reference : order) {
+			tree.add(getRow(referenceValues, reference), reference);
+		}
+		referenceIndex = tree;
+		return true;
+	}
+
+	/**
+	 * Calculates the results for all requests and passes them to the handler.
+	 *
+	 * @param k
+	 *            the number of references to keep per request, or a value less than one to keep
+	 *            all
+	 * @param similarity
+	 *            if {@code true}, similarities are calculated instead of distances
+	 * @param farthest
+	 *            if {@code true}, the k largest values are kept instead of the k smallest
+	 * @param operator
+	 *            the executing operator used for stop checks and parallelization, can be
+	 *            {@code null}
+	 * @param handler
+	 *            receives the results
+	 */
+	public void calculate(int k, final boolean similarity, final boolean farthest, Operator operator,
+			ResultHandler handler) throws OperatorException {
+		final boolean topK = k > 0;
+		final int perRequest = topK ? Math.min(k, numberOfReferences) : numberOfReferences;
+		final boolean indexed = topK && referenceIndex != null && !similarity && !farthest;
+		int blockSize = Math.max(1, Math.min(MAX_REQUEST_BLOCK_SIZE, MAX_BLOCK_RESULTS / Math.max(1, perRequest)));
+		int numberOfBlocks = (numberOfRequests + blockSize - 1) / blockSize;
+
+		ConcurrencyContext context = null;
+		int blocksPerBatch = 1;
+		if (operator != null && (long) numberOfRequests * numberOfReferences > THRESHOLD_COMPARISONS_PARALLEL
+				&& Resources.getConcurrencyContext(operator).getParallelism() > 1) {
+			context = Resources.getConcurrencyContext(operator);
+			blocksPerBatch = context.getParallelism() * 2;
+		}
+
+		Block[] blocks = new Block[blocksPerBatch];
+		for (int batchStart = 0; batchStart < numberOfBlocks; batchStart += blocksPerBatch) {
+			int batchEnd = Math.min(numberOfBlocks, batchStart + blocksPerBatch);
+			List<Callable<Void>> tasks = new ArrayList<>(batchEnd - batchStart);
+			for (int b = batchStart; b < batchEnd; b++) {
+				int from = b * blockSize;
+				int to = Math.min(numberOfRequests, from + blockSize);
+				final Block block = blocks[b - batchStart] == null ? new Block(blockSize, perRequest)
+						: blocks[b - batchStart];
+				blocks[b - batchStart] = block;
+				block.reset(from, to);
+				if (context == null) {
+					if (operator != null) {
+						operator.checkForStop();
+					}
+					fill(block, topK, indexed, similarity, farthest);
+				} else {
+					final ConcurrencyContext taskContext = context;
+					tasks.add(new Callable<Void>() {
+
+						@Override
+						public Void call() {
+							taskContext.checkStatus();
+							fill(block, topK, indexed, similarity, farthest);
+							return null;
+						}
+					});
+				}
+			}
+			if (context != null) {
+				try {
+					context.call(tasks);
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					} else if (cause instanceof Error) {
+						throw (Error) cause;
+					} else {
+						throw new OperatorException(cause.getMessage(), cause);
+					}
+				}
+			}
+
+			// hand over the results in request order
+			for (int b = batchStart; b < batchEnd; b++) {
+				Block block = blocks[b - batchStart];
+				for (int i = 0; i < block.to - block.from; i++) {
+					int offset = i * perRequest;
+					int count = block.counts[i];
+					if (topK) {
+						block.sort(offset, count);
+					}
+					int[] references = new int[count];
+					double[] values = new double[count];
+					for (int j = 0; j < count; j++) {
+						references[j] = block.references[offset + j];
+						values[j] = farthest ? -block.keys[offset + j] : block.keys[offset + j];
+					}
+					handler.handle(block.from + i, references, values, count);
+				}
+			}
+		}
+	}
+
+	/** Calculates the results of all requests of the block. */
+	private void fill(Block block, boolean topK, boolean indexed, boolean similarity, boolean farthest) {
+		int requests = block.to - block.from;
+		if (!matching) {
+			// attribute sets do not match, all values are unknown
+			for (int i = 0; i < requests; i++) {
+				for (int reference = 0; reference < numberOfReferences; reference++) {
+					block.offer(i, Double.NaN, reference, topK);
+				}
+			}
+			return;
+		}
+		if (indexed) {
+			for (int i = 0; i < requests; i++) {
+				search(block, i, getRow(requestValues, block.from + i));
+			}
+			return;
+		}
+
+		double[] tileValues = new double[requests * Math.min(numberOfReferences, REFERENCE_TILE_SIZE)];
+		for (int tileStart = 0; tileStart < numberOfReferences; tileStart += REFERENCE_TILE_SIZE) {
+			int tileEnd = Math.min(numberOfReferences, tileStart + REFERENCE_TILE_SIZE);
+			if (similarity) {
+				measure.calculateSimilarities(requestValues, block.from, block.to, referenceValues, tileStart, tileEnd,
+						dimensions, tileValues);
+			} else {
+				measure.calculateDistances(requestValues, block.from, block.to, referenceValues, tileStart, tileEnd,
+						dimensions, tileValues);
+			}
+			int position = 0;
+			for (int i = 0; i < requests; i++) {
+				for (int reference = tileStart; reference < tileEnd; reference++) {
+					double value = tileValues[position++];
+					block.offer(i, farthest ? -value : value, reference, topK);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Searches the nearest references in the kd-tree. The query is enlarged until all references
+	 * tied with the k-th nearest one are found, so that the result equals the exhaustive search.
+	 */
+	private void search(Block block, int request, double[] requestRow) {
+		int query = block.perRequest;
+		Collection<Tupel<Double, Integer>> result = referenceIndex.getNearestValueDistances(query, requestRow);
+		double radius = maximumDistance(result);
+		while (query < numberOfReferences && maximumDistance(result) <= radius) {
+			query = (int) Math.min(numberOfReferences, 2L * query);
+			result = referenceIndex.getNearestValueDistances(query, requestRow);
+		}
+		for (Tupel<Double, Integer> tupel : result) {
+			if (tupel.getFirst() <= radius) {
+				block.offer(request, tupel.getFirst(), tupel.getSecond(), true);
+			}
+		}
+	}
+
+	private static double maximumDistance(Collection<Tupel<Double, Integer>> result) {
+		double maximum = Double.NEGATIVE_INFINITY;
+		for (Tupel<Double, Integer> tupel : result) {
+			maximum = Math.max(maximum, tupel.getFirst());
+		}
+		return maximum;
+	}
+
+	private double[] getRow(double[] values, int row) {
+		double[] result = new double[dimensions];
+		System.arraycopy(values, row * dimensions, result, 0, dimensions);
+		return result;
+	}
+
+	/**
+	 * The results of a block of requests. In top k mode, the results of each request form a
+	 * max-heap on the key and the reference index, so that the smallest keys remain and ties are
+	 * resolved in favour of earlier references.
+	 */
+	private static final class Block {
+
+		private final int perRequest;
+		private final double[] keys;
+		private final int[] references;
+		private final int[] counts;
+		private int from;
+		private int to;
+
+		private Block(int blockSize, int perRequest) {
+			this.perRequest = perRequest;
+			this.keys = new double[blockSize * perRequest];
+			this.references = new int[blockSize * perRequest];
+			this.counts = new int[blockSize];
+		}
+
+		private void reset(int from, int to) {
+			this.from = from;
+			this.to = to;
+			Arrays.fill(counts, 0);
+		}
+
+		private void offer(int request, double key, int reference, boolean topK) {
+			int offset = request * perRequest;
+			int count = counts[request];
+			if (!topK) {
+				keys[offset + count] = key;
+				references[offset + count] = reference;
+				counts[request] = count + 1;
+			} else if (count < perRequest) {
+				// sift up
+				int position = count;
+				while (position > 0) {
+					int parent = (position - 1) / 2;
+					if (compare(offset + parent, key, reference) >= 0) {
+						break;
+					}
+					keys[offset + position] = keys[offset + parent];
+					references[offset + position] = references[offset + parent];
+					position = parent;
+				}
+				keys[offset + position] = key;
+				references[offset + position] = reference;
+				counts[request] = count + 1;
+			} else if (perRequest > 0 && compare(offset, key, reference) > 0) {
+				// replace the maximum and sift down
+				int position = 0;
+				while (true) {
+					int child = 2 * position + 1;
+					if (child >= perRequest) {
+						break;
+					}
+					if (child + 1 < perRequest && compare(offset + child + 1, keys[offset + child],
+							references[offset + child]) > 0) {
+						child++;
+					}
+					if (compare(offset + child, key, reference) <= 0) {
+						break;
+					}
+					keys[offset + position] = keys[offset + child];
+					references[offset + position] = references[offset + child];
+					position = child;
+				}
+				keys[offset + position] = key;
+				references[offset + position] = reference;
+			}
+		}
+
+		/** Compares the entry at the position with the given key and reference. */
+		private int compare(int position, double key, int reference) {
+			int result = Double.compare(keys[position], key);
+			return result != 0 ? result : Integer.compare(references[position], reference);
+		}
+
+		/** Sorts the heap of a request ascending by key and reference. */
+		private void sort(int offset, int count) {
+			// heap sort in place: the heap is already built
+			for (int end = count - 1; end > 0; end--) {
+				swap(offset, offset + end);
+				int position = 0;
+				while (true) {
+					int child = 2 * position + 1;
+					if (child >= end) {
+						break;
+					}
+					if (child + 1 < end && compare(offset + child + 1, keys[offset + child],
+							references[offset + child]) > 0) {
+						child++;
+					}
+					if (compare(offset + child, keys[offset + position], references[offset + position]) <= 0) {
+						break;
+					}
+					swap(offset + position, offset + child);
+					position = child;
+				}
+			}
+		}
+
+		private void swap(int first, int second) {
+			double key = keys[first];
+			keys[first] = keys[second];
+			keys[second] = key;
+			int reference = references[first];
+			references[first] = references[second];
+			references[second] = reference;
+		}
+	}
+}
@@ -188,6 +188,73 @@ public abstract class DistanceMeasure implements Serializable {
 		return !isDistance();
 	}
 
+	/**
+	 * Calculates the distances between a block of vectors and another block of vectors. Both
+	 * buffers hold their vectors row by row, each row consisting of {@code dimensions} values. The
+	 * distance between the rows {@code i} of the first and {@code j} of the second buffer is
+	 * stored at {@code (i - firstFrom) * (secondTo - secondFrom) + j - secondFrom} and equals
+	 * {@link #calculateDistance(double[], double[])} of the two rows.
+	 * <p>
+	 * The default implementation copies the rows and calls
+	 * {@link #calculateDistance(double[], double[])} for every pair. Measures which can work on
+	 * the buffers directly should override this method.
+	 *
+	 * @param first
+	 *            the buffer holding the first vectors
+	 * @param firstFrom
+	 *            the first row of the first buffer to use
+	 * @param firstTo
+	 *            the row after the last row of the first buffer to use
+	 * @param second
+	 *            the buffer holding the second vectors
+	 * @param secondFrom
+	 *            the first row of the second buffer to use
+	 * @param secondTo
+	 *            the row after the last row of the second buffer to use
+	 * @param dimensions
+	 *            the number of values of every vector
+	 * @param distances
+	 *            the array to store the distances in
+	 * @since 7.6.1
+	 */
+	public void calculateDistances(double[] first, int firstFrom, int firstTo, double[] second, int secondFrom,
+			int secondTo, int dimensions, double[] distances) {
+		double[] firstRow = new double[dimensions];
+		double[] secondRow = new double[dimensions];
+		int position = 0;
+		for (int i = firstFrom; i < firstTo; i++) {
+			System.arraycopy(first, i * dimensions, firstRow, 0, dimensions);
+			for (int j = secondFrom; j < secondTo; j++) {
+				System.arraycopy(second, j * dimensions, secondRow, 0, dimensions);
+				distances[position++] = calculateDistance(firstRow, secondRow);
+			}
+		}
+	}
+
+	/**
+	 * Calculates the similarities between a block of vectors and another block of vectors. See
+	 * {@link #calculateDistances} for the layout of the buffers and the result.
+	 * <p>
+	 * The default implementation copies the rows and calls
+	 * {@link #calculateSimilarity(double[], double[])} for every pair. Measures which can work on
+	 * the buffers directly should override this method.
+	 *
+	 * @since 7.6.1
+	 */
+	public void calculateSimilarities(double[] first, int firstFrom, int firstTo, double[] second, int secondFrom,
+			int secondTo, int dimensions, double[] similarities) {
+		double[] firstRow = new double[dimensions];
+		double[] secondRow = new double[dimensions];
+		int position = 0;
+		for (int i = firstFrom; i < firstTo; i++) {
+			System.arraycopy(first, i * dimensions, firstRow, 0, dimensions);
+			for (int j = secondFrom; j < secondTo; j++) {
+				System.arraycopy(second, j * dimensions, secondRow, 0, dimensions);
+				similarities[position++] = calculateSimilarity(firstRow, secondRow);
+			}
+		}
+	}
+
 	/**
 	 * This is a convenient method for calculating the distance between examples. All attributes
 	 * will be used to form a double array, used for the calculateDistance method.
@@ -35,10 +35,42 @@ public class ChebychevNumericalDistance extends DistanceMeasure {
 
 	@Override
 	public double calculateDistance(double[] value1, double[] value2) {
+		return distance(value1, 0, value2, 0, value1.length);
+	}
+
+	@Override
+	public double calculateSimilarity(double[] value1, double[] value2) {
+		return -calculateDistance(value1, value2);
+	}
+
+	@Override
+	public void calculateDistances(double[] first, int firstFrom, int firstTo, double[] second, int secondFrom,
+			int secondTo, int dimensions, double[] distances) {
+		int position = 0;
+		for (int i = firstFrom; i < firstTo; i++) {
+			for (int j = secondFrom; j < secondTo; j++) {
+				distances[position++] = distance(first, i * dimensions, second, j * dimensions, dimensions);
+			}
+		}
+	}
+
+	@Override
+	public void calculateSimilarities(double[] first, int firstFrom, int firstTo, double[] second, int secondFrom,
+			int secondTo, int dimensions, double[] similarities) {
+		int position = 0;
+		for (int i = firstFrom; i < firstTo; i++) {
+			for (int j = secondFrom; j < secondTo; j++) {
+				similarities[position++] = -distance(first, i * dimensions, second, j * dimensions, dimensions);
+			}
+		}
+	}
+
+	/** Calculates the distance between the vectors starting at the given offsets. */
+	private static double distance(double[] value1, int offset1, double[] value2, int offset2, int dimensions) {
 		double max = Double.NEGATIVE_INFINITY;
-		for (int i = 0; i < value1.length; i++) {
-			double v1 = value1[i];
-			double v2 = value2[i];
+		for (int i = 0; i < dimensions; i++) {
+			double v1 = value1[offset1 + i];
+			double v2 = value2[offset2 + i];
 			if ((!Double.isNaN(v1)) && (!Double.isNaN(v2))) {
 				double d = Math.abs(v1 - v2);
 				if (d > max) {
@@ -53,11 +85,6 @@ public class ChebychevNumericalDistance extends DistanceMeasure {
 		}
 	}
 
-	@Override
-	public double calculateSimilarity(double[] value1, double[] value2) {
-		return -calculateDistance(value1, value2);
-	}
-
 	@Override
 	public void init(ExampleSet exampleSet) throws OperatorException {
 		super.init(exampleSet);
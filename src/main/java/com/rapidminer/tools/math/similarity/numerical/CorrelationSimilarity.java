@@ -44,6 +44,67 @@ public class CorrelationSimilarity extends SimilarityMeasure {
 		return -calculateSimilarity(value1, value2);
 	}
 
+	@Override
+	public void calculateDistances(double[] first, int firstFrom, int firstTo, double[] second, int secondFrom,
+			int secondTo, int dimensions, double[] distances) {
+		calculateSimilarities(first, firstFrom, firstTo, second, secondFrom, secondTo, dimensions, distances);
+		int size = (firstTo - firstFrom) * (secondTo - secondFrom);
+		for (int i = 0; i < size; i++) {
+			distances[i] = -distances[i];
+		}
+	}
+
+	/**
+	 * Calculates the similarities of all pairs. Every vector is centered and its squared
+	 * deviations are summed only once, so every pair only needs the sum of the products of the
+	 * centered values. The results equal {@link MathFunctions#correlation(double[], double[])}.
+	 */
+	@Override
+	public void calculateSimilarities(double[] first, int firstFrom, int firstTo, double[] second, int secondFrom,
+			int secondTo, int dimensions, double[] similarities) {
+		double[] firstCentered = new double[(firstTo - firstFrom) * dimensions];
+		double[] firstDeviations = center(first, firstFrom, firstTo, dimensions, firstCentered);
+		double[] secondCentered = new double[(secondTo - secondFrom) * dimensions];
+		double[] secondDeviations = center(second, secondFrom, secondTo, dimensions, secondCentered);
+		int position = 0;
+		for (int i = 0; i < firstDeviations.length; i++) {
+			int offset1 = i * dimensions;
+			for (int j = 0; j < secondDeviations.length; j++) {
+				int offset2 = j * dimensions;
+				double sum = 0.0;
+				for (int k = 0; k < dimensions; k++) {
+					sum = sum + firstCentered[offset1 + k] * secondCentered[offset2 + k];
+				}
+				similarities[position++] = sum / Math.sqrt(firstDeviations[i] * secondDeviations[j]);
+			}
+		}
+	}
+
+	/**
+	 * Stores the values of the given rows minus their means in the centered array and returns the
+	 * sums of the squared deviations of the rows.
+	 */
+	private static double[] center(double[] values, int from, int to, int dimensions, double[] centered) {
+		double[] deviations = new double[to - from];
+		for (int i = from; i < to; i++) {
+			int offset = i * dimensions;
+			double sum = 0.0;
+			for (int k = 0; k < dimensions; k++) {
+				sum = sum + values[offset + k];
+			}
+			double mean = sum / dimensions;
+			int centeredOffset = (i - from) * dimensions;
+			double sumS = 0.0;
+			for (int k = 0; k < dimensions; k++) {
+				double deviation = values[offset + k] - mean;
+				centered[centeredOffset + k] = deviation;
+				sumS = sumS + deviation * deviation;
+			}
+			deviations[i - from] = sumS;
+		}
+		return deviations;
+	}
+
 	@Override
 	public void init(ExampleSet exampleSet) throws OperatorException {
 		super.init(exampleSet);
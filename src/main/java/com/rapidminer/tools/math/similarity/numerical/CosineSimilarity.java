@@ -36,18 +36,95 @@ public class CosineSimilarity extends SimilarityMeasure {
 
 	@Override
 	public double calculateSimilarity(double[] value1, double[] value2) {
+		return similarity(value1, 0, value2, 0, value1.length);
+	}
+
+	@Override
+	public double calculateDistance(double[] value1, double[] value2) {
+		return Math.acos(calculateSimilarity(value1, value2));
+	}
+
+	@Override
+	public void calculateDistances(double[] first, int firstFrom, int firstTo, double[] second, int secondFrom,
+			int secondTo, int dimensions, double[] distances) {
+		calculateSimilarities(first, firstFrom, firstTo, second, secondFrom, secondTo, dimensions, distances);
+		int size = (firstTo - firstFrom) * (secondTo - secondFrom);
+		for (int i = 0; i < size; i++) {
+			distances[i] = Math.acos(distances[i]);
+		}
+	}
+
+	/**
+	 * Calculates the similarities of all pairs. The squared norms of the vectors without missing
+	 * values are computed only once per vector, only pairs involving missing values need the
+	 * norms of the values present in both vectors.
+	 */
+	@Override
+	public void calculateSimilarities(double[] first, int firstFrom, int firstTo, double[] second, int secondFrom,
+			int secondTo, int dimensions, double[] similarities) {
+		double[] firstNorms = squaredNorms(first, firstFrom, firstTo, dimensions);
+		double[] secondNorms = squaredNorms(second, secondFrom, secondTo, dimensions);
+		int position = 0;
+		for (int i = firstFrom; i < firstTo; i++) {
+			int offset1 = i * dimensions;
+			double sum1 = firstNorms[i - firstFrom];
+			for (int j = secondFrom; j < secondTo; j++) {
+				int offset2 = j * dimensions;
+				double sum2 = secondNorms[j - secondFrom];
+				if (Double.isNaN(sum1) || Double.isNaN(sum2)) {
+					similarities[position++] = similarity(first, offset1, second, offset2, dimensions);
+				} else {
+					double sum = 0.0;
+					for (int k = 0; k < dimensions; k++) {
+						sum += second[offset2 + k] * first[offset1 + k];
+					}
+					similarities[position++] = similarity(sum, sum1, sum2);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the squared norms of the given rows or {@link Double#NaN} for rows containing
+	 * missing values.
+	 */
+	private static double[] squaredNorms(double[] values, int from, int to, int dimensions) {
+		double[] norms = new double[to - from];
+		for (int i = from; i < to; i++) {
+			int offset = i * dimensions;
+			double sum = 0.0;
+			for (int k = 0; k < dimensions; k++) {
+				double v = values[offset + k];
+				if (Double.isNaN(v)) {
+					sum = Double.NaN;
+					break;
+				}
+				sum += v * v;
+			}
+			norms[i - from] = sum;
+		}
+		return norms;
+	}
+
+	/** Calculates the similarity between the vectors starting at the given offsets. */
+	private static double similarity(double[] value1, int offset1, double[] value2, int offset2, int dimensions) {
 		double sum = 0.0;
 		double sum1 = 0.0;
 		double sum2 = 0.0;
-		for (int i = 0; i < value1.length; i++) {
-			double v1 = value1[i];
-			double v2 = value2[i];
+		for (int i = 0; i < dimensions; i++) {
+			double v1 = value1[offset1 + i];
+			double v2 = value2[offset2 + i];
 			if ((!Double.isNaN(v1)) && (!Double.isNaN(v2))) {
 				sum += v2 * v1;
 				sum1 += v1 * v1;
 				sum2 += v2 * v2;
 			}
 		}
+		return similarity(sum, sum1, sum2);
+	}
+
+	/** Calculates the similarity from the dot product and the squared norms. */
+	private static double similarity(double sum, double sum1, double sum2) {
 		if ((sum1 > 0) && (sum2 > 0)) {
 			double result = sum / (Math.sqrt(sum1) * Math.sqrt(sum2));
 			// result can be > 1 (or -1) due to rounding errors for equal vectors, but must be
@@ -61,11 +138,6 @@ public class CosineSimilarity extends SimilarityMeasure {
 		}
 	}
 
-	@Override
-	public double calculateDistance(double[] value1, double[] value2) {
-		return Math.acos(calculateSimilarity(value1, value2));
-	}
-
 	@Override
 	public void init(ExampleSet exampleSet) throws OperatorException {
 		super.init(exampleSet);
@@ -0,0 +1,155 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.sketch;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * A Space-Saving sketch which finds the most frequent values of a stream with a fixed number of
+ * counters. Every value whose total weight exceeds <code>totalWeight / capacity</code> is
+ * guaranteed to be among the counters. A counter never underestimates the weight of its value and
+ * overestimates it by at most its {@link Counter#getError()}, which in turn is bounded by
+ * {@link #getMaximumError()}.
+ *
+ * @since 7.6.1
+ */
+public class HeavyHitters implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The weight counted for a single value.
+	 */
+	public static class Counter implements Serializable, Comparable<Counter> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final double value;
+
+		private double count;
+
+		private final double error;
+
+		private Counter(double value, double count, double error) {
+			this.value = value;
+			this.count = count;
+			this.error = error;
+		}
+
+		public double getValue() {
+			return value;
+		}
+
+		/**
+		 * @return the estimated weight of the value, never smaller than the true weight
+		 */
+		public double getCount() {
+			return count;
+		}
+
+		/**
+		 * @return the maximal overestimation of {@link #getCount()}
+		 */
+		public double getError() {
+			return error;
+		}
+
+		/** sorts by descending count */
+		@Override
+		public int compareTo(Counter o) {
+			return Double.compare(o.count, count);
+		}
+	}
+
+	private final int capacity;
+
+	private final Map<Double, Counter> counters;
+
+	private double totalWeight;
+
+	/**
+	 * Creates a sketch which tracks at most the given number of values.
+	 */
+	public HeavyHitters(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be positive, but was " + capacity);
+		}
+		this.capacity = capacity;
+		this.counters = new HashMap<>(2 * capacity);
+	}
+
+	/**
+	 * Counts the value with the given weight. Values with non-positive or NaN weight are ignored.
+	 */
+	public void offer(double value, double weight) {
+		if (!(weight > 0)) {
+			return;
+		}
+		totalWeight += weight;
+		Counter counter = counters.get(value);
+		if (counter != null) {
+			counter.count += weight;
+		} else if (counters.size() < capacity) {
+			counters.put(value, new Counter(value, weight, 0));
+		} else {
+			// replace the smallest counter, its count is the error of the new one
+			Counter minimum = null;
+			for (Counter candidate : counters.values()) {
+				if (minimum == null || candidate.count < minimum.count) {
+					minimum = candidate;
+				}
+			}
+			counters.remove(minimum.value);
+			counters.put(value, new Counter(value, minimum.count + weight, minimum.count));
+		}
+	}
+
+	/**
+	 * @return the tracked values, sorted by descending count
+	 */
+	public List<Counter> getTopValues() {
+		List<Counter> top = new ArrayList<>(counters.values());
+		Collections.sort(top);
+		return top;
+	}
+
+	/**
+	 * @return the upper bound of the overestimation of all counters
+	 */
+	public double getMaximumError() {
+		return counters.size() < capacity ? 0 : totalWeight / capacity;
+	}
+
+	/**
+	 * @return the total weight of all offered values
+	 */
+	public double getTotalWeight() {
+		return totalWeight;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+}
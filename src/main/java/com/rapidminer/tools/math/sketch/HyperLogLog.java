@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.sketch;
+
+import java.io.Serializable;
+
+
+/**
+ * A HyperLogLog sketch which estimates the number of distinct values of a stream in constant
+ * memory. The sketch uses <code>2^precision</code> registers of one byte each and a 64 bit hash,
+ * its relative standard error is <code>1.04 / sqrt(2^precision)</code>. Small cardinalities are
+ * corrected by linear counting, so that they are almost exact.
+ *
+ * @since 7.6.1
+ */
+public class HyperLogLog implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** the default precision, uses 4096 registers for a relative standard error of about 1.6% */
+	public static final int DEFAULT_PRECISION = 12;
+
+	private final int precision;
+
+	private final byte[] registers;
+
+	/**
+	 * Creates a sketch with the {@link #DEFAULT_PRECISION}.
+	 */
+	public HyperLogLog() {
+		this(DEFAULT_PRECISION);
+	}
+
+	/**
+	 * Creates a sketch with <code>2^precision</code> registers.
+	 *
+	 * @param precision
+	 *            the number of index bits, between 4 and 18
+	 */
+	public HyperLogLog(int precision) {
+		if (precision < 4 || precision > 18) {
+			throw new IllegalArgumentException("precision must be between 4 and 18, but was " + precision);
+		}
+		this.precision = precision;
+		this.registers = new byte[1 << precision];
+	}
+
+	/**
+	 * Adds the given value. All NaN values are treated as one value, 0 and -0 are not
+	 * distinguished.
+	 */
+	public void offer(double value) {
+		add(hash(value == 0 ? 0d : value));
+	}
+
+	/**
+	 * Adds an already hashed value. The hash bits must be uniformly distributed.
+	 */
+	public void add(long hash) {
+		int index = (int) (hash >>> 64 - precision);
+		// the marker bit bounds the rank if all remaining bits are zero
+		long remaining = hash << precision | 1L << precision - 1;
+		byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+		if (rank > registers[index]) {
+			registers[index] = rank;
+		}
+	}
+
+	/**
+	 * Adds all values seen by the other sketch to this one.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the precisions differ
+	 */
+	public void merge(HyperLogLog other) {
+		if (other.precision != precision) {
+			throw new IllegalArgumentException("Cannot merge sketches of precision " + precision + " and "
+					+ other.precision);
+		}
+		for (int i = 0; i < registers.length; i++) {
+			if (other.registers[i] > registers[i]) {
+				registers[i] = other.registers[i];
+			}
+		}
+	}
+
+	/**
+	 * @return the estimated number of distinct values
+	 */
+	public long estimate() {
+		int m = registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for (byte register : registers) {
+			sum += Math.scalb(1d, -register);
+			if (register == 0) {
+				zeros++;
+			}
+		}
+		double estimate = alpha(m) * m * m / sum;
+		if (estimate <= 2.5 * m && zeros > 0) {
+			// linear counting is more accurate for small cardinalities
+			estimate = m * Math.log((double) m / zeros);
+		}
+		return Math.round(estimate);
+	}
+
+	/**
+	 * @return the relative standard error of {@link #estimate()}
+	 */
+	public double getRelativeError() {
+		return 1.04 / Math.sqrt(registers.length);
+	}
+
+	public int getPrecision() {
+		return precision;
+	}
+
+	private static double alpha(int m) {
+		switch (m) {
+			case 16:
+				return 0.673;
+			case 32:
+				return 0.697;
+			case 64:
+				return 0.709;
+			default:
+				return 0.7213 / (1 + 1.079 / m);
+		}
+	}
+
+	/**
+	 * Hashes the bits of the value with the finalizer of MurmurHash3.
+	 */
+	static long hash(double value) {
+		long h = Double.doubleToLongBits(value);
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.sketch;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+
+/**
+ * A weighted reservoir sample (Efraimidis and Spirakis) which estimates quantiles of a stream with
+ * a fixed amount of memory. As long as no more values than the capacity have been offered, the
+ * quantiles are exact. Afterwards the rank of an estimated quantile deviates from the requested one
+ * by at most {@link #getRankError(double)} with the given confidence, following the
+ * Dvoretzky-Kiefer-Wolfowitz inequality.
+ *
+ * @since 7.6.1
+ */
+public class QuantileSketch implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** the default capacity, for a rank error of about 2.1% with 95% confidence */
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	private static class Sample implements Serializable, Comparable<Sample> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final double value;
+
+		private final double weight;
+
+		private final double key;
+
+		private Sample(double value, double weight, double key) {
+			this.value = value;
+			this.weight = weight;
+			this.key = key;
+		}
+
+		@Override
+		public int compareTo(Sample o) {
+			return Double.compare(key, o.key);
+		}
+	}
+
+	private final int capacity;
+
+	private final Random random;
+
+	/** the samples with the largest keys, the smallest key on top */
+	private final PriorityQueue<Sample> reservoir;
+
+	private long count;
+
+	private transient double[] sortedValues;
+
+	private transient double[] cumulativeWeights;
+
+	/**
+	 * Creates a sketch with the given capacity and random seed.
+	 */
+	public QuantileSketch(int capacity, long seed) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be positive, but was " + capacity);
+		}
+		this.capacity = capacity;
+		this.random = new Random(seed);
+		this.reservoir = new PriorityQueue<>(capacity);
+	}
+
+	/**
+	 * Offers the value with the given weight. NaN values and non-positive weights are ignored.
+	 */
+	public void offer(double value, double weight) {
+		if (Double.isNaN(value) || !(weight > 0)) {
+			return;
+		}
+		count++;
+		// log(u) / w is monotone in u^(1/w) and does not underflow for large weights
+		double key = Math.log(random.nextDouble()) / weight;
+		if (reservoir.size() < capacity) {
+			reservoir.add(new Sample(value, weight, key));
+			sortedValues = null;
+		} else if (key > reservoir.peek().key) {
+			reservoir.poll();
+			reservoir.add(new Sample(value, weight, key));
+			sortedValues = null;
+		}
+	}
+
+	/**
+	 * Returns the estimated quantile.
+	 *
+	 * @param q
+	 *            the quantile between 0 and 1
+	 * @return the estimated quantile or NaN if no value was offered
+	 */
+	public double getQuantile(double q) {
+		if (q < 0 || q > 1) {
+			throw new IllegalArgumentException("quantile must be between 0 and 1, but was " + q);
+		}
+		if (reservoir.isEmpty()) {
+			return Double.NaN;
+		}
+		prepare();
+		double target = q * cumulativeWeights[cumulativeWeights.length - 1];
+		int index = Arrays.binarySearch(cumulativeWeights, target);
+		if (index < 0) {
+			index = -index - 1;
+		}
+		return sortedValues[Math.min(index, sortedValues.length - 1)];
+	}
+
+	/**
+	 * Returns the bound of the rank error of {@link #getQuantile(double)} as fraction of all
+	 * values.
+	 *
+	 * @param confidence
+	 *            the probability with which the bound holds, between 0 and 1 (exclusive)
+	 * @return the rank error, 0 if the sketch holds all values
+	 */
+	public double getRankError(double confidence) {
+		if (count <= capacity) {
+			return 0;
+		}
+		return Math.sqrt(Math.log(2 / (1 - confidence)) / (2 * reservoir.size()));
+	}
+
+	/**
+	 * @return the number of offered values
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	private void prepare() {
+		if (sortedValues != null) {
+			return;
+		}
+		Sample[] samples = reservoir.toArray(new Sample[reservoir.size()]);
+		Arrays.sort(samples, (a, b) -> Double.compare(a.value, b.value));
+		// once values were evicted, the samples already represent their weights
+		boolean exact = count <= capacity;
+		double[] values = new double[samples.length];
+		double[] weights = new double[samples.length];
+		double sum = 0;
+		for (int i = 0; i < samples.length; i++) {
+			values[i] = samples[i].value;
+			sum += exact ? samples[i].weight : 1;
+			weights[i] = sum;
+		}
+		cumulativeWeights = weights;
+		sortedValues = values;
+	}
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.datatable;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+
+import org.junit.Test;
+
+
+/**
+ * Tests the {@link ColumnarDataTable}.
+ */
+public class ColumnarDataTableTest {
+
+	@Test
+	public void unbounded() {
+		ColumnarDataTable table = new ColumnarDataTable("log", new String[] { "a", "b" });
+		for (int i = 0; i < 100; i++) {
+			table.add(new double[] { i, -i });
+		}
+		assertEquals(100, table.getNumberOfRows());
+		assertEquals(42, table.getValue(42, 0), 0);
+		assertEquals(-42, table.getRow(42).getValue(1), 0);
+
+		table.remove(0);
+		assertEquals(99, table.getNumberOfRows());
+		assertEquals(1, table.getValue(0, 0), 0);
+		assertEquals(99, table.getColumn(0)[98], 0);
+	}
+
+	@Test
+	public void boundedKeepsMostRecentRows() {
+		ColumnarDataTable table = new ColumnarDataTable("log", new String[] { "a" }, 50);
+		for (int i = 0; i < 175; i++) {
+			table.add(new double[] { i });
+		}
+		assertEquals(50, table.getNumberOfRows());
+		double[] expected = new double[50];
+		for (int i = 0; i < 50; i++) {
+			expected[i] = 125 + i;
+		}
+		assertArrayEquals(expected, table.getColumn(0), 0);
+
+		int row = 0;
+		Iterator<DataTableRow> iterator = table.iterator();
+		while (iterator.hasNext()) {
+			assertEquals(expected[row++], iterator.next().getValue(0), 0);
+		}
+		assertEquals(50, row);
+
+		// removing a row of the wrapped buffer keeps the order
+		table.remove(10);
+		table.add(new double[] { 175 });
+		assertEquals(50, table.getNumberOfRows());
+		assertEquals(136, table.getValue(10, 0), 0);
+		assertEquals(175, table.getValue(49, 0), 0);
+	}
+
+	@Test
+	public void nominalMapping() {
+		ColumnarDataTable table = new ColumnarDataTable("log", new String[] { "name", "value" });
+		assertFalse(table.isNominal(0));
+		table.add(new double[] { table.mapString(0, "first"), 1 });
+		table.add(new double[] { table.mapString(0, "second"), 2 });
+		table.add(new double[] { table.mapString(0, "first"), 3 });
+		assertTrue(table.isNominal(0));
+		assertTrue(table.isNumerical(1));
+		assertEquals(2, table.getNumberOfValues(0));
+		assertEquals("second", table.getValueAsString(table.getRow(1), 0));
+
+		table.remove(1);
+		table.cleanMappingTables();
+		assertEquals(1, table.getNumberOfValues(0));
+		assertEquals("first", table.mapIndex(0, 0));
+	}
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.rapidminer.example.test.ExampleTestTools;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.tools.math.sketch.HeavyHitters;
+
+
+/**
+ * Tests the {@link ProgressiveStatistics} against the exact statistics of the example set.
+ *
+ * @since 7.6.1
+ */
+public class ProgressiveStatisticsTest {
+
+	private static final int ROWS = 50_000;
+
+	private static final int BLOCK_SIZE = 1000;
+
+	/** sorted numerical values with missings and a skewed nominal attribute */
+	private static ExampleSet createExampleSet() {
+		Attribute real = ExampleTestTools.attributeReal();
+		Attribute nominal = ExampleTestTools.attributeDogCatMouse();
+		return ExampleSets.from(real, nominal).withBlankSize(ROWS)
+				.withColumnFiller(real, i -> i % 10 == 0 ? Double.NaN : i)
+				.withColumnFiller(nominal, i -> i % 10 < 6 ? 0 : i % 10 < 9 ? 1 : 2).build();
+	}
+
+	@Test
+	public void completeScanMatchesExactStatistics() {
+		ExampleSet exampleSet = createExampleSet();
+		Attribute real = exampleSet.getAttributes().get("real");
+		Attribute nominal = exampleSet.getAttributes().get("animal");
+		exampleSet.recalculateAllAttributeStatistics();
+
+		ProgressiveStatistics statistics = new ProgressiveStatistics(exampleSet,
+				Arrays.asList(real, nominal), BLOCK_SIZE, 2001);
+		statistics.scanAll();
+		assertTrue(statistics.isComplete());
+		assertFalse(statistics.scanNextBlock());
+		assertEquals(1, statistics.getScaleFactor(), 0);
+
+		AttributeSketch realSketch = statistics.getSketch(real);
+		assertEquals(exampleSet.getStatistics(real, Statistics.UNKNOWN), realSketch.getMissingWeight(), 0);
+		assertEquals(exampleSet.getStatistics(real, Statistics.AVERAGE), realSketch.getAverage(), 1e-6);
+		double variance = exampleSet.getStatistics(real, Statistics.VARIANCE);
+		assertEquals(variance, realSketch.getVariance(), 1e-9 * variance);
+		assertEquals(exampleSet.getStatistics(real, Statistics.MINIMUM), realSketch.getMinimum(), 0);
+		assertEquals(exampleSet.getStatistics(real, Statistics.MAXIMUM), realSketch.getMaximum(), 0);
+		double distinct = ROWS - ROWS / 10;
+		assertEquals(distinct, realSketch.getDistinctValues(), 3 * realSketch.getDistinctValuesError() * distinct);
+		assertEquals(ROWS / 2, realSketch.getQuantiles().getQuantile(0.5),
+				realSketch.getQuantiles().getRankError(0.999) * ROWS + 1);
+
+		AttributeSketch nominalSketch = statistics.getSketch(nominal);
+		assertEquals(3, nominalSketch.getDistinctValues());
+		for (HeavyHitters.Counter counter : nominalSketch.getFrequentValues().getTopValues()) {
+			String value = nominal.getMapping().mapIndex((int) counter.getValue());
+			assertEquals(exampleSet.getStatistics(nominal, Statistics.COUNT, value), counter.getCount(), 0);
+		}
+		assertEquals(0, nominalSketch.getFrequentValues().getTopValues().get(0).getValue(), 0);
+	}
+
+	@Test
+	public void partialScanExtrapolatesSortedData() {
+		ExampleSet exampleSet = createExampleSet();
+		Attribute real = exampleSet.getAttributes().get("real");
+		Attribute nominal = exampleSet.getAttributes().get("animal");
+
+		ProgressiveStatistics statistics = new ProgressiveStatistics(exampleSet,
+				Arrays.asList(real, nominal), BLOCK_SIZE, 2001);
+		for (int i = 0; i < 10; i++) {
+			assertTrue(statistics.scanNextBlock());
+		}
+		assertFalse(statistics.isComplete());
+		assertEquals(10 * BLOCK_SIZE, statistics.getScannedExamples());
+		assertEquals(0.2, statistics.getScannedFraction(), 0);
+		assertEquals(5, statistics.getScaleFactor(), 0);
+
+		// the blocks are drawn from the whole range, not only from its beginning
+		AttributeSketch realSketch = statistics.getSketch(real);
+		assertTrue(realSketch.getMaximum() > 10 * BLOCK_SIZE);
+		assertEquals(ROWS / 2, realSketch.getAverage(), ROWS / 8);
+		assertEquals(ROWS / 10, realSketch.getMissingWeight() * statistics.getScaleFactor(), 0);
+		HeavyHitters.Counter dogs = statistics.getSketch(nominal).getFrequentValues().getTopValues().get(0);
+		assertEquals(0.6 * ROWS, dogs.getCount() * statistics.getScaleFactor(), 0);
+	}
+
+	@Test
+	public void weightsAreCounted() {
+		Attribute real = ExampleTestTools.attributeReal();
+		Attribute weight = ExampleTestTools.attributeReal(1);
+		ExampleSet exampleSet = ExampleSets.from(real, weight).withBlankSize(100).withColumnFiller(real, i -> i % 2)
+				.withColumnFiller(weight, i -> i % 2 == 0 ? 1 : 3).withRole(weight, Attributes.WEIGHT_NAME).build();
+
+		ProgressiveStatistics statistics = new ProgressiveStatistics(exampleSet, Arrays.asList(real), 7, 2001);
+		statistics.scanAll();
+		AttributeSketch sketch = statistics.getSketch(real);
+		assertEquals(200, sketch.getWeight(), 0);
+		assertEquals(0.75, sketch.getAverage(), 1e-12);
+		assertEquals(1, sketch.getQuantiles().getQuantile(0.5), 0);
+	}
+}
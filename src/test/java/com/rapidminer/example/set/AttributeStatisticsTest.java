@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example.set;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.Statistics;
+import com.rapidminer.example.test.ExampleTestTools;
+import com.rapidminer.example.utils.ExampleSets;
+
+
+/**
+ * Tests the single pass statistics calculation of the {@link AbstractExampleSet}.
+ *
+ * @since 7.6.1
+ */
+public class AttributeStatisticsTest {
+
+	private static final int ROWS = 10_000;
+
+	@Test
+	public void allAttributesInOnePass() {
+		Attribute real = ExampleTestTools.attributeReal();
+		Attribute nominal = ExampleTestTools.attributeDogCatMouse();
+		ExampleSet exampleSet = ExampleSets.from(real, nominal).withBlankSize(ROWS)
+				.withColumnFiller(real, i -> i % 10 == 0 ? Double.NaN : i).withColumnFiller(nominal, i -> i % 3).build();
+
+		exampleSet.recalculateAllAttributeStatistics();
+
+		double sum = 0;
+		int count = 0;
+		for (int i = 0; i < ROWS; i++) {
+			if (i % 10 != 0) {
+				sum += i;
+				count++;
+			}
+		}
+		assertEquals(sum / count, exampleSet.getStatistics(real, Statistics.AVERAGE), 1e-9);
+		assertEquals(1, exampleSet.getStatistics(real, Statistics.MINIMUM), 0);
+		assertEquals(ROWS - 1, exampleSet.getStatistics(real, Statistics.MAXIMUM), 0);
+		assertEquals(ROWS / 10, exampleSet.getStatistics(real, Statistics.UNKNOWN), 0);
+
+		assertEquals(0, exampleSet.getStatistics(nominal, Statistics.UNKNOWN), 0);
+		assertEquals(0, exampleSet.getStatistics(nominal, Statistics.MODE), 0);
+		for (int i = 0; i < 3; i++) {
+			assertEquals((ROWS + 2 - i) / 3,
+					exampleSet.getStatistics(nominal, Statistics.COUNT, nominal.getMapping().mapIndex(i)), 0);
+		}
+	}
+
+	@Test
+	public void weightedStatistics() {
+		Attribute real = ExampleTestTools.attributeReal();
+		Attribute weight = ExampleTestTools.attributeReal(1);
+		ExampleSet exampleSet = ExampleSets.from(real, weight).withBlankSize(ROWS).withColumnFiller(real, i -> i % 2)
+				.withColumnFiller(weight, i -> i % 2 == 0 ? 1 : 3).withRole(weight, Attributes.WEIGHT_NAME).build();
+
+		exampleSet.recalculateAttributeStatistics(real);
+
+		// three quarters of the weight is on the value 1
+		assertEquals(0.75, exampleSet.getStatistics(real, Statistics.AVERAGE_WEIGHTED), 1e-9);
+		assertEquals(0.5, exampleSet.getStatistics(real, Statistics.AVERAGE), 1e-9);
+	}
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example.set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.test.ExampleTestTools;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.ProcessStoppedException;
+
+
+/**
+ * Tests the {@link ExampleSetSorter}.
+ *
+ * @since 7.6.1
+ */
+public class ExampleSetSorterTest {
+
+	/** Large enough to be sorted in several blocks. */
+	private static final int ROWS = 200_000;
+
+	/** Minimal context running the tasks in a fork join pool. */
+	private static class PoolContext implements ConcurrencyContext {
+
+		private final ForkJoinPool pool = new ForkJoinPool(4);
+
+		@Override
+		public void run(List<Runnable> runnables) throws ExecutionException {
+			List<Callable<Void>> callables = new ArrayList<>();
+			for (Runnable runnable : runnables) {
+				callables.add(() -> {
+					runnable.run();
+					return null;
+				});
+			}
+			call(callables);
+		}
+
+		@Override
+		public <T> List<T> call(List<Callable<T>> callables) throws ExecutionException {
+			return collectResults(submit(callables));
+		}
+
+		@Override
+		public <T> List<Future<T>> submit(List<Callable<T>> callables) {
+			List<Future<T>> futures = new ArrayList<>();
+			for (Callable<T> callable : callables) {
+				futures.add(pool.submit(callable));
+			}
+			return futures;
+		}
+
+		@Override
+		public <T> List<T> collectResults(List<Future<T>> futures) throws ExecutionException {
+			List<T> results = new ArrayList<>();
+			for (Future<T> future : futures) {
+				try {
+					results.add(future.get());
+				} catch (InterruptedException e) {
+					throw new ExecutionException(e);
+				}
+			}
+			return results;
+		}
+
+		@Override
+		public int getParallelism() {
+			return pool.getParallelism();
+		}
+
+		@Override
+		public void checkStatus() {}
+
+		@Override
+		public <T> T invoke(ForkJoinTask<T> task) {
+			return pool.invoke(task);
+		}
+
+		@Override
+		public <T> List<T> invokeAll(List<ForkJoinTask<T>> tasks) {
+			List<T> results = new ArrayList<>();
+			for (ForkJoinTask<T> task : tasks) {
+				results.add(pool.invoke(task));
+			}
+			return results;
+		}
+	}
+
+	private static ExampleSet createExampleSet(Attribute real, Attribute nominal) {
+		Random random = new Random(42);
+		double[] reals = new double[ROWS];
+		double[] nominals = new double[ROWS];
+		for (int i = 0; i < ROWS; i++) {
+			reals[i] = random.nextInt(20) == 0 ? Double.NaN : random.nextInt(50) - 25;
+			nominals[i] = random.nextInt(20) == 0 ? Double.NaN : random.nextInt(3);
+		}
+		return ExampleSets.from(real, nominal).withBlankSize(ROWS).withColumnFiller(real, i -> reals[i])
+				.withColumnFiller(nominal, i -> nominals[i]).build();
+	}
+
+	/** Sorts by a stable comparator on the boxed values like the former implementation. */
+	private static int[] referenceOrder(ExampleSet exampleSet, Attribute real, int realDirection, Attribute nominal,
+			int nominalDirection) {
+		Integer[] order = new Integer[exampleSet.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Comparator<Integer> realComparator = (a, b) -> Double.compare(exampleSet.getExample(a).getValue(real),
+				exampleSet.getExample(b).getValue(real));
+		Comparator<Integer> nominalComparator = (a, b) -> exampleSet.getExample(a).getNominalValue(nominal)
+				.compareTo(exampleSet.getExample(b).getNominalValue(nominal));
+		if (realDirection == SortedExampleSet.DECREASING) {
+			realComparator = realComparator.reversed();
+		}
+		if (nominalDirection == SortedExampleSet.DECREASING) {
+			nominalComparator = nominalComparator.reversed();
+		}
+		Arrays.sort(order, nominalComparator.thenComparing(realComparator));
+		int[] result = new int[order.length];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = order[i];
+		}
+		return result;
+	}
+
+	@Test
+	public void multipleKeysSequential() throws ProcessStoppedException {
+		Attribute real = ExampleTestTools.attributeReal();
+		Attribute nominal = ExampleTestTools.attributeDogCatMouse();
+		ExampleSet exampleSet = createExampleSet(real, nominal);
+
+		int[] order = ExampleSetSorter.sort(exampleSet, new Attribute[] { nominal, real },
+				new int[] { SortedExampleSet.INCREASING, SortedExampleSet.DECREASING }, null, null);
+		assertArrayEquals(
+				referenceOrder(exampleSet, real, SortedExampleSet.DECREASING, nominal, SortedExampleSet.INCREASING),
+				order);
+	}
+
+	@Test
+	public void multipleKeysParallel() throws ProcessStoppedException {
+		Attribute real = ExampleTestTools.attributeReal();
+		Attribute nominal = ExampleTestTools.attributeDogCatMouse();
+		ExampleSet exampleSet = createExampleSet(real, nominal);
+
+		int[] order = ExampleSetSorter.sort(exampleSet, new Attribute[] { nominal, real },
+				new int[] { SortedExampleSet.DECREASING, SortedExampleSet.INCREASING }, new PoolContext(), null);
+		assertArrayEquals(
+				referenceOrder(exampleSet, real, SortedExampleSet.INCREASING, nominal, SortedExampleSet.DECREASING),
+				order);
+	}
+
+	@Test
+	public void stableForEqualKeys() throws ProcessStoppedException {
+		Attribute nominal = ExampleTestTools.attributeYesNo();
+		ExampleSet exampleSet = ExampleSets.from(nominal).withBlankSize(100).withColumnFiller(nominal, i -> i % 2)
+				.build();
+
+		int[] order = ExampleSetSorter.sort(exampleSet, new Attribute[] { nominal },
+				new int[] { SortedExampleSet.DECREASING }, null, null);
+		for (int i = 0; i < order.length; i++) {
+			assertEquals(i < 50 ? 2 * i + 1 : 2 * (i - 50), order[i]);
+		}
+
+		SortedExampleSet sorted = new SortedExampleSet(exampleSet, nominal, SortedExampleSet.DECREASING);
+		for (int i = 0; i < sorted.size(); i++) {
+			assertEquals(i < 50 ? "yes" : "no", sorted.getExample(i).getNominalValue(nominal));
+		}
+	}
+
+	@Test
+	public void sortableLongs() {
+		double[] values = { Double.NEGATIVE_INFINITY, -1e300, -1, -Double.MIN_VALUE, -0.0, 0.0, Double.MIN_VALUE, 1,
+				1e300, Double.POSITIVE_INFINITY, Double.NaN };
+		for (int i = 1; i < values.length; i++) {
+			assertTrue(ExampleSetSorter.toSortableLong(values[i - 1]) < ExampleSetSorter.toSortableLong(values[i]));
+		}
+	}
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example.table;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+
+/**
+ * Tests the switch of the {@link PolynominalMapping} to the {@link CompactStringDictionary}.
+ *
+ * @since 7.6.1
+ */
+public class PolynominalMappingTest {
+
+	private static final int SIZE = PolynominalMapping.COMPACT_THRESHOLD + 1000;
+
+	private static String value(int i) {
+		// include multi-byte characters and an unpaired surrogate
+		return "id-" + i + (i % 3 == 0 ? "ä€" : "") + (i % 7 == 0 ? "\ud800" : "");
+	}
+
+	private static PolynominalMapping createMapping() {
+		PolynominalMapping mapping = new PolynominalMapping();
+		for (int i = 0; i < SIZE; i++) {
+			assertEquals(i, mapping.mapString(value(i)));
+		}
+		return mapping;
+	}
+
+	private static void assertMapping(NominalMapping mapping) {
+		assertEquals(SIZE, mapping.size());
+		for (int i = 0; i < SIZE; i++) {
+			assertEquals(value(i), mapping.mapIndex(i));
+			assertEquals(i, mapping.getIndex(value(i)));
+			assertEquals(value(i), mapping.getValues().get(i));
+		}
+	}
+
+	@Test
+	public void switchToCompact() {
+		PolynominalMapping mapping = new PolynominalMapping();
+		for (int i = 0; i < PolynominalMapping.COMPACT_THRESHOLD; i++) {
+			mapping.mapString(value(i));
+		}
+		assertFalse(mapping.isCompact());
+		mapping.mapString(value(PolynominalMapping.COMPACT_THRESHOLD));
+		assertTrue(mapping.isCompact());
+
+		mapping = createMapping();
+		assertMapping(mapping);
+		assertEquals(SIZE - 1, mapping.mapString(value(SIZE - 1)));
+		assertEquals(-1, mapping.getIndex("unknown"));
+		assertEquals(-1, mapping.mapString(null));
+	}
+
+	@Test
+	public void setMapping() {
+		PolynominalMapping mapping = createMapping();
+		mapping.setMapping("replaced", 5);
+		assertEquals("replaced", mapping.mapIndex(5));
+		assertEquals(5, mapping.getIndex("replaced"));
+		assertEquals(-1, mapping.getIndex(value(5)));
+
+		// like the maps, a value set at another index is only found there
+		mapping.setMapping(value(7), 8);
+		assertEquals(8, mapping.getIndex(value(7)));
+		assertEquals(value(7), mapping.mapIndex(7));
+	}
+
+	@Test
+	public void cloneAndSerialize() throws IOException, ClassNotFoundException {
+		PolynominalMapping mapping = createMapping();
+		PolynominalMapping clone = (PolynominalMapping) mapping.clone();
+		assertTrue(clone.isCompact());
+		assertMapping(clone);
+		assertTrue(mapping.equals(clone));
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(mapping);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			PolynominalMapping read = (PolynominalMapping) in.readObject();
+			assertTrue(read.isCompact());
+			assertMapping(read);
+		}
+	}
+
+	@Test
+	public void sortAndClear() {
+		PolynominalMapping mapping = createMapping();
+		mapping.sortMappings();
+		assertEquals(SIZE, mapping.size());
+		for (int i = 1; i < SIZE; i++) {
+			assertTrue(mapping.mapIndex(i - 1).compareTo(mapping.mapIndex(i)) < 0);
+		}
+
+		mapping.clear();
+		assertEquals(0, mapping.size());
+		assertFalse(mapping.isCompact());
+		assertEquals(0, mapping.mapString("a"));
+		assertEquals(1, mapping.size());
+	}
+}
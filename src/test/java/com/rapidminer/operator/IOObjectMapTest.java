@@ -0,0 +1,68 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+
+/**
+ * Tests the {@link IOObjectMap}.
+ */
+public class IOObjectMapTest {
+
+	private static class NamedObject extends ResultObjectAdapter {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String name;
+
+		private NamedObject(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	@Test
+	public void getAllIsSnapshot() {
+		IOObjectMap map = new IOObjectMap();
+		NamedObject first = new NamedObject("first");
+		NamedObject second = new NamedObject("second");
+		map.store("first", first);
+		map.store("second", second);
+
+		Map<String, IOObject> all = map.getAll();
+		map.remove("first");
+		map.store("third", new NamedObject("third"));
+
+		assertEquals(Arrays.asList("first", "second"), Arrays.asList(all.keySet().toArray()));
+		assertSame(first, all.get("first"));
+		assertSame(second, all.get("second"));
+		assertEquals(Arrays.asList("second", "third"), Arrays.asList(map.getAllKeys().toArray()));
+	}
+}
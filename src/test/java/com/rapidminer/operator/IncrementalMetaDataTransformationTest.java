@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.RapidMiner.ExecutionMode;
+import com.rapidminer.operator.generator.ExampleSetGenerator;
+import com.rapidminer.operator.learner.lazy.DefaultLearner;
+import com.rapidminer.operator.validation.SplitValidationOperator;
+import com.rapidminer.tools.OperatorService;
+
+
+/**
+ * Tests that {@link Operator#checkAllIncrementally} transforms exactly the operators whose meta
+ * data might have changed, also if the output of one subprocess is passed to another one as in the
+ * {@link SplitValidationOperator}.
+ */
+public class IncrementalMetaDataTransformationTest {
+
+	private Process process;
+	private Operator learner;
+	private Operator applier;
+	private Operator multiplier;
+
+	@BeforeClass
+	public static void init() {
+		RapidMiner.setExecutionMode(ExecutionMode.TEST);
+		RapidMiner.init();
+	}
+
+	/**
+	 * Creates a split validation which learns a default model in the training subprocess and
+	 * applies it to a copy of the test set in the testing subprocess.
+	 */
+	@Before
+	public void createProcess() throws OperatorCreationException {
+		process = new Process();
+		Operator generator = OperatorService.createOperator(ExampleSetGenerator.class);
+		OperatorChain validation = OperatorService.createOperator(SplitValidationOperator.class);
+		learner = OperatorService.createOperator(DefaultLearner.class);
+		applier = OperatorService.createOperator(ModelApplier.class);
+		multiplier = OperatorService.createOperator(IOMultiplier.class);
+
+		ExecutionUnit root = process.getRootOperator().getSubprocess(0);
+		root.addOperator(generator);
+		root.addOperator(validation);
+		generator.getOutputPorts().getPortByIndex(0).connectTo(validation.getInputPorts().getPortByIndex(0));
+
+		ExecutionUnit training = validation.getSubprocess(0);
+		training.addOperator(learner);
+		training.getInnerSources().getPortByName("training").connectTo(learner.getInputPorts().getPortByIndex(0));
+		learner.getOutputPorts().getPortByName("model").connectTo(training.getInnerSinks().getPortByName("model"));
+
+		ExecutionUnit testing = validation.getSubprocess(1);
+		testing.addOperator(multiplier);
+		testing.addOperator(applier);
+		testing.getInnerSources().getPortByName("test set").connectTo(multiplier.getInputPorts().getPortByIndex(0));
+		multiplier.getOutputPorts().getPortByIndex(0).connectTo(applier.getInputPorts().getPortByName("unlabelled data"));
+		testing.getInnerSources().getPortByName("model").connectTo(applier.getInputPorts().getPortByName("model"));
+
+		assertTrue(check());
+	}
+
+	private boolean check() {
+		return process.getRootOperator().checkAllIncrementally(() -> false);
+	}
+
+	@Test
+	public void unchangedProcessIsSkipped() {
+		long learnerVersion = learner.getMetaDataVersion();
+		long applierVersion = applier.getMetaDataVersion();
+		long multiplierVersion = multiplier.getMetaDataVersion();
+
+		assertTrue(check());
+
+		assertEquals(learnerVersion, learner.getMetaDataVersion());
+		assertEquals(applierVersion, applier.getMetaDataVersion());
+		assertEquals(multiplierVersion, multiplier.getMetaDataVersion());
+	}
+
+	@Test
+	public void editInTrainingPropagatesToTesting() {
+		long learnerVersion = learner.getMetaDataVersion();
+		long applierVersion = applier.getMetaDataVersion();
+		long multiplierVersion = multiplier.getMetaDataVersion();
+
+		learner.setParameter(DefaultLearner.PARAMETER_METHOD, "average");
+		assertTrue(check());
+
+		assertNotEquals(learnerVersion, learner.getMetaDataVersion());
+		// the model is passed from the training to the testing subprocess
+		assertNotEquals(applierVersion, applier.getMetaDataVersion());
+		// the test set does not depend on the training subprocess
+		assertEquals(multiplierVersion, multiplier.getMetaDataVersion());
+	}
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.test.ExampleTestTools;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.test_utils.RapidAssert;
+
+
+/**
+ * Tests the {@link SpillingIOObjectStorage}.
+ */
+public class SpillingIOObjectStorageTest {
+
+	/** An object which counts the attempts to serialize it and always fails. */
+	private static class UnserializableObject extends ResultObjectAdapter {
+
+		private static final long serialVersionUID = 1L;
+
+		private static int writeAttempts = 0;
+
+		private void writeObject(ObjectOutputStream out) throws IOException {
+			writeAttempts++;
+			throw new NotSerializableException(getClass().getName());
+		}
+
+		@Override
+		public String toString() {
+			return "unserializable";
+		}
+	}
+
+	@Before
+	public void setup() {
+		RapidMiner.initAsserters();
+	}
+
+	private static ExampleSet createExampleSet(int rows) {
+		Attribute real = ExampleTestTools.attributeReal();
+		Attribute nominal = ExampleTestTools.attributeDogCatMouse();
+		return ExampleSets.from(real, nominal).withBlankSize(rows).withColumnFiller(real, i -> i * 0.5)
+				.withColumnFiller(nominal, i -> i % 3).build();
+	}
+
+	@Test
+	public void noSpillingWithoutBudget() {
+		SpillingIOObjectStorage storage = new SpillingIOObjectStorage(0);
+		ExampleSet first = createExampleSet(1000);
+		ExampleSet second = createExampleSet(1000);
+		assertFalse(storage.put("first", first));
+		assertFalse(storage.put("second", second));
+
+		assertSame(first, storage.get("first"));
+		assertSame(second, storage.get("second"));
+		assertEquals(0, storage.getSpillCount());
+		assertEquals(2, storage.getMemoryHits());
+	}
+
+	@Test
+	public void spillLeastRecentlyUsed() {
+		// budget fits a single example set of 1000 rows with two attributes
+		SpillingIOObjectStorage storage = new SpillingIOObjectStorage(20_000);
+		ExampleSet first = createExampleSet(1000);
+		ExampleSet second = createExampleSet(1000);
+		storage.put("first", first);
+		storage.put("second", second);
+
+		assertEquals(1, storage.getSpillCount());
+		assertEquals(1, storage.getSpilledObjectCount());
+		assertTrue(ExampleSet.class.isAssignableFrom(storage.getObjectClass("first")));
+
+		// second is in memory, first must be restored from disk
+		assertSame(second, storage.get("second"));
+		ExampleSet restored = (ExampleSet) storage.get("first");
+		RapidAssert.assertEquals("restored example set differs", first, restored);
+		assertEquals(1, storage.getMemoryHits());
+		assertEquals(1, storage.getDiskHits());
+
+		// restoring first spilled second
+		assertEquals(2, storage.getSpillCount());
+		assertEquals(1, storage.getSpilledObjectCount());
+	}
+
+	@Test
+	public void removeAndReplace() {
+		SpillingIOObjectStorage storage = new SpillingIOObjectStorage(20_000);
+		ExampleSet first = createExampleSet(1000);
+		storage.put("first", first);
+		storage.put("second", createExampleSet(1000));
+
+		assertTrue(storage.put("second", createExampleSet(10)));
+		ExampleSet removed = (ExampleSet) storage.remove("first");
+		RapidAssert.assertEquals("removed example set differs", first, removed);
+		assertFalse(storage.contains("first"));
+		assertNull(storage.get("first"));
+		assertEquals(1, storage.size());
+
+		storage.clear();
+		assertEquals(0, storage.size());
+		assertEquals(0, storage.getMemoryUsage());
+	}
+
+	@Test
+	public void keepMostRecentlyUsedResident() {
+		// budget is smaller than a single example set
+		SpillingIOObjectStorage storage = new SpillingIOObjectStorage(1000);
+		ExampleSet large = createExampleSet(1000);
+		storage.put("large", large);
+		for (int i = 0; i < 5; i++) {
+			assertSame(large, storage.get("large"));
+		}
+		assertEquals(0, storage.getSpillCount());
+
+		// another object pushes the large one out, but is itself kept
+		ExampleSet other = createExampleSet(1000);
+		storage.put("other", other);
+		assertEquals(1, storage.getSpillCount());
+		assertSame(other, storage.get("other"));
+		assertEquals(1, storage.getSpillCount());
+	}
+
+	@Test
+	public void failedSpillIsNotRetried() {
+		UnserializableObject.writeAttempts = 0;
+		// fits the unserializable object and one small example set
+		SpillingIOObjectStorage storage = new SpillingIOObjectStorage(2500);
+		UnserializableObject unserializable = new UnserializableObject();
+		storage.put("unserializable", unserializable);
+		storage.put("first", createExampleSet(10));
+		storage.put("second", createExampleSet(10));
+		assertEquals(1, UnserializableObject.writeAttempts);
+		assertEquals(1, storage.getSpillCount());
+
+		// restoring first spills second, the unserializable object is not tried again
+		storage.get("first");
+		assertEquals(1, UnserializableObject.writeAttempts);
+		assertEquals(2, storage.getSpillCount());
+		assertSame(unserializable, storage.get("unserializable"));
+	}
+}
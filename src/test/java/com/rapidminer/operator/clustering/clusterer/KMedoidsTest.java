@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.clustering.clusterer;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.test.ExampleTestTools;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.tools.math.similarity.numerical.EuclideanDistance;
+
+
+/**
+ * Tests the medoid search of {@link KMedoids}.
+ *
+ * @since 7.6.1
+ */
+public class KMedoidsTest {
+
+	private static final double[] VALUES = { 0, 5, 1, 7, 2, 10 };
+	private static final int[] ASSIGNMENTS = { 0, 1, 0, 1, 0, 0 };
+
+	private static double[][] findMedoids(double[] values, boolean buffered) {
+		Attribute attribute = ExampleTestTools.attributeReal();
+		ExampleSet exampleSet = ExampleSets.from(attribute).withBlankSize(values.length)
+				.withColumnFiller(attribute, i -> values[i]).build();
+		return KMedoids.findMedoids(exampleSet, buffered ? values : null, ASSIGNMENTS, 3, new EuclideanDistance());
+	}
+
+	@Test
+	public void firstSmallestSumWins() {
+		for (boolean buffered : new boolean[] { true, false }) {
+			double[][] medoids = findMedoids(VALUES, buffered);
+			// the candidates 1 and 2 as well as 5 and 7 have the same distance sums
+			assertArrayEquals(new double[] { 1 }, medoids[0], 0);
+			assertArrayEquals(new double[] { 5 }, medoids[1], 0);
+			// all candidates have the sum 0 for the empty cluster
+			assertArrayEquals(new double[] { 0 }, medoids[2], 0);
+		}
+	}
+
+	@Test
+	public void undefinedDistancesKeepZeros() {
+		double[] missing = new double[VALUES.length];
+		Arrays.fill(missing, Double.NaN);
+		for (boolean buffered : new boolean[] { true, false }) {
+			double[][] medoids = findMedoids(missing, buffered);
+			for (double[] medoid : medoids) {
+				assertArrayEquals(new double[] { 0 }, medoid, 0);
+			}
+		}
+	}
+}
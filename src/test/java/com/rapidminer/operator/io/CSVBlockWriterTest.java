@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.SortedExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Tests the {@link CSVBlockWriter}.
+ */
+public class CSVBlockWriterTest {
+
+	@Test
+	public void numbersLikeDoubleToString() {
+		double[] values = { 0, -0.0, 1, -1, 42, 0.5, -2.25, 1e-4, 9_999_999, 10_000_000, -10_000_000, 1e20, 1.0 / 3,
+				Double.MAX_VALUE, Double.MIN_VALUE, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY };
+		for (double value : values) {
+			StringBuilder builder = new StringBuilder();
+			CSVBlockWriter.appendNumber(builder, value);
+			assertEquals(Double.toString(value), builder.toString());
+		}
+	}
+
+	@Test
+	public void writeQuotedValues() throws IOException, ProcessStoppedException {
+		Attribute text = AttributeFactory.createAttribute("te\"xt", Ontology.NOMINAL);
+		int quoted = text.getMapping().mapString("say \"hi\"");
+		int plain = text.getMapping().mapString("plain");
+		Attribute real = AttributeFactory.createAttribute("real", Ontology.REAL);
+		ExampleSet exampleSet = ExampleSets.from(text, real).addRow(new double[] { quoted, 1.5 })
+				.addRow(new double[] { plain, Double.NaN }).addRow(new double[] { Double.NaN, Double.NEGATIVE_INFINITY })
+				.build();
+
+		StringWriter out = new StringWriter();
+		new CSVBlockWriter(exampleSet, ";", true, true, "inf").write(out, true, null);
+		String separator = System.lineSeparator();
+		assertEquals("\"te'xt\";\"real\"" + separator + "\"say 'hi'\";1.5" + separator + "\"plain\";" + separator + ";-inf"
+				+ separator, out.toString());
+	}
+
+	@Test
+	public void writeSortedView() throws IOException, ProcessStoppedException {
+		Attribute real = AttributeFactory.createAttribute("real", Ontology.REAL);
+		ExampleSetBuilder builder = ExampleSets.from(real);
+		for (int i = 0; i < 250; i++) {
+			builder.addRow(new double[] { i });
+		}
+		ExampleSet exampleSet = new SortedExampleSet(builder.build(), real, SortedExampleSet.DECREASING);
+
+		StringWriter out = new StringWriter();
+		new CSVBlockWriter(exampleSet, ";", true, true, null).write(out, false, null);
+		StringBuilder expected = new StringBuilder();
+		for (int i = 249; i >= 0; i--) {
+			expected.append(i).append(".0").append(System.lineSeparator());
+		}
+		assertEquals(expected.toString(), out.toString());
+	}
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.functions.kernel.jmysvm.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+
+/**
+ * Tests the eviction of the kernel row {@link Cache}.
+ */
+public class CacheTest {
+
+	@Test
+	public void evictLeastRecentlyUsed() {
+		Cache cache = new Cache(2, 1);
+		cache.put_element(1, new double[1]);
+		cache.put_element(2, new double[1]);
+		cache.put_element(3, new double[1]);
+
+		assertFalse(cache.cached(1));
+		assertTrue(cache.cached(2));
+		assertTrue(cache.cached(3));
+	}
+
+	@Test
+	public void keepFrequentlyUsed() {
+		Cache cache = new Cache(2, 1);
+		cache.put_element(1, new double[1]);
+		for (int i = 0; i < 3; i++) {
+			cache.get_element(1);
+		}
+		cache.put_element(2, new double[1]);
+		cache.put_element(3, new double[1]);
+
+		// 1 was used more often than 2, although 2 was used more recently
+		assertTrue(cache.cached(1));
+		assertFalse(cache.cached(2));
+		assertTrue(cache.cached(3));
+	}
+
+	@Test
+	public void replacedElementIsReused() {
+		Cache cache = new Cache(2, 1);
+		assertNull(cache.get_replaced_element(1));
+		double[] first = new double[1];
+		cache.put_element(1, first);
+		cache.put_element(2, new double[1]);
+		assertNull(cache.get_replaced_element(2));
+
+		Object replaced = cache.get_replaced_element(3);
+		assertSame(first, replaced);
+		cache.put_element(3, replaced);
+		assertSame(first, cache.get_element(3));
+		assertFalse(cache.cached(1));
+	}
+}
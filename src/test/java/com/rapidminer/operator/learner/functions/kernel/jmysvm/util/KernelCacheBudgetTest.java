@@ -0,0 +1,125 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.functions.kernel.jmysvm.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.test.ExampleTestTools;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.learner.functions.kernel.jmysvm.examples.SVMExamples;
+import com.rapidminer.operator.learner.functions.kernel.jmysvm.kernel.Kernel;
+import com.rapidminer.operator.learner.functions.kernel.jmysvm.kernel.KernelRadial;
+
+
+/**
+ * Tests that kernel caches return their memory to the {@link KernelCacheBudget}.
+ */
+public class KernelCacheBudgetTest {
+
+	/** Exposes the number of cached rows. */
+	private static class InspectableKernel extends KernelRadial {
+
+		private static final long serialVersionUID = 1L;
+
+		private int getCacheRows() {
+			return kernel_cache_size;
+		}
+	}
+
+	private static SVMExamples createExamples() {
+		Attribute first = ExampleTestTools.attributeReal(0);
+		Attribute second = ExampleTestTools.attributeReal(1);
+		ExampleSet exampleSet = ExampleSets.from(first, second).withBlankSize(50)
+				.withColumnFiller(first, i -> i * 0.5).withColumnFiller(second, i -> i % 7).build();
+		return new SVMExamples(exampleSet, null, false);
+	}
+
+	@Test
+	public void budgetIsReturnedAfterTraining() {
+		long before = KernelCacheBudget.getReservedBytes();
+		Kernel kernel = new KernelRadial();
+		kernel.init(createExamples(), 1);
+		assertTrue(KernelCacheBudget.getReservedBytes() > before);
+
+		// the rows requested during training are cached
+		kernel.get_row(0);
+		kernel.get_row(1);
+		kernel.set_examples_size(40);
+		kernel.release_kernel_cache();
+		assertEquals(before, KernelCacheBudget.getReservedBytes());
+
+		// rows requested after training must not reserve the cache again
+		kernel.set_examples_size(50);
+		double[] row = kernel.get_row(2);
+		assertEquals(before, KernelCacheBudget.getReservedBytes());
+		for (int j = 0; j < row.length; j++) {
+			assertEquals(kernel.calculate_K(2, j), row[j], 0);
+		}
+	}
+
+	@Test
+	public void reinitializedCacheReservesOnce() {
+		long before = KernelCacheBudget.getReservedBytes();
+		Kernel kernel = new KernelRadial();
+		kernel.init(createExamples(), 1);
+		long reserved = KernelCacheBudget.getReservedBytes() - before;
+
+		kernel.release_kernel_cache();
+		kernel.init_kernel_cache(1);
+		kernel.get_row(0);
+		assertEquals(before + reserved, KernelCacheBudget.getReservedBytes());
+		kernel.release_kernel_cache();
+		assertEquals(before, KernelCacheBudget.getReservedBytes());
+	}
+
+	@Test
+	public void lazilyInitializedCacheIsSizedByReservation() throws IOException, ClassNotFoundException {
+		InspectableKernel trained = new InspectableKernel();
+		trained.init(createExamples(), 1);
+		// one MB holds all 50 rows
+		assertEquals(50, trained.getCacheRows());
+		trained.release_kernel_cache();
+
+		// a deserialized kernel has no cache and initializes it on demand
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(trained);
+		}
+		InspectableKernel kernel;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			kernel = (InspectableKernel) in.readObject();
+		}
+		long before = KernelCacheBudget.getReservedBytes();
+		kernel.set_examples_size(40);
+		assertEquals(40, kernel.getCacheRows());
+		kernel.release_kernel_cache();
+		assertEquals(before, KernelCacheBudget.getReservedBytes());
+	}
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.meta;
+
+import static org.junit.Assert.assertNotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.SortedExampleSet;
+import com.rapidminer.example.test.ExampleTestTools;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.learner.tree.GreaterSplitCondition;
+import com.rapidminer.operator.learner.tree.LessEqualsSplitCondition;
+import com.rapidminer.operator.learner.tree.Tree;
+import com.rapidminer.operator.learner.tree.TreeModel;
+import com.rapidminer.test_utils.RapidAssert;
+import com.rapidminer.tools.RandomGenerator;
+
+
+/**
+ * Tests that the {@link BlockwiseEnsemblePredictor} predicts exactly like the example based
+ * implementations of {@link SimpleVoteModel} and {@link ConfidenceVoteModel}, including the ties
+ * broken by the global random generator.
+ */
+public class BlockwiseEnsemblePredictorTest {
+
+	/** Applies the base models example by example like before the blockwise prediction. */
+	private static class ExampleBasedVoteModel extends SimpleVoteModel {
+
+		private static final long serialVersionUID = 1L;
+
+		private ExampleBasedVoteModel(ExampleSet exampleSet, List<? extends TreeModel> models) {
+			super(exampleSet, models);
+		}
+
+		@Override
+		public ExampleSet performPrediction(ExampleSet exampleSet, Attribute predictedLabel) throws OperatorException {
+			for (Example example : exampleSet) {
+				example.setValue(predictedLabel, predict(example));
+			}
+			return exampleSet;
+		}
+	}
+
+	/** Applies the base models example by example like before the blockwise prediction. */
+	private static class ExampleBasedConfidenceVoteModel extends ConfidenceVoteModel {
+
+		private static final long serialVersionUID = 1L;
+
+		private ExampleBasedConfidenceVoteModel(ExampleSet exampleSet, List<? extends TreeModel> models) {
+			super(exampleSet, models);
+		}
+
+		@Override
+		public ExampleSet performPrediction(ExampleSet exampleSet, Attribute predictedLabel) throws OperatorException {
+			for (Example example : exampleSet) {
+				example.setValue(predictedLabel, predict(example));
+			}
+			return exampleSet;
+		}
+	}
+
+	@Before
+	public void setup() {
+		RapidMiner.initAsserters();
+		RandomGenerator.init(null);
+	}
+
+	private static ExampleSet createExampleSet() {
+		Attribute real = ExampleTestTools.attributeReal();
+		Attribute animal = ExampleTestTools.attributeDogCatMouse();
+		return ExampleSets.from(real, animal).withBlankSize(2000).withColumnFiller(real, i -> i % 40 * 0.5)
+				.withColumnFiller(animal, i -> i % 3).withRole(animal, Attributes.LABEL_NAME).build();
+	}
+
+	/** Creates a view which is read in a different order than the underlying table. */
+	private static ExampleSet createSortedView() {
+		ExampleSet exampleSet = createExampleSet();
+		return new SortedExampleSet(exampleSet, exampleSet.getAttributes().get("real"), SortedExampleSet.DECREASING);
+	}
+
+	private static Tree createLeaf(ExampleSet exampleSet, String prediction, int dogs, int cats, int mice) {
+		Tree leaf = new Tree(exampleSet);
+		leaf.setLeaf(prediction);
+		leaf.addCount("dog", dogs);
+		leaf.addCount("cat", cats);
+		leaf.addCount("mouse", mice);
+		return leaf;
+	}
+
+	private static Tree createSplit(ExampleSet exampleSet, double threshold, Tree low, Tree high) {
+		Attribute real = exampleSet.getAttributes().get("real");
+		Tree root = new Tree(exampleSet);
+		root.addChild(low, new LessEqualsSplitCondition(real, threshold));
+		root.addChild(high, new GreaterSplitCondition(real, threshold));
+		return root;
+	}
+
+	/**
+	 * Creates trees whose votes and confidences are often tied, so that many predictions depend on
+	 * the random generator.
+	 */
+	private static List<TreeModel> createModels(ExampleSet exampleSet) {
+		Tree first = createSplit(exampleSet, 5, createLeaf(exampleSet, "dog", 2, 2, 0),
+				createLeaf(exampleSet, "cat", 0, 3, 1));
+		Tree second = createSplit(exampleSet, 8, createLeaf(exampleSet, "cat", 2, 2, 0),
+				createLeaf(exampleSet, "mouse", 0, 2, 2));
+		Tree third = createSplit(exampleSet, 12, createLeaf(exampleSet, "mouse", 1, 1, 1),
+				createLeaf(exampleSet, "dog", 2, 1, 1));
+		return Arrays.asList(new TreeModel(exampleSet, first), new TreeModel(exampleSet, second),
+				new TreeModel(exampleSet, third), new TreeModel(exampleSet, first));
+	}
+
+	@Test
+	public void majorityVoteEqualsExampleBased() throws OperatorException {
+		ExampleSet trainingSet = createExampleSet();
+		List<TreeModel> models = createModels(trainingSet);
+		Attribute[] columns = trainingSet.getAttributes().createRegularAttributeArray();
+		assertNotNull("tree models must support row based prediction", models.get(0).createRowPredictor(columns));
+
+		RandomGenerator.getGlobalRandomGenerator().setSeed(1992);
+		ExampleSet expected = new ExampleBasedVoteModel(trainingSet, models).apply(createExampleSet());
+		RandomGenerator.getGlobalRandomGenerator().setSeed(1992);
+		ExampleSet actual = new SimpleVoteModel(trainingSet, models).apply(createExampleSet());
+		RapidAssert.assertEquals("blockwise majority vote differs", expected, actual);
+	}
+
+	@Test
+	public void confidenceVoteEqualsExampleBased() throws OperatorException {
+		ExampleSet trainingSet = createExampleSet();
+		List<TreeModel> models = createModels(trainingSet);
+
+		RandomGenerator.getGlobalRandomGenerator().setSeed(1992);
+		ExampleSet expected = new ExampleBasedConfidenceVoteModel(trainingSet, models).apply(createExampleSet());
+		RandomGenerator.getGlobalRandomGenerator().setSeed(1992);
+		ExampleSet actual = new ConfidenceVoteModel(trainingSet, models).apply(createExampleSet());
+		RapidAssert.assertEquals("blockwise confidence vote differs", expected, actual);
+	}
+
+	@Test
+	public void sortedViewEqualsExampleBased() throws OperatorException {
+		ExampleSet trainingSet = createExampleSet();
+		List<TreeModel> models = createModels(trainingSet);
+
+		RandomGenerator.getGlobalRandomGenerator().setSeed(1992);
+		ExampleSet expected = new ExampleBasedConfidenceVoteModel(trainingSet, models).apply(createSortedView());
+		RandomGenerator.getGlobalRandomGenerator().setSeed(1992);
+		ExampleSet actual = new ConfidenceVoteModel(trainingSet, models).apply(createSortedView());
+		RapidAssert.assertEquals("blockwise confidence vote on sorted view differs", expected, actual);
+
+		RandomGenerator.getGlobalRandomGenerator().setSeed(1992);
+		expected = new ExampleBasedVoteModel(trainingSet, models).apply(createSortedView());
+		RandomGenerator.getGlobalRandomGenerator().setSeed(1992);
+		actual = new SimpleVoteModel(trainingSet, models).apply(createSortedView());
+		RapidAssert.assertEquals("blockwise majority vote on sorted view differs", expected, actual);
+	}
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.test.ExampleTestTools;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.learner.RowPredictor;
+import com.rapidminer.test_utils.RapidAssert;
+
+
+/**
+ * Tests that a {@link TreeModel} compiled into a {@link FlatTree} predicts exactly as the original
+ * tree.
+ */
+public class FlatTreeTest {
+
+	@Before
+	public void setup() {
+		RapidMiner.initAsserters();
+	}
+
+	private static ExampleSet createExampleSet() {
+		Attribute real = ExampleTestTools.attributeReal();
+		Attribute animal = ExampleTestTools.attributeDogCatMouse();
+		Attribute label = ExampleTestTools.attributeYesNo();
+		return ExampleSets.from(real, animal, label).withBlankSize(30)
+				.withColumnFiller(real, i -> i % 7 == 0 ? Double.NaN : i * 0.5).withColumnFiller(animal, i -> i % 3)
+				.withColumnFiller(label, i -> i % 2).withRole(label, Attributes.LABEL_NAME).build();
+	}
+
+	/**
+	 * Creates a tree using numerical, nominal and contains conditions. Some examples do not match
+	 * any condition and are predicted by the majority of the inner node.
+	 */
+	private static Tree createTree(ExampleSet exampleSet) {
+		Attribute real = exampleSet.getAttributes().get("real");
+		Attribute animal = exampleSet.getAttributes().get("animal");
+
+		Tree dog = new Tree(exampleSet);
+		dog.setLeaf("yes");
+		dog.addCount("yes", 3);
+		dog.addCount("no", 1);
+		Tree cat = new Tree(exampleSet);
+		cat.setLeaf("no");
+		cat.addCount("no", 2);
+		Tree low = new Tree(exampleSet);
+		low.addChild(dog, new NominalSplitCondition(animal, "dog"));
+		low.addChild(cat, new NominalSplitCondition(animal, "cat"));
+
+		Tree contained = new Tree(exampleSet);
+		contained.setLeaf("yes");
+		contained.addCount("yes", 4);
+		Tree notContained = new Tree(exampleSet);
+		notContained.setLeaf("no");
+		notContained.addCount("no", 5);
+		notContained.addCount("yes", 2);
+		Tree high = new Tree(exampleSet);
+		high.addChild(contained, new ContainsSplitCondition("animal", new String[] { "mouse", "dog" }));
+		high.addChild(notContained, new NotContainsSplitCondition("animal", new String[] { "mouse", "dog" }));
+
+		Tree root = new Tree(exampleSet);
+		root.addChild(low, new LessEqualsSplitCondition(real, 5));
+		root.addChild(high, new GreaterSplitCondition(real, 5));
+		return root;
+	}
+
+	@Test
+	public void compiledPredictionsAreEqual() throws OperatorException {
+		ExampleSet trainingSet = createExampleSet();
+		TreeModel original = new TreeModel(trainingSet, createTree(trainingSet));
+		TreeModel compiled = new TreeModel(trainingSet, createTree(trainingSet));
+		assertTrue(compiled.compile());
+		assertTrue(compiled.isCompiled());
+
+		ExampleSet expected = original.apply(createExampleSet());
+		ExampleSet actual = compiled.apply(createExampleSet());
+		RapidAssert.assertEquals("predictions of compiled tree differ", expected, actual);
+	}
+
+	@Test
+	public void rowPredictionsAreEqual() throws OperatorException {
+		ExampleSet trainingSet = createExampleSet();
+		TreeModel compiled = new TreeModel(trainingSet, createTree(trainingSet));
+		compiled.compile();
+		ExampleSet expected = new TreeModel(trainingSet, createTree(trainingSet)).apply(createExampleSet());
+
+		Attribute[] columns = { expected.getAttributes().get("real"), expected.getAttributes().get("animal") };
+		RowPredictor predictor = compiled.createRowPredictor(columns);
+		double[] buffer = new double[2];
+		double[] confidences = new double[2];
+		Attribute predictedLabel = expected.getAttributes().getPredictedLabel();
+		for (int i = 0; i < expected.size(); i++) {
+			buffer[0] = expected.getExample(i).getValue(columns[0]);
+			buffer[1] = expected.getExample(i).getValue(columns[1]);
+			assertEquals(expected.getExample(i).getValue(predictedLabel), predictor.predict(buffer, 0, confidences), 0);
+			assertEquals(expected.getExample(i).getConfidence("yes"), confidences[1], 0);
+		}
+	}
+
+	@Test
+	public void restoreTree() {
+		ExampleSet trainingSet = createExampleSet();
+		TreeModel compiled = new TreeModel(trainingSet, createTree(trainingSet));
+		compiled.compile();
+		assertEquals(createTree(trainingSet).toString(), compiled.getRoot().toString());
+	}
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.tree;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.RapidMiner.ExecutionMode;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.test.ExampleTestTools;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.Model;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.learner.AbstractLearner;
+import com.rapidminer.studio.internal.TestConcurrencyContext;
+import com.rapidminer.test_utils.RapidAssert;
+import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.RandomGenerator;
+
+
+/**
+ * Tests that the {@link ParallelDecisionTreeLearner} and the {@link ParallelRandomForestLearner}
+ * learn the same models independent of the parallelism. The example set is large enough for the
+ * attribute parallel growing and the parallel sorting of the {@link ConcurrentTreeBuilder}.
+ */
+public class ParallelTreeLearnerTest {
+
+	private static final int SIZE = 12_000;
+
+	@BeforeClass
+	public static void setup() {
+		RapidMiner.setExecutionMode(ExecutionMode.TEST);
+		RapidMiner.init();
+	}
+
+	private static ExampleSet createExampleSet() {
+		Attribute first = ExampleTestTools.attributeReal(0);
+		Attribute second = ExampleTestTools.attributeReal(1);
+		Attribute third = ExampleTestTools.attributeReal(2);
+		Attribute animal = ExampleTestTools.attributeDogCatMouse();
+		Attribute label = ExampleTestTools.attributeYesNo();
+		return ExampleSets.from(first, second, third, animal, label).withBlankSize(SIZE)
+				.withColumnFiller(first, i -> i % 100).withColumnFiller(second, i -> i * 37 % 101)
+				.withColumnFiller(third, i -> i * 13 % 29 * 0.5).withColumnFiller(animal, i -> i / 7 % 3)
+				.withColumnFiller(label, ParallelTreeLearnerTest::label).withRole(label, Attributes.LABEL_NAME).build();
+	}
+
+	/** yes (1) if the first attribute is large and the animal is no cat, or the second is small */
+	private static double label(int i) {
+		boolean yes = i % 100 >= 40 && i / 7 % 3 != 1 || i * 37 % 101 < 15;
+		if (i % 23 == 0) {
+			// some noise
+			yes = !yes;
+		}
+		return yes ? 1 : 0;
+	}
+
+	private static Model learn(Class<? extends AbstractLearner> learnerClass, int parallelism)
+			throws OperatorCreationException, OperatorException {
+		AbstractLearner learner = OperatorService.createOperator(learnerClass);
+		learner.setParameter(ParallelRandomForestLearner.PARAMETER_NUMBER_OF_TREES, "10");
+		learner.setParameter(RandomGenerator.PARAMETER_USE_LOCAL_RANDOM_SEED, "true");
+		learner.setParameter(RandomGenerator.PARAMETER_LOCAL_RANDOM_SEED, "1992");
+		try (TestConcurrencyContext context = new TestConcurrencyContext(parallelism)) {
+			context.assignTo(learner);
+			return learner.learn(createExampleSet());
+		}
+	}
+
+	private static void assertSamePredictions(String message, Model expected, Model actual) throws OperatorException {
+		RapidAssert.assertEquals(message, expected.apply(createExampleSet()), actual.apply(createExampleSet()));
+	}
+
+	@Test
+	public void decisionTreeIndependentOfParallelism() throws Exception {
+		Model sequential = learn(ParallelDecisionTreeLearner.class, 1);
+		Model parallel = learn(ParallelDecisionTreeLearner.class, 4);
+
+		assertEquals(sequential.toString(), parallel.toString());
+		assertSamePredictions("predictions differ for parallelism 1 and 4", sequential, parallel);
+	}
+
+	@Test
+	public void decisionTreeEqualsSequentialLearner() throws Exception {
+		@SuppressWarnings("deprecation")
+		Model sequential = learn(DecisionTreeLearner.class, 1);
+		Model parallel = learn(ParallelDecisionTreeLearner.class, 4);
+
+		assertSamePredictions("predictions differ from the decision tree learner", sequential, parallel);
+	}
+
+	@Test
+	public void randomForestIndependentOfParallelism() throws Exception {
+		Model sequential = learn(ParallelRandomForestLearner.class, 1);
+		Model parallel = learn(ParallelRandomForestLearner.class, 4);
+
+		assertEquals(sequential.toString(), parallel.toString());
+		assertSamePredictions("predictions differ for parallelism 1 and 4", sequential, parallel);
+	}
+
+	@Test
+	public void randomForestIndependentOfThreadCount() throws Exception {
+		Model twoThreads = learn(ParallelRandomForestLearner.class, 2);
+		Model eightThreads = learn(ParallelRandomForestLearner.class, 8);
+
+		assertEquals(twoThreads.toString(), eightThreads.toString());
+		assertSamePredictions("predictions differ for parallelism 2 and 8", twoThreads, eightThreads);
+	}
+}
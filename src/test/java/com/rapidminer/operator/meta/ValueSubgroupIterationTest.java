@@ -0,0 +1,174 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.meta;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.RapidMiner.ExecutionMode;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.AttributeValueFilter;
+import com.rapidminer.example.set.ConditionedExampleSet;
+import com.rapidminer.example.test.ExampleTestTools;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.ExecutionUnit;
+import com.rapidminer.operator.IOContainer;
+import com.rapidminer.operator.IOObjectMap;
+import com.rapidminer.operator.IOPublishToAppOperator;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.SingleMacroDefinitionOperator;
+import com.rapidminer.studio.internal.TestConcurrencyContext;
+import com.rapidminer.tools.OperatorService;
+
+
+/**
+ * Tests that the subgroups of {@link ValueSubgroupIteration} match the subsets filtered by an
+ * {@link AttributeValueFilter}, sequentially and in parallel.
+ *
+ * @since 7.6.1
+ */
+public class ValueSubgroupIterationTest {
+
+	private static final int ROWS = 1000;
+
+	private static final String[] VALUES = { "dog", "cat", "mouse" };
+
+	@BeforeClass
+	public static void init() {
+		RapidMiner.setExecutionMode(ExecutionMode.TEST);
+		RapidMiner.init();
+	}
+
+	/**
+	 * Creates an example set with the row number as id, every fourth animal missing and the unused
+	 * value bird.
+	 */
+	private static ExampleSet createExampleSet() {
+		Attribute id = ExampleTestTools.attributeReal();
+		Attribute animal = ExampleTestTools.attributeDogCatMouse();
+		animal.getMapping().mapString("bird");
+		return ExampleSets.from(id, animal).withBlankSize(ROWS).withColumnFiller(id, i -> i)
+				.withColumnFiller(animal, i -> i % 4 == 3 ? Double.NaN : i % 3).build();
+	}
+
+	/** the ids of the examples of the set */
+	private static double[] ids(ExampleSet exampleSet) {
+		Attribute id = exampleSet.getAttributes().get("real");
+		double[] ids = new double[exampleSet.size()];
+		int i = 0;
+		for (Example example : exampleSet) {
+			ids[i++] = example.getValue(id);
+		}
+		return ids;
+	}
+
+	/** the ids of the examples which the filter-based iteration delivered for the value */
+	private static double[] filteredIds(ExampleSet exampleSet, String value) throws Exception {
+		return ids(new ConditionedExampleSet(exampleSet, new AttributeValueFilter(exampleSet, "animal=" + value)));
+	}
+
+	@Test
+	public void partitionsMatchFilteredSubsets() throws Exception {
+		ExampleSet exampleSet = createExampleSet();
+		Attribute animal = exampleSet.getAttributes().get("animal");
+
+		int[][] partitions = ValueSubgroupIteration.partitionByValue(exampleSet, animal);
+
+		assertEquals(4, partitions.length);
+		int partitioned = 0;
+		for (String value : animal.getMapping().getValues()) {
+			int[] rows = partitions[animal.getMapping().getIndex(value)];
+			double[] ids = new double[rows.length];
+			for (int i = 0; i < rows.length; i++) {
+				ids[i] = rows[i];
+			}
+			assertArrayEquals(value, filteredIds(exampleSet, value), ids, 0);
+			partitioned += rows.length;
+		}
+		// missing values are in no partition
+		assertEquals(ROWS - ROWS / 4, partitioned);
+		assertEquals(0, partitions[animal.getMapping().getIndex("bird")].length);
+	}
+
+	@Test
+	public void sequentialSubgroupsMatchFilteredSubsets() throws Exception {
+		checkSubgroups(1);
+	}
+
+	@Test
+	public void parallelSubgroupsMatchFilteredSubsets() throws Exception {
+		Process process = checkSubgroups(4);
+		// macros defined inside the parallel subprocesses do not leak
+		assertFalse(process.getMacroHandler().isMacroSet("inner", null));
+	}
+
+	/**
+	 * Runs the loop with a subprocess which copies the iteration macro into a macro of its own and
+	 * publishes each subgroup under that name.
+	 */
+	private Process checkSubgroups(int parallelism) throws Exception {
+		Process process = new Process();
+		process.setIOObjectCache(new IOObjectMap());
+		ValueSubgroupIteration loop = OperatorService.createOperator(ValueSubgroupIteration.class);
+		List<String[]> attributes = new ArrayList<>();
+		attributes.add(new String[] { "animal", "all" });
+		loop.setListParameter(ValueSubgroupIteration.PARAMETER_ATTRIBUTES, attributes);
+		loop.setParameter(ValueSubgroupIteration.PARAMETER_ENABLE_PARALLEL_EXECUTION, "true");
+		Operator setMacro = OperatorService.createOperator(SingleMacroDefinitionOperator.class);
+		setMacro.setParameter(SingleMacroDefinitionOperator.PARAMETER_MACRO, "inner");
+		setMacro.setParameter(SingleMacroDefinitionOperator.PARAMETER_VALUE, "%{loop_value}");
+		Operator publish = OperatorService.createOperator(IOPublishToAppOperator.class);
+		publish.setParameter(IOPublishToAppOperator.PARAMETER_NAME, "%{inner}");
+
+		ExecutionUnit root = process.getRootOperator().getSubprocess(0);
+		root.addOperator(loop);
+		root.getInnerSources().getPortByIndex(0).connectTo(loop.getInputPorts().getPortByIndex(0));
+		ExecutionUnit body = loop.getSubprocess(0);
+		body.addOperator(setMacro);
+		body.addOperator(publish);
+		body.getInnerSources().getPortByIndex(0).connectTo(setMacro.getInputPorts().getPortByIndex(0));
+		setMacro.getOutputPorts().getPortByIndex(0).connectTo(publish.getInputPorts().getPortByIndex(0));
+		ExampleSet exampleSet = createExampleSet();
+		try (TestConcurrencyContext context = new TestConcurrencyContext(parallelism)) {
+			context.assignTo(loop);
+			process.run(new IOContainer(exampleSet));
+		}
+
+		for (String value : VALUES) {
+			ExampleSet subgroup = (ExampleSet) process.getIOObjectCache().get("animal=" + value);
+			assertNull(subgroup.getAttributes().get("animal"));
+			assertArrayEquals(value, filteredIds(exampleSet, value), ids(subgroup), 0);
+		}
+		assertNull(process.getIOObjectCache().get("animal=bird"));
+		assertNull(process.getMacroHandler().getMacro(ValueSubgroupIteration.DEFAULT_ITERATION_MACRO_NAME));
+		return process;
+	}
+}
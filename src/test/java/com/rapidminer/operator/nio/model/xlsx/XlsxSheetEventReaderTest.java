@@ -0,0 +1,147 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.nio.model.xlsx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Test;
+
+
+/**
+ * Unit tests for the {@link XlsxSheetEventReader} and the {@link XlsxSharedStrings}.
+ *
+ * @since 7.6.1
+ */
+public class XlsxSheetEventReaderTest {
+
+	private static final XMLInputFactory FACTORY = XMLInputFactory.newFactory();
+
+	static {
+		FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+		FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+	}
+
+	private static String createSheet(int rows) {
+		StringBuilder builder = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><worksheet><sheetData>\n");
+		for (int i = 1; i <= rows; i++) {
+			builder.append("<row r=\"").append(i).append("\">\n");
+			builder.append("<c r=\"A").append(i).append("\" s=\"1\"><f>B1</f><v>").append(i * 0.5).append("</v></c>");
+			builder.append("<c r=\"B").append(i).append("\" t=\"s\"><v>").append(i % 3).append("</v></c>");
+			builder.append("<c r=\"C").append(i).append("\" t=\"inlineStr\"><is><t>text ").append(i)
+					.append("</t></is></c>");
+			builder.append("</row>\n");
+		}
+		return builder.append("</sheetData></worksheet>").toString();
+	}
+
+	private static List<String> readEvents(String sheet, boolean pipelined) throws XMLStreamException {
+		List<String> events = new ArrayList<>();
+		try (XlsxSheetEventReader reader = XlsxSheetEventReader.create(
+				new ByteArrayInputStream(sheet.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, FACTORY,
+				pipelined)) {
+			while (reader.hasNext()) {
+				int event = reader.next();
+				switch (event) {
+					case XlsxSheetEventReader.CELL_START:
+						events.add(event + ":" + reader.getValue() + ":" + reader.getCellType() + ":"
+								+ reader.getCellStyle());
+						break;
+					case XlsxSheetEventReader.ROW_START:
+					case XlsxSheetEventReader.TEXT:
+						events.add(event + ":" + reader.getValue());
+						break;
+					default:
+						events.add(String.valueOf(event));
+						break;
+				}
+			}
+		}
+		return events;
+	}
+
+	@Test
+	public void relevantEventsOnly() throws XMLStreamException {
+		List<String> events = readEvents(createSheet(1), false);
+		List<String> expected = new ArrayList<>();
+		expected.add(XlsxSheetEventReader.ROW_START + ":1");
+		expected.add(XlsxSheetEventReader.CELL_START + ":A1:null:1");
+		expected.add(XlsxSheetEventReader.TEXT + ":0.5");
+		expected.add(XlsxSheetEventReader.CELL_START + ":B1:s:null");
+		expected.add(XlsxSheetEventReader.TEXT + ":1");
+		expected.add(XlsxSheetEventReader.CELL_START + ":C1:inlineStr:null");
+		expected.add(XlsxSheetEventReader.TEXT + ":text 1");
+		expected.add(String.valueOf(XlsxSheetEventReader.ROW_END));
+		expected.add(String.valueOf(XlsxSheetEventReader.END_DOCUMENT));
+		assertEquals(expected, events);
+	}
+
+	@Test
+	public void pipelinedEqualsDirect() throws XMLStreamException {
+		// spans several batches of the background thread
+		String sheet = createSheet(5000);
+		assertEquals(readEvents(sheet, false), readEvents(sheet, true));
+	}
+
+	@Test(expected = XMLStreamException.class)
+	public void pipelinedReportsErrors() throws XMLStreamException {
+		readEvents(createSheet(3000) + "<broken", true);
+	}
+
+	@Test
+	public void pipelinedCloseEarly() throws XMLStreamException {
+		XlsxSheetEventReader reader = XlsxSheetEventReader.create(
+				new ByteArrayInputStream(createSheet(50_000).getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8,
+				FACTORY, true);
+		assertEquals(XlsxSheetEventReader.ROW_START, reader.next());
+		reader.close();
+	}
+
+	@Test
+	public void sharedStringsDeduplicated() {
+		XlsxSharedStrings.Builder builder = new XlsxSharedStrings.Builder(2);
+		for (int i = 0; i < 1000; i++) {
+			builder.add("value " + i % 100);
+		}
+		builder.add(null);
+		builder.add("ümläut 漢字");
+		builder.add("");
+		XlsxSharedStrings strings = builder.build();
+
+		assertEquals(1003, strings.size());
+		assertEquals(102, strings.getNumberOfDistinctStrings());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals("value " + i % 100, strings.get(i));
+		}
+		assertNull(strings.get(1000));
+		assertEquals("ümläut 漢字", strings.get(1001));
+		assertEquals("", strings.get(1002));
+		assertEquals(strings.get(1001), strings.toArray()[1001]);
+		assertFalse(XlsxSharedStrings.EMPTY.size() > 0);
+	}
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Iterator;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.RapidMiner.ExecutionMode;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.AttributeRole;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.SortedExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.test.ExampleTestTools;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.internal.TestConcurrencyContext;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.ParameterService;
+
+
+/**
+ * Tests that the {@link ExampleSetTranspose} creates the same example sets when transposing tiles
+ * into columns as when adding one row per attribute with the legacy data management.
+ *
+ * @since 7.6.1
+ */
+public class ExampleSetTransposeTest {
+
+	/** More examples than fit into a single tile, the last tile is not full. */
+	private static final int SIZE = 600;
+
+	/** context with four threads for the transposition */
+	private static TestConcurrencyContext context;
+
+	@BeforeClass
+	public static void setup() {
+		RapidMiner.setExecutionMode(ExecutionMode.TEST);
+		RapidMiner.init();
+		context = new TestConcurrencyContext(4);
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		context.close();
+	}
+
+	private static ExampleSet transpose(ExampleSet exampleSet, boolean legacyMode)
+			throws OperatorException, OperatorCreationException {
+		String previous = ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT);
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT,
+				String.valueOf(legacyMode));
+		try {
+			ExampleSetTranspose transpose = OperatorService.createOperator(ExampleSetTranspose.class);
+			context.assignTo(transpose);
+			return transpose.apply(exampleSet);
+		} finally {
+			ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT, previous);
+		}
+	}
+
+	/**
+	 * Transposes the example set with both data managements and compares the attributes, their
+	 * roles, the order of their mappings and all values.
+	 */
+	private static void assertSameTranspose(ExampleSet exampleSet) throws OperatorException, OperatorCreationException {
+		ExampleSet expected = transpose(exampleSet, true);
+		ExampleSet actual = transpose(exampleSet, false);
+
+		assertEquals(expected.size(), actual.size());
+		assertEquals(expected.getAttributes().allSize(), actual.getAttributes().allSize());
+		Iterator<AttributeRole> expectedRoles = expected.getAttributes().allAttributeRoles();
+		Iterator<AttributeRole> actualRoles = actual.getAttributes().allAttributeRoles();
+		while (expectedRoles.hasNext()) {
+			AttributeRole expectedRole = expectedRoles.next();
+			AttributeRole actualRole = actualRoles.next();
+			assertEquals(expectedRole.getSpecialName(), actualRole.getSpecialName());
+			Attribute expectedAttribute = expectedRole.getAttribute();
+			Attribute actualAttribute = actualRole.getAttribute();
+			assertEquals(expectedAttribute.getName(), actualAttribute.getName());
+			assertEquals(expectedAttribute.getValueType(), actualAttribute.getValueType());
+			if (expectedAttribute.isNominal()) {
+				assertEquals(expectedAttribute.getName(), expectedAttribute.getMapping().getValues(),
+						actualAttribute.getMapping().getValues());
+			}
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expectedAttribute.getName() + " row " + i, expected.getExample(i).getValue(expectedAttribute),
+						actual.getExample(i).getValue(actualAttribute), 0);
+			}
+		}
+	}
+
+	@Test
+	public void mixedAttributes() throws OperatorException, OperatorCreationException {
+		Attribute real = ExampleTestTools.attributeReal();
+		Attribute integer = AttributeFactory.createAttribute("integer", Ontology.INTEGER);
+		Attribute nominal = ExampleTestTools.attributeDogCatMouse();
+		Attribute id = AttributeFactory.createAttribute("id", Ontology.INTEGER);
+		ExampleSet exampleSet = ExampleSets.from(real, integer, nominal, id).withBlankSize(SIZE)
+				.withColumnFiller(real, i -> i % 13 == 0 ? Double.NaN : i / 7.0)
+				.withColumnFiller(integer, i -> i % 17)
+				.withColumnFiller(nominal, i -> i % 11 == 0 ? Double.NaN : i % 3).withColumnFiller(id, i -> 3 * i)
+				.withRole(id, Attributes.ID_NAME).build();
+		assertSameTranspose(exampleSet);
+	}
+
+	@Test
+	public void numericalAttributes() throws OperatorException, OperatorCreationException {
+		Attribute first = ExampleTestTools.attributeReal(1);
+		Attribute second = ExampleTestTools.attributeReal(2);
+		ExampleSet exampleSet = ExampleSets.from(first, second).withBlankSize(SIZE)
+				.withColumnFiller(first, i -> i % 13 == 0 ? Double.NaN : i)
+				.withColumnFiller(second, i -> Math.sqrt(i)).build();
+		assertSameTranspose(exampleSet);
+	}
+
+	@Test
+	public void sharedMappings() throws OperatorException, OperatorCreationException {
+		Attribute first = AttributeFactory.createAttribute("first", Ontology.POLYNOMINAL);
+		for (int v = 0; v < 20; v++) {
+			first.getMapping().mapString("value" + v);
+		}
+		Attribute second = AttributeFactory.createAttribute("second", Ontology.POLYNOMINAL);
+		second.setMapping(first.getMapping());
+		Attribute third = AttributeFactory.createAttribute("third", Ontology.POLYNOMINAL);
+		third.setMapping(first.getMapping());
+		Attribute own = ExampleTestTools.attributeDogCatMouse();
+		ExampleSet exampleSet = ExampleSets.from(first, second, own, third).withBlankSize(SIZE)
+				.withColumnFiller(first, i -> i % 20).withColumnFiller(second, i -> i % 9 == 0 ? Double.NaN : i * 7 % 20)
+				.withColumnFiller(own, i -> i % 3).withColumnFiller(third, i -> 19 - i % 20).build();
+		assertSameTranspose(exampleSet);
+	}
+
+	@Test
+	public void sortedView() throws OperatorException, OperatorCreationException {
+		Attribute real = ExampleTestTools.attributeReal();
+		Attribute nominal = ExampleTestTools.attributeDogCatMouse();
+		ExampleSet exampleSet = ExampleSets.from(real, nominal).withBlankSize(SIZE)
+				.withColumnFiller(real, i -> i * 7919 % SIZE).withColumnFiller(nominal, i -> i % 3).build();
+		assertSameTranspose(new SortedExampleSet(exampleSet, real, SortedExampleSet.DECREASING));
+	}
+}
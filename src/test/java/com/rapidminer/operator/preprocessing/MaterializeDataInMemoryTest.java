@@ -21,11 +21,14 @@ package com.rapidminer.operator.preprocessing;
 import com.rapidminer.RapidMiner;
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.MappedExampleSet;
+import com.rapidminer.example.set.SortedExampleSet;
 import com.rapidminer.example.table.DataRow;
 import com.rapidminer.example.table.DataRowFactory;
 import com.rapidminer.example.table.MemoryExampleTable;
 import com.rapidminer.example.table.internal.ColumnarExampleTable;
 import com.rapidminer.example.test.ExampleTestTools;
+import com.rapidminer.example.utils.ExampleSets;
 import com.rapidminer.test_utils.RapidAssert;
 import com.rapidminer.tools.Ontology;
 import com.rapidminer.tools.ParameterService;
@@ -91,6 +94,35 @@ public class MaterializeDataInMemoryTest {
 		}
 	}
 
+	/**
+	 * Materializes sorted and mapped views and checks that the values of the views are copied in
+	 * the order of the views.
+	 */
+	@Test
+	public void viewTest() {
+		Attribute real = ExampleTestTools.attributeReal();
+		Attribute nominal = ExampleTestTools.attributeDogCatMouse();
+		ExampleSet sourceSet = ExampleSets.from(real, nominal).withBlankSize(1000)
+				.withColumnFiller(real, i -> (i * 7919) % 1000).withColumnFiller(nominal, i -> i % 3).build();
+
+		ExampleSet sortedSet = new SortedExampleSet(sourceSet, real, SortedExampleSet.DECREASING);
+		int[] mapping = new int[] { 5, 3, 3, 999, 0 };
+		ExampleSet mappedSet = new MappedExampleSet(sourceSet, mapping, true, false);
+
+		for (ExampleSet view : new ExampleSet[] { sourceSet, sortedSet, mappedSet }) {
+			ExampleSet materializedSet = MaterializeDataInMemory.materializeExampleSet(view);
+			assertEquals(view.size(), materializedSet.size());
+			Attribute materializedReal = materializedSet.getAttributes().get(real.getName());
+			Attribute materializedNominal = materializedSet.getAttributes().get(nominal.getName());
+			for (int i = 0; i < view.size(); i++) {
+				assertEquals(view.getExample(i).getValue(real), materializedSet.getExample(i).getValue(materializedReal),
+						0);
+				assertEquals(view.getExample(i).getNominalValue(nominal),
+						materializedSet.getExample(i).getNominalValue(materializedNominal));
+			}
+		}
+	}
+
 	/**
 	 * Creates a {@link MemoryExampleTable} with random values.
 	 *
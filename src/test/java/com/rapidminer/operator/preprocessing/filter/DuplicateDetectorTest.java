@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.filter;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.test.ExampleTestTools;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.ProcessStoppedException;
+
+
+/**
+ * Tests the {@link DuplicateDetector}.
+ *
+ * @since 7.6.1
+ */
+public class DuplicateDetectorTest {
+
+	private static final double[] FIRST = { 1, 2, 1, Double.NaN, 1, Double.NaN, 2, 3 };
+	private static final double[] SECOND = { 0, 0, 0, 0, 1, 0, 0, Double.NaN };
+
+	private static int[] findDuplicates(boolean missingsAsDuplicates) throws ProcessStoppedException {
+		Attribute first = ExampleTestTools.attributeReal(1);
+		Attribute second = ExampleTestTools.attributeReal(2);
+		ExampleSet exampleSet = ExampleSets.from(first, second).withBlankSize(FIRST.length)
+				.withColumnFiller(first, i -> FIRST[i]).withColumnFiller(second, i -> SECOND[i]).build();
+		return new DuplicateDetector(exampleSet, new Attribute[] { first, second }, missingsAsDuplicates, null)
+				.findDuplicates();
+	}
+
+	@Test
+	public void keepFirstOccurrence() throws ProcessStoppedException {
+		assertArrayEquals(new int[] { 0, 0, 1, 0, 0, 0, 1, 0 }, findDuplicates(false));
+	}
+
+	@Test
+	public void missingsAsDuplicates() throws ProcessStoppedException {
+		assertArrayEquals(new int[] { 0, 0, 1, 0, 0, 1, 1, 0 }, findDuplicates(true));
+	}
+}
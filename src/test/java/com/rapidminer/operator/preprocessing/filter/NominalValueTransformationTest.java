@@ -0,0 +1,289 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.RapidMiner.ExecutionMode;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.UserError;
+import com.rapidminer.operator.preprocessing.PreprocessingModel;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.Tools;
+
+
+/**
+ * Tests that the operators transforming nominal values once per value of the mapping yield the
+ * same values and the same order of the new mappings as transforming every row on its own.
+ *
+ * @since 7.6.1
+ */
+public class NominalValueTransformationTest {
+
+	private static final String NAME = "text";
+
+	/** The order of the mapping differs from the order of first occurrence in the rows. */
+	private static final String[] VALUES = { " b,a", "c", "a ", " ", "b,c,a", "unused", "a", "ab" };
+	private static final double[] ROWS = { 4, Double.NaN, 2, 0, 6, 3, 2, 1, 0, 7, Double.NaN, 4 };
+
+	private static final String[] DATES = { "2017-03-01", "2016-12-24", "2017-01-05", "no date" };
+	private static final double[] DATE_ROWS = { 2, 0, Double.NaN, 2, 1, 0 };
+
+	@BeforeClass
+	public static void setup() {
+		RapidMiner.setExecutionMode(ExecutionMode.TEST);
+		RapidMiner.init();
+	}
+
+	private static ExampleSet createExampleSet(String[] values, double[] rows) {
+		Attribute attribute = AttributeFactory.createAttribute(NAME, Ontology.POLYNOMINAL);
+		for (String value : values) {
+			attribute.getMapping().mapString(value);
+		}
+		return ExampleSets.from(attribute).withBlankSize(rows.length).withColumnFiller(attribute, i -> rows[i]).build();
+	}
+
+	/**
+	 * Checks the result of an operator which maps every value to the transformed value and empty
+	 * results to missing values. Such operators map the transformed values in the order of the
+	 * original mapping.
+	 */
+	private static void assertTransformed(ExampleSet result, UnaryOperator<String> transformation) {
+		Attribute attribute = result.getAttributes().get(NAME);
+		List<String> expectedMapping = new ArrayList<>();
+		for (String value : VALUES) {
+			String transformed = transformation.apply(value);
+			if (!transformed.isEmpty() && !expectedMapping.contains(transformed)) {
+				expectedMapping.add(transformed);
+			}
+		}
+		assertEquals(expectedMapping, attribute.getMapping().getValues());
+
+		for (int i = 0; i < ROWS.length; i++) {
+			double value = result.getExample(i).getValue(attribute);
+			String transformed = Double.isNaN(ROWS[i]) ? "" : transformation.apply(VALUES[(int) ROWS[i]]);
+			if (transformed.isEmpty()) {
+				assertTrue("row " + i, Double.isNaN(value));
+			} else {
+				assertEquals("row " + i, transformed, attribute.getMapping().mapIndex((int) value));
+			}
+		}
+	}
+
+	@Test
+	public void trim() throws OperatorException, OperatorCreationException {
+		AttributeValueTrim trim = OperatorService.createOperator(AttributeValueTrim.class);
+		assertTransformed(trim.applyOnFiltered(createExampleSet(VALUES, ROWS)), String::trim);
+	}
+
+	@Test
+	public void replace() throws OperatorException, OperatorCreationException {
+		AttributeValueReplace replace = OperatorService.createOperator(AttributeValueReplace.class);
+		replace.setParameter(AttributeValueReplace.PARAMETER_REPLACE_WHAT, "[ ,]");
+		replace.setParameter(AttributeValueReplace.PARAMETER_REPLACE_BY, "-");
+		assertTransformed(replace.applyOnFiltered(createExampleSet(VALUES, ROWS)), v -> v.replaceAll("[ ,]", "-"));
+	}
+
+	@Test
+	public void replaceByEmpty() throws OperatorException, OperatorCreationException {
+		AttributeValueReplace replace = OperatorService.createOperator(AttributeValueReplace.class);
+		replace.setParameter(AttributeValueReplace.PARAMETER_REPLACE_WHAT, "[ ,]");
+		assertTransformed(replace.applyOnFiltered(createExampleSet(VALUES, ROWS)), v -> v.replaceAll("[ ,]", ""));
+	}
+
+	@Test
+	public void substring() throws OperatorException, OperatorCreationException {
+		AttributeValueSubstring substring = OperatorService.createOperator(AttributeValueSubstring.class);
+		substring.setParameter(AttributeValueSubstring.PARAMETER_FIRST, "2");
+		substring.setParameter(AttributeValueSubstring.PARAMETER_LAST, "3");
+		assertTransformed(substring.applyOnFiltered(createExampleSet(VALUES, ROWS)),
+				v -> v.substring(1, Math.min(3, v.length())));
+	}
+
+	/**
+	 * Returns the parts of every row as the split operator sees them, missing values are split as
+	 * {@link Attribute#MISSING_NOMINAL_VALUE}.
+	 */
+	private static String[][] splitRows() {
+		String[][] parts = new String[ROWS.length][];
+		for (int i = 0; i < ROWS.length; i++) {
+			String value = Double.isNaN(ROWS[i]) ? Attribute.MISSING_NOMINAL_VALUE : VALUES[(int) ROWS[i]];
+			parts[i] = Pattern.compile(",").split(value);
+		}
+		return parts;
+	}
+
+	@Test
+	public void orderedSplit() throws OperatorException, OperatorCreationException {
+		AttributeValueSplit split = OperatorService.createOperator(AttributeValueSplit.class);
+		split.setParameter(AttributeValueSplit.PARAMETER_SPLIT_PATTERN, ",");
+		split.setParameter(AttributeValueSplit.PARAMETER_SPLIT_MODE,
+				AttributeValueSplit.SPLIT_MODES[AttributeValueSplit.SPLIT_MODE_ORDERED]);
+		ExampleSet result = split.apply(createExampleSet(VALUES, ROWS));
+		assertEquals(null, result.getAttributes().get(NAME));
+
+		String[][] parts = splitRows();
+		for (int p = 0; p < 3; p++) {
+			Attribute attribute = result.getAttributes().get(NAME + "_" + (p + 1));
+			// parts are mapped in the order of their first occurrence
+			List<String> expectedMapping = new ArrayList<>();
+			for (int i = 0; i < ROWS.length; i++) {
+				if (!Double.isNaN(ROWS[i]) && p < parts[i].length && !expectedMapping.contains(parts[i][p])) {
+					expectedMapping.add(parts[i][p]);
+				}
+			}
+			assertEquals(expectedMapping, attribute.getMapping().getValues());
+
+			for (int i = 0; i < ROWS.length; i++) {
+				double value = result.getExample(i).getValue(attribute);
+				if (Double.isNaN(ROWS[i]) || p >= parts[i].length) {
+					assertTrue("row " + i, Double.isNaN(value));
+				} else {
+					assertEquals("row " + i, parts[i][p], attribute.getMapping().mapIndex((int) value));
+				}
+			}
+		}
+		assertEquals(null, result.getAttributes().get(NAME + "_4"));
+	}
+
+	@Test
+	public void unorderedSplit() throws OperatorException, OperatorCreationException {
+		AttributeValueSplit split = OperatorService.createOperator(AttributeValueSplit.class);
+		split.setParameter(AttributeValueSplit.PARAMETER_SPLIT_PATTERN, ",");
+		split.setParameter(AttributeValueSplit.PARAMETER_SPLIT_MODE,
+				AttributeValueSplit.SPLIT_MODES[AttributeValueSplit.SPLIT_MODE_UNORDERED]);
+		ExampleSet result = split.apply(createExampleSet(VALUES, ROWS));
+
+		String[][] parts = splitRows();
+		TreeSet<String> allParts = new TreeSet<>();
+		for (String[] rowParts : parts) {
+			Collections.addAll(allParts, rowParts);
+		}
+		assertEquals(allParts.size(), result.getAttributes().size());
+		for (String part : allParts) {
+			Attribute attribute = result.getAttributes().get(NAME + "_" + part);
+			assertEquals(2, attribute.getMapping().size());
+			for (int i = 0; i < ROWS.length; i++) {
+				boolean expected = false;
+				for (String rowPart : parts[i]) {
+					expected |= rowPart.equals(part);
+				}
+				assertEquals("row " + i, String.valueOf(expected), result.getExample(i).getNominalValue(attribute));
+			}
+		}
+	}
+
+	@Test
+	public void nominal2Date() throws OperatorException, OperatorCreationException, ParseException {
+		Nominal2Date nominal2Date = OperatorService.createOperator(Nominal2Date.class);
+		nominal2Date.setParameter(Nominal2Date.PARAMETER_ATTRIBUTE_NAME, NAME);
+		nominal2Date.setParameter(Nominal2Date.PARAMETER_DATE_FORMAT, "yyyy-MM-dd");
+		// the unused value cannot be parsed and must not be evaluated
+		ExampleSet result = nominal2Date.apply(createExampleSet(DATES, DATE_ROWS));
+
+		SimpleDateFormat parser = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+		parser.setTimeZone(Tools.getTimeZone(nominal2Date.getParameterAsInt(Nominal2Date.PARAMETER_TIME_ZONE)));
+		Attribute attribute = result.getAttributes().get(NAME);
+		assertTrue(attribute.isDateTime());
+		for (int i = 0; i < DATE_ROWS.length; i++) {
+			double value = result.getExample(i).getValue(attribute);
+			if (Double.isNaN(DATE_ROWS[i])) {
+				assertTrue("row " + i, Double.isNaN(value));
+			} else {
+				assertEquals("row " + i, parser.parse(DATES[(int) DATE_ROWS[i]]).getTime(), value, 0);
+			}
+		}
+	}
+
+	@Test
+	public void nominal2DateReportsFirstInvalidRow() throws OperatorException, OperatorCreationException {
+		Nominal2Date nominal2Date = OperatorService.createOperator(Nominal2Date.class);
+		nominal2Date.setParameter(Nominal2Date.PARAMETER_ATTRIBUTE_NAME, NAME);
+		nominal2Date.setParameter(Nominal2Date.PARAMETER_DATE_FORMAT, "yyyy-MM-dd");
+		try {
+			nominal2Date.apply(createExampleSet(DATES, new double[] { 0, 1, Double.NaN, 3, 2, 3 }));
+			fail("invalid date not reported");
+		} catch (UserError e) {
+			assertEquals(931, e.getCode());
+			assertTrue(e.getMessage(), e.getMessage().contains("line 4 "));
+		}
+	}
+
+	/**
+	 * Checks that the coded values of the model equal the values of the model view, which codes
+	 * every row on its own.
+	 */
+	private static void assertCoded(int codingType) throws OperatorException, OperatorCreationException {
+		NominalToNumeric nominalToNumeric = OperatorService.createOperator(NominalToNumeric.class);
+		nominalToNumeric.setParameter(NominalToNumeric.PARAMETER_CODING_TYPE, NominalToNumeric.ENCODING_TYPES[codingType]);
+		nominalToNumeric.setListParameter(NominalToNumeric.PARAMETER_COMPARISON_GROUPS,
+				Collections.singletonList(new String[] { NAME, "c" }));
+		String[] trainingValues = { "a", "b", "c" };
+		PreprocessingModel model = nominalToNumeric
+				.createPreprocessingModel(createExampleSet(trainingValues, new double[] { 0, 1, 2 }));
+
+		// the value d has not been present in the training set
+		String[] values = { "a", "b", "c", "d" };
+		double[] rows = { 2, 3, 0, Double.NaN, 1, 2, 3 };
+		ExampleSet result = model.applyOnData(createExampleSet(values, rows));
+		assertEquals(null, result.getAttributes().get(NAME));
+		int targets = 0;
+		for (Attribute target : result.getAttributes()) {
+			targets++;
+			for (int i = 0; i < rows.length; i++) {
+				assertEquals(target.getName() + " row " + i, model.getValue(target, rows[i]),
+						result.getExample(i).getValue(target), 0);
+			}
+		}
+		assertEquals(codingType == NominalToNumeric.DUMMY_CODING ? 3 : 2, targets);
+	}
+
+	@Test
+	public void dummyCoding() throws OperatorException, OperatorCreationException {
+		assertCoded(NominalToNumeric.DUMMY_CODING);
+	}
+
+	@Test
+	public void effectCoding() throws OperatorException, OperatorCreationException {
+		assertCoded(NominalToNumeric.EFFECT_CODING);
+	}
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.outlier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.rapidminer.operator.ProcessStoppedException;
+
+
+/**
+ * Tests that the {@link NearestNeighborGraph} gives the same outlier results as the pairwise
+ * container search of the {@link SearchSpace}.
+ */
+public class NearestNeighborGraphTest {
+
+	private static final int LOWER_BOUND = 3;
+	private static final int UPPER_BOUND = 8;
+
+	/** Creates data with many duplicates and ties, large enough to use the kd-tree. */
+	private static double[][] createData(int rows, int dimensions) {
+		Random random = new Random(7);
+		double[][] data = new double[rows][dimensions];
+		for (double[] row : data) {
+			for (int i = 0; i < dimensions; i++) {
+				row[i] = Math.round(random.nextGaussian() * 4) / 2.0;
+			}
+		}
+		return data;
+	}
+
+	private static SearchSpace createSpace(double[][] data, int lowerBound, int upperBound) {
+		int dimensions = data[0].length;
+		SearchSpace space = new SearchSpace(dimensions, lowerBound, upperBound + 1);
+		for (int i = 0; i < data.length; i++) {
+			SearchObject object = new SearchObject(dimensions, "object" + i, lowerBound, upperBound);
+			for (int j = 0; j < dimensions; j++) {
+				object.setVektor(j, data[i][j]);
+			}
+			space.addObject(object);
+		}
+		space.resetOutlierStatus();
+		return space;
+	}
+
+	@Test
+	public void lofIsIdentical() throws ProcessStoppedException {
+		double[][] data = createData(1100, 3);
+		// euclidian distance uses the kd-tree, the angle compares all pairs
+		for (int kindOfDistance : new int[] { 0, 4 }) {
+			SearchSpace expected = createSpace(data, LOWER_BOUND, UPPER_BOUND);
+			expected.findAllKdContainers(kindOfDistance, null);
+			expected.computeLOF(LOWER_BOUND, UPPER_BOUND, null);
+
+			SearchSpace actual = createSpace(data, LOWER_BOUND, UPPER_BOUND);
+			actual.findAllKdContainers(kindOfDistance, UPPER_BOUND, false, null);
+			actual.computeLOF(LOWER_BOUND, UPPER_BOUND, null);
+
+			for (int i = 0; i < data.length; i++) {
+				assertEquals("LOF of object " + i + " differs for distance " + kindOfDistance,
+						expected.getObject(i).getOutlierFactor(), actual.getObject(i).getOutlierFactor(), 0);
+			}
+		}
+	}
+
+	@Test
+	public void dknIsIdentical() throws ProcessStoppedException {
+		double[][] data = createData(1100, 2);
+		SearchSpace expected = createSpace(data, UPPER_BOUND, UPPER_BOUND);
+		expected.findAllKdContainers(0, null);
+		expected.computeDKN(UPPER_BOUND, 10, null);
+
+		SearchSpace actual = createSpace(data, UPPER_BOUND, UPPER_BOUND);
+		actual.findAllKdContainers(0, UPPER_BOUND, false, null);
+		actual.computeDKN(UPPER_BOUND, 10, null);
+
+		for (int i = 0; i < data.length; i++) {
+			assertEquals(expected.getSearchObjectOutlierStatus(i), actual.getSearchObjectOutlierStatus(i));
+		}
+	}
+
+	@Test
+	public void distanceOutliersAreIdentical() throws ProcessStoppedException {
+		double[][] data = createData(500, 2);
+		SearchSpace expected = createSpace(data, 1, 1);
+		expected.allRadiusSearch(2, 0.95, 0);
+		SearchSpace actual = createSpace(data, 1, 1);
+		actual.allRadiusSearch(2, 0.95, 0, null);
+
+		int outliers = 0;
+		for (int i = 0; i < data.length; i++) {
+			assertEquals(expected.getSearchObjectOutlierStatus(i), actual.getSearchObjectOutlierStatus(i));
+			outliers += actual.getSearchObjectOutlierStatus(i) ? 1 : 0;
+		}
+		assertTrue(outliers > 0);
+	}
+
+	@Test
+	public void approximateNeighborhoodsHaveSizeK() throws ProcessStoppedException {
+		double[][] data = createData(1500, 2);
+		NearestNeighborGraph graph = NearestNeighborGraph.create(createSpace(data, 1, 1), 5, 0, true, null);
+		for (int i = 0; i < data.length; i++) {
+			assertEquals(5, graph.getNeighbors(i).length);
+		}
+	}
+}
@@ -0,0 +1,326 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.transformation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.RapidMiner.ExecutionMode;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.studio.internal.TestConcurrencyContext;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.OperatorService;
+
+
+/**
+ * Tests the {@link PivotingEngine}.
+ *
+ * @since 7.6.1
+ */
+public class PivotingEngineTest {
+
+	private static final double[] GROUP = { 1, 1, 2, 2, 2, 3 };
+	private static final double[] INDEX = { 0, 1, 0, 1, 1, 0 };
+	private static final double[] VALUE = { 10, 11, 20, 21, 22, 30 };
+	private static final double[] CONSTANT = { 5, 5, 6, 6, 6, 7 };
+
+	/** Number of examples of the parallel tests, split into four tasks of 250 examples. */
+	private static final int PARALLEL_SIZE = 1000;
+	private static final int PARALLEL_EXAMPLES_PER_TASK = 100;
+
+	private final Attribute group = AttributeFactory.createAttribute("group", Ontology.REAL);
+	private final Attribute index = AttributeFactory.createAttribute("index", Ontology.NOMINAL);
+	private final Attribute value = AttributeFactory.createAttribute("value", Ontology.REAL);
+	private final Attribute constant = AttributeFactory.createAttribute("constant", Ontology.REAL);
+
+	/** context with four threads for the parallel tests */
+	private static TestConcurrencyContext context;
+
+	@BeforeClass
+	public static void setup() {
+		RapidMiner.setExecutionMode(ExecutionMode.TEST);
+		RapidMiner.init();
+		context = new TestConcurrencyContext(4);
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		context.close();
+	}
+
+	private ExampleSet createPivotInput() {
+		index.getMapping().mapString("a");
+		index.getMapping().mapString("b");
+		return ExampleSets.from(group, index, value, constant).withBlankSize(GROUP.length)
+				.withColumnFiller(group, i -> GROUP[i]).withColumnFiller(index, i -> INDEX[i])
+				.withColumnFiller(value, i -> VALUE[i]).withColumnFiller(constant, i -> CONSTANT[i]).build();
+	}
+
+	@Test
+	public void discoverGroups() throws ProcessStoppedException {
+		ExampleSet exampleSet = createPivotInput();
+		PivotingEngine.Groups groups = new PivotingEngine(null).discoverGroups(exampleSet,
+				new Attribute[] { group, index, value, constant }, group, index);
+
+		assertEquals(Arrays.asList("a", "b"), groups.indexValues);
+		assertArrayEquals(new int[] { 0, 1, 0, 1, 1, 0 }, groups.indexIds);
+		assertArrayEquals(new boolean[] { true, false, false, true }, groups.constant);
+		assertArrayEquals(new int[] { 0, 2, 5, 6 }, groups.starts);
+	}
+
+	@Test
+	public void missingGroupValueContinuesGroup() throws ProcessStoppedException {
+		double[] groupValues = { Double.NaN, 1, 1, 2 };
+		Attribute index = AttributeFactory.createAttribute("index", Ontology.REAL);
+		ExampleSet exampleSet = ExampleSets.from(group, index).withBlankSize(groupValues.length)
+				.withColumnFiller(group, i -> groupValues[i]).withColumnFiller(index, i -> 3 - i).build();
+		PivotingEngine.Groups groups = new PivotingEngine(null).discoverGroups(exampleSet,
+				new Attribute[] { group, index }, group, index);
+
+		assertArrayEquals(new int[] { 0, 3, 4 }, groups.starts);
+		assertEquals(4, groups.indexValues.size());
+	}
+
+	@Test
+	public void pivot() throws ProcessStoppedException {
+		ExampleSet exampleSet = createPivotInput();
+		Attribute[] attributes = { group, index, value, constant };
+		PivotingEngine engine = new PivotingEngine(null);
+		PivotingEngine.Groups groups = engine.discoverGroups(exampleSet, attributes, group, index);
+
+		List<Attribute> newAttributes = Arrays.asList(AttributeFactory.createAttribute("group", Ontology.REAL),
+				AttributeFactory.createAttribute("constant", Ontology.REAL),
+				AttributeFactory.createAttribute("value_a", Ontology.REAL),
+				AttributeFactory.createAttribute("value_b", Ontology.REAL));
+		int[][] targets = { { 0, 0 }, { -1, -1 }, { 2, 3 }, { 1, 1 } };
+		ExampleSet result = engine.createColumns(exampleSet, groups, attributes, targets, newAttributes, null, null,
+				DataManagement.AUTO);
+
+		double[][] expected = { { 1, 5, 10, 11 }, { 2, 6, 20, 22 }, { 3, 7, 30, Double.NaN } };
+		assertEquals(expected.length, result.size());
+		for (int i = 0; i < expected.length; i++) {
+			Example example = result.getExample(i);
+			for (int j = 0; j < expected[i].length; j++) {
+				assertEquals(expected[i][j], example.getValue(newAttributes.get(j)), 0);
+			}
+		}
+	}
+
+	@Test
+	public void unpivot() throws ProcessStoppedException {
+		Attribute id = AttributeFactory.createAttribute("id", Ontology.REAL);
+		Attribute[] series = { AttributeFactory.createAttribute("s1", Ontology.REAL),
+				AttributeFactory.createAttribute("s2", Ontology.REAL),
+				AttributeFactory.createAttribute("s3", Ontology.REAL) };
+		double[][] data = { { 1, 1, Double.NaN, 3 }, { 2, Double.NaN, Double.NaN, Double.NaN } };
+		ExampleSet exampleSet = ExampleSets.from(id, series[0], series[1], series[2]).addRow(data[0]).addRow(data[1])
+				.build();
+
+		double[][] kept = unpivot(exampleSet, id, series, true);
+		assertEquals(6, kept.length);
+		assertArrayEquals(new double[] { 2, 3, Double.NaN }, kept[5], 0);
+
+		double[][] skipped = unpivot(exampleSet, id, series, false);
+		assertEquals(2, skipped.length);
+		assertArrayEquals(new double[] { 1, 1, 1 }, skipped[0], 0);
+		assertArrayEquals(new double[] { 1, 3, 3 }, skipped[1], 0);
+	}
+
+	private static double[][] unpivot(ExampleSet exampleSet, Attribute id, Attribute[] series, boolean keepMissings)
+			throws ProcessStoppedException {
+		List<Attribute> newAttributes = Arrays.asList(AttributeFactory.createAttribute("id", Ontology.REAL),
+				AttributeFactory.createAttribute("index", Ontology.INTEGER),
+				AttributeFactory.createAttribute("s", Ontology.REAL));
+		ExampleSet result = new PivotingEngine(null).unpivot(exampleSet, Collections.singletonList(id),
+				Collections.singletonList(Arrays.asList(series)), newAttributes, newAttributes.get(1), false,
+				keepMissings);
+		return toRows(result, newAttributes);
+	}
+
+	private static double[][] toRows(ExampleSet exampleSet, List<Attribute> attributes) {
+		double[][] rows = new double[exampleSet.size()][attributes.size()];
+		for (int i = 0; i < rows.length; i++) {
+			for (int j = 0; j < attributes.size(); j++) {
+				rows[i][j] = exampleSet.getExample(i).getValue(attributes.get(j));
+			}
+		}
+		return rows;
+	}
+
+	private static void assertSameResult(List<Attribute> expectedAttributes, ExampleSet expected,
+			List<Attribute> actualAttributes, ExampleSet actual) {
+		for (int j = 0; j < expectedAttributes.size(); j++) {
+			if (expectedAttributes.get(j).isNominal()) {
+				assertEquals(expectedAttributes.get(j).getMapping().getValues(),
+						actualAttributes.get(j).getMapping().getValues());
+			}
+		}
+		double[][] expectedRows = toRows(expected, expectedAttributes);
+		double[][] actualRows = toRows(actual, actualAttributes);
+		assertEquals(expectedRows.length, actualRows.length);
+		for (int i = 0; i < expectedRows.length; i++) {
+			assertArrayEquals("row " + i, expectedRows[i], actualRows[i], 0);
+		}
+	}
+
+	/**
+	 * Creates an engine which splits the parallel tests into four tasks.
+	 */
+	private static PivotingEngine createParallelEngine(Operator operator) {
+		context.assignTo(operator);
+		return new PivotingEngine(operator, PARALLEL_EXAMPLES_PER_TASK);
+	}
+
+	/**
+	 * Creates a sorted example set whose groups span the task borders. Some index and nominal
+	 * values appear first in later tasks and the mappings are not in the order of appearance.
+	 */
+	private static ExampleSet createLargePivotInput(Attribute group, Attribute index, Attribute value,
+			Attribute nominal, Attribute constant) {
+		for (int v = 9; v >= 0; v--) {
+			index.getMapping().mapString("i" + v);
+		}
+		for (int v = 12; v >= 0; v--) {
+			nominal.getMapping().mapString("n" + v);
+		}
+		return ExampleSets.from(group, index, value, nominal, constant).withBlankSize(PARALLEL_SIZE)
+				.withColumnFiller(group, i -> i / 7)
+				.withColumnFiller(index, i -> 9 - (i < PARALLEL_SIZE / 4 ? i % 5 : i % 10))
+				.withColumnFiller(value, i -> i % 11 == 0 ? Double.NaN : i)
+				.withColumnFiller(nominal, i -> 12 - (i < PARALLEL_SIZE / 2 ? i % 3 : i * 7 % 13))
+				.withColumnFiller(constant, i -> i / 7 * 2 + (i == 900 ? 1 : 0)).build();
+	}
+
+	/**
+	 * Creates the attributes of the pivoted example set and the targets of the source attributes
+	 * group, index, value, nominal and constant. Every target column is written by a single source
+	 * attribute, so that the source attributes can be scattered concurrently.
+	 */
+	private static List<Attribute> createPivotTargets(PivotingEngine.Groups groups, int[][] targets) {
+		List<Attribute> newAttributes = new ArrayList<>();
+		newAttributes.add(AttributeFactory.createAttribute("group", Ontology.REAL));
+		newAttributes.add(AttributeFactory.createAttribute("constant", Ontology.REAL));
+		int numberOfIds = groups.indexValues.size();
+		for (int a = 0; a < targets.length; a++) {
+			targets[a] = new int[numberOfIds];
+		}
+		Arrays.fill(targets[1], -1);
+		Arrays.fill(targets[4], 1);
+		for (int id = 0; id < numberOfIds; id++) {
+			targets[2][id] = newAttributes.size();
+			newAttributes.add(AttributeFactory.createAttribute("value_" + groups.indexValues.get(id), Ontology.REAL));
+			targets[3][id] = newAttributes.size();
+			newAttributes.add(
+					AttributeFactory.createAttribute("nominal_" + groups.indexValues.get(id), Ontology.POLYNOMINAL));
+		}
+		return newAttributes;
+	}
+
+	@Test
+	public void parallelPivotEqualsSequentialPivot() throws ProcessStoppedException, OperatorCreationException {
+		Attribute value = AttributeFactory.createAttribute("value", Ontology.REAL);
+		Attribute nominal = AttributeFactory.createAttribute("nominal", Ontology.POLYNOMINAL);
+		ExampleSet exampleSet = createLargePivotInput(group, index, value, nominal, constant);
+		Attribute[] attributes = { group, index, value, nominal, constant };
+
+		PivotingEngine sequential = new PivotingEngine(null);
+		PivotingEngine parallel = createParallelEngine(OperatorService.createOperator(Example2AttributePivoting.class));
+		PivotingEngine.Groups expectedGroups = sequential.discoverGroups(exampleSet, attributes, group, index);
+		PivotingEngine.Groups groups = parallel.discoverGroups(exampleSet, attributes, group, index);
+
+		assertEquals(expectedGroups.indexValues, groups.indexValues);
+		assertEquals(10, groups.indexValues.size());
+		assertArrayEquals(expectedGroups.indexIds, groups.indexIds);
+		assertArrayEquals(expectedGroups.constant, groups.constant);
+		assertArrayEquals(new boolean[] { true, false, false, false, false }, groups.constant);
+		assertArrayEquals(expectedGroups.starts, groups.starts);
+
+		int[][] expectedTargets = new int[attributes.length][];
+		List<Attribute> expectedAttributes = createPivotTargets(expectedGroups, expectedTargets);
+		ExampleSet expected = sequential.createColumns(exampleSet, expectedGroups, attributes, expectedTargets,
+				expectedAttributes, null, null, DataManagement.AUTO);
+		int[][] targets = new int[attributes.length][];
+		List<Attribute> newAttributes = createPivotTargets(groups, targets);
+		ExampleSet result = parallel.createColumns(exampleSet, groups, attributes, targets, newAttributes, null, null,
+				DataManagement.AUTO);
+
+		assertEquals(PARALLEL_SIZE / 7 + 1, result.size());
+		assertSameResult(expectedAttributes, expected, newAttributes, result);
+	}
+
+	private static List<Attribute> createUnpivotTargets() {
+		return Arrays.asList(AttributeFactory.createAttribute("id", Ontology.REAL),
+				AttributeFactory.createAttribute("index", Ontology.INTEGER),
+				AttributeFactory.createAttribute("s", Ontology.POLYNOMINAL));
+	}
+
+	@Test
+	public void parallelUnpivotEqualsSequentialUnpivot() throws ProcessStoppedException, OperatorCreationException {
+		Attribute id = AttributeFactory.createAttribute("id", Ontology.REAL);
+		Attribute[] series = new Attribute[3];
+		for (int k = 0; k < series.length; k++) {
+			series[k] = AttributeFactory.createAttribute("s" + (k + 1), Ontology.POLYNOMINAL);
+			for (int v = 0; v < 8; v++) {
+				series[k].getMapping().mapString("v" + v * (2 * k + 3) % 8);
+			}
+		}
+		ExampleSet exampleSet = ExampleSets.from(id, series[0], series[1], series[2]).withBlankSize(PARALLEL_SIZE)
+				.withColumnFiller(id, i -> i)
+				.withColumnFiller(series[0], i -> i % 5 == 0 ? Double.NaN : i < PARALLEL_SIZE / 2 ? i % 4 : i % 8)
+				.withColumnFiller(series[1], i -> i % 5 == 0 ? Double.NaN : 7 - i % 8)
+				.withColumnFiller(series[2], i -> i % 10 == 0 ? Double.NaN : i * 3 % 8).build();
+
+		Operator operator = OperatorService.createOperator(Attribute2ExamplePivoting.class);
+		PivotingEngine parallel = createParallelEngine(operator);
+		for (boolean keepMissings : new boolean[] { false, true }) {
+			List<Attribute> expectedAttributes = createUnpivotTargets();
+			ExampleSet expected = new PivotingEngine(null).unpivot(exampleSet, Collections.singletonList(id),
+					Collections.singletonList(Arrays.asList(series)), expectedAttributes, expectedAttributes.get(1),
+					false, keepMissings);
+			List<Attribute> newAttributes = createUnpivotTargets();
+			operator.getProgress().setTotal(PARALLEL_SIZE);
+			ExampleSet result = parallel.unpivot(exampleSet, Collections.singletonList(id),
+					Collections.singletonList(Arrays.asList(series)), newAttributes, newAttributes.get(1), false,
+					keepMissings);
+
+			// every example is reported to the progress
+			assertEquals(PARALLEL_SIZE, operator.getProgress().getCompleted());
+			assertEquals(keepMissings ? 3 * PARALLEL_SIZE : 3 * PARALLEL_SIZE - 500, result.size());
+			assertSameResult(expectedAttributes, expected, newAttributes, result);
+		}
+	}
+}
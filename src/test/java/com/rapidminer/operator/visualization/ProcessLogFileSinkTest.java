@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.visualization;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+/**
+ * Tests the {@link ProcessLogFileSink}.
+ */
+public class ProcessLogFileSinkTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void writesMoreLinesThanQueued() throws IOException {
+		File file = folder.newFile("log.txt");
+		int count = 50_000;
+		try (ProcessLogFileSink sink = new ProcessLogFileSink(file, false)) {
+			for (int i = 0; i < count; i++) {
+				sink.write(Integer.toString(i));
+			}
+		}
+		List<String> lines = Files.readAllLines(file.toPath(), Charset.defaultCharset());
+		assertEquals(count, lines.size());
+		for (int i = 0; i < count; i++) {
+			assertEquals(Integer.toString(i), lines.get(i));
+		}
+	}
+
+	@Test
+	public void appendsToExistingFile() throws IOException {
+		File file = folder.newFile("log.txt");
+		try (ProcessLogFileSink sink = new ProcessLogFileSink(file, false)) {
+			sink.write("first");
+		}
+		try (ProcessLogFileSink sink = new ProcessLogFileSink(file, true)) {
+			sink.write("second");
+		}
+		assertEquals(2, Files.readAllLines(file.toPath(), Charset.defaultCharset()).size());
+	}
+
+	@Test(expected = IOException.class)
+	public void writeAfterCloseFails() throws IOException {
+		ProcessLogFileSink sink = new ProcessLogFileSink(folder.newFile("log.txt"), false);
+		sink.close();
+		sink.write("line");
+	}
+}
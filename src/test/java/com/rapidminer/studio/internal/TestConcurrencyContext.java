@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.studio.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.core.concurrency.ExecutionStoppedException;
+import com.rapidminer.operator.Operator;
+
+
+/**
+ * A {@link ConcurrencyContext} with a fixed parallelism for tests. It is assigned to the process of
+ * an operator via {@link #assignTo(Operator)}. The context owns a thread pool which must be shut
+ * down by {@link #close()}.
+ *
+ * @since 7.6.1
+ */
+public class TestConcurrencyContext implements ConcurrencyContext, AutoCloseable {
+
+	private final int parallelism;
+	private final ForkJoinPool pool;
+
+	public TestConcurrencyContext(int parallelism) {
+		this.parallelism = parallelism;
+		this.pool = new ForkJoinPool(parallelism);
+	}
+
+	/**
+	 * Makes this context the context of the given operator and all other operators of its process.
+	 *
+	 * @return this context
+	 */
+	public TestConcurrencyContext assignTo(Operator operator) {
+		Resources.setConcurrencyContext(operator, this);
+		return this;
+	}
+
+	/** Shuts down the thread pool of this context. */
+	@Override
+	public void close() {
+		pool.shutdownNow();
+	}
+
+	@Override
+	public void run(List<Runnable> runnables) throws ExecutionException, ExecutionStoppedException {
+		List<Callable<Void>> callables = new ArrayList<>(runnables.size());
+		for (final Runnable runnable : runnables) {
+			callables.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					runnable.run();
+					return null;
+				}
+			});
+		}
+		call(callables);
+	}
+
+	@Override
+	public <T> List<T> call(List<Callable<T>> callables) throws ExecutionException, ExecutionStoppedException {
+		return collectResults(submit(callables));
+	}
+
+	@Override
+	public <T> List<Future<T>> submit(List<Callable<T>> callables) {
+		List<Future<T>> futures = new ArrayList<>(callables.size());
+		for (Callable<T> callable : callables) {
+			futures.add(pool.submit(callable));
+		}
+		return futures;
+	}
+
+	@Override
+	public <T> List<T> collectResults(List<Future<T>> futures) throws ExecutionException, ExecutionStoppedException {
+		List<T> results = new ArrayList<>(futures.size());
+		for (Future<T> future : futures) {
+			try {
+				results.add(future.get());
+			} catch (InterruptedException e) {
+				throw new ExecutionException(e);
+			}
+		}
+		return results;
+	}
+
+	@Override
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	@Override
+	public void checkStatus() throws ExecutionStoppedException {
+		// tests cannot be stopped
+	}
+
+	@Override
+	public <T> T invoke(ForkJoinTask<T> task) throws ExecutionException, ExecutionStoppedException {
+		return invokeAll(Collections.singletonList(task)).get(0);
+	}
+
+	@Override
+	public <T> List<T> invokeAll(List<ForkJoinTask<T>> tasks) throws ExecutionException, ExecutionStoppedException {
+		List<Future<T>> futures = new ArrayList<>(tasks.size());
+		for (ForkJoinTask<T> task : tasks) {
+			futures.add(pool.submit(task));
+		}
+		return collectResults(futures);
+	}
+}
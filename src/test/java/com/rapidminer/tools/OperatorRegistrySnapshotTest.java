@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.RapidMiner.ExecutionMode;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.test.ExampleTestTools;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.io.AbstractExampleSource;
+import com.rapidminer.operator.io.AbstractReader;
+import com.rapidminer.operator.nio.CSVExampleSource;
+
+
+/**
+ * Tests that operators registered from the {@link OperatorRegistrySnapshot} behave as operators
+ * registered by creating an instance without loading their classes, in particular that the file
+ * extensions of readers are registered.
+ */
+public class OperatorRegistrySnapshotTest {
+
+	private static final String LAZY_SOURCE_ID = "snapshot_test_lazy";
+	private static final String LAZY_OPERATOR_KEY = "snapshot_test_lazy_reader";
+	private static final String LAZY_EXTENSION = "snapshottestlazy";
+
+	private static final String RECORDED_SOURCE_ID = "snapshot_test_recorded";
+	private static final String RECORDED_OPERATOR_KEY = "snapshot_test_recorded_reader";
+	private static final String RECORDED_EXTENSION = "snapshottestrecorded";
+
+	/** set by the static initializer of {@link LazyReader} */
+	private static boolean lazyReaderInitialized;
+
+	/** Registers itself for a file extension in its static initializer, as the core readers do. */
+	public static class LazyReader extends AbstractExampleSource {
+
+		static {
+			lazyReaderInitialized = true;
+			AbstractReader.registerReaderDescription(new ReaderDescription(LAZY_EXTENSION, LazyReader.class, "file"));
+		}
+
+		public LazyReader(OperatorDescription description) {
+			super(description);
+		}
+
+		@Override
+		public ExampleSet createExampleSet() {
+			return ExampleSets.from(ExampleTestTools.attributeReal()).build();
+		}
+	}
+
+	/** Registers itself for a file extension in its static initializer, as the core readers do. */
+	public static class RecordedReader extends AbstractExampleSource {
+
+		static {
+			AbstractReader.registerReaderDescription(
+					new ReaderDescription(RECORDED_EXTENSION, RecordedReader.class, "file"));
+		}
+
+		public RecordedReader(OperatorDescription description) {
+			super(description);
+		}
+
+		@Override
+		public ExampleSet createExampleSet() {
+			return ExampleSets.from(ExampleTestTools.attributeReal()).build();
+		}
+	}
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@BeforeClass
+	public static void init() {
+		RapidMiner.setExecutionMode(ExecutionMode.TEST);
+		RapidMiner.init();
+	}
+
+	@Test
+	public void csvReaderIsRegistered() throws Exception {
+		assertTrue(AbstractReader.createReader(new File("data.csv").toURI()) instanceof CSVExampleSource);
+	}
+
+	@Test
+	public void readerRestoredFromSnapshotIsRegisteredLazily() throws Exception {
+		byte[] content = operatorsXML(LAZY_OPERATOR_KEY, LazyReader.class);
+		File file = new File(folder.getRoot(), "operator_registry.snapshot");
+
+		// record the snapshot as a previous start would have done
+		OperatorRegistrySnapshot recorded = OperatorRegistrySnapshot.load(file);
+		OperatorRegistrySnapshot.Source source = recorded.getSource(LAZY_SOURCE_ID,
+				OperatorRegistrySnapshot.checksum(content, null));
+		source.putIOObjects(LAZY_OPERATOR_KEY, Collections.singletonList(ExampleSet.class.getName()));
+		source.putReaders(LAZY_OPERATOR_KEY, Collections.singletonMap(LAZY_EXTENSION, "file"));
+		recorded.save(file);
+
+		OperatorService.registerOperators(LAZY_SOURCE_ID, new ByteArrayInputStream(content), null, null,
+				OperatorRegistrySnapshot.load(file));
+		assertFalse(lazyReaderInitialized);
+
+		assertTrue(AbstractReader.createReader(new File("data." + LAZY_EXTENSION).toURI()) instanceof LazyReader);
+		assertTrue(lazyReaderInitialized);
+	}
+
+	@Test
+	public void readersAreRecordedInSnapshot() throws Exception {
+		byte[] content = operatorsXML(RECORDED_OPERATOR_KEY, RecordedReader.class);
+		File file = new File(folder.getRoot(), "operator_registry.snapshot");
+
+		OperatorRegistrySnapshot snapshot = OperatorRegistrySnapshot.load(file);
+		OperatorService.registerOperators(RECORDED_SOURCE_ID, new ByteArrayInputStream(content), null, null,
+				snapshot);
+		snapshot.save(file);
+
+		OperatorRegistrySnapshot.Source source = OperatorRegistrySnapshot.load(file).getSource(RECORDED_SOURCE_ID,
+				OperatorRegistrySnapshot.checksum(content, null));
+		assertEquals(Collections.singletonMap(RECORDED_EXTENSION, "file"), source.getReaders(RECORDED_OPERATOR_KEY));
+		assertEquals(Collections.singletonList(ExampleSet.class.getName()),
+				source.getIOObjects(RECORDED_OPERATOR_KEY));
+	}
+
+	private static byte[] operatorsXML(String operatorKey, Class<?> operatorClass) {
+		return ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" + "<operators name=\"snapshot test\" version=\"7.6\" "
+				+ "docbundle=\"com/rapidminer/resources/i18n/OperatorsCoreDocumentation\">\n"
+				+ "<group key=\"snapshot_test\"><operator><key>" + operatorKey + "</key><class>"
+				+ operatorClass.getName() + "</class></operator></group>\n</operators>").getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -18,6 +18,12 @@
 */
 package com.rapidminer.tools.expression.internal.function;
 
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.expression.ExampleResolver;
 import com.rapidminer.tools.expression.Expression;
 import com.rapidminer.tools.expression.ExpressionException;
 import com.rapidminer.tools.expression.ExpressionType;
@@ -876,4 +882,66 @@ public class AntlrParserStringInformationTest extends AntlrParserTest {
 		}
 	}
 
+	/**
+	 * Creates an example set with the nominal attributes "text" and "regex".
+	 */
+	private static ExampleSet makeTextAndRegexExampleSet(String[] texts, String[] regexes) {
+		Attribute text = AttributeFactory.createAttribute("text", Ontology.NOMINAL);
+		Attribute regex = AttributeFactory.createAttribute("regex", Ontology.NOMINAL);
+		return ExampleSets.from(text, regex).withBlankSize(texts.length)
+				.withColumnFiller(text, i -> text.getMapping().mapString(texts[i]))
+				.withColumnFiller(regex, i -> regex.getMapping().mapString(regexes[i])).build();
+	}
+
+	@Test
+	public void matchesAttributes() {
+		try {
+			ExampleSet exampleSet = makeTextAndRegexExampleSet(new String[] { "abcd", "abcd", "xbcd", "abcd" },
+					new String[] { "a.c.", "a[xyz].*", "a.c.", "a.c." });
+			ExampleResolver resolver = new ExampleResolver(exampleSet);
+			Expression constantRegex = getExpressionWithFunctionsAndExamples("matches([text], \"a.c.\")", resolver);
+			Expression attributeRegex = getExpressionWithFunctionsAndExamples("matches([text], [regex])", resolver);
+			boolean[] expectedConstant = { true, true, false, true };
+			boolean[] expectedAttribute = { true, false, false, true };
+			for (int i = 0; i < exampleSet.size(); i++) {
+				resolver.bind(exampleSet.getExample(i));
+				assertEquals(expectedConstant[i], constantRegex.evaluateBoolean());
+				assertEquals(expectedAttribute[i], attributeRegex.evaluateBoolean());
+			}
+		} catch (ExpressionException e) {
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	public void findsAttributes() {
+		try {
+			ExampleSet exampleSet = makeTextAndRegexExampleSet(new String[] { "abcd", "abcd", "xbcd" },
+					new String[] { "b.", "x", "b." });
+			ExampleResolver resolver = new ExampleResolver(exampleSet);
+			Expression expression = getExpressionWithFunctionsAndExamples("finds([text], [regex])", resolver);
+			boolean[] expected = { true, false, true };
+			for (int i = 0; i < exampleSet.size(); i++) {
+				resolver.bind(exampleSet.getExample(i));
+				assertEquals(expected[i], expression.evaluateBoolean());
+			}
+		} catch (ExpressionException e) {
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	public void matchesIllegalAttributeExpression() {
+		try {
+			ExampleSet exampleSet = makeTextAndRegexExampleSet(new String[] { "abcd" }, new String[] { "a[" });
+			ExampleResolver resolver = new ExampleResolver(exampleSet);
+			Expression expression = getExpressionWithFunctionsAndExamples("matches([text], [regex])", resolver);
+			resolver.bind(exampleSet.getExample(0));
+			expression.evaluateBoolean();
+			fail();
+		} catch (ExpressionException e) {
+			assertNotNull(e.getMessage());
+		}
+	}
+
 }
@@ -0,0 +1,127 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.matrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.math.MathFunctions;
+
+import Jama.Matrix;
+
+
+/**
+ * Tests the {@link CoMomentMatrix} against the pairwise implementations.
+ */
+public class CoMomentMatrixTest {
+
+	private static final double EPSILON = 1e-10;
+
+	private static ExampleSet createExampleSet(int rows, boolean withMissings) {
+		Attribute[] attributes = new Attribute[4];
+		for (int i = 0; i < attributes.length; i++) {
+			attributes[i] = AttributeFactory.createAttribute("att" + i, Ontology.REAL);
+		}
+		Random random = new Random(42);
+		double[][] data = new double[rows][attributes.length];
+		for (int row = 0; row < rows; row++) {
+			double base = random.nextGaussian();
+			data[row][0] = 1000 + base;
+			data[row][1] = base * 3 + random.nextGaussian();
+			data[row][2] = random.nextDouble();
+			data[row][3] = withMissings && row % 7 == 0 ? Double.NaN : -base + 0.1 * random.nextGaussian();
+		}
+		return ExampleSets.from(attributes).withBlankSize(rows)
+				.withColumnFiller(attributes[0], i -> data[i][0]).withColumnFiller(attributes[1], i -> data[i][1])
+				.withColumnFiller(attributes[2], i -> data[i][2]).withColumnFiller(attributes[3], i -> data[i][3])
+				.build();
+	}
+
+	@Test
+	public void correlationsAreEqual() throws ProcessStoppedException {
+		ExampleSet exampleSet = createExampleSet(1000, true);
+		Attribute[] attributes = exampleSet.getAttributes().createRegularAttributeArray();
+		CoMomentMatrix moments = CoMomentMatrix.calculate(exampleSet, attributes, null);
+		for (int i = 0; i < attributes.length; i++) {
+			for (int j = 0; j < attributes.length; j++) {
+				double expected = MathFunctions.correlation(exampleSet, attributes[i], attributes[j], false);
+				assertEquals(expected, moments.getCorrelation(i, j), EPSILON);
+				assertEquals(expected * expected, moments.getCorrelation(i, j, true), EPSILON);
+			}
+		}
+		assertFalse(moments.hasMissingValues(0));
+		assertTrue(moments.hasMissingValues(3));
+		assertEquals(1000 - 143, moments.getCount(0, 3));
+	}
+
+	@Test
+	public void correlationsAgainstTarget() throws ProcessStoppedException {
+		ExampleSet exampleSet = createExampleSet(1000, true);
+		Attribute[] attributes = exampleSet.getAttributes().createRegularAttributeArray();
+		CoMomentMatrix moments = CoMomentMatrix.calculateAgainst(exampleSet, attributes[1], attributes, null);
+		for (int i = 0; i < attributes.length; i++) {
+			double expected = MathFunctions.correlation(exampleSet, attributes[1], attributes[i], false);
+			assertEquals(expected, moments.getCorrelation(0, i + 1), EPSILON);
+		}
+	}
+
+	@Test
+	public void covariancesAreEqual() throws ProcessStoppedException {
+		ExampleSet exampleSet = createExampleSet(1000, false);
+		double[][] data = new double[exampleSet.size()][exampleSet.getAttributes().size()];
+		int r = 0;
+		for (Example example : exampleSet) {
+			int c = 0;
+			for (Attribute attribute : exampleSet.getAttributes()) {
+				data[r][c++] = example.getValue(attribute);
+			}
+			r++;
+		}
+		Matrix expected = CovarianceMatrix.getCovarianceMatrix(data, null);
+		Matrix actual = CovarianceMatrix.getCovarianceMatrix(exampleSet, null);
+		for (int i = 0; i < data[0].length; i++) {
+			for (int j = 0; j < data[0].length; j++) {
+				assertEquals(expected.get(i, j), actual.get(i, j), EPSILON);
+			}
+		}
+	}
+
+	@Test
+	public void constantColumnHasNoCorrelation() throws ProcessStoppedException {
+		Attribute constant = AttributeFactory.createAttribute("constant", Ontology.REAL);
+		Attribute other = AttributeFactory.createAttribute("other", Ontology.REAL);
+		ExampleSet exampleSet = ExampleSets.from(constant, other).withBlankSize(600)
+				.withColumnFiller(constant, i -> 0.1).withColumnFiller(other, i -> i).build();
+		CoMomentMatrix moments = CoMomentMatrix.calculate(exampleSet, new Attribute[] { constant, other }, null);
+		assertTrue(Double.isNaN(moments.getCorrelation(0, 1)));
+		assertEquals(1, moments.getCorrelation(1, 1), EPSILON);
+	}
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.similarity;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.math.similarity.numerical.CamberraNumericalDistance;
+import com.rapidminer.tools.math.similarity.numerical.EuclideanDistance;
+import com.rapidminer.tools.math.similarity.numerical.InnerProductSimilarity;
+
+
+/**
+ * Tests the {@link CrossDistanceCalculator} against an exhaustive search.
+ */
+public class CrossDistanceCalculatorTest {
+
+	private static ExampleSet createExampleSet(int rows, long seed) {
+		return createExampleSet(rows, seed, 0);
+	}
+
+	private static ExampleSet createExampleSet(int rows, long seed, int minimum) {
+		Attribute first = AttributeFactory.createAttribute("first", Ontology.REAL);
+		Attribute second = AttributeFactory.createAttribute("second", Ontology.REAL);
+		Random random = new Random(seed);
+		double[][] values = new double[rows][2];
+		for (double[] row : values) {
+			// coarse values produce many ties
+			row[0] = minimum + random.nextInt(8);
+			row[1] = minimum + random.nextInt(8);
+		}
+		return ExampleSets.from(first, second).withBlankSize(rows).withColumnFiller(first, i -> values[i][0])
+				.withColumnFiller(second, i -> values[i][1]).build();
+	}
+
+	/** Collects all results in request order. */
+	private static List<double[]> collect(CrossDistanceCalculator calculator, int k, boolean farthest)
+			throws OperatorException {
+		return collect(calculator, k, false, farthest);
+	}
+
+	/** Collects all results in request order. */
+	private static List<double[]> collect(CrossDistanceCalculator calculator, int k, boolean similarity,
+			boolean farthest) throws OperatorException {
+		List<double[]> results = new ArrayList<>();
+		calculator.calculate(k, similarity, farthest, null, (request, references, values, count) -> {
+			for (int i = 0; i < count; i++) {
+				results.add(new double[] { request, references[i], values[i] });
+			}
+		});
+		return results;
+	}
+
+	/** Exhaustively calculates the expected results sorted by value and reference index. */
+	private static List<double[]> expected(ExampleSet requests, ExampleSet references, int k, boolean farthest) {
+		return expected(new EuclideanDistance(), requests, references, k, false, farthest);
+	}
+
+	/**
+	 * Exhaustively calculates the expected results of the pairwise methods of the measure sorted by
+	 * value and reference index.
+	 */
+	private static List<double[]> expected(DistanceMeasure measure, ExampleSet requests, ExampleSet references, int k,
+			boolean similarity, boolean farthest) {
+		measure.init(requests);
+		List<double[]> results = new ArrayList<>();
+		for (int request = 0; request < requests.size(); request++) {
+			List<double[]> row = new ArrayList<>();
+			for (int reference = 0; reference < references.size(); reference++) {
+				double value = similarity
+						? measure.calculateSimilarity(requests.getExample(request), references.getExample(reference))
+						: measure.calculateDistance(requests.getExample(request), references.getExample(reference));
+				row.add(new double[] { request, reference, value });
+			}
+			Collections.sort(row, (a, b) -> {
+				int result = farthest ? Double.compare(b[2], a[2]) : Double.compare(a[2], b[2]);
+				return result != 0 ? result : Double.compare(a[1], b[1]);
+			});
+			results.addAll(row.subList(0, Math.min(k, row.size())));
+		}
+		return results;
+	}
+
+	private static void assertResults(List<double[]> expected, List<double[]> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertArrayEquals("result " + i, expected.get(i), actual.get(i), 1e-12);
+		}
+	}
+
+	@Test
+	public void nearestAndFarthest() throws OperatorException {
+		ExampleSet requests = createExampleSet(70, 1);
+		ExampleSet references = createExampleSet(300, 2);
+		CrossDistanceCalculator calculator = new CrossDistanceCalculator(new EuclideanDistance(), requests, references);
+		assertResults(expected(requests, references, 5, false), collect(calculator, 5, false));
+		assertResults(expected(requests, references, 7, true), collect(calculator, 7, true));
+	}
+
+	@Test
+	public void batchSimilarities() throws OperatorException {
+		// more references than fit into two tiles
+		ExampleSet requests = createExampleSet(70, 7);
+		ExampleSet references = createExampleSet(600, 8);
+		CrossDistanceCalculator calculator = new CrossDistanceCalculator(new InnerProductSimilarity(), requests,
+				references);
+		assertResults(expected(new InnerProductSimilarity(), requests, references, 5, true, true),
+				collect(calculator, 5, true, true));
+		assertResults(expected(new InnerProductSimilarity(), requests, references, 5, true, false),
+				collect(calculator, 5, true, false));
+	}
+
+	@Test
+	public void defaultBatchImplementation() throws OperatorException {
+		// positive values, so that no camberra term is undefined
+		ExampleSet requests = createExampleSet(70, 9, 1);
+		ExampleSet references = createExampleSet(600, 10, 1);
+		CrossDistanceCalculator calculator = new CrossDistanceCalculator(new CamberraNumericalDistance(), requests,
+				references);
+		assertResults(expected(new CamberraNumericalDistance(), requests, references, 5, false, false),
+				collect(calculator, 5, false, false));
+		assertResults(expected(new CamberraNumericalDistance(), requests, references, 3, true, true),
+				collect(calculator, 3, true, true));
+	}
+
+	@Test
+	public void allPairs() throws OperatorException {
+		ExampleSet requests = createExampleSet(10, 3);
+		ExampleSet references = createExampleSet(20, 4);
+		CrossDistanceCalculator calculator = new CrossDistanceCalculator(new EuclideanDistance(), requests, references);
+		List<double[]> results = collect(calculator, 0, false);
+		assertEquals(200, results.size());
+		for (int i = 0; i < results.size(); i++) {
+			assertEquals(i / 20, results.get(i)[0], 0);
+			assertEquals(i % 20, results.get(i)[1], 0);
+		}
+	}
+
+	@Test
+	public void referenceIndex() throws OperatorException {
+		ExampleSet requests = createExampleSet(100, 5);
+		ExampleSet references = createExampleSet(2000, 6);
+		CrossDistanceCalculator calculator = new CrossDistanceCalculator(new EuclideanDistance(), requests, references);
+		List<double[]> exhaustive = collect(calculator, 10, false);
+		assertTrue(calculator.useReferenceIndex());
+		List<double[]> indexed = collect(calculator, 10, false);
+		assertResults(exhaustive, indexed);
+		assertResults(expected(requests, references, 10, false), indexed);
+	}
+}
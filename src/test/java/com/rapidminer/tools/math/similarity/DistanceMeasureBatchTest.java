@@ -0,0 +1,128 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.similarity;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.rapidminer.tools.math.similarity.numerical.CamberraNumericalDistance;
+import com.rapidminer.tools.math.similarity.numerical.ChebychevNumericalDistance;
+import com.rapidminer.tools.math.similarity.numerical.CorrelationSimilarity;
+import com.rapidminer.tools.math.similarity.numerical.CosineSimilarity;
+import com.rapidminer.tools.math.similarity.numerical.EuclideanDistance;
+import com.rapidminer.tools.math.similarity.numerical.InnerProductSimilarity;
+import com.rapidminer.tools.math.similarity.numerical.ManhattanDistance;
+
+
+/**
+ * Tests that the batch methods of the {@link DistanceMeasure}s return exactly the values of the
+ * pairwise methods.
+ */
+public class DistanceMeasureBatchTest {
+
+	private static final int DIMENSIONS = 7;
+
+	private static double[] createValues(Random random, int rows) {
+		double[] values = new double[rows * DIMENSIONS];
+		for (int i = 0; i < values.length; i++) {
+			double draw = random.nextDouble();
+			if (draw < 0.05) {
+				values[i] = Double.NaN;
+			} else if (draw < 0.1) {
+				values[i] = 0;
+			} else {
+				values[i] = random.nextGaussian() * 10;
+			}
+		}
+		// add a zero row and an equal row to cover the special cases of the measures
+		for (int j = 0; j < DIMENSIONS; j++) {
+			values[j] = 0;
+			values[DIMENSIONS + j] = values[2 * DIMENSIONS + j];
+		}
+		return values;
+	}
+
+	private static double[] row(double[] values, int row) {
+		double[] result = new double[DIMENSIONS];
+		System.arraycopy(values, row * DIMENSIONS, result, 0, DIMENSIONS);
+		return result;
+	}
+
+	private static void assertBatchEqualsPairwise(DistanceMeasure measure) {
+		Random random = new Random(1992);
+		double[] first = createValues(random, 40);
+		double[] second = createValues(random, 30);
+		int firstFrom = 0;
+		int firstTo = 40;
+		int secondFrom = 5;
+		int secondTo = 27;
+		int columns = secondTo - secondFrom;
+		double[] distances = new double[(firstTo - firstFrom) * columns];
+		double[] similarities = new double[distances.length];
+		measure.calculateDistances(first, firstFrom, firstTo, second, secondFrom, secondTo, DIMENSIONS, distances);
+		measure.calculateSimilarities(first, firstFrom, firstTo, second, secondFrom, secondTo, DIMENSIONS, similarities);
+		for (int i = firstFrom; i < firstTo; i++) {
+			for (int j = secondFrom; j < secondTo; j++) {
+				int position = (i - firstFrom) * columns + j - secondFrom;
+				String message = measure + " differs for " + i + ", " + j;
+				assertEquals(message, measure.calculateDistance(row(first, i), row(second, j)), distances[position], 0);
+				assertEquals(message, measure.calculateSimilarity(row(first, i), row(second, j)), similarities[position],
+						0);
+			}
+		}
+	}
+
+	@Test
+	public void euclidean() {
+		assertBatchEqualsPairwise(new EuclideanDistance());
+	}
+
+	@Test
+	public void manhattan() {
+		assertBatchEqualsPairwise(new ManhattanDistance());
+	}
+
+	@Test
+	public void innerProduct() {
+		assertBatchEqualsPairwise(new InnerProductSimilarity());
+	}
+
+	@Test
+	public void cosine() {
+		assertBatchEqualsPairwise(new CosineSimilarity());
+	}
+
+	@Test
+	public void chebychev() {
+		assertBatchEqualsPairwise(new ChebychevNumericalDistance());
+	}
+
+	@Test
+	public void correlation() {
+		assertBatchEqualsPairwise(new CorrelationSimilarity());
+	}
+
+	@Test
+	public void defaultImplementation() {
+		assertBatchEqualsPairwise(new CamberraNumericalDistance());
+	}
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.sketch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+/**
+ * Tests the error bounds of the {@link HyperLogLog}, {@link HeavyHitters} and
+ * {@link QuantileSketch}.
+ *
+ * @since 7.6.1
+ */
+public class SketchTest {
+
+	@Test
+	public void smallCardinalitiesAreAlmostExact() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (int i = 0; i < 100_000; i++) {
+			sketch.offer(i % 100);
+		}
+		assertEquals(100, sketch.estimate(), 1);
+	}
+
+	@Test
+	public void distinctCountWithinThreeStandardErrors() {
+		HyperLogLog sketch = new HyperLogLog();
+		int distinct = 1_000_000;
+		for (int i = 0; i < distinct; i++) {
+			sketch.offer(i * 0.5);
+			sketch.offer(i * 0.5);
+		}
+		assertEquals(distinct, sketch.estimate(), 3 * sketch.getRelativeError() * distinct);
+	}
+
+	@Test
+	public void mergeEqualsUnion() {
+		HyperLogLog first = new HyperLogLog();
+		HyperLogLog second = new HyperLogLog();
+		HyperLogLog union = new HyperLogLog();
+		for (int i = 0; i < 50_000; i++) {
+			first.offer(i);
+			second.offer(i + 25_000);
+			union.offer(i);
+			union.offer(i + 25_000);
+		}
+		first.merge(second);
+		assertEquals(union.estimate(), first.estimate());
+	}
+
+	@Test
+	public void heavyHittersAreExactBelowCapacity() {
+		HeavyHitters sketch = new HeavyHitters(4);
+		for (int i = 0; i < 1000; i++) {
+			sketch.offer(i % 3, i % 3 + 1);
+		}
+		List<HeavyHitters.Counter> top = sketch.getTopValues();
+		assertEquals(3, top.size());
+		assertEquals(2, top.get(0).getValue(), 0);
+		assertEquals(333 * 3, top.get(0).getCount(), 0);
+		assertEquals(0, sketch.getMaximumError(), 0);
+	}
+
+	@Test
+	public void heavyHittersWithinErrorBound() {
+		HeavyHitters sketch = new HeavyHitters(32);
+		Random random = new Random(2001);
+		double[] counts = new double[1000];
+		for (int i = 0; i < 200_000; i++) {
+			// value 0 to 9 are frequent, the rest is noise
+			int value = random.nextBoolean() ? random.nextInt(10) : 10 + random.nextInt(990);
+			counts[value]++;
+			sketch.offer(value, 1);
+		}
+		assertEquals(200_000 / 32d, sketch.getMaximumError(), 0);
+		List<HeavyHitters.Counter> top = sketch.getTopValues();
+		for (HeavyHitters.Counter counter : top.subList(0, 10)) {
+			assertTrue(counter.getValue() < 10);
+		}
+		for (HeavyHitters.Counter counter : top) {
+			double trueCount = counts[(int) counter.getValue()];
+			assertTrue(counter.getCount() >= trueCount);
+			assertTrue(counter.getCount() - counter.getError() <= trueCount);
+			assertTrue(counter.getError() <= sketch.getMaximumError());
+		}
+	}
+
+	@Test
+	public void quantilesAreExactBelowCapacity() {
+		QuantileSketch sketch = new QuantileSketch(100, 2001);
+		for (int i = 100; i > 0; i--) {
+			sketch.offer(i, 1);
+		}
+		sketch.offer(Double.NaN, 1);
+		assertEquals(0, sketch.getRankError(0.95), 0);
+		assertEquals(1, sketch.getQuantile(0), 0);
+		assertEquals(50, sketch.getQuantile(0.5), 0);
+		assertEquals(100, sketch.getQuantile(1), 0);
+	}
+
+	@Test
+	public void weightedQuantilesBelowCapacity() {
+		QuantileSketch sketch = new QuantileSketch(100, 2001);
+		sketch.offer(1, 1);
+		sketch.offer(2, 1);
+		sketch.offer(3, 8);
+		assertEquals(3, sketch.getQuantile(0.5), 0);
+		assertEquals(1, sketch.getQuantile(0.1), 0);
+	}
+
+	@Test
+	public void quantilesWithinRankError() {
+		QuantileSketch sketch = new QuantileSketch(QuantileSketch.DEFAULT_CAPACITY, 2001);
+		int n = 500_000;
+		double[] values = new double[n];
+		Random random = new Random(2001);
+		for (int i = 0; i < n; i++) {
+			values[i] = random.nextGaussian();
+			sketch.offer(values[i], 1);
+		}
+		Arrays.sort(values);
+		double rankError = sketch.getRankError(0.999);
+		assertTrue(rankError > 0);
+		for (double q : new double[] { 0.01, 0.25, 0.5, 0.75, 0.99 }) {
+			double estimate = sketch.getQuantile(q);
+			int rank = Arrays.binarySearch(values, estimate);
+			assertEquals(q, (double) rank / n, rankError);
+		}
+	}
+}